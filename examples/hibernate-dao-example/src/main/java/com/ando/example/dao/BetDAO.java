@@ -44,4 +44,22 @@ public interface BetDAO extends DAO<Bet, Long> {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException;
 
+	/**
+	 * The method {@link #updateScoreByTeamsAndDate(String, String, Date, String)} sets the score of all bets for given
+	 * teams and in a given date, with a single update request.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @param date
+	 *            date
+	 * @param score
+	 *            the final score
+	 * @return number of bets updated
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to update bets in the database.
+	 */
+	int updateScoreByTeamsAndDate(String team1, String team2, Date date, String score) throws DataBaseException;
+
 }
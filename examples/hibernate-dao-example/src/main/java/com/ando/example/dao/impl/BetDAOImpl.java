@@ -6,6 +6,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.dao.impl.HibernateDAO;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.dao.BetDAO;
@@ -56,8 +57,17 @@ public class BetDAOImpl extends HibernateDAO<Bet, Long> implements BetDAO {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException {
 		LOGGER.debug("Starting findBetByBetByTeamsAndDate method...");
-		String query = "from Bet b where b.team1 = ? and b.team2 = ?";
-		return executeResultList(query, team1, team2);
+		return findBySpecification(Specification.eq("team1", team1).and(Specification.eq("team2", team2)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int updateScoreByTeamsAndDate(String team1, String team2, Date date, String score)
+			throws DataBaseException {
+		LOGGER.debug("Starting updateScoreByTeamsAndDate method...");
+		String query = "update Bet b set b.score = ? where b.team1 = ? and b.team2 = ? and b.betDate = ?";
+		return executeUpdate(query, score, team1, team2, date);
 	}
 
 }
@@ -44,4 +44,27 @@ public interface BetDAO extends DAO<Bet, Long> {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException;
 
+	/**
+	 * The method {@link #findBetWithStakes(Long)} loads a bet together with its stakes, in a single query.
+	 * 
+	 * @param id
+	 *            identifier of the bet
+	 * @return the bet with its stakes, <code>null</code> if not found
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load the bet from the database.
+	 */
+	Bet findBetWithStakes(Long id) throws DataBaseException;
+
+	/**
+	 * The method {@link #findBetsWithStakes(String)} loads all bets of a given first team together with their stakes,
+	 * in a single query.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @return list of bets with their stakes
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findBetsWithStakes(String team1) throws DataBaseException;
+
 }
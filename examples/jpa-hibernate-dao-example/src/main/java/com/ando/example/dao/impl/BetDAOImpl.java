@@ -6,6 +6,8 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.FetchPlan;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.dao.impl.JPAHibernateDAO;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.dao.BetDAO;
@@ -24,11 +26,17 @@ public class BetDAOImpl extends JPAHibernateDAO<Bet, Long> implements BetDAO {
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(BetDAOImpl.class);
 
+	/**
+	 * Name of the fetch plan loading a bet with its stakes.
+	 */
+	private static final String STAKES_FETCH_PLAN = "stakes";
+
 	/**
 	 * Default constructor.
 	 */
 	public BetDAOImpl() {
 		super(Bet.class, "betPu");
+		registerFetchPlan(new FetchPlan(STAKES_FETCH_PLAN, "stakes"));
 	}
 
 	/**
@@ -56,8 +64,24 @@ public class BetDAOImpl extends JPAHibernateDAO<Bet, Long> implements BetDAO {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException {
 		LOGGER.debug("Starting findBetByBetByTeamsAndDate method...");
-		String query = "from Bet b where b.team1 = ? and b.team2 = ?";
-		return executeResultList(query, team1, team2);
+		return findBySpecification(Specification.eq("team1", team1).and(Specification.eq("team2", team2)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Bet findBetWithStakes(Long id) throws DataBaseException {
+		LOGGER.debug("Starting findBetWithStakes method...");
+		return findOne(id, STAKES_FETCH_PLAN);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findBetsWithStakes(String team1) throws DataBaseException {
+		LOGGER.debug("Starting findBetsWithStakes method...");
+		String query = "select distinct b from Bet b where b.team1 = ? order by b.id";
+		return executeResultList(getFetchPlan(STAKES_FETCH_PLAN), query, team1);
 	}
 
 }
@@ -2,10 +2,13 @@ package com.ando.example.model;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
 /**
@@ -28,6 +31,7 @@ public class Bet implements Serializable {
 	private String team2;
 	private String score;
 	private Date betDate;
+	private Set<Stake> stakes = new HashSet<Stake>();
 
 	@Id
 	@Column(name = "id")
@@ -75,4 +79,13 @@ public class Bet implements Serializable {
 		this.betDate = betDate;
 	}
 
+	@OneToMany(mappedBy = "bet")
+	public Set<Stake> getStakes() {
+		return stakes;
+	}
+
+	public void setStakes(Set<Stake> stakes) {
+		this.stakes = stakes;
+	}
+
 }
@@ -1,9 +1,12 @@
 package com.ando.example.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.Range;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.model.Bet;
 
@@ -44,4 +47,125 @@ public interface BetDAO extends DAO<Bet, Long> {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException;
 
+	/**
+	 * The method {@link #findBetByTeams(String, String, int, int)} loads a page of the bets for given teams, ordered by
+	 * identifier.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @param offset
+	 *            number of bets to skip
+	 * @param limit
+	 *            maximum number of bets
+	 * @return list of bets
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findBetByTeams(String team1, String team2, int offset, int limit) throws DataBaseException;
+
+	/**
+	 * The method {@link #findBetByTeamsAfter(String, String, Long, int)} loads the bets for given teams following a
+	 * bet, ordered by identifier.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @param after
+	 *            identifier of the last bet of the previous page, null for the first page
+	 * @param limit
+	 *            maximum number of bets
+	 * @return list of bets
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findBetByTeamsAfter(String team1, String team2, Long after, int limit) throws DataBaseException;
+
+	/**
+	 * The method {@link #insertAll(Collection)} inserts bets with multi-row statements.
+	 * 
+	 * @param entities
+	 *            the bets to insert
+	 * @return number of bets inserted
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to insert bets in the database.
+	 */
+	int insertAll(Collection<Bet> entities) throws DataBaseException;
+
+	/**
+	 * The method {@link #saveAll(Collection, int)} saves bets by JDBC batches.
+	 * 
+	 * @param entities
+	 *            the bets to save
+	 * @param batchSize
+	 *            number of bets per batch
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to save bets in the database.
+	 */
+	void saveAll(Collection<Bet> entities, int batchSize) throws DataBaseException;
+
+	/**
+	 * The method {@link #updateAll(Collection, int)} updates bets by JDBC batches.
+	 * 
+	 * @param entities
+	 *            the bets to update
+	 * @param batchSize
+	 *            number of bets per batch
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to update bets in the database.
+	 */
+	void updateAll(Collection<Bet> entities, int batchSize) throws DataBaseException;
+
+	/**
+	 * The method {@link #deleteAll(Collection, int)} deletes bets by JDBC batches.
+	 * 
+	 * @param entities
+	 *            the bets to delete
+	 * @param batchSize
+	 *            number of bets per batch
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to delete bets from the database.
+	 */
+	void deleteAll(Collection<Bet> entities, int batchSize) throws DataBaseException;
+
+	/**
+	 * The method {@link #scrollAll(EntityHandler)} streams all bets to a handler, one at a time.
+	 * 
+	 * @param handler
+	 *            the handler receiving the bets
+	 * @return number of bets handled
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	long scrollAll(EntityHandler<Bet> handler) throws DataBaseException;
+
+	/**
+	 * The method {@link #upsert(Bet)} inserts a bet, or updates it when a bet with the same identifier already exists.
+	 * 
+	 * @param entity
+	 *            the bet to insert or update
+	 * @return the bet
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to write the bet in the database.
+	 */
+	Bet upsert(Bet entity) throws DataBaseException;
+
+	/**
+	 * The method {@link #scrollByRange(Range, int, EntityHandler)} streams the bets of a range to a handler, one at a
+	 * time, ordered by the value the range applies to.
+	 * 
+	 * @param range
+	 *            range of the bets
+	 * @param fetchSize
+	 *            number of rows fetched at a time
+	 * @param handler
+	 *            the handler receiving the bets
+	 * @return number of bets handled
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read bets from the database.
+	 */
+	long scrollByRange(Range range, int fetchSize, EntityHandler<Bet> handler) throws DataBaseException;
+
 }
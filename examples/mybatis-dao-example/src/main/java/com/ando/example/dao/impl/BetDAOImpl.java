@@ -96,11 +96,38 @@ public class BetDAOImpl extends MyBatisDAO<Bet, Long> implements BetDAO {
 	 * {@inheritDoc}
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException {
-		LOGGER.debug("Starting findBetByBetByTeamsAndDate method...");
+		LOGGER.debug("Starting findBetByTeams method...");
+		return executeResultList(getTeamsParams(team1, team2));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findBetByTeams(String team1, String team2, int offset, int limit) throws DataBaseException {
+		LOGGER.debug("Starting findBetByTeams method...");
+		return executeResultList(getTeamsParams(team1, team2), offset, limit);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findBetByTeamsAfter(String team1, String team2, Long after, int limit) throws DataBaseException {
+		LOGGER.debug("Starting findBetByTeamsAfter method...");
+		return executeResultListAfter(getTeamsParams(team1, team2), after, limit);
+	}
+
+	/**
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @return the parameters of a query by teams.
+	 */
+	private static Map<String, Object> getTeamsParams(String team1, String team2) {
 		Map<String, Object> params = new HashMap<String, Object>();
 		params.put(Bet.COLUMN_TEAM1_NAME, team1);
 		params.put(Bet.COLUMN_TEAM2_NAME, team2);
-		return executeResultList(team1, team2);
+		return params;
 	}
 
 }
@@ -5,10 +5,27 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
@@ -16,7 +33,18 @@ import org.slf4j.LoggerFactory;
 import org.unitils.UnitilsJUnit4TestClassRunner;
 import org.unitils.dbunit.annotation.DataSet;
 
+import com.ando.architecture.batch.BatchStatistics;
+import com.ando.architecture.batch.BatchingDAO;
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.CacheSettings;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.exception.DataBaseException;
+import com.ando.architecture.util.CacheStatistics;
+import com.ando.architecture.util.MybatisUtil;
+import com.ando.architecture.util.SessionStatistics;
 import com.ando.example.dao.impl.BetDAOImpl;
 import com.ando.example.model.Bet;
 
@@ -143,6 +171,247 @@ public class BetDAOTest {
 		LOGGER.debug("testing save method ends.");
 	}
 
+	/**
+	 * Method testing upsert behavior for :
+	 * 
+	 * <pre>
+	 * - a bet's not existing entity.
+	 * - a bet's existing entity.
+	 */
+	@Test
+	public void upsert() {
+		LOGGER.debug("starting upsert method...");
+
+		// upsert a not existing bet's entity, then the same entity with a new score
+		try {
+			Bet bet = new Bet();
+			bet.setId(Long.valueOf("1000"));
+			bet.setTeam1("team1");
+			bet.setTeam2("team2");
+			bet.setScore("0-0");
+			bet.setBetDate(new Date());
+			betDAO.upsert(bet);
+			assertNotNull(betDAO.findOne(Long.valueOf("1000")));
+
+			bet.setScore("1-0");
+			betDAO.upsert(bet);
+			bet = betDAO.findOne(Long.valueOf("1000"));
+			assertTrue("score must be 1-0 and not " + bet.getScore(), "1-0".equals(bet.getScore()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to upsert bet entity : " + e.getLocalizedMessage());
+			fail("error occurred when trying to upsert bet entity : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing upsert method ends.");
+	}
+
+	/**
+	 * Method testing insertAll behavior.
+	 */
+	@Test
+	public void insertAll() {
+		LOGGER.debug("starting insertAll method...");
+
+		// inserting 300 bet's entities, sent by groups of 256, 16, 16, 4, 4 and 4 rows
+		try {
+			List<Bet> bets = new ArrayList<Bet>();
+			for (int i = 0; i < 300; i++) {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf(1000 + i));
+				bet.setTeam1("team" + i);
+				bet.setTeam2("team2");
+				bet.setScore("0-0");
+				bet.setBetDate(new Date());
+				bets.add(bet);
+			}
+			int count = betDAO.insertAll(bets);
+			assertTrue("count must be 300 and not " + count, count == 300);
+			assertTrue("list size must be 303", betDAO.getAll().size() == 303);
+			assertNotNull(betDAO.findOne(Long.valueOf("1299")));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing insertAll method ends.");
+	}
+
+	/**
+	 * Method testing saveAll, updateAll and deleteAll behavior.
+	 */
+	@Test
+	public void batchWrites() {
+		LOGGER.debug("starting batchWrites method...");
+
+		// saving, updating then deleting 25 bet's entities by batches of 10
+		try {
+			List<Bet> bets = new ArrayList<Bet>();
+			for (int i = 0; i < 25; i++) {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf(2000 + i));
+				bet.setTeam1("team" + i);
+				bet.setTeam2("team2");
+				bet.setScore("0-0");
+				bet.setBetDate(new Date());
+				bets.add(bet);
+			}
+			betDAO.saveAll(bets, 10);
+			assertTrue("list size must be 28", betDAO.getAll().size() == 28);
+
+			for (Bet bet : bets) {
+				bet.setScore("2-1");
+			}
+			betDAO.updateAll(bets, 10);
+			Bet bet = betDAO.findOne(Long.valueOf("2024"));
+			assertTrue("score must be 2-1 and not " + bet.getScore(), "2-1".equals(bet.getScore()));
+
+			betDAO.deleteAll(bets, 10);
+			assertTrue("list size must be 3", betDAO.getAll().size() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to write bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to write bet entities : " + e.getLocalizedMessage());
+		}
+
+		// updating a not existing bet's entity rolls back the whole batch
+		try {
+			Bet existing = betDAO.findOne(Long.valueOf("1"));
+			existing.setScore("5-5");
+			Bet missing = new Bet();
+			missing.setId(Long.valueOf("9999"));
+			missing.setBetDate(new Date());
+			List<Bet> bets = new ArrayList<Bet>();
+			bets.add(existing);
+			bets.add(missing);
+			betDAO.updateAll(bets, 10);
+			fail("updating a not existing bet's entity must fail");
+		} catch (DataBaseException e) {
+			LOGGER.debug("No bet with identifier 9999 : " + e.getLocalizedMessage());
+			try {
+				assertTrue("score must not be 5-5", !"5-5".equals(betDAO.findOne(Long.valueOf("1")).getScore()));
+			} catch (DataBaseException e1) {
+				fail("error occurred when trying to find bet entity : " + e1.getLocalizedMessage());
+			}
+		}
+
+		LOGGER.debug("testing batchWrites method ends.");
+	}
+
+	/**
+	 * Method testing findOne behavior with a cache, invalidated by update.
+	 */
+	@Test
+	public void findOneWithCache() {
+		LOGGER.debug("starting findOneWithCache method...");
+
+		// reading twice the same bet's entity, then updating it
+		BetDAOImpl betDAOImpl = new BetDAOImpl();
+		betDAOImpl.setCacheSettings(CacheSettings.lru(100).withTimeToLive(60000));
+		CacheStatistics statistics = betDAOImpl.getCacheStatistics();
+		try {
+			Bet bet = betDAOImpl.findOne(Long.valueOf("1"));
+			assertNotNull(bet);
+			assertNotNull(betDAOImpl.findOne(Long.valueOf("1")));
+			assertTrue("hits must be 1 and not " + statistics.getHits(), statistics.getHits() == 1);
+
+			bet.setScore("3-3");
+			betDAOImpl.update(bet);
+			bet = betDAOImpl.findOne(Long.valueOf("1"));
+			assertTrue("score must be 3-3 and not " + bet.getScore(), "3-3".equals(bet.getScore()));
+			assertTrue("misses must be 2 and not " + statistics.getMisses(), statistics.getMisses() == 2);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bet entity : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bet entity : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findOneWithCache method ends. " + statistics);
+	}
+
+	/**
+	 * Method testing that findOne does not cache an entity updated between its read and its put in the cache.
+	 */
+	@Test
+	public void findOneWithCacheAndConcurrentUpdate() {
+		LOGGER.debug("starting findOneWithCacheAndConcurrentUpdate method...");
+
+		final BetDAOImpl betDAOImpl = new BetDAOImpl();
+		betDAOImpl.setCacheSettings(CacheSettings.lru(100).withTimeToLive(60000));
+		CacheStatistics statistics = betDAOImpl.getCacheStatistics();
+		try {
+			final Bet updated = betDAO.findOne(Long.valueOf("1"));
+			updated.setScore("4-4");
+
+			// the bet is updated once read from the database, before being put in the cache
+			AfterQueryInterceptor.register();
+			AfterQueryInterceptor.runAfterNextQuery(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						betDAOImpl.update(updated);
+					} catch (DataBaseException e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			});
+			Bet bet = betDAOImpl.findOne(Long.valueOf("1"));
+			assertTrue("score must be 0-0 and not " + bet.getScore(), "0-0".equals(bet.getScore()));
+
+			bet = betDAOImpl.findOne(Long.valueOf("1"));
+			assertTrue("score must be 4-4 and not " + bet.getScore(), "4-4".equals(bet.getScore()));
+			assertTrue("hits must be 0 and not " + statistics.getHits(), statistics.getHits() == 0);
+			assertTrue("misses must be 2 and not " + statistics.getMisses(), statistics.getMisses() == 2);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bet entity : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bet entity : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findOneWithCacheAndConcurrentUpdate method ends. " + statistics);
+	}
+
+	/**
+	 * Method testing the managed session behavior for :
+	 * 
+	 * <pre>
+	 * - actions sharing the session of the thread.
+	 * - a rollback of the session.
+	 * - a commit of the session.
+	 */
+	@Test
+	public void managedSession() {
+		LOGGER.debug("starting managedSession method...");
+
+		SessionStatistics statistics = MybatisUtil.getStatistics();
+		long managedSessions = statistics.getManagedSessionsOpened();
+
+		// saving a bet's entity, visible in the session, then rolled back
+		try {
+			MybatisUtil.startManagedSession();
+			try {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf("3000"));
+				bet.setBetDate(new Date());
+				betDAO.save(bet);
+				assertNotNull(betDAO.findOne(Long.valueOf("3000")));
+				MybatisUtil.rollbackManagedSession();
+				assertNull(betDAO.findOne(Long.valueOf("3000")));
+
+				betDAO.save(bet);
+				MybatisUtil.commitManagedSession();
+			} finally {
+				MybatisUtil.closeManagedSession();
+			}
+			assertTrue("managed session must be closed", !MybatisUtil.isManagedSessionStarted());
+			assertNotNull(betDAO.findOne(Long.valueOf("3000")));
+			assertTrue("one managed session must have been opened",
+					statistics.getManagedSessionsOpened() == managedSessions + 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to use a managed session : " + e.getLocalizedMessage());
+			fail("error occurred when trying to use a managed session : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing managedSession method ends. " + statistics);
+	}
+
 	/**
 	 * Method testing update behavior for :
 	 * 
@@ -234,6 +503,64 @@ public class BetDAOTest {
 		LOGGER.debug("testing delete method ends.");
 	}
 
+	/**
+	 * Method testing scrollAll behavior.
+	 */
+	@Test
+	public void scrollAll() {
+		LOGGER.debug("starting scrollAll method...");
+
+		// streaming all entities
+		try {
+			final List<Bet> bets = new ArrayList<Bet>();
+			long count = betDAO.scrollAll(new EntityHandler<Bet>() {
+
+				@Override
+				public void handle(Bet entity) throws DataBaseException {
+					bets.add(entity);
+				}
+			});
+			assertTrue("count must be 3 and not " + count, count == 3);
+			assertTrue("list size must be 3 and not " + bets.size(), bets.size() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to stream all bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to stream all bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing scrollAll method ends.");
+	}
+
+	/**
+	 * Method testing scrollAll behavior with the streaming fetch size of MySQL, {@link Integer#MIN_VALUE}, which must
+	 * be handed to the driver as is: H2 rejects it when the statement is prepared, other drivers stream the rows.
+	 */
+	@Test
+	public void scrollAllWithStreamingFetchSize() {
+		LOGGER.debug("starting scrollAllWithStreamingFetchSize method...");
+
+		try {
+			long count = new BetDAOImpl().scrollAll(Integer.MIN_VALUE, new EntityHandler<Bet>() {
+
+				@Override
+				public void handle(Bet entity) throws DataBaseException {
+					assertNotNull(entity);
+				}
+			});
+			assertTrue("count must be 3 and not " + count, count == 3);
+		} catch (IllegalArgumentException e) {
+			LOGGER.error("the fetch size has not been passed to the driver : " + e.getLocalizedMessage());
+			fail("the fetch size has not been passed to the driver : " + e.getLocalizedMessage());
+		} catch (DataBaseException e) {
+			boolean rejectedByDriver = false;
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				rejectedByDriver |= cause instanceof SQLException;
+			}
+			assertTrue("the fetch size must reach the driver : " + e.getLocalizedMessage(), rejectedByDriver);
+		}
+
+		LOGGER.debug("testing scrollAllWithStreamingFetchSize method ends.");
+	}
+
 	/**
 	 * Method testing getAll behavior.
 	 */
@@ -324,6 +651,353 @@ public class BetDAOTest {
 			fail("error occurred when trying to find bet by teams : " + e.getLocalizedMessage());
 		}
 
+		// getting bets of other teams
+		try {
+			List<Bet> bets = betDAO.findBetByTeams("team3", "team4");
+			assertTrue("list must be empty and not of size " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bet by teams : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bet by teams : " + e.getLocalizedMessage());
+		}
+
 		LOGGER.debug("testing findBetByTeams method ends.");
 	}
+
+	/**
+	 * Method testing findBetByTeams by pages, with an offset and with a keyset.
+	 */
+	@Test
+	public void findBetByTeamsByPage() {
+		LOGGER.debug("Starting findBetByTeamsByPage method...");
+
+		// getting the second page of 2 bets, by offset then after the last bet of the first page
+		try {
+			List<Bet> bets = betDAO.findBetByTeams("team1", "team2", 2, 2);
+			assertTrue("list size must be 1 and not " + bets.size(), bets.size() == 1);
+			assertTrue("identifier must be 3", bets.get(0).getId().longValue() == 3);
+
+			bets = betDAO.findBetByTeamsAfter("team1", "team2", null, 2);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			bets = betDAO.findBetByTeamsAfter("team1", "team2", bets.get(1).getId(), 2);
+			assertTrue("list size must be 1 and not " + bets.size(), bets.size() == 1);
+			assertTrue("identifier must be 3", bets.get(0).getId().longValue() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bet by teams : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bet by teams : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findBetByTeamsByPage method ends.");
+	}
+
+	/**
+	 * Method testing aggregate behavior for :
+	 * 
+	 * <pre>
+	 * - a grouping with functions.
+	 * - no grouping.
+	 */
+	@Test
+	public void aggregate() {
+		LOGGER.debug("Starting aggregate method...");
+
+		Calendar date = Calendar.getInstance();
+
+		// counting bets and bet dates by team
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy("team1").count().min("betdate")
+					.max("betdate"));
+			assertNotNull(rows);
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			AggregateRow row = rows.get(0);
+			assertTrue("team must be team1 and not " + row.get(0), "team1".equals(row.get(0)));
+			assertTrue("count must be 3 and not " + row.getLong(1), row.getLong(1) == 3);
+			date.set(2013, 11, 18, 12, 0, 0);
+			date.set(Calendar.MILLISECOND, 0);
+			assertTrue("first date must be " + date.getTime() + " and not " + row.get(2),
+					row.get(2, Date.class).getTime() == date.getTimeInMillis());
+			date.set(2013, 11, 19, 12, 0, 0);
+			assertTrue("last date must be " + date.getTime() + " and not " + row.get(3),
+					row.get(3, Date.class).getTime() == date.getTimeInMillis());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+		}
+
+		// counting all bets
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy().count());
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			assertTrue("count must be 3 and not " + rows.get(0).getLong(0), rows.get(0).getLong(0) == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to count bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to count bets : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing aggregate method ends.");
+	}
+
+	/**
+	 * Method testing the batching of concurrent findOne calls for :
+	 * 
+	 * <pre>
+	 * - existing bets.
+	 * - a missing bet.
+	 */
+	@Test
+	public void batchingFindOne() {
+		LOGGER.debug("Starting batchingFindOne method...");
+
+		// the batch is full, and loaded at once, when the fourth call joins it
+		final BatchingDAO<Bet, Long> batchingDAO = new BatchingDAO<Bet, Long>(betDAO, "id", 10000, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		// getting bets from concurrent threads
+		try {
+			List<Future<Bet>> bets = new ArrayList<Future<Bet>>();
+			for (long id = 1; id <= 4; id++) {
+				final Long betId = Long.valueOf(id);
+				bets.add(executor.submit(new Callable<Bet>() {
+
+					@Override
+					public Bet call() throws DataBaseException {
+						return batchingDAO.findOne(betId);
+					}
+				}));
+			}
+			for (int i = 0; i < 3; i++) {
+				Bet bet = bets.get(i).get();
+				assertNotNull(bet);
+				assertTrue("bet id must be " + (i + 1) + " and not " + bet.getId(), bet.getId().longValue() == i + 1);
+			}
+			assertNull(bets.get(3).get());
+		} catch (Exception e) {
+			LOGGER.error("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+		} finally {
+			executor.shutdown();
+		}
+
+		BatchStatistics statistics = batchingDAO.getStatistics();
+		assertTrue("requests must be 4 and not " + statistics.getRequests(), statistics.getRequests() == 4);
+		assertTrue("batches must be 1 and not " + statistics.getBatches(), statistics.getBatches() == 1);
+
+		LOGGER.debug("testing batchingFindOne method ends.");
+	}
+
+	/**
+	 * Method testing findBySpecification behavior for :
+	 * 
+	 * <pre>
+	 * - a conjunction, in descending order.
+	 * - a disjunction, ordered and limited.
+	 * - a specification of the same shape, matching no bet.
+	 * - a null value.
+	 */
+	@Test
+	public void findBySpecification() {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		Calendar from = Calendar.getInstance();
+		from.set(2013, 11, 19, 0, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a team among identifiers, in descending order
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team1")
+					.and(Specification.in("id", Arrays.asList(1L, 3L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 3 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 3);
+			assertTrue("bet id must be 1 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets from a date or of an identifier, ordered and limited
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.range("betdate", from.getTime(), null)
+					.or(Specification.eq("id", 1L)).orderBy("betdate").orderByDesc("id").limit(2));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+			assertTrue("bet id must be 3 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of another team, with the shape of the first specification
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team3")
+					.and(Specification.in("id", Arrays.asList(2L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets without score
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("score", null));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findBySpecification method ends.");
+	}
+
+	/**
+	 * Method testing findByRange behavior for :
+	 * 
+	 * <pre>
+	 * - a range excluding its upper bound.
+	 * - a range read page by page.
+	 * - an empty range.
+	 */
+	@Test
+	public void findByRange() {
+		LOGGER.debug("Starting findByRange method...");
+
+		Calendar from = Calendar.getInstance();
+		Calendar to = Calendar.getInstance();
+		from.set(2013, 11, 18, 12, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+		to.set(2013, 11, 19, 12, 0, 0);
+		to.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a range excluding its upper bound
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betdate", from.getTime(), to.getTime()), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 1 and not " + bets.size(), bets.size() == 1);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of a range page by page, the bets 2 and 3 having the same date
+		to.add(Calendar.DAY_OF_MONTH, 1);
+		try {
+			Range range = Range.of("betdate", from.getTime(), to.getTime());
+			StringBuilder ids = new StringBuilder();
+			List<Bet> bets = betDAO.findByRange(range, 1);
+			while (!bets.isEmpty()) {
+				Bet last = bets.get(bets.size() - 1);
+				ids.append(last.getId());
+				range = range.after(last.getBetDate(), last.getId());
+				bets = betDAO.findByRange(range, 1);
+			}
+			assertTrue("bet ids must be 123 and not " + ids, "123".equals(ids.toString()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting an empty range
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betdate", to.getTime(), null), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findByRange method ends.");
+	}
+
+	/**
+	 * Method testing scrollByRange behavior.
+	 */
+	@Test
+	public void scrollByRange() {
+		LOGGER.debug("starting scrollByRange method...");
+
+		Calendar from = Calendar.getInstance();
+		from.set(2013, 11, 19, 0, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+
+		// streaming the bets from a date
+		try {
+			final StringBuilder ids = new StringBuilder();
+			long count = betDAO.scrollByRange(Range.of("betdate", from.getTime(), null), 2, new EntityHandler<Bet>() {
+
+				@Override
+				public void handle(Bet entity) throws DataBaseException {
+					ids.append(entity.getId());
+				}
+			});
+			assertTrue("count must be 2 and not " + count, count == 2);
+			assertTrue("bet ids must be 23 and not " + ids, "23".equals(ids.toString()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to stream bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to stream bets by range : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing scrollByRange method ends.");
+	}
+
+	/**
+	 * MyBatis plugin running an action once the next query of the current thread has been executed, to interleave a
+	 * write between a read and its use.
+	 */
+	@Intercepts(@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+			RowBounds.class, ResultHandler.class }))
+	public static class AfterQueryInterceptor implements Interceptor {
+
+		/**
+		 * Action to run after the next query of the current thread.
+		 */
+		private static final ThreadLocal<Runnable> AFTER_QUERY = new ThreadLocal<Runnable>();
+
+		/**
+		 * True once the plugin is registered in the MyBatis configuration.
+		 */
+		private static boolean registered;
+
+		/**
+		 * Registers the plugin in the MyBatis configuration, once.
+		 */
+		public static synchronized void register() {
+			if (!registered) {
+				MybatisUtil.getConfiguration().addInterceptor(new AfterQueryInterceptor());
+				registered = true;
+			}
+		}
+
+		/**
+		 * @param action
+		 *            the action to run after the next query of the current thread.
+		 */
+		public static void runAfterNextQuery(Runnable action) {
+			AFTER_QUERY.set(action);
+		}
+
+		@Override
+		public Object intercept(Invocation invocation) throws Throwable {
+			Object result = invocation.proceed();
+			Runnable action = AFTER_QUERY.get();
+			if (action != null) {
+				AFTER_QUERY.remove();
+				action.run();
+			}
+			return result;
+		}
+
+		@Override
+		public Object plugin(Object target) {
+			return Plugin.wrap(target, this);
+		}
+
+		@Override
+		public void setProperties(Properties properties) {
+
+		}
+	}
 }
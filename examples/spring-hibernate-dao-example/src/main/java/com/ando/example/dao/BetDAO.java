@@ -4,6 +4,8 @@ import java.util.Date;
 import java.util.List;
 
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.Range;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.model.Bet;
 
@@ -44,4 +46,69 @@ public interface BetDAO extends DAO<Bet, Long> {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException;
 
+	/**
+	 * The method {@link #findBetByTeams(String, String, int, int)} loads a page of the bets for given teams, ordered by
+	 * date.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @param firstResult
+	 *            position of the first bet to load, starting at 0
+	 * @param maxResults
+	 *            maximum number of bets to load
+	 * @return list of bets
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findBetByTeams(String team1, String team2, int firstResult, int maxResults) throws DataBaseException;
+
+	/**
+	 * The method {@link #countBetByTeams(String, String)} counts the bets for given teams.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @return number of bets
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to count bets in the database.
+	 */
+	long countBetByTeams(String team1, String team2) throws DataBaseException;
+
+	/**
+	 * The method {@link #updateScoreByTeamsAndDate(String, String, Date, String)} sets the score of all bets for given
+	 * teams and in a given date, with a single update request.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @param date
+	 *            date
+	 * @param score
+	 *            the final score
+	 * @return number of bets updated
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to update bets in the database.
+	 */
+	int updateScoreByTeamsAndDate(String team1, String team2, Date date, String score) throws DataBaseException;
+
+	/**
+	 * The method {@link #scrollByRange(Range, int, EntityHandler)} streams the bets of a range to a handler, one at a
+	 * time, ordered by the value the range applies to.
+	 * 
+	 * @param range
+	 *            range of the bets
+	 * @param fetchSize
+	 *            number of rows fetched at a time
+	 * @param handler
+	 *            the handler receiving the bets
+	 * @return number of bets handled
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read bets from the database.
+	 */
+	long scrollByRange(Range range, int fetchSize, EntityHandler<Bet> handler) throws DataBaseException;
+
 }
@@ -3,9 +3,13 @@ package com.ando.example.dao.impl;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.dao.impl.HibernateDAO;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.dao.BetDAO;
@@ -56,8 +60,49 @@ public class BetDAOImpl extends HibernateDAO<Bet, Long> implements BetDAO {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException {
 		LOGGER.debug("Starting findBetByBetByTeamsAndDate method...");
-		String query = "from Bet b where b.team1 = ? and b.team2 = ?";
-		return executeResultList(query, team1, team2);
+		return findBySpecification(Specification.eq("team1", team1).and(Specification.eq("team2", team2)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findBetByTeams(String team1, String team2, int firstResult, int maxResults)
+			throws DataBaseException {
+		LOGGER.debug("Starting findBetByTeams method...");
+		return findByCriteria(byTeams(team1, team2), firstResult, maxResults);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long countBetByTeams(String team1, String team2) throws DataBaseException {
+		LOGGER.debug("Starting countBetByTeams method...");
+		return countByCriteria(byTeams(team1, team2));
+	}
+
+	/**
+	 * Builds the criteria selecting the bets for given teams, ordered by date then id; the same criteria is used for
+	 * the count, which ignores its orders.
+	 * 
+	 * @param team1
+	 *            first team
+	 * @param team2
+	 *            second team
+	 * @return the criteria
+	 */
+	private DetachedCriteria byTeams(String team1, String team2) {
+		return DetachedCriteria.forClass(Bet.class).add(Restrictions.eq("team1", team1))
+				.add(Restrictions.eq("team2", team2)).addOrder(Order.asc("betDate")).addOrder(Order.asc("id"));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int updateScoreByTeamsAndDate(String team1, String team2, Date date, String score)
+			throws DataBaseException {
+		LOGGER.debug("Starting updateScoreByTeamsAndDate method...");
+		String query = "update Bet b set b.score = ? where b.team1 = ? and b.team2 = ? and b.betDate = ?";
+		return executeUpdate(query, score, team1, team2, date);
 	}
 
 }
@@ -1,9 +1,12 @@
 package com.ando.example.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.Range;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.model.Bet;
 
@@ -44,4 +47,74 @@ public interface BetDAO extends DAO<Bet, Long> {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException;
 
+	/**
+	 * The method {@link #insertAll(Collection)} inserts bets with multi-row statements.
+	 * 
+	 * @param entities
+	 *            the bets to insert
+	 * @return number of bets inserted
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to insert bets in the database.
+	 */
+	int insertAll(Collection<Bet> entities) throws DataBaseException;
+
+	/**
+	 * The method {@link #upsert(Bet)} inserts a bet, or updates it when a bet with the same identifier already exists.
+	 * 
+	 * @param entity
+	 *            the bet to insert or update
+	 * @return the bet
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to write the bet in the database.
+	 */
+	Bet upsert(Bet entity) throws DataBaseException;
+
+	/**
+	 * The method {@link #findAllTeams()} loads all bets with only their identifier and teams.
+	 * 
+	 * @return list of bets, without score and date
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findAllTeams() throws DataBaseException;
+
+	/**
+	 * The method {@link #scrollAll(int, EntityHandler)} streams all bets to a handler, one at a time.
+	 * 
+	 * @param fetchSize
+	 *            number of rows fetched at a time
+	 * @param handler
+	 *            the handler receiving the bets
+	 * @return number of bets handled
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read bets from the database.
+	 */
+	long scrollAll(int fetchSize, EntityHandler<Bet> handler) throws DataBaseException;
+
+	/**
+	 * The method {@link #findLatestBets(int)} loads the most recent bets.
+	 * 
+	 * @param count
+	 *            maximum number of bets to load
+	 * @return list of bets, the most recent first
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load bets from the database.
+	 */
+	List<Bet> findLatestBets(int count) throws DataBaseException;
+
+	/**
+	 * The method {@link #scrollByRange(Range, int, EntityHandler)} streams the bets of a range to a handler, one at a
+	 * time, ordered by the value the range applies to.
+	 * 
+	 * @param range
+	 *            range of the bets
+	 * @param fetchSize
+	 *            number of rows fetched at a time
+	 * @param handler
+	 *            the handler receiving the bets
+	 * @return number of bets handled
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read bets from the database.
+	 */
+	long scrollByRange(Range range, int fetchSize, EntityHandler<Bet> handler) throws DataBaseException;
 }
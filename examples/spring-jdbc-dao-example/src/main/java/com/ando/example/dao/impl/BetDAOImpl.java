@@ -1,14 +1,14 @@
 package com.ando.example.dao.impl;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Date;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.jdbc.core.RowMapper;
 
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.dao.impl.SpringJdbcDAO;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.example.dao.BetDAO;
@@ -33,6 +33,11 @@ public class BetDAOImpl extends SpringJdbcDAO<Bet, Long> implements BetDAO {
 	private static final String[] columnNames = { Bet.COLUMN_TEAM1_NAME, Bet.COLUMN_TEAM2_NAME, Bet.COLUMN_SCORE_NAME,
 			Bet.COLUMN_DATE_NAME };
 
+	/**
+	 * Entity column types, in the order of the column names.
+	 */
+	private static final int[] columnTypes = { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP };
+
 	/**
 	 * Default constructor.
 	 */
@@ -83,20 +88,17 @@ public class BetDAOImpl extends SpringJdbcDAO<Bet, Long> implements BetDAO {
 	/**
 	 * {@inheritDoc}
 	 */
-	public RowMapper<Bet> getRowMapper() {
-		return new RowMapper<Bet>() {
-
-			@Override
-			public Bet mapRow(ResultSet rs, int rowNum) throws SQLException {
-				Bet bet = new Bet();
-				bet.setId(rs.getLong(Bet.COLUMN_ID_NAME));
-				bet.setScore(rs.getString(Bet.COLUMN_SCORE_NAME));
-				bet.setTeam1(rs.getString(Bet.COLUMN_TEAM1_NAME));
-				bet.setTeam2(rs.getString(Bet.COLUMN_TEAM2_NAME));
-				bet.setBetDate(rs.getDate(Bet.COLUMN_DATE_NAME));
-				return bet;
-			}
-		};
+	@Override
+	protected int[] getColumnTypes() {
+		return columnTypes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int getColumnIdType() {
+		return Types.BIGINT;
 	}
 
 	/**
@@ -113,8 +115,24 @@ public class BetDAOImpl extends SpringJdbcDAO<Bet, Long> implements BetDAO {
 	 */
 	public List<Bet> findBetByTeams(String team1, String team2) throws DataBaseException {
 		LOGGER.debug("Starting findBetByBetByTeamsAndDate method...");
-		String query = "select * from Bet b where b.team1 = ? and b.team2 = ?";
-		return executeResultList(query, team1, team2);
+		return findBySpecification(Specification.eq(Bet.COLUMN_TEAM1_NAME, team1).and(
+				Specification.eq(Bet.COLUMN_TEAM2_NAME, team2)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findAllTeams() throws DataBaseException {
+		LOGGER.debug("Starting findAllTeams method...");
+		return findAll(getRowMapper(), Bet.COLUMN_ID_NAME, Bet.COLUMN_TEAM1_NAME, Bet.COLUMN_TEAM2_NAME);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Bet> findLatestBets(int count) throws DataBaseException {
+		LOGGER.debug("Starting findLatestBets method...");
+		String query = "select * from Bet b order by b.betdate desc";
+		return executeResultList(QueryOptions.NONE.withMaxRows(count).withFetchSize(count), query);
+	}
 }
@@ -1,13 +1,31 @@
 package com.ando.example.dao;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,12 +34,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 
+import com.ando.architecture.batch.BatchStatistics;
+import com.ando.architecture.batch.BatchingDAO;
+import com.ando.architecture.bulk.BulkImporter;
+import com.ando.architecture.bulk.CsvFormat;
+import com.ando.architecture.bulk.ImportProgress;
+import com.ando.architecture.bulk.ImportRecord;
+import com.ando.architecture.bulk.InsertAllBatchWriter;
+import com.ando.architecture.bulk.RecordParser;
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.exception.DataBaseException;
+import com.ando.architecture.id.BlockIdAllocator;
+import com.ando.example.dao.impl.BetDAOImpl;
 import com.ando.example.model.Bet;
 import com.ando.example.util.CleanInsertTestExecutionListener;
 import com.ando.example.util.DataSetLocation;
@@ -226,6 +261,257 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing save method ends.");
 	}
 
+	/**
+	 * Method timing the inserts of a compiled {@link SimpleJdbcInsert} shared by all the rows, as save does, against a
+	 * {@link SimpleJdbcInsert} built for each row, as save did before. The timings are logged, not asserted.
+	 */
+	@Test
+	public void saveTiming() {
+		LOGGER.debug("starting saveTiming method...");
+
+		DataSource dataSource = context.getBean(DataSource.class);
+		String[] columns = { Bet.COLUMN_ID_NAME, Bet.COLUMN_TEAM1_NAME, Bet.COLUMN_TEAM2_NAME, Bet.COLUMN_SCORE_NAME,
+				Bet.COLUMN_DATE_NAME };
+		int rows = 500;
+
+		// an insert built, and so compiled from the table metadata, for each row
+		long start = System.nanoTime();
+		for (int i = 0; i < rows; i++) {
+			new SimpleJdbcInsert(dataSource).withTableName(Bet.TABLE_NAME).usingColumns(columns)
+					.execute(getInsertParameters(1000 + i));
+		}
+		long perRow = System.nanoTime() - start;
+
+		// a single insert compiled once and shared by all the rows
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(dataSource).withTableName(Bet.TABLE_NAME).usingColumns(columns);
+		start = System.nanoTime();
+		for (int i = 0; i < rows; i++) {
+			insert.execute(getInsertParameters(2000 + i));
+		}
+		long shared = System.nanoTime() - start;
+
+		LOGGER.info(rows + " inserts : " + TimeUnit.NANOSECONDS.toMillis(perRow) + " ms with an insert per row, "
+				+ TimeUnit.NANOSECONDS.toMillis(shared) + " ms with a shared insert.");
+		try {
+			assertTrue("list size must be " + (3 + 2 * rows), betDAO.getAll().size() == 3 + 2 * rows);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to get all bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to get all bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing saveTiming method ends.");
+	}
+
+	/**
+	 * Method testing upsert behavior for :
+	 * 
+	 * <pre>
+	 * - a bet's not existing entity.
+	 * - a bet's existing entity.
+	 */
+	@Test
+	public void upsert() {
+		LOGGER.debug("starting upsert method...");
+
+		// upsert a not existing bet's entity, then the same entity with a new score
+		try {
+			Bet bet = new Bet();
+			bet.setId(Long.valueOf("1000"));
+			bet.setTeam1("team1");
+			bet.setTeam2("team2");
+			bet.setScore("0-0");
+			bet.setBetDate(new Date());
+			betDAO.upsert(bet);
+			assertNotNull(betDAO.findOne(Long.valueOf("1000")));
+
+			bet.setScore("1-0");
+			betDAO.upsert(bet);
+			bet = betDAO.findOne(Long.valueOf("1000"));
+			assertTrue("score must be 1-0 and not " + bet.getScore(), "1-0".equals(bet.getScore()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to upsert bet entity : " + e.getLocalizedMessage());
+			fail("error occurred when trying to upsert bet entity : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing upsert method ends.");
+	}
+
+	/**
+	 * Method testing save behavior with identifiers allocated by block on the client side.
+	 */
+	@Test
+	public void saveWithIdAllocator() {
+		LOGGER.debug("starting saveWithIdAllocator method...");
+
+		// saving 3 bet's entities with identifiers reserved by blocks of 2, from 2000
+		BetDAOImpl betDAOImpl = context.getBean(BetDAOImpl.class);
+		final AtomicLong nextBlock = new AtomicLong(2000);
+		betDAOImpl.setIdAllocator(new BlockIdAllocator(2) {
+
+			@Override
+			protected long reserveBlock(int size) {
+				return nextBlock.getAndAdd(size);
+			}
+		});
+		try {
+			for (int i = 0; i < 3; i++) {
+				Bet bet = new Bet();
+				bet.setBetDate(new Date());
+				bet = betDAO.save(bet);
+				assertTrue("identifier must be " + (2000 + i) + " and not " + bet.getId(),
+						bet.getId().longValue() == 2000 + i);
+			}
+			assertNotNull(betDAO.findOne(Long.valueOf("2002")));
+			assertTrue("next block must start at 2004", nextBlock.get() == 2004);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to save bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to save bet entities : " + e.getLocalizedMessage());
+		} finally {
+			betDAOImpl.setIdAllocator(null);
+		}
+
+		LOGGER.debug("testing saveWithIdAllocator method ends.");
+	}
+
+	/**
+	 * Method testing insertAll behavior.
+	 */
+	@Test
+	public void insertAll() {
+		LOGGER.debug("starting insertAll method...");
+
+		// inserting 300 bet's entities, sent by groups of 256, 16, 16, 4, 4 and 4 rows
+		try {
+			List<Bet> bets = new ArrayList<Bet>();
+			for (int i = 0; i < 300; i++) {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf(1000 + i));
+				bet.setTeam1("team" + i);
+				bet.setTeam2("team2");
+				bet.setScore("0-0");
+				bet.setBetDate(new Date());
+				bets.add(bet);
+			}
+			int count = betDAO.insertAll(bets);
+			assertTrue("count must be 300 and not " + count, count == 300);
+			assertTrue("list size must be 303", betDAO.getAll().size() == 303);
+			assertNotNull(betDAO.findOne(Long.valueOf("1299")));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing insertAll method ends.");
+	}
+
+	/**
+	 * Method timing insertAll, which sends multi-row inserts, against a JDBC batch of single-row inserts. The timings
+	 * are logged, not asserted.
+	 */
+	@Test
+	public void insertAllTiming() {
+		LOGGER.debug("starting insertAllTiming method...");
+
+		int rows = 2000;
+		try {
+
+			// multi-row inserts
+			List<Bet> bets = new ArrayList<Bet>();
+			for (int i = 0; i < rows; i++) {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf(1000 + i));
+				bet.setTeam1("team" + i);
+				bet.setTeam2("team2");
+				bet.setScore("0-0");
+				bet.setBetDate(new Date());
+				bets.add(bet);
+			}
+			long start = System.nanoTime();
+			betDAO.insertAll(bets);
+			long multiRow = System.nanoTime() - start;
+
+			// a JDBC batch of single-row inserts
+			List<Object[]> batch = new ArrayList<Object[]>();
+			for (int i = 0; i < rows; i++) {
+				batch.add(new Object[] { Long.valueOf(10000 + i), "team" + i, "team2", "0-0", new Date() });
+			}
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+			String insert = "insert into bet (id, team1, team2, score, betdate) values (?, ?, ?, ?, ?)";
+			start = System.nanoTime();
+			jdbcTemplate.batchUpdate(insert, batch);
+			long batchUpdate = System.nanoTime() - start;
+
+			LOGGER.info(rows + " rows : " + TimeUnit.NANOSECONDS.toMillis(multiRow) + " ms with insertAll, "
+					+ TimeUnit.NANOSECONDS.toMillis(batchUpdate) + " ms with batchUpdate.");
+			assertTrue("list size must be " + (3 + 2 * rows), betDAO.getAll().size() == 3 + 2 * rows);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to insert bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing insertAllTiming method ends.");
+	}
+
+	/**
+	 * Method testing the bulk import of a CSV file.
+	 */
+	@Test
+	public void importFile() {
+		LOGGER.debug("starting importFile method...");
+
+		// importing 250 bet's entities from a CSV file with a header, by batches of 100
+		File file = null;
+		try {
+			file = File.createTempFile("bets", ".csv");
+			Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+			try {
+				writer.write("id,team1,team2,score,betdate\r\n");
+				for (int i = 0; i < 250; i++) {
+					writer.write((3000 + i) + ",\"team, " + i + "\",team2,1-0,2013-12-01 20:45:00\r\n");
+				}
+			} finally {
+				writer.close();
+			}
+
+			BulkImporter<Bet> importer = new BulkImporter<Bet>(new CsvFormat(',', true), new RecordParser<Bet>() {
+
+				@Override
+				public Bet parse(ImportRecord record) {
+					Bet bet = new Bet();
+					bet.setId(Long.valueOf(record.getLong(0)));
+					bet.setTeam1(record.getString(1));
+					bet.setTeam2(record.getString(2));
+					bet.setScore(record.getString(3));
+					bet.setBetDate(record.getDate(4));
+					return bet;
+				}
+			}, new InsertAllBatchWriter<Bet>(context.getBean(BetDAOImpl.class)));
+			importer.setBatchSize(100);
+			ImportProgress progress = importer.importFile(file);
+
+			assertTrue("records written must be 250 and not " + progress.getRecordsWritten(),
+					progress.getRecordsWritten() == 250);
+			assertTrue("batches written must be 3 and not " + progress.getBatchesWritten(),
+					progress.getBatchesWritten() == 3);
+			assertTrue("list size must be 253", betDAO.getAll().size() == 253);
+			Bet bet = betDAO.findOne(Long.valueOf("3249"));
+			assertNotNull(bet);
+			assertTrue("team1 must be 'team, 249' and not " + bet.getTeam1(), "team, 249".equals(bet.getTeam1()));
+		} catch (IOException e) {
+			LOGGER.error("error occurred when trying to write the CSV file : " + e.getLocalizedMessage());
+			fail("error occurred when trying to write the CSV file : " + e.getLocalizedMessage());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to import bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to import bet entities : " + e.getLocalizedMessage());
+		} finally {
+			if (file != null) {
+				file.delete();
+			}
+		}
+
+		LOGGER.debug("testing importFile method ends.");
+	}
+
 	/**
 	 * Method testing update behavior for :
 	 * 
@@ -317,6 +603,77 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing delete method ends.");
 	}
 
+	/**
+	 * Method testing findAllTeams behavior.
+	 */
+	@Test
+	public void findAllTeams() {
+		LOGGER.debug("starting findAllTeams method...");
+
+		// getting the teams of all entities
+		try {
+			List<Bet> bets = betDAO.findAllTeams();
+			assertNotNull(bets);
+			assertTrue("list size must be 3 and not " + bets.size(), bets.size() == 3);
+			assertNotNull(bets.get(0).getTeam1());
+			assertNull(bets.get(0).getScore());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to get the teams of all bet entities : "
+					+ e.getLocalizedMessage());
+			fail("error occurred when trying to get the teams of all bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findAllTeams method ends.");
+	}
+
+	/**
+	 * Method testing findLatestBets behavior.
+	 */
+	@Test
+	public void findLatestBets() {
+		LOGGER.debug("starting findLatestBets method...");
+
+		// getting the two most recent entities
+		try {
+			List<Bet> bets = betDAO.findLatestBets(2);
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertFalse(bets.get(0).getBetDate().before(bets.get(1).getBetDate()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to get the latest bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to get the latest bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findLatestBets method ends.");
+	}
+
+	/**
+	 * Method testing scrollAll behavior.
+	 */
+	@Test
+	public void scrollAll() {
+		LOGGER.debug("starting scrollAll method...");
+
+		// streaming all entities
+		try {
+			final List<Bet> bets = new ArrayList<Bet>();
+			long count = betDAO.scrollAll(2, new EntityHandler<Bet>() {
+
+				@Override
+				public void handle(Bet entity) throws DataBaseException {
+					bets.add(entity);
+				}
+			});
+			assertTrue("count must be 3 and not " + count, count == 3);
+			assertTrue("list size must be 3 and not " + bets.size(), bets.size() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to stream all bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to stream all bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing scrollAll method ends.");
+	}
+
 	/**
 	 * Method testing getAll behavior.
 	 */
@@ -337,4 +694,273 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing getAll method ends.");
 	}
 
+	/**
+	 * Method testing aggregate behavior for :
+	 * 
+	 * <pre>
+	 * - a grouping with functions.
+	 * - no grouping.
+	 */
+	@Test
+	public void aggregate() {
+		LOGGER.debug("Starting aggregate method...");
+
+		Calendar date = Calendar.getInstance();
+
+		// counting bets and bet dates by team
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy("team1").count().min("betdate")
+					.max("betdate"));
+			assertNotNull(rows);
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			AggregateRow row = rows.get(0);
+			assertTrue("team must be team1 and not " + row.get(0), "team1".equals(row.get(0)));
+			assertTrue("count must be 3 and not " + row.getLong(1), row.getLong(1) == 3);
+			date.set(2013, 11, 18, 12, 0, 0);
+			date.set(Calendar.MILLISECOND, 0);
+			assertTrue("first date must be " + date.getTime() + " and not " + row.get(2),
+					row.get(2, Date.class).getTime() == date.getTimeInMillis());
+			date.set(2013, 11, 19, 12, 0, 0);
+			assertTrue("last date must be " + date.getTime() + " and not " + row.get(3),
+					row.get(3, Date.class).getTime() == date.getTimeInMillis());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+		}
+
+		// counting all bets
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy().count());
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			assertTrue("count must be 3 and not " + rows.get(0).getLong(0), rows.get(0).getLong(0) == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to count bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to count bets : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing aggregate method ends.");
+	}
+
+	/**
+	 * Method testing the batching of concurrent findOne calls for :
+	 * 
+	 * <pre>
+	 * - existing bets.
+	 * - a missing bet.
+	 */
+	@Test
+	public void batchingFindOne() {
+		LOGGER.debug("Starting batchingFindOne method...");
+
+		// the batch is full, and loaded at once, when the fourth call joins it
+		final BatchingDAO<Bet, Long> batchingDAO = new BatchingDAO<Bet, Long>(betDAO, "id", 10000, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		// getting bets from concurrent threads
+		try {
+			List<Future<Bet>> bets = new ArrayList<Future<Bet>>();
+			for (long id = 1; id <= 4; id++) {
+				final Long betId = Long.valueOf(id);
+				bets.add(executor.submit(new Callable<Bet>() {
+
+					@Override
+					public Bet call() throws DataBaseException {
+						return batchingDAO.findOne(betId);
+					}
+				}));
+			}
+			for (int i = 0; i < 3; i++) {
+				Bet bet = bets.get(i).get();
+				assertNotNull(bet);
+				assertTrue("bet id must be " + (i + 1) + " and not " + bet.getId(), bet.getId().longValue() == i + 1);
+			}
+			assertNull(bets.get(3).get());
+		} catch (Exception e) {
+			LOGGER.error("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+		} finally {
+			executor.shutdown();
+		}
+
+		BatchStatistics statistics = batchingDAO.getStatistics();
+		assertTrue("requests must be 4 and not " + statistics.getRequests(), statistics.getRequests() == 4);
+		assertTrue("batches must be 1 and not " + statistics.getBatches(), statistics.getBatches() == 1);
+
+		LOGGER.debug("testing batchingFindOne method ends.");
+	}
+
+	/**
+	 * Method testing findBySpecification behavior for :
+	 * 
+	 * <pre>
+	 * - a conjunction, in descending order.
+	 * - a disjunction, ordered and limited.
+	 * - a specification of the same shape, matching no bet.
+	 * - a null value.
+	 */
+	@Test
+	public void findBySpecification() {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		Calendar from = Calendar.getInstance();
+		from.set(2013, 11, 19, 0, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a team among identifiers, in descending order
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team1")
+					.and(Specification.in("id", Arrays.asList(1L, 3L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 3 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 3);
+			assertTrue("bet id must be 1 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets from a date or of an identifier, ordered and limited
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.range("betdate", from.getTime(), null)
+					.or(Specification.eq("id", 1L)).orderBy("betdate").orderByDesc("id").limit(2));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+			assertTrue("bet id must be 3 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of another team, with the shape of the first specification
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team3")
+					.and(Specification.in("id", Arrays.asList(2L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets without score
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("score", null));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findBySpecification method ends.");
+	}
+
+	/**
+	 * Method testing findByRange behavior for :
+	 * 
+	 * <pre>
+	 * - a range excluding its upper bound.
+	 * - a range read page by page.
+	 * - an empty range.
+	 */
+	@Test
+	public void findByRange() {
+		LOGGER.debug("Starting findByRange method...");
+
+		Calendar from = Calendar.getInstance();
+		Calendar to = Calendar.getInstance();
+		from.set(2013, 11, 18, 12, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+		to.set(2013, 11, 19, 12, 0, 0);
+		to.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a range excluding its upper bound
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betdate", from.getTime(), to.getTime()), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 1 and not " + bets.size(), bets.size() == 1);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of a range page by page, the bets 2 and 3 having the same date
+		to.add(Calendar.DAY_OF_MONTH, 1);
+		try {
+			Range range = Range.of("betdate", from.getTime(), to.getTime());
+			StringBuilder ids = new StringBuilder();
+			List<Bet> bets = betDAO.findByRange(range, 1);
+			while (!bets.isEmpty()) {
+				Bet last = bets.get(bets.size() - 1);
+				ids.append(last.getId());
+				range = range.after(last.getBetDate(), last.getId());
+				bets = betDAO.findByRange(range, 1);
+			}
+			assertTrue("bet ids must be 123 and not " + ids, "123".equals(ids.toString()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting an empty range
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betdate", to.getTime(), null), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findByRange method ends.");
+	}
+
+	/**
+	 * Method testing scrollByRange behavior.
+	 */
+	@Test
+	public void scrollByRange() {
+		LOGGER.debug("starting scrollByRange method...");
+
+		Calendar from = Calendar.getInstance();
+		from.set(2013, 11, 19, 0, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+
+		// streaming the bets from a date
+		try {
+			final StringBuilder ids = new StringBuilder();
+			long count = betDAO.scrollByRange(Range.of("betdate", from.getTime(), null), 2, new EntityHandler<Bet>() {
+
+				@Override
+				public void handle(Bet entity) throws DataBaseException {
+					ids.append(entity.getId());
+				}
+			});
+			assertTrue("count must be 2 and not " + count, count == 2);
+			assertTrue("bet ids must be 23 and not " + ids, "23".equals(ids.toString()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to stream bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to stream bets by range : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing scrollByRange method ends.");
+	}
+
+	/**
+	 * @param id
+	 *            identifier of the bet.
+	 * @return the parameters of the insert of a bet.
+	 */
+	private Map<String, Object> getInsertParameters(long id) {
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put(Bet.COLUMN_ID_NAME, Long.valueOf(id));
+		parameters.put(Bet.COLUMN_TEAM1_NAME, "team" + id);
+		parameters.put(Bet.COLUMN_TEAM2_NAME, "team2");
+		parameters.put(Bet.COLUMN_SCORE_NAME, "0-0");
+		parameters.put(Bet.COLUMN_DATE_NAME, new Date());
+		return parameters;
+	}
+
 }
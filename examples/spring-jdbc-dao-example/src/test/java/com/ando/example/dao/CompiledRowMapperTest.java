@@ -0,0 +1,218 @@
+package com.ando.example.dao;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.ando.architecture.dao.CompiledRowMapper;
+
+/**
+ * Tests of the {@link CompiledRowMapper} on a local H2 database.
+ */
+public class CompiledRowMapperTest {
+
+	/**
+	 * {@link CompiledRowMapperTest}'s default logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompiledRowMapperTest.class);
+
+	/**
+	 * database.
+	 */
+	private JdbcTemplate database;
+
+	/**
+	 * mapper of the tickets.
+	 */
+	private CompiledRowMapper<Ticket> mapper;
+
+	/**
+	 * Creates the database holding three tickets, the last one without quantity.
+	 */
+	@Before
+	public void setUp() {
+		database = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:mapper;DB_CLOSE_DELAY=-1", "sa", ""));
+		database.execute("create table ticket (id bigint primary key, label varchar(255), quantity int)");
+		database.update("insert into ticket (id, label, quantity) values (1, 'first', 10)");
+		database.update("insert into ticket (id, label, quantity) values (2, 'second', 20)");
+		database.update("insert into ticket (id, label, quantity) values (3, null, null)");
+		mapper = CompiledRowMapper.forColumns(Ticket.class, "id", "label", "quantity");
+	}
+
+	/**
+	 * Drops the database.
+	 */
+	@After
+	public void tearDown() {
+		database.execute("drop all objects");
+	}
+
+	/**
+	 * Method testing the mapping of all the columns, a null column of a primitive property keeping its default value.
+	 */
+	@Test
+	public void mapAllColumns() {
+		LOGGER.debug("starting mapAllColumns method...");
+
+		List<Ticket> tickets = database.query("select id, label, quantity from ticket order by id", mapper.copy());
+		assertTrue("list size must be 3 and not " + tickets.size(), tickets.size() == 3);
+		assertTrue("id must be 2", tickets.get(1).getId().longValue() == 2);
+		assertTrue("label must be second", "second".equals(tickets.get(1).getLabel()));
+		assertTrue("quantity must be 20", tickets.get(1).getQuantity() == 20);
+		assertNull(tickets.get(2).getLabel());
+		assertTrue("quantity must keep its default value", tickets.get(2).getQuantity() == Ticket.DEFAULT_QUANTITY);
+
+		LOGGER.debug("testing mapAllColumns method ends.");
+	}
+
+	/**
+	 * Method testing the mapping of a subset of the columns, the other properties keeping their default value.
+	 */
+	@Test
+	public void mapSomeColumns() {
+		LOGGER.debug("starting mapSomeColumns method...");
+
+		List<Ticket> tickets = database.query("select id from ticket order by id", mapper.copy());
+		assertTrue("list size must be 3 and not " + tickets.size(), tickets.size() == 3);
+		for (Ticket ticket : tickets) {
+			assertTrue("label must keep its default value", Ticket.DEFAULT_LABEL.equals(ticket.getLabel()));
+			assertTrue("quantity must keep its default value", ticket.getQuantity() == Ticket.DEFAULT_QUANTITY);
+		}
+
+		tickets = database.query("select quantity, id from ticket order by id", mapper.copy());
+		assertTrue("quantity must be 10", tickets.get(0).getQuantity() == 10);
+		assertTrue("id must be 1", tickets.get(0).getId().longValue() == 1);
+		assertTrue("label must keep its default value", Ticket.DEFAULT_LABEL.equals(tickets.get(0).getLabel()));
+
+		LOGGER.debug("testing mapSomeColumns method ends.");
+	}
+
+	/**
+	 * Method testing that the column indexes are resolved once per result set, when the rows of two queries with
+	 * different columns are mapped alternately.
+	 */
+	@Test
+	public void resolveIndexesOncePerResultSet() throws SQLException {
+		LOGGER.debug("starting resolveIndexesOncePerResultSet method...");
+
+		Connection connection = database.getDataSource().getConnection();
+		try {
+			Statement labels = connection.createStatement();
+			Statement quantities = connection.createStatement();
+			int[] labelMetaData = new int[1];
+			int[] quantityMetaData = new int[1];
+			ResultSet labelRows = countMetaData(labels.executeQuery("select id, label from ticket order by id"),
+					labelMetaData);
+			ResultSet quantityRows = countMetaData(
+					quantities.executeQuery("select quantity, id from ticket order by id"), quantityMetaData);
+
+			CompiledRowMapper<Ticket> labelMapper = mapper.copy();
+			CompiledRowMapper<Ticket> quantityMapper = mapper.copy();
+			for (int row = 0; labelRows.next() && quantityRows.next(); row++) {
+				Ticket labelTicket = labelMapper.mapRow(labelRows, row);
+				Ticket quantityTicket = quantityMapper.mapRow(quantityRows, row);
+				assertTrue("ids must be equal", labelTicket.getId().equals(quantityTicket.getId()));
+				assertTrue("quantity must keep its default value",
+						labelTicket.getQuantity() == Ticket.DEFAULT_QUANTITY);
+				assertTrue("label must keep its default value",
+						Ticket.DEFAULT_LABEL.equals(quantityTicket.getLabel()));
+			}
+			assertTrue("metadata must be read once and not " + labelMetaData[0], labelMetaData[0] == 1);
+			assertTrue("metadata must be read once and not " + quantityMetaData[0], quantityMetaData[0] == 1);
+
+			labels.close();
+			quantities.close();
+		} finally {
+			connection.close();
+		}
+
+		LOGGER.debug("testing resolveIndexesOncePerResultSet method ends.");
+	}
+
+	/**
+	 * @param rs
+	 *            a result set.
+	 * @param count
+	 *            the counter of the reads of the metadata.
+	 * @return the result set, counting the reads of its metadata.
+	 */
+	private static ResultSet countMetaData(final ResultSet rs, final int[] count) {
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if ("getMetaData".equals(method.getName())) {
+							count[0]++;
+						}
+						try {
+							return method.invoke(rs, args);
+						} catch (InvocationTargetException e) {
+							throw e.getTargetException();
+						}
+					}
+				});
+	}
+
+	/**
+	 * Bean mapped by the tests, whose properties have default values.
+	 */
+	public static class Ticket {
+
+		/**
+		 * default label.
+		 */
+		public static final String DEFAULT_LABEL = "none";
+
+		/**
+		 * default quantity.
+		 */
+		public static final int DEFAULT_QUANTITY = 1;
+
+		private Long id;
+		private String label = DEFAULT_LABEL;
+		private int quantity = DEFAULT_QUANTITY;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public void setLabel(String label) {
+			this.label = label;
+		}
+
+		public int getQuantity() {
+			return quantity;
+		}
+
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.ando.example.dao;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.ando.architecture.datasource.DataSourceRoutingContext;
+import com.ando.architecture.datasource.ReadWriteRoutingDataSource;
+import com.ando.architecture.exception.DataBaseException;
+import com.ando.example.dao.impl.BetDAOImpl;
+import com.ando.example.model.Bet;
+
+/**
+ * Tests of the routing of the bet DAO between two local H2 databases, a primary and a replica. Both databases hold a
+ * bet with identifier 1 whose first team is the name of the database, so that a read tells which database served it.
+ */
+public class ReadWriteRoutingTest {
+
+	/**
+	 * {@link ReadWriteRoutingTest}'s default logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReadWriteRoutingTest.class);
+
+	/**
+	 * Read your writes window, in milliseconds.
+	 */
+	private static final long READ_YOUR_WRITES_WINDOW = 500;
+
+	/**
+	 * primary database.
+	 */
+	private JdbcTemplate primary;
+
+	/**
+	 * replica database.
+	 */
+	private JdbcTemplate replica;
+
+	/**
+	 * routing data source.
+	 */
+	private ReadWriteRoutingDataSource routingDataSource;
+
+	/**
+	 * betDAO attribute.
+	 */
+	private BetDAO betDAO;
+
+	/**
+	 * Creates the primary and the replica, and the bet DAO routed between them.
+	 */
+	@Before
+	public void setUp() {
+		primary = createDatabase("primary");
+		replica = createDatabase("replica");
+
+		routingDataSource = new ReadWriteRoutingDataSource();
+		routingDataSource.setPrimary(primary.getDataSource());
+		routingDataSource.setReplicas(Arrays.asList(replica.getDataSource()));
+		routingDataSource.setReadYourWritesWindow(READ_YOUR_WRITES_WINDOW);
+		routingDataSource.afterPropertiesSet();
+
+		BetDAOImpl betDAOImpl = new BetDAOImpl();
+		betDAOImpl.setDataSource(routingDataSource);
+		betDAO = betDAOImpl;
+		DataSourceRoutingContext.clear();
+	}
+
+	/**
+	 * Drops the databases.
+	 */
+	@After
+	public void tearDown() {
+		DataSourceRoutingContext.clear();
+		primary.execute("drop all objects");
+		replica.execute("drop all objects");
+	}
+
+	/**
+	 * Method testing that the reads are sent to the replica.
+	 */
+	@Test
+	public void readFromReplica() {
+		LOGGER.debug("starting readFromReplica method...");
+
+		try {
+			Bet bet = betDAO.findOne(Long.valueOf("1"));
+			assertNotNull(bet);
+			assertTrue("bet must be read from replica and not " + bet.getTeam1(), "replica".equals(bet.getTeam1()));
+			assertTrue("list size must be 1", betDAO.getAll().size() == 1);
+			assertTrue("replica must be used",
+					getLookupCount(ReadWriteRoutingDataSource.REPLICA_KEY_PREFIX + 0) >= 2);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to read bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to read bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing readFromReplica method ends.");
+	}
+
+	/**
+	 * Method testing that the writes are sent to the primary.
+	 */
+	@Test
+	public void writeToPrimary() {
+		LOGGER.debug("starting writeToPrimary method...");
+
+		try {
+			Bet bet = betDAO.findOne(Long.valueOf("1"));
+			bet.setScore("1-0");
+			betDAO.update(bet);
+			betDAO.save(createBet(Long.valueOf("2")));
+
+			assertTrue("score must be 1-0 on primary", "1-0".equals(primary.queryForObject(
+					"select score from bet where id = 1", String.class)));
+			assertTrue("score must be 0-0 on replica", "0-0".equals(replica.queryForObject(
+					"select score from bet where id = 1", String.class)));
+			assertTrue("bet 2 must be saved on primary",
+					primary.queryForObject("select count(*) from bet where id = 2", Integer.class) == 1);
+			assertTrue("bet 2 must not be saved on replica",
+					replica.queryForObject("select count(*) from bet where id = 2", Integer.class) == 0);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to write bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to write bet entities : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing writeToPrimary method ends.");
+	}
+
+	/**
+	 * Method testing that the reads following a write are sent to the primary during the read your writes window, then
+	 * to the replica again.
+	 */
+	@Test
+	public void readYourWrites() {
+		LOGGER.debug("starting readYourWrites method...");
+
+		try {
+			betDAO.save(createBet(Long.valueOf("2")));
+
+			// within the window, the bet saved is read from the primary
+			assertNotNull(betDAO.findOne(Long.valueOf("2")));
+			Bet bet = betDAO.findOne(Long.valueOf("1"));
+			assertTrue("bet must be read from primary and not " + bet.getTeam1(), "primary".equals(bet.getTeam1()));
+			long readYourWritesCount = routingDataSource.getReadYourWritesCount();
+			assertTrue("reads after the write must be at least 2 and not " + readYourWritesCount,
+					readYourWritesCount >= 2);
+
+			// once the window has elapsed, the reads are sent to the replica again
+			Thread.sleep(READ_YOUR_WRITES_WINDOW + 100);
+			assertNull(betDAO.findOne(Long.valueOf("2")));
+			bet = betDAO.findOne(Long.valueOf("1"));
+			assertTrue("bet must be read from replica and not " + bet.getTeam1(), "replica".equals(bet.getTeam1()));
+			assertTrue("reads after the write must be " + readYourWritesCount + " and not "
+					+ routingDataSource.getReadYourWritesCount(),
+					routingDataSource.getReadYourWritesCount() == readYourWritesCount);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to read bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to read bet entities : " + e.getLocalizedMessage());
+		} catch (InterruptedException e) {
+			LOGGER.error("interrupted while waiting for the window : " + e.getLocalizedMessage());
+			fail("interrupted while waiting for the window : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing readYourWrites method ends.");
+	}
+
+	/**
+	 * @param name
+	 *            name of the database.
+	 * @return a template on a new in-memory H2 database holding a bet whose first team is the name of the database.
+	 */
+	private JdbcTemplate createDatabase(String name) {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.execute("create table bet (id bigint primary key, team1 varchar(255), team2 varchar(255),"
+				+ " score varchar(255), betdate timestamp)");
+		template.update("insert into bet (id, team1, team2, score, betdate) values (1, ?, 'team2', '0-0', ?)", name,
+				new Date());
+		return template;
+	}
+
+	/**
+	 * @param id
+	 *            identifier of the bet.
+	 * @return a new bet.
+	 */
+	private Bet createBet(Long id) {
+		Bet bet = new Bet();
+		bet.setId(id);
+		bet.setTeam1("team1");
+		bet.setTeam2("team2");
+		bet.setScore("0-0");
+		bet.setBetDate(new Date());
+		return bet;
+	}
+
+	/**
+	 * @param key
+	 *            lookup key of a target data source.
+	 * @return the number of connections taken from the target.
+	 */
+	private long getLookupCount(String key) {
+		return routingDataSource.getLookupCounts().get(key).longValue();
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.ando.example.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+/**
+ * Stake entity mapping stake table: an amount played on a bet.
+ *
+ * @author Zied ANDOLSI
+ *
+ */
+@Entity
+@Table(name = "stake")
+public class Stake implements Serializable {
+
+	/**
+	 * serial version of class.
+	 */
+	private static final long serialVersionUID = 3104562289184467251L;
+
+	private Long id;
+	private Integer amount;
+	private Bet bet;
+
+	@Id
+	@Column(name = "id")
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Column(name = "amount")
+	public Integer getAmount() {
+		return amount;
+	}
+
+	public void setAmount(Integer amount) {
+		this.amount = amount;
+	}
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "bet_id")
+	public Bet getBet() {
+		return bet;
+	}
+
+	public void setBet(Bet bet) {
+		this.bet = bet;
+	}
+
+}
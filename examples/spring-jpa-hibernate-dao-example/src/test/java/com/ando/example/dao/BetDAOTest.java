@@ -5,10 +5,20 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
@@ -21,7 +31,14 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 
+import com.ando.architecture.batch.BatchStatistics;
+import com.ando.architecture.batch.BatchingDAO;
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.exception.DataBaseException;
+import com.ando.example.dao.impl.BetDAOImpl;
 import com.ando.example.model.Bet;
 import com.ando.example.util.CleanInsertTestExecutionListener;
 import com.ando.example.util.DataSetLocation;
@@ -176,6 +193,53 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing findOne method ends.");
 	}
 
+	/**
+	 * Method testing the fetch plans for :
+	 * 
+	 * <pre>
+	 * - a bet loaded with its stakes by identifier.
+	 * - the bets of a team loaded with their stakes.
+	 */
+	@Test
+	public void findWithFetchPlan() {
+		LOGGER.debug("starting findWithFetchPlan method...");
+
+		// the stakes are read after the entity manager is closed, so that they must have been fetched by the query
+		Statistics statistics = getStatistics();
+		statistics.setStatisticsEnabled(true);
+		try {
+
+			// getting a bet with its stakes
+			statistics.clear();
+			Bet bet = betDAO.findBetWithStakes(Long.valueOf("2"));
+			assertNotNull(bet);
+			assertTrue("statements must be 1 and not " + statistics.getPrepareStatementCount(),
+					statistics.getPrepareStatementCount() == 1);
+			assertTrue("stakes must be 2 and not " + bet.getStakes().size(), bet.getStakes().size() == 2);
+
+			// getting the bets of a team with their stakes
+			statistics.clear();
+			List<Bet> bets = betDAO.findBetsWithStakes("team1");
+			assertTrue("statements must be 1 and not " + statistics.getPrepareStatementCount(),
+					statistics.getPrepareStatementCount() == 1);
+			assertTrue("list size must be 3 and not " + bets.size(), bets.size() == 3);
+			int[] stakes = { 0, 2, 1 };
+			for (int i = 0; i < stakes.length; i++) {
+				assertTrue("stakes of bet " + bets.get(i).getId() + " must be " + stakes[i] + " and not "
+						+ bets.get(i).getStakes().size(), bets.get(i).getStakes().size() == stakes[i]);
+			}
+
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to get bet entities with their stakes : "
+					+ e.getLocalizedMessage());
+			fail("error occurred when trying to get bet entities with their stakes : " + e.getLocalizedMessage());
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+
+		LOGGER.debug("testing findWithFetchPlan method ends.");
+	}
+
 	/**
 	 * Method testing save behavior for :
 	 * 
@@ -226,6 +290,108 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing save method ends.");
 	}
 
+	/**
+	 * Method testing saveAll behavior for :
+	 * 
+	 * <pre>
+	 * - bet's entities saved by several batches.
+	 * - a null entity.
+	 */
+	@Test
+	public void saveAll() {
+		LOGGER.debug("starting saveAll method...");
+
+		BetDAOImpl betDAOImpl = context.getBean(BetDAOImpl.class);
+		Statistics statistics = getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		// saving 25 bet's entities by batches of 10, the persistence context being flushed 3 times
+		try {
+			List<Bet> bets = new ArrayList<Bet>();
+			for (int i = 0; i < 25; i++) {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf(1000 + i));
+				bet.setTeam1("team" + i);
+				bet.setTeam2("team2");
+				bet.setScore("0-0");
+				bet.setBetDate(new Date());
+				bets.add(bet);
+			}
+			statistics.clear();
+			betDAOImpl.saveAll(bets, 10);
+			assertTrue("inserts must be 25 and not " + statistics.getEntityInsertCount(),
+					statistics.getEntityInsertCount() == 25);
+			assertTrue("flushes must be at least 3 and not " + statistics.getFlushCount(),
+					statistics.getFlushCount() >= 3);
+			assertTrue("list size must be 28", betDAO.getAll().size() == 28);
+			assertNotNull(betDAO.findOne(Long.valueOf("1024")));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to save bet entities : " + e.getLocalizedMessage());
+			fail("error occurred when trying to save bet entities : " + e.getLocalizedMessage());
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+
+		// saving a null entity
+		try {
+			betDAOImpl.saveAll(Arrays.asList(new Bet[] { null }), 10);
+			fail("must throw exception before this line");
+		} catch (DataBaseException e) {
+			LOGGER.debug("Entity must not be null : " + e.getLocalizedMessage());
+			assertTrue("Entity must not be null", true);
+		}
+
+		LOGGER.debug("testing saveAll method ends.");
+	}
+
+	/**
+	 * Method testing save behavior when the flush is deferred to the commit for :
+	 * 
+	 * <pre>
+	 * - a bet's not existing entity.
+	 * - a bet's existing entity, the error being reported by the commit.
+	 */
+	@Test
+	public void saveWithDeferredFlush() {
+		LOGGER.debug("starting saveWithDeferredFlush method...");
+
+		BetDAOImpl betDAOImpl = context.getBean(BetDAOImpl.class);
+		betDAOImpl.setFlushOnSave(false);
+		try {
+
+			// save a not existing bet's entity, inserted by the commit
+			try {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf("1000"));
+				bet.setBetDate(new Date());
+				betDAO.save(bet);
+				assertNotNull(betDAO.findOne(Long.valueOf("1000")));
+			} catch (DataBaseException e) {
+				LOGGER.error("error occurred when trying to save bet entity : " + e.getLocalizedMessage());
+				fail("error occurred when trying to save bet entity " + e.getLocalizedMessage());
+			}
+
+			// save an existing bet's entity, the save itself succeeding
+			try {
+				Bet bet = new Bet();
+				bet.setId(Long.valueOf("1"));
+				betDAO.save(bet);
+				fail("must throw exception before this line");
+			} catch (DataBaseException e) {
+				LOGGER.error("the error must be reported by the commit : " + e.getLocalizedMessage());
+				fail("the error must be reported by the commit : " + e.getLocalizedMessage());
+			} catch (RuntimeException e) {
+				LOGGER.info("bet entity with identifier [ " + Long.valueOf("1") + " ] already exists.");
+				assertTrue("bet entity with identifier [ " + Long.valueOf("1") + " ] already exists.", true);
+			}
+
+		} finally {
+			betDAOImpl.setFlushOnSave(true);
+		}
+
+		LOGGER.debug("testing saveWithDeferredFlush method ends.");
+	}
+
 	/**
 	 * Method testing update behavior for :
 	 * 
@@ -337,4 +503,235 @@ public class BetDAOTest implements InitializingBean {
 		LOGGER.debug("testing getAll method ends.");
 	}
 
+	/**
+	 * Method testing aggregate behavior for :
+	 * 
+	 * <pre>
+	 * - a grouping with functions.
+	 * - no grouping.
+	 */
+	@Test
+	public void aggregate() {
+		LOGGER.debug("Starting aggregate method...");
+
+		Calendar date = Calendar.getInstance();
+
+		// counting bets and bet dates by team
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy("team1").count().min("betDate")
+					.max("betDate"));
+			assertNotNull(rows);
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			AggregateRow row = rows.get(0);
+			assertTrue("team must be team1 and not " + row.get(0), "team1".equals(row.get(0)));
+			assertTrue("count must be 3 and not " + row.getLong(1), row.getLong(1) == 3);
+			date.set(2013, 11, 18, 12, 0, 0);
+			date.set(Calendar.MILLISECOND, 0);
+			assertTrue("first date must be " + date.getTime() + " and not " + row.get(2),
+					row.get(2, Date.class).getTime() == date.getTimeInMillis());
+			date.set(2013, 11, 19, 12, 0, 0);
+			assertTrue("last date must be " + date.getTime() + " and not " + row.get(3),
+					row.get(3, Date.class).getTime() == date.getTimeInMillis());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to aggregate bets : " + e.getLocalizedMessage());
+		}
+
+		// counting all bets
+		try {
+			List<AggregateRow> rows = betDAO.aggregate(Aggregation.groupBy().count());
+			assertTrue("rows must be 1 and not " + rows.size(), rows.size() == 1);
+			assertTrue("count must be 3 and not " + rows.get(0).getLong(0), rows.get(0).getLong(0) == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to count bets : " + e.getLocalizedMessage());
+			fail("error occurred when trying to count bets : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing aggregate method ends.");
+	}
+
+	/**
+	 * Method testing the batching of concurrent findOne calls for :
+	 * 
+	 * <pre>
+	 * - existing bets.
+	 * - a missing bet.
+	 */
+	@Test
+	public void batchingFindOne() {
+		LOGGER.debug("Starting batchingFindOne method...");
+
+		// the batch is full, and loaded at once, when the fourth call joins it
+		final BatchingDAO<Bet, Long> batchingDAO = new BatchingDAO<Bet, Long>(betDAO, "id", 10000, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		// getting bets from concurrent threads
+		try {
+			List<Future<Bet>> bets = new ArrayList<Future<Bet>>();
+			for (long id = 1; id <= 4; id++) {
+				final Long betId = Long.valueOf(id);
+				bets.add(executor.submit(new Callable<Bet>() {
+
+					@Override
+					public Bet call() throws DataBaseException {
+						return batchingDAO.findOne(betId);
+					}
+				}));
+			}
+			for (int i = 0; i < 3; i++) {
+				Bet bet = bets.get(i).get();
+				assertNotNull(bet);
+				assertTrue("bet id must be " + (i + 1) + " and not " + bet.getId(), bet.getId().longValue() == i + 1);
+			}
+			assertNull(bets.get(3).get());
+		} catch (Exception e) {
+			LOGGER.error("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by batch : " + e.getLocalizedMessage());
+		} finally {
+			executor.shutdown();
+		}
+
+		BatchStatistics statistics = batchingDAO.getStatistics();
+		assertTrue("requests must be 4 and not " + statistics.getRequests(), statistics.getRequests() == 4);
+		assertTrue("batches must be 1 and not " + statistics.getBatches(), statistics.getBatches() == 1);
+
+		LOGGER.debug("testing batchingFindOne method ends.");
+	}
+
+	/**
+	 * Method testing findBySpecification behavior for :
+	 * 
+	 * <pre>
+	 * - a conjunction, in descending order.
+	 * - a disjunction, ordered and limited.
+	 * - a specification of the same shape, matching no bet.
+	 * - a null value.
+	 */
+	@Test
+	public void findBySpecification() {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		Calendar from = Calendar.getInstance();
+		from.set(2013, 11, 19, 0, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a team among identifiers, in descending order
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team1")
+					.and(Specification.in("id", Arrays.asList(1L, 3L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 3 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 3);
+			assertTrue("bet id must be 1 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets from a date or of an identifier, ordered and limited
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.range("betDate", from.getTime(), null)
+					.or(Specification.eq("id", 1L)).orderBy("betDate").orderByDesc("id").limit(2));
+			assertNotNull(bets);
+			assertTrue("list size must be 2 and not " + bets.size(), bets.size() == 2);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+			assertTrue("bet id must be 3 and not " + bets.get(1).getId(), bets.get(1).getId().longValue() == 3);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of another team, with the shape of the first specification
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("team1", "team3")
+					.and(Specification.in("id", Arrays.asList(2L))).orderByDesc("id"));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets without score
+		try {
+			List<Bet> bets = betDAO.findBySpecification(Specification.eq("score", null));
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by specification : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findBySpecification method ends.");
+	}
+
+	/**
+	 * Method testing findByRange behavior for :
+	 * 
+	 * <pre>
+	 * - a range excluding its upper bound.
+	 * - a range read page by page.
+	 * - an empty range.
+	 */
+	@Test
+	public void findByRange() {
+		LOGGER.debug("Starting findByRange method...");
+
+		Calendar from = Calendar.getInstance();
+		Calendar to = Calendar.getInstance();
+		from.set(2013, 11, 18, 12, 0, 0);
+		from.set(Calendar.MILLISECOND, 0);
+		to.set(2013, 11, 19, 12, 0, 0);
+		to.set(Calendar.MILLISECOND, 0);
+
+		// getting the bets of a range excluding its upper bound
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betDate", from.getTime(), to.getTime()), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 1 and not " + bets.size(), bets.size() == 1);
+			assertTrue("bet id must be 1 and not " + bets.get(0).getId(), bets.get(0).getId().longValue() == 1);
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting the bets of a range page by page, the bets 2 and 3 having the same date
+		to.add(Calendar.DAY_OF_MONTH, 1);
+		try {
+			Range range = Range.of("betDate", from.getTime(), to.getTime());
+			StringBuilder ids = new StringBuilder();
+			List<Bet> bets = betDAO.findByRange(range, 1);
+			while (!bets.isEmpty()) {
+				Bet last = bets.get(bets.size() - 1);
+				ids.append(last.getId());
+				range = range.after(last.getBetDate(), last.getId());
+				bets = betDAO.findByRange(range, 1);
+			}
+			assertTrue("bet ids must be 123 and not " + ids, "123".equals(ids.toString()));
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		// getting an empty range
+		try {
+			List<Bet> bets = betDAO.findByRange(Range.of("betDate", to.getTime(), null), 10);
+			assertNotNull(bets);
+			assertTrue("list size must be 0 and not " + bets.size(), bets.isEmpty());
+		} catch (DataBaseException e) {
+			LOGGER.error("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+			fail("error occurred when trying to find bets by range : " + e.getLocalizedMessage());
+		}
+
+		LOGGER.debug("testing findByRange method ends.");
+	}
+
+	/**
+	 * @return the statistics of the session factory of the persistence unit.
+	 */
+	private Statistics getStatistics() {
+		EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+		return ((HibernateEntityManagerFactory) emf).getSessionFactory().getStatistics();
+	}
+
 }
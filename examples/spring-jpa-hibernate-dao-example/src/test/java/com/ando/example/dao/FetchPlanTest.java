@@ -0,0 +1,115 @@
+package com.ando.example.dao;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ando.architecture.dao.FetchPlan;
+
+public class FetchPlanTest {
+
+	/**
+	 * {@link FetchPlanTest}'s default logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(FetchPlanTest.class);
+
+	/**
+	 * fetch plan of a collection and of a nested association.
+	 */
+	private final FetchPlan fetchPlan = FetchPlan.of("stakes", "stakes.bet");
+
+	/**
+	 * Method testing applyTo behavior for a root entity declared with an alias.
+	 */
+	@Test
+	public void applyToAlias() {
+		LOGGER.debug("Starting applyToAlias method...");
+
+		String request = fetchPlan.applyTo("from Bet b where b.id = ?");
+		String expected = "from Bet b left join fetch b.stakes b_fp0 left join fetch b_fp0.bet b_fp1 where b.id = ?";
+		assertTrue("request must be [ " + expected + " ] and not [ " + request + " ]", expected.equals(request));
+
+		request = fetchPlan.applyTo("from Bet b");
+		expected = "from Bet b left join fetch b.stakes b_fp0 left join fetch b_fp0.bet b_fp1";
+		assertTrue("request must be [ " + expected + " ] and not [ " + request + " ]", expected.equals(request));
+
+		LOGGER.debug("testing applyToAlias method ends.");
+	}
+
+	/**
+	 * Method testing applyTo behavior for a root entity declared with an <code>as</code> alias.
+	 */
+	@Test
+	public void applyToAsAlias() {
+		LOGGER.debug("Starting applyToAsAlias method...");
+
+		String request = fetchPlan.applyTo("select distinct bet from Bet as bet where bet.team1 = ?");
+		String expected = "select distinct bet from Bet as bet left join fetch bet.stakes bet_fp0"
+				+ " left join fetch bet_fp0.bet bet_fp1 where bet.team1 = ?";
+		assertTrue("request must be [ " + expected + " ] and not [ " + request + " ]", expected.equals(request));
+
+		LOGGER.debug("testing applyToAsAlias method ends.");
+	}
+
+	/**
+	 * Method testing applyTo behavior for a request already joining associations.
+	 */
+	@Test
+	public void applyToExistingJoins() {
+		LOGGER.debug("Starting applyToExistingJoins method...");
+
+		String request = FetchPlan.of("stakes").applyTo(
+				"select distinct b from Bet b inner join b.stakes s where s.amount > ? order by b.id");
+		String expected = "select distinct b from Bet b left join fetch b.stakes b_fp0 inner join b.stakes s"
+				+ " where s.amount > ? order by b.id";
+		assertTrue("request must be [ " + expected + " ] and not [ " + request + " ]", expected.equals(request));
+
+		LOGGER.debug("testing applyToExistingJoins method ends.");
+	}
+
+	/**
+	 * Method testing applyTo behavior for a root entity declared without alias.
+	 */
+	@Test
+	public void applyToNoAlias() {
+		LOGGER.debug("Starting applyToNoAlias method...");
+
+		String[] requests = { "from Bet where id = ?", "from Bet", "from Bet order by id" };
+		for (String request : requests) {
+			try {
+				fetchPlan.applyTo(request);
+				fail("must throw exception before this line for [ " + request + " ]");
+			} catch (IllegalArgumentException e) {
+				LOGGER.debug("The root entity must be declared with an alias : " + e.getLocalizedMessage());
+				assertTrue("The root entity must be declared with an alias", true);
+			}
+		}
+
+		LOGGER.debug("testing applyToNoAlias method ends.");
+	}
+
+	/**
+	 * Method testing the validation of the association paths.
+	 */
+	@Test
+	public void invalidPath() {
+		LOGGER.debug("Starting invalidPath method...");
+
+		String[][] paths = { {}, { "stakes." }, { "stakes bet" }, { null } };
+		for (String[] path : paths) {
+			try {
+				FetchPlan.of(path);
+				fail("must throw exception before this line");
+			} catch (IllegalArgumentException e) {
+				LOGGER.debug("The association paths must be valid : " + e.getLocalizedMessage());
+				assertTrue("The association paths must be valid", true);
+			}
+		}
+
+		LOGGER.debug("testing invalidPath method ends.");
+	}
+
+}
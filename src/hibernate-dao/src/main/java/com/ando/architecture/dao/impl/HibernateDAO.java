@@ -2,19 +2,34 @@ package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.hibernate.Criteria;
+import org.hibernate.EntityMode;
 import org.hibernate.HibernateException;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.metadata.ClassMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
 import com.ando.architecture.dao.DAO;
 import com.ando.architecture.dao.HibernateAction;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.architecture.util.HibernateUtil;
 
@@ -41,6 +56,16 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 	 */
 	private SessionFactory sessionFactory;
 
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
+	/**
+	 * HQL requests rendered from the specifications, by shape of specification.
+	 */
+	private final ConcurrentMap<String, String> specificationRequests = new ConcurrentHashMap<String, String>();
+
 	/**
 	 * Entity's type this instance has to manage.
 	 */
@@ -229,6 +254,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 				@Override
 				public List<Type> apply(Session session) throws DataBaseException {
 					Criteria criteria = session.createCriteria(typeClass);
+					applyQueryOptions(criteria);
 					return criteria.list();
 				}
 			});
@@ -241,6 +267,206 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is compiled to criteria comparing the property to the bounds.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> findByRange(Range range, final int limit) throws DataBaseException {
+		LOGGER.debug("Starting findByRange method...");
+
+		if (limit <= 0) {
+			LOGGER.error("The limit [ " + limit + " ] is not valid.");
+			throw new IllegalArgumentException("The limit [ " + limit + " ] is not valid.");
+		}
+
+		final DetachedCriteria criteria = toRangeCriteria(range);
+		try {
+
+			LOGGER.debug("Getting and returning " + limit + " entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + "...");
+			List<Type> results = executeAction(new HibernateAction<List<Type>>() {
+
+				@Override
+				public List<Type> apply(Session session) throws DataBaseException {
+					Criteria executable = criteria.getExecutableCriteria(session);
+					applyQueryOptions(executable);
+					executable.setMaxResults(limit);
+					return executable.list();
+				}
+			});
+
+			return (results != null ? results : new ArrayList<Type>());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + ".", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + range + ".", e);
+		}
+	}
+
+	/**
+	 * Compile a range to criteria comparing the property to the bounds, ordered by the property, then by identifier.
+	 * 
+	 * @param range
+	 *            the range.
+	 * @return the criteria.
+	 */
+	private DetachedCriteria toRangeCriteria(Range range) {
+		if (range == null) {
+			LOGGER.error("The range can not be null.");
+			throw new IllegalArgumentException("The range can not be null.");
+		}
+
+		String name = range.getName();
+		String identifierName = sessionFactory.getClassMetadata(typeClass).getIdentifierPropertyName();
+		DetachedCriteria criteria = DetachedCriteria.forClass(typeClass);
+		if (range.getFrom() != null) {
+			criteria.add(Restrictions.ge(name, range.getFrom()));
+		}
+		if (range.getTo() != null) {
+			criteria.add(Restrictions.lt(name, range.getTo()));
+		}
+		if (range.getAfterId() != null) {
+			Object value = range.getAfterValue();
+			// redundant lower bound, letting the database seek to the last entity read in the index on the property
+			criteria.add(Restrictions.ge(name, value));
+			criteria.add(Restrictions.or(Restrictions.gt(name, value), Restrictions.and(Restrictions.eq(name, value),
+					Restrictions.gt(identifierName, range.getAfterId()))));
+		}
+		return criteria.addOrder(Order.asc(name)).addOrder(Order.asc(identifierName));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The specification is rendered to an HQL request on the properties of the entity, once per shape of
+	 * specification, so that Hibernate also reuses its plan of the request.
+	 */
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+
+		String request = specificationRequests.get(specification.getShape());
+		if (request == null) {
+			request = toSpecificationRequest(specification);
+			specificationRequests.putIfAbsent(specification.getShape(), request);
+		}
+
+		LOGGER.debug("Getting and returning the entities [ " + typeClass.getSimpleName() + " ] of " + specification
+				+ "...");
+		Integer limit = specification.getLimit();
+		return executeResultList((limit != null ? QueryOptions.NONE.withMaxRows(limit) : QueryOptions.NONE), request,
+				specification.getParameters().toArray());
+	}
+
+	/**
+	 * Render a specification to an HQL request on the entities of this DAO.
+	 * 
+	 * @param specification
+	 *            the specification.
+	 * @return the HQL request.
+	 */
+	private String toSpecificationRequest(Specification specification) {
+		StringBuilder request = new StringBuilder("from ").append(typeClass.getName()).append(" e");
+		String condition = specification.toCondition("e");
+		if (condition.length() > 0) {
+			request.append(" where ").append(condition);
+		}
+		String order = specification.toOrderClause("e");
+		if (order.length() > 0) {
+			request.append(" order by ").append(order);
+		}
+		return request.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is compiled to an HQL <code>group by</code> request on the properties of the entity.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<AggregateRow> aggregate(final Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
+
+		checkAggregation(aggregation);
+		final String request = toAggregateRequest(aggregation);
+		try {
+
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			List<Object> results = executeAction(new HibernateAction<List<Object>>() {
+
+				@Override
+				public List<Object> apply(Session session) throws DataBaseException {
+					Query query = createQuery(request);
+					applyQueryOptions(query, QueryOptions.NONE);
+					return query.list();
+				}
+			});
+
+			return toAggregateRows(results);
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		}
+	}
+
+	/**
+	 * Check an aggregation received as parameter.
+	 * 
+	 * @param aggregation
+	 *            the aggregation to check.
+	 */
+	private void checkAggregation(Aggregation aggregation) {
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			LOGGER.error("The aggregation [ " + aggregation + " ] has neither grouping nor function.");
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+	}
+
+	/**
+	 * Compile an aggregation to an HQL request on the entities of this DAO.
+	 * 
+	 * @param aggregation
+	 *            the aggregation.
+	 * @return the HQL request.
+	 */
+	private String toAggregateRequest(Aggregation aggregation) {
+		StringBuilder request = new StringBuilder("select ").append(aggregation.toSelectClause("e"));
+		request.append(" from ").append(typeClass.getName()).append(" e");
+		if (!aggregation.getGroupBy().isEmpty()) {
+			String groupBy = aggregation.toGroupByClause("e");
+			request.append(" group by ").append(groupBy).append(" order by ").append(groupBy);
+		}
+		return request.toString();
+	}
+
+	/**
+	 * Convert the results of an aggregate request to rows. A request selecting a single value returns the values
+	 * themselves instead of arrays.
+	 * 
+	 * @param results
+	 *            the results of the request.
+	 * @return the rows.
+	 */
+	private static List<AggregateRow> toAggregateRows(List<Object> results) {
+		List<AggregateRow> rows = new ArrayList<AggregateRow>();
+		if (results != null) {
+			for (Object result : results) {
+				rows.add(result instanceof Object[] ? new AggregateRow((Object[]) result) : new AggregateRow(result));
+			}
+		}
+		return rows;
+	}
+
 	/**
 	 * Execute an HQL select request with an unique result of type <code>Type</code>.
 	 * 
@@ -253,8 +479,27 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to retrieve entity in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected Type executeSingleResult(final String request, final Object... params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Type executeSingleResult(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
 		try {
 
@@ -263,6 +508,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 				@Override
 				public Type apply(Session session) throws DataBaseException {
 					Query query = createQuery(request, params);
+					applyQueryOptions(query, options);
 
 					return (Type) query.uniqueResult();
 				}
@@ -289,8 +535,27 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to execute query in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected List<Type> executeResultList(final String request, final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<Type> executeResultList(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
 		try {
 			List<Type> results = executeAction(new HibernateAction<List<Type>>() {
@@ -298,6 +563,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 				@Override
 				public List<Type> apply(Session session) throws DataBaseException {
 					Query query = createQuery(request, params);
+					applyQueryOptions(query, options);
 
 					return query.list();
 				}
@@ -312,6 +578,54 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 		}
 	}
 
+	/**
+	 * Execute an HQL update or delete request as one set-based statement, without loading the entities.
+	 * <p>
+	 * Hibernate invalidates the second-level cache regions and the cached queries of the entities touched by the
+	 * request. The instances of <code>Type</code> already loaded in the current session are evicted, so that they are
+	 * read again from the database.
+	 * 
+	 * @param request
+	 *            the HQL update or delete request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the number of entities updated or deleted.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the request in the database.
+	 */
+	protected int executeUpdate(final String request, final Object... params) throws DataBaseException {
+
+		try {
+			int count = executeAction(new HibernateAction<Integer>() {
+
+				@Override
+				public Integer apply(Session session) throws DataBaseException {
+					Query query = session.createQuery(request);
+					for (int i = 0; i < params.length; i++) {
+						query.setParameter(i, params[i]);
+					}
+					if (queryOptions.getTimeout() != null) {
+						query.setTimeout(queryOptions.getTimeout());
+					}
+
+					int count = query.executeUpdate();
+					evictManagedEntities(session);
+					return count;
+				}
+			});
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been updated by the request [ "
+					+ request + " ].");
+			return count;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute update [ " + request + " ].", e);
+
+			throw new DataBaseException("An error has occurred when trying to execute update [ " + request + " ].", e);
+		}
+	}
+
 	/**
 	 * Create a new instance of Query for the given HQL query request with all parameters and return a {@link Query}
 	 * object.
@@ -333,6 +647,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 			for (int i = 0; i < params.length; i++) {
 				query.setParameter(i, params[i]);
 			}
+			applyQueryOptions(query, QueryOptions.NONE);
 
 			return query;
 		} catch (Exception e) {
@@ -342,6 +657,75 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 		}
 	}
 
+	/**
+	 * Apply the default options of this DAO, overridden by the options received as parameter, to a query.
+	 * 
+	 * @param query
+	 *            the query.
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 */
+	private void applyQueryOptions(Query query, QueryOptions options) {
+		QueryOptions effective = queryOptions.overriddenBy(options);
+		if (effective.getFetchSize() != null) {
+			query.setFetchSize(effective.getFetchSize());
+		}
+		if (effective.getMaxRows() != null) {
+			query.setMaxResults(effective.getMaxRows());
+		}
+		if (effective.getTimeout() != null) {
+			query.setTimeout(effective.getTimeout());
+		}
+	}
+
+	/**
+	 * Apply the default options of this DAO to a criteria.
+	 * 
+	 * @param criteria
+	 *            the criteria.
+	 */
+	private void applyQueryOptions(Criteria criteria) {
+		if (queryOptions.getFetchSize() != null) {
+			criteria.setFetchSize(queryOptions.getFetchSize());
+		}
+		if (queryOptions.getMaxRows() != null) {
+			criteria.setMaxResults(queryOptions.getMaxRows());
+		}
+		if (queryOptions.getTimeout() != null) {
+			criteria.setTimeout(queryOptions.getTimeout());
+		}
+	}
+
+	/**
+	 * Evict from the session the managed entities of the type handled by this DAO. A bulk statement bypasses the
+	 * session, so these instances may no longer reflect the database. The entity keys are first filtered on the
+	 * entity names of this type and of its mapped subclasses, so that only the matching entities are looked up.
+	 * 
+	 * @param session
+	 *            the session to clean.
+	 */
+	private void evictManagedEntities(Session session) {
+		Set<String> entityNames = new HashSet<String>();
+		for (ClassMetadata metadata : session.getSessionFactory().getAllClassMetadata().values()) {
+			Class<?> mappedClass = metadata.getMappedClass(EntityMode.POJO);
+			if (mappedClass != null && typeClass.isAssignableFrom(mappedClass)) {
+				entityNames.add(metadata.getEntityName());
+			}
+		}
+		List<EntityKey> keys = new ArrayList<EntityKey>();
+		for (Object key : session.getStatistics().getEntityKeys()) {
+			if (entityNames.contains(((EntityKey) key).getEntityName())) {
+				keys.add((EntityKey) key);
+			}
+		}
+		for (EntityKey key : keys) {
+			Object entity = session.get(key.getEntityName(), key.getIdentifier());
+			if (entity != null) {
+				session.evict(entity);
+			}
+		}
+	}
+
 	/**
 	 * Check if the session is related to a context (JTASessionContext, ThreadLocalSessionContext,
 	 * ManagedSessionContext).
@@ -401,4 +785,24 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> implements
 		}
 		return sessionFactory.openSession();
 	}
+
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+	}
+
 }
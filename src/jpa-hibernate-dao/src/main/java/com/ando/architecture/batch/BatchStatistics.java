@@ -0,0 +1,149 @@
+package com.ando.architecture.batch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link BatchStatistics} holds the metrics of a {@link BatchingDAO}: the calls of
+ * {@link BatchingDAO#findOne(java.io.Serializable)}, the batches they have been grouped in and the time the calls
+ * waited for their batch to be loaded, e.g. to tune the window and the size of the batches.
+ *
+ * @author Zied ANDOLSI
+ */
+public class BatchStatistics {
+
+	/**
+	 * Calls of findOne.
+	 */
+	private final AtomicLong requests = new AtomicLong();
+
+	/**
+	 * Batches loaded.
+	 */
+	private final AtomicLong batches = new AtomicLong();
+
+	/**
+	 * Identifiers loaded by all the batches.
+	 */
+	private final AtomicLong loadedIds = new AtomicLong();
+
+	/**
+	 * Identifiers of the largest batch.
+	 */
+	private final AtomicLong maxBatchSize = new AtomicLong();
+
+	/**
+	 * Time waited by all the calls before their batch is loaded, in nanoseconds.
+	 */
+	private final AtomicLong waitTime = new AtomicLong();
+
+	/**
+	 * Longest time waited by a call before its batch is loaded, in nanoseconds.
+	 */
+	private final AtomicLong maxWaitTime = new AtomicLong();
+
+	/**
+	 * Records a batch being loaded.
+	 *
+	 * @param size
+	 *            number of distinct identifiers of the batch
+	 */
+	void loaded(int size) {
+		batches.incrementAndGet();
+		loadedIds.addAndGet(size);
+		updateMax(maxBatchSize, size);
+	}
+
+	/**
+	 * Records a call served by a batch.
+	 *
+	 * @param nanos
+	 *            time waited by the call before its batch is loaded, in nanoseconds
+	 */
+	void served(long nanos) {
+		requests.incrementAndGet();
+		waitTime.addAndGet(nanos);
+		updateMax(maxWaitTime, nanos);
+	}
+
+	/**
+	 * @param max
+	 *            the maximum to update
+	 * @param value
+	 *            the new value
+	 */
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return the number of calls of findOne.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * @return the number of batches loaded.
+	 */
+	public long getBatches() {
+		return batches.get();
+	}
+
+	/**
+	 * @return the average number of distinct identifiers per batch.
+	 */
+	public double getAverageBatchSize() {
+		long count = batches.get();
+		return (count > 0 ? (double) loadedIds.get() / count : 0);
+	}
+
+	/**
+	 * @return the number of distinct identifiers of the largest batch.
+	 */
+	public long getMaxBatchSize() {
+		return maxBatchSize.get();
+	}
+
+	/**
+	 * @return the average time waited by a call before its batch is loaded, in milliseconds.
+	 */
+	public double getAverageWaitMillis() {
+		long count = requests.get();
+		return (count > 0 ? (double) waitTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1) : 0);
+	}
+
+	/**
+	 * @return the longest time waited by a call before its batch is loaded, in milliseconds.
+	 */
+	public double getMaxWaitMillis() {
+		return (double) maxWaitTime.get() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Resets all the metrics.
+	 */
+	public void reset() {
+		requests.set(0);
+		batches.set(0);
+		loadedIds.set(0);
+		maxBatchSize.set(0);
+		waitTime.set(0);
+		maxWaitTime.set(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "BatchStatistics [ requests=" + getRequests() + ", batches=" + getBatches() + ", averageBatchSize="
+				+ String.format("%.2f", getAverageBatchSize()) + ", maxBatchSize=" + getMaxBatchSize()
+				+ ", averageWaitMillis=" + String.format("%.3f", getAverageWaitMillis()) + ", maxWaitMillis="
+				+ String.format("%.3f", getMaxWaitMillis()) + " ]";
+	}
+
+}
@@ -0,0 +1,288 @@
+package com.ando.architecture.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The class {@link Aggregation} describes an aggregate query computed by the database instead of loading the entities:
+ * the properties to group the entities by, and the aggregate functions to compute for each group, e.g.
+ * <code>Aggregation.groupBy("team1").count().max("betDate")</code>.
+ * <p>
+ * The query returns one {@link AggregateRow} per group, ordered by the grouping properties, holding the values of the
+ * grouping properties followed by the values of the functions, in the order they have been declared. Without grouping
+ * property, the query returns a single row computed over all the entities.
+ * <p>
+ * Instances are immutable: each function method returns a copy of the aggregation.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class Aggregation {
+
+	/**
+	 * Aggregate function computed for each group.
+	 */
+	public enum Function {
+
+		/**
+		 * Number of entities, or of non null values of a property.
+		 */
+		COUNT,
+
+		/**
+		 * Sum of the values of a property.
+		 */
+		SUM,
+
+		/**
+		 * Average of the values of a property.
+		 */
+		AVG,
+
+		/**
+		 * Minimum value of a property.
+		 */
+		MIN,
+
+		/**
+		 * Maximum value of a property.
+		 */
+		MAX
+	}
+
+	/**
+	 * Valid property name, possibly a path through embedded properties. The names are rendered in the query, so that
+	 * anything else is rejected.
+	 */
+	private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+	/**
+	 * Properties to group the entities by.
+	 */
+	private final String[] groupBy;
+
+	/**
+	 * Aggregate functions, in the order of the values of the rows.
+	 */
+	private final Function[] functions;
+
+	/**
+	 * Properties the functions apply to, <code>null</code> for a count of the entities.
+	 */
+	private final String[] arguments;
+
+	/**
+	 * The constructor {@link #Aggregation(String[], Function[], String[])} instantiates an aggregation.
+	 *
+	 * @param groupBy
+	 *            properties to group the entities by.
+	 * @param functions
+	 *            aggregate functions.
+	 * @param arguments
+	 *            properties the functions apply to.
+	 */
+	private Aggregation(String[] groupBy, Function[] functions, String[] arguments) {
+		this.groupBy = groupBy;
+		this.functions = functions;
+		this.arguments = arguments;
+	}
+
+	/**
+	 * @param names
+	 *            properties to group the entities by, none to aggregate all the entities in a single row.
+	 * @return an aggregation grouping the entities by the properties received as parameter, without function.
+	 */
+	public static Aggregation groupBy(String... names) {
+		if (names == null) {
+			throw new IllegalArgumentException("The grouping properties can not be null.");
+		}
+		for (String name : names) {
+			checkName(name);
+		}
+		return new Aggregation(names.clone(), new Function[0], new String[0]);
+	}
+
+	/**
+	 * @return a copy of this aggregation, counting the entities of each group.
+	 */
+	public Aggregation count() {
+		return with(Function.COUNT, null);
+	}
+
+	/**
+	 * @param name
+	 *            the counted property.
+	 * @return a copy of this aggregation, counting the non null values of a property in each group.
+	 */
+	public Aggregation count(String name) {
+		return with(Function.COUNT, checkName(name));
+	}
+
+	/**
+	 * @param name
+	 *            the summed property.
+	 * @return a copy of this aggregation, summing the values of a property in each group.
+	 */
+	public Aggregation sum(String name) {
+		return with(Function.SUM, checkName(name));
+	}
+
+	/**
+	 * @param name
+	 *            the averaged property.
+	 * @return a copy of this aggregation, averaging the values of a property in each group.
+	 */
+	public Aggregation avg(String name) {
+		return with(Function.AVG, checkName(name));
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @return a copy of this aggregation, computing the minimum value of a property in each group.
+	 */
+	public Aggregation min(String name) {
+		return with(Function.MIN, checkName(name));
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @return a copy of this aggregation, computing the maximum value of a property in each group.
+	 */
+	public Aggregation max(String name) {
+		return with(Function.MAX, checkName(name));
+	}
+
+	/**
+	 * @param function
+	 *            the function to add.
+	 * @param argument
+	 *            the property the function applies to, <code>null</code> for a count of the entities.
+	 * @return a copy of this aggregation with one more function.
+	 */
+	private Aggregation with(Function function, String argument) {
+		Function[] nextFunctions = Arrays.copyOf(functions, functions.length + 1);
+		String[] nextArguments = Arrays.copyOf(arguments, arguments.length + 1);
+		nextFunctions[functions.length] = function;
+		nextArguments[arguments.length] = argument;
+		return new Aggregation(groupBy, nextFunctions, nextArguments);
+	}
+
+	/**
+	 * @param name
+	 *            the name to check.
+	 * @return the name, if it is a valid property name.
+	 */
+	private static String checkName(String name) {
+		if (name == null || !NAME.matcher(name).matches()) {
+			throw new IllegalArgumentException("The property [ " + name + " ] is not a valid property name.");
+		}
+		return name;
+	}
+
+	/**
+	 * Render the select clause of the query: the grouping properties followed by the functions.
+	 *
+	 * @param alias
+	 *            alias of the entity the properties are prefixed with, <code>null</code> if none. A count of the
+	 *            entities is rendered <code>COUNT(alias)</code>, or <code>COUNT(*)</code> without alias.
+	 * @return the select clause, without the <code>select</code> keyword.
+	 */
+	public String toSelectClause(String alias) {
+		StringBuilder clause = new StringBuilder(toGroupByClause(alias));
+		for (int i = 0; i < functions.length; i++) {
+			if (clause.length() > 0) {
+				clause.append(", ");
+			}
+			clause.append(functions[i].name()).append('(');
+			if (arguments[i] != null) {
+				clause.append(prefix(alias)).append(arguments[i]);
+			} else {
+				clause.append(alias != null ? alias : "*");
+			}
+			clause.append(')');
+		}
+		return clause.toString();
+	}
+
+	/**
+	 * Render the grouping properties, for the <code>group by</code> and <code>order by</code> clauses of the query.
+	 *
+	 * @param alias
+	 *            alias of the entity the properties are prefixed with, <code>null</code> if none.
+	 * @return the grouping properties separated by commas, an empty string if there is none.
+	 */
+	public String toGroupByClause(String alias) {
+		StringBuilder clause = new StringBuilder();
+		for (String name : groupBy) {
+			if (clause.length() > 0) {
+				clause.append(", ");
+			}
+			clause.append(prefix(alias)).append(name);
+		}
+		return clause.toString();
+	}
+
+	/**
+	 * @param alias
+	 *            alias of the entity, <code>null</code> if none.
+	 * @return the prefix of the properties.
+	 */
+	private static String prefix(String alias) {
+		return (alias != null ? alias + "." : "");
+	}
+
+	/**
+	 * Grouping properties getter.
+	 *
+	 * @return the properties to group the entities by.
+	 */
+	public List<String> getGroupBy() {
+		return Collections.unmodifiableList(Arrays.asList(groupBy));
+	}
+
+	/**
+	 * @return the number of aggregate functions.
+	 */
+	public int getFunctionCount() {
+		return functions.length;
+	}
+
+	/**
+	 * @param index
+	 *            position of the function, starting at 0.
+	 * @return the aggregate function at the position received as parameter.
+	 */
+	public Function getFunction(int index) {
+		return functions[index];
+	}
+
+	/**
+	 * @param index
+	 *            position of the function, starting at 0.
+	 * @return the property the function at the position received as parameter applies to, <code>null</code> for a
+	 *         count of the entities.
+	 */
+	public String getArgument(int index) {
+		return arguments[index];
+	}
+
+	/**
+	 * @return the number of values of a row: the grouping properties followed by the functions.
+	 */
+	public int getColumnCount() {
+		return groupBy.length + functions.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		String grouping = (groupBy.length > 0 ? " group by " + toGroupByClause(null) : "");
+		return "Aggregation [ " + toSelectClause(null) + grouping + " ]";
+	}
+
+}
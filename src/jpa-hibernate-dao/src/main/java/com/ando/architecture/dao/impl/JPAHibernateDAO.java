@@ -2,7 +2,11 @@ package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
@@ -12,12 +16,22 @@ import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.FetchPlan;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.dao.JPAAction;
 import com.ando.architecture.exception.DataBaseException;
 import com.ando.architecture.util.JPAUtil;
@@ -45,11 +59,36 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	 */
 	private String persitenceUnit;
 
+	/**
+	 * Hint setting the JDBC fetch size of a query.
+	 */
+	private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+
+	/**
+	 * Hint setting the timeout of a query, in milliseconds.
+	 */
+	private static final String HINT_TIMEOUT = "javax.persistence.query.timeout";
+
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
 	/**
 	 * Entity's type this instance has to manage.
 	 */
 	protected Class<Type> typeClass;
 
+	/**
+	 * Named fetch plans registered for the managed entity.
+	 */
+	private final Map<String, FetchPlan> fetchPlans = new ConcurrentHashMap<String, FetchPlan>();
+
+	/**
+	 * JPQL requests rendered from the specifications, by shape of specification.
+	 */
+	private final ConcurrentMap<String, String> specificationRequests = new ConcurrentHashMap<String, String>();
+
 	/**
 	 * The constructor {@link #SimpleDAOJPAHibernate(Class)} instantiates a new {@link JPAHibernateDAO} object keeping
 	 * in mind the type of the class to manage.
@@ -97,6 +136,75 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		}
 	}
 
+	/**
+	 * Loads and returns the entity whose identifier is received as parameter, together with the associations of the
+	 * fetch plan, in a single query.
+	 * 
+	 * @param id
+	 *            Identifier of the entity to load.
+	 * @param fetchPlan
+	 *            the associations to load with the entity.
+	 * @return The entity corresponding to the identifier received as parameter. <code>null</code> if no entity is found
+	 *         corresponding to the identifier.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entity from the database.
+	 */
+	public Type findOne(final IdType id, final FetchPlan fetchPlan) throws DataBaseException {
+		LOGGER.debug("starting findOne method with fetch plan...");
+
+		if (id == null) {
+			LOGGER.error("The identifier can not be null.");
+			throw new IllegalArgumentException("The identifier can not be null.");
+		}
+
+		if (fetchPlan == null) {
+			LOGGER.error("The fetch plan can not be null.");
+			throw new IllegalArgumentException("The fetch plan can not be null.");
+		}
+
+		try {
+
+			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+					+ id.toString() + " ] and " + fetchPlan + "...");
+			return executeAction(new JPAAction<Type>() {
+
+				@Override
+				public Type apply(EntityManager em) throws DataBaseException {
+					CriteriaBuilder cb = em.getCriteriaBuilder();
+					CriteriaQuery<Type> cq = cb.createQuery(typeClass);
+					Root<Type> root = cq.from(typeClass);
+					applyFetchPlan(root, fetchPlan);
+					cq.select(root).distinct(true).where(cb.equal(root.get(getIdAttribute(em)), id));
+					List<Type> results = em.createQuery(cq).getResultList();
+					return (results.isEmpty() ? null : results.get(0));
+				}
+			});
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entity [ " + typeClass + " ] with the identifier [ "
+					+ id.toString() + " ] and " + fetchPlan + ".", e);
+			throw new DataBaseException("An error has occured while getting the entity [ " + typeClass
+					+ " ] with identifier [ " + id.toString() + " ] and " + fetchPlan + ".", e);
+		}
+	}
+
+	/**
+	 * Loads and returns the entity whose identifier is received as parameter, together with the associations of the
+	 * registered fetch plan whose name is received as parameter.
+	 * 
+	 * @param id
+	 *            Identifier of the entity to load.
+	 * @param fetchPlanName
+	 *            name of a fetch plan registered with {@link #registerFetchPlan(FetchPlan)}.
+	 * @return The entity corresponding to the identifier received as parameter. <code>null</code> if no entity is found
+	 *         corresponding to the identifier.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entity from the database.
+	 */
+	public Type findOne(IdType id, String fetchPlanName) throws DataBaseException {
+		return findOne(id, getFetchPlan(fetchPlanName));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -238,6 +346,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 					Root<Type> rootEntry = cq.from(typeClass);
 					CriteriaQuery<Type> all = cq.select(rootEntry);
 					TypedQuery<Type> allQuery = em.createQuery(all);
+					applyQueryOptions(allQuery, QueryOptions.NONE);
 					return allQuery.getResultList();
 				}
 			});
@@ -250,6 +359,233 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is compiled to a JPQL request comparing the attribute to the bounds.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> findByRange(final Range range, final int limit) throws DataBaseException {
+		LOGGER.debug("Starting findByRange method...");
+
+		if (range == null || limit <= 0) {
+			LOGGER.error("The range [ " + range + " ] and the limit [ " + limit + " ] are not valid.");
+			throw new IllegalArgumentException("The range [ " + range + " ] and the limit [ " + limit
+					+ " ] are not valid.");
+		}
+
+		try {
+
+			LOGGER.debug("Getting and returning " + limit + " entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + "...");
+			List<Type> results = executeAction(new JPAAction<List<Type>>() {
+
+				@Override
+				public List<Type> apply(EntityManager em) throws DataBaseException {
+					List<Object> params = new ArrayList<Object>();
+					String request = toRangeRequest(em.getMetamodel().entity(typeClass).getName(),
+							getIdAttribute(em).getName(), range, params);
+					Query query = createQuery(em, request, params.toArray());
+					applyQueryOptions(query, QueryOptions.NONE.withMaxRows(limit));
+					return query.getResultList();
+				}
+			});
+
+			return (results != null ? results : new ArrayList<Type>());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + ".", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + range + ".", e);
+		}
+	}
+
+	/**
+	 * Compile a range to a JPQL request on the entities of this DAO, comparing the attribute to the bounds, ordered by
+	 * the attribute, then by identifier.
+	 * 
+	 * @param entityName
+	 *            the name of the entity.
+	 * @param identifierName
+	 *            the name of the identifier attribute.
+	 * @param range
+	 *            the range.
+	 * @param params
+	 *            list receiving the values of the parameters of the request, in order of position.
+	 * @return the JPQL request.
+	 */
+	private static String toRangeRequest(String entityName, String identifierName, Range range, List<Object> params) {
+		StringBuilder request = new StringBuilder("select e from ").append(entityName).append(" e");
+		String condition = range.toCondition("e", identifierName, params);
+		if (condition.length() > 0) {
+			request.append(" where ").append(condition);
+		}
+		request.append(" order by ").append(range.toOrderClause("e", identifierName));
+		return numberParameters(request);
+	}
+
+	/**
+	 * Number the positional parameters of a request, since JPQL positional parameters are numbered: ?1, ?2...
+	 * 
+	 * @param request
+	 *            the request, with <code>?</code> parameters.
+	 * @return the request, with numbered parameters.
+	 */
+	private static String numberParameters(CharSequence request) {
+		StringBuilder numbered = new StringBuilder();
+		int position = 0;
+		for (int i = 0; i < request.length(); i++) {
+			numbered.append(request.charAt(i));
+			if (request.charAt(i) == '?') {
+				numbered.append(++position);
+			}
+		}
+		return numbered.toString();
+	}
+
+	/**
+	 * Render a specification to a JPQL request on the entities of this DAO, once per shape of specification.
+	 * 
+	 * @param entityName
+	 *            the name of the entity.
+	 * @param specification
+	 *            the specification.
+	 * @return the JPQL request.
+	 */
+	private String getSpecificationRequest(String entityName, Specification specification) {
+		String request = specificationRequests.get(specification.getShape());
+		if (request == null) {
+			StringBuilder builder = new StringBuilder("select e from ").append(entityName).append(" e");
+			String condition = specification.toCondition("e");
+			if (condition.length() > 0) {
+				builder.append(" where ").append(condition);
+			}
+			String order = specification.toOrderClause("e");
+			if (order.length() > 0) {
+				builder.append(" order by ").append(order);
+			}
+			request = numberParameters(builder);
+			specificationRequests.putIfAbsent(specification.getShape(), request);
+		}
+		return request;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The specification is rendered to a JPQL request on the attributes of the entity, once per shape of
+	 * specification, so that Hibernate also reuses its plan of the request.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> findBySpecification(final Specification specification) throws DataBaseException {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+
+		try {
+
+			LOGGER.debug("Getting and returning the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ specification + "...");
+			List<Type> results = executeAction(new JPAAction<List<Type>>() {
+
+				@Override
+				public List<Type> apply(EntityManager em) throws DataBaseException {
+					String request = getSpecificationRequest(em.getMetamodel().entity(typeClass).getName(),
+							specification);
+					Query query = createQuery(em, request, specification.getParameters().toArray());
+					Integer limit = specification.getLimit();
+					applyQueryOptions(query, (limit != null ? QueryOptions.NONE.withMaxRows(limit)
+							: QueryOptions.NONE));
+					return query.getResultList();
+				}
+			});
+
+			return (results != null ? results : new ArrayList<Type>());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ specification + ".", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + specification + ".", e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is compiled to a JPQL <code>group by</code> request on the attributes of the entity.
+	 */
+	public List<AggregateRow> aggregate(final Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
+
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			LOGGER.error("The aggregation [ " + aggregation + " ] has neither grouping nor function.");
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+
+		try {
+
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			return executeAction(new JPAAction<List<AggregateRow>>() {
+
+				@Override
+				public List<AggregateRow> apply(EntityManager em) throws DataBaseException {
+					Query query = createQuery(em, toAggregateRequest(em, aggregation));
+					applyQueryOptions(query, QueryOptions.NONE);
+					return toAggregateRows(query.getResultList());
+				}
+			});
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while aggregating the entities [ " + typeClass.getSimpleName()
+					+ " ] with " + aggregation + ".", e);
+			throw new DataBaseException("An error has occured while aggregating the entities [ "
+					+ typeClass.getSimpleName() + " ] with " + aggregation + ".", e);
+		}
+	}
+
+	/**
+	 * Compile an aggregation to a JPQL request on the entities of this DAO.
+	 * 
+	 * @param em
+	 *            the entity manager, giving the name of the entity.
+	 * @param aggregation
+	 *            the aggregation.
+	 * @return the JPQL request.
+	 */
+	private String toAggregateRequest(EntityManager em, Aggregation aggregation) {
+		StringBuilder request = new StringBuilder("select ").append(aggregation.toSelectClause("e"));
+		request.append(" from ").append(em.getMetamodel().entity(typeClass).getName()).append(" e");
+		if (!aggregation.getGroupBy().isEmpty()) {
+			String groupBy = aggregation.toGroupByClause("e");
+			request.append(" group by ").append(groupBy).append(" order by ").append(groupBy);
+		}
+		return request.toString();
+	}
+
+	/**
+	 * Convert the results of an aggregate request to rows. A request selecting a single value returns the values
+	 * themselves instead of arrays.
+	 * 
+	 * @param results
+	 *            the results of the request.
+	 * @return the rows.
+	 */
+	private static List<AggregateRow> toAggregateRows(List<?> results) {
+		List<AggregateRow> rows = new ArrayList<AggregateRow>();
+		if (results != null) {
+			for (Object result : results) {
+				rows.add(result instanceof Object[] ? new AggregateRow((Object[]) result) : new AggregateRow(result));
+			}
+		}
+		return rows;
+	}
+
 	/**
 	 * Execute an HQL select request with an unique result of type <code>Type</code>.
 	 * 
@@ -262,8 +598,27 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to retrieve entity in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected Type executeSingleResult(final String request, final Object... params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Type executeSingleResult(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
 		try {
 			return executeAction(new JPAAction<Type>() {
@@ -271,6 +626,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 				@Override
 				public Type apply(EntityManager em) throws DataBaseException {
 					Query query = createQuery(em, request, params);
+					applyQueryOptions(query, options);
 
 					return (Type) query.getSingleResult();
 				}
@@ -298,8 +654,27 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to execute query in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected List<Type> executeResultList(final String request, final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<Type> executeResultList(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
 		try {
 
@@ -308,6 +683,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 				@Override
 				public List<Type> apply(EntityManager em) throws DataBaseException {
 					Query query = createQuery(em, request, params);
+					applyQueryOptions(query, options);
 
 					return query.getResultList();
 				}
@@ -322,6 +698,137 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		}
 	}
 
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>, loading the associations of the
+	 * fetch plan in the same query. The root entity of the request must be declared with an alias.
+	 * 
+	 * @param fetchPlan
+	 *            the associations to load with the entity.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	protected Type executeSingleResult(FetchPlan fetchPlan, String request, Object... params)
+			throws DataBaseException {
+		return executeSingleResult(fetchPlan.applyTo(request), params);
+	}
+
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities, loading the associations of the fetch plan
+	 * in the same query. The root entity of the request must be declared with an alias, and the request should select
+	 * <code>distinct</code> entities when the plan fetches collections.
+	 * 
+	 * @param fetchPlan
+	 *            the associations to load with the entities.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(FetchPlan fetchPlan, String request, Object... params)
+			throws DataBaseException {
+		return executeResultList(fetchPlan.applyTo(request), params);
+	}
+
+	/**
+	 * Registers a named fetch plan, so that it can be referenced by its name.
+	 * 
+	 * @param fetchPlan
+	 *            the named fetch plan to register.
+	 */
+	protected void registerFetchPlan(FetchPlan fetchPlan) {
+		if (fetchPlan == null || fetchPlan.getName() == null) {
+			throw new IllegalArgumentException("Only a named fetch plan can be registered.");
+		}
+		fetchPlans.put(fetchPlan.getName(), fetchPlan);
+	}
+
+	/**
+	 * Returns the registered fetch plan whose name is received as parameter.
+	 * 
+	 * @param fetchPlanName
+	 *            name of the fetch plan.
+	 * @return the registered fetch plan.
+	 */
+	protected FetchPlan getFetchPlan(String fetchPlanName) {
+		FetchPlan fetchPlan = (fetchPlanName != null ? fetchPlans.get(fetchPlanName) : null);
+		if (fetchPlan == null) {
+			LOGGER.error("No fetch plan [ " + fetchPlanName + " ] registered for the entity [ "
+					+ typeClass.getSimpleName() + " ].");
+			throw new IllegalArgumentException("No fetch plan [ " + fetchPlanName + " ] registered for the entity [ "
+					+ typeClass.getSimpleName() + " ].");
+		}
+		return fetchPlan;
+	}
+
+	/**
+	 * Adds to the root received as parameter a left join fetch for each association of the fetch plan.
+	 * 
+	 * @param root
+	 *            the query root.
+	 * @param fetchPlan
+	 *            the associations to fetch.
+	 */
+	private void applyFetchPlan(Root<Type> root, FetchPlan fetchPlan) {
+		Map<String, FetchParent<?, ?>> fetches = new HashMap<String, FetchParent<?, ?>>();
+		for (String path : fetchPlan.getPaths()) {
+			FetchParent<?, ?> parent = root;
+			String current = null;
+			for (String association : path.split("\\.")) {
+				current = (current == null ? association : current + "." + association);
+				FetchParent<?, ?> fetch = fetches.get(current);
+				if (fetch == null) {
+					fetch = parent.fetch(association, JoinType.LEFT);
+					fetches.put(current, fetch);
+				}
+				parent = fetch;
+			}
+		}
+	}
+
+	/**
+	 * Returns the identifier attribute of the managed entity.
+	 * 
+	 * @param em
+	 *            Entity manager
+	 * @return the identifier attribute.
+	 */
+	private SingularAttribute<? super Type, ?> getIdAttribute(EntityManager em) {
+		EntityType<Type> entityType = em.getMetamodel().entity(typeClass);
+		return entityType.getId(entityType.getIdType().getJavaType());
+	}
+
+	/**
+	 * Apply the default options of this DAO, overridden by the options received as parameter, to a query. The fetch
+	 * size is passed as an Hibernate hint and the timeout as the standard JPA hint, in milliseconds.
+	 * 
+	 * @param query
+	 *            the query.
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 */
+	private void applyQueryOptions(Query query, QueryOptions options) {
+		QueryOptions effective = queryOptions.overriddenBy(options);
+		if (effective.getFetchSize() != null) {
+			query.setHint(HINT_FETCH_SIZE, effective.getFetchSize());
+		}
+		if (effective.getMaxRows() != null) {
+			query.setMaxResults(effective.getMaxRows());
+		}
+		if (effective.getTimeout() != null) {
+			query.setHint(HINT_TIMEOUT, effective.getTimeout() * 1000);
+		}
+	}
+
 	/**
 	 * Create a formated HQL request with all parameters and return a {@link Query} object.
 	 * 
@@ -344,6 +851,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			for (int i = 0; i < params.length; i++) {
 				query.setParameter(i + 1, params[i]);
 			}
+			applyQueryOptions(query, QueryOptions.NONE);
 
 			return query;
 		} catch (Exception e) {
@@ -388,4 +896,24 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		}
 
 	}
+
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+	}
+
 }
\ No newline at end of file
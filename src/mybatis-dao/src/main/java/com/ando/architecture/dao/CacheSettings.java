@@ -0,0 +1,154 @@
+package com.ando.architecture.dao;
+
+/**
+ * The class {@link CacheSettings} holds the configuration of the entity cache of a DAO: eviction policy, maximum
+ * number of entities and time to live.
+ * <p>
+ * Instances are immutable, e.g. <code>CacheSettings.lru(1000).withTimeToLive(60000)</code>.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class CacheSettings {
+
+	/**
+	 * Policy choosing the entity to evict when the cache is full.
+	 */
+	public enum Eviction {
+
+		/**
+		 * Evicts the least recently used entity.
+		 */
+		LRU,
+
+		/**
+		 * Evicts the oldest cached entity.
+		 */
+		FIFO
+	}
+
+	/**
+	 * Eviction policy.
+	 */
+	private final Eviction eviction;
+
+	/**
+	 * Maximum number of cached entities.
+	 */
+	private final int size;
+
+	/**
+	 * Time to live of a cached entity in milliseconds, 0 if unlimited.
+	 */
+	private final long timeToLive;
+
+	/**
+	 * True if the cache returns copies of the entities.
+	 */
+	private final boolean readWrite;
+
+	/**
+	 * The constructor {@link #CacheSettings(Eviction, int, long, boolean)} instantiates settings.
+	 *
+	 * @param eviction
+	 *            eviction policy.
+	 * @param size
+	 *            maximum number of cached entities.
+	 * @param timeToLive
+	 *            time to live of a cached entity in milliseconds, 0 if unlimited.
+	 * @param readWrite
+	 *            true if the cache returns serialized copies of the entities, which can then be modified by the
+	 *            callers; false if it returns the cached instances, which must then be treated as read-only.
+	 */
+	public CacheSettings(Eviction eviction, int size, long timeToLive, boolean readWrite) {
+		if (eviction == null || size <= 0 || timeToLive < 0) {
+			throw new IllegalArgumentException("The cache settings [ eviction=" + eviction + ", size=" + size
+					+ ", timeToLive=" + timeToLive + " ] are not valid.");
+		}
+		this.eviction = eviction;
+		this.size = size;
+		this.timeToLive = timeToLive;
+		this.readWrite = readWrite;
+	}
+
+	/**
+	 * @param size
+	 *            maximum number of cached entities.
+	 * @return read-write settings evicting the least recently used entity, without time to live.
+	 */
+	public static CacheSettings lru(int size) {
+		return new CacheSettings(Eviction.LRU, size, 0, true);
+	}
+
+	/**
+	 * @param size
+	 *            maximum number of cached entities.
+	 * @return read-write settings evicting the oldest cached entity, without time to live.
+	 */
+	public static CacheSettings fifo(int size) {
+		return new CacheSettings(Eviction.FIFO, size, 0, true);
+	}
+
+	/**
+	 * @param timeToLive
+	 *            time to live of a cached entity in milliseconds, 0 if unlimited.
+	 * @return a copy of these settings with the time to live received as parameter.
+	 */
+	public CacheSettings withTimeToLive(long timeToLive) {
+		return new CacheSettings(eviction, size, timeToLive, readWrite);
+	}
+
+	/**
+	 * @param readWrite
+	 *            true if the cache returns copies of the entities, false if it returns the cached instances.
+	 * @return a copy of these settings with the read-write mode received as parameter.
+	 */
+	public CacheSettings withReadWrite(boolean readWrite) {
+		return new CacheSettings(eviction, size, timeToLive, readWrite);
+	}
+
+	/**
+	 * Eviction getter.
+	 *
+	 * @return the eviction policy.
+	 */
+	public Eviction getEviction() {
+		return eviction;
+	}
+
+	/**
+	 * Size getter.
+	 *
+	 * @return the maximum number of cached entities.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Time to live getter.
+	 *
+	 * @return the time to live of a cached entity in milliseconds, 0 if unlimited.
+	 */
+	public long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Read-write getter.
+	 *
+	 * @return true if the cache returns copies of the entities.
+	 */
+	public boolean isReadWrite() {
+		return readWrite;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "CacheSettings [ eviction=" + eviction + ", size=" + size + ", timeToLive=" + timeToLive
+				+ ", readWrite=" + readWrite + " ]";
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.ando.architecture.dao;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The class {@link Range} describes the entities whose column lies between two bounds, typically a date, read in
+ * the order of the column: the lower bound is included and the upper bound excluded, e.g.
+ * <code>Range.of("betdate", from, to)</code>, so that consecutive ranges never overlap.
+ * <p>
+ * The bounds are compared directly to the column, so that the database can use an index on it. The entities are
+ * ordered by the column, then by identifier, and a range is continued page by page from the last entity read with
+ * {@link #after(Object, Serializable)}, instead of skipping the entities already read.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class Range {
+
+	/**
+	 * Valid column name. The name is rendered in the query, so that anything else is rejected.
+	 */
+	private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+	/**
+	 * Column the range applies to.
+	 */
+	private final String name;
+
+	/**
+	 * Lower bound, included, <code>null</code> if unbounded.
+	 */
+	private final Object from;
+
+	/**
+	 * Upper bound, excluded, <code>null</code> if unbounded.
+	 */
+	private final Object to;
+
+	/**
+	 * Value of the column of the last entity read, <code>null</code> for the first page.
+	 */
+	private final Object afterValue;
+
+	/**
+	 * Identifier of the last entity read, <code>null</code> for the first page.
+	 */
+	private final Serializable afterId;
+
+	/**
+	 * The constructor {@link #Range(String, Object, Object, Object, Serializable)} instantiates a range.
+	 *
+	 * @param name
+	 *            column the range applies to.
+	 * @param from
+	 *            lower bound, included.
+	 * @param to
+	 *            upper bound, excluded.
+	 * @param afterValue
+	 *            value of the column of the last entity read.
+	 * @param afterId
+	 *            identifier of the last entity read.
+	 */
+	private Range(String name, Object from, Object to, Object afterValue, Serializable afterId) {
+		this.name = name;
+		this.from = from;
+		this.to = to;
+		this.afterValue = afterValue;
+		this.afterId = afterId;
+	}
+
+	/**
+	 * @param name
+	 *            column the range applies to.
+	 * @param from
+	 *            lower bound, included, <code>null</code> if unbounded.
+	 * @param to
+	 *            upper bound, excluded, <code>null</code> if unbounded.
+	 * @return the range of the entities whose column is greater than or equal to <code>from</code> and less than
+	 *         <code>to</code>.
+	 */
+	public static Range of(String name, Object from, Object to) {
+		if (name == null || !NAME.matcher(name).matches()) {
+			throw new IllegalArgumentException("The column [ " + name + " ] is not a valid column name.");
+		}
+		return new Range(name, from, to, null, null);
+	}
+
+	/**
+	 * @param value
+	 *            value of the column of the last entity read.
+	 * @param id
+	 *            identifier of the last entity read.
+	 * @return a copy of this range starting after the entity received as parameter, to read the next page.
+	 */
+	public Range after(Object value, Serializable id) {
+		if (value == null || id == null) {
+			throw new IllegalArgumentException("The last entity read [ " + value + ", " + id + " ] is not valid.");
+		}
+		return new Range(name, from, to, value, id);
+	}
+
+	/**
+	 * Render the condition of the range, as comparisons of the column to positional parameters. The continuation is
+	 * rendered <code>column &gt;= ? and (column &gt; ? or (column = ? and id &gt; ?))</code>: the redundant lower bound
+	 * lets the database seek directly to the last entity read in the index on the column, instead of scanning from the
+	 * start of the range.
+	 *
+	 * @param alias
+	 *            alias of the table the columns are prefixed with, <code>null</code> if none.
+	 * @param idName
+	 *            name of the identifier.
+	 * @param params
+	 *            list receiving the values of the parameters, in order of position.
+	 * @return the condition, an empty string if the range is unbounded and not continued.
+	 */
+	public String toCondition(String alias, String idName, List<Object> params) {
+		String column = prefix(alias) + name;
+		StringBuilder condition = new StringBuilder();
+		if (from != null) {
+			condition.append(column).append(" >= ?");
+			params.add(from);
+		}
+		if (to != null) {
+			condition.append(condition.length() > 0 ? " and " : "").append(column).append(" < ?");
+			params.add(to);
+		}
+		if (afterId != null) {
+			condition.append(condition.length() > 0 ? " and " : "").append(column).append(" >= ? and ");
+			condition.append('(').append(column).append(" > ? or (").append(column).append(" = ? and ");
+			condition.append(prefix(alias)).append(idName).append(" > ?))");
+			params.add(afterValue);
+			params.add(afterValue);
+			params.add(afterValue);
+			params.add(afterId);
+		}
+		return condition.toString();
+	}
+
+	/**
+	 * Render the order of the range: the column, then the identifier.
+	 *
+	 * @param alias
+	 *            alias of the table the columns are prefixed with, <code>null</code> if none.
+	 * @param idName
+	 *            name of the identifier.
+	 * @return the order, without the <code>order by</code> keywords.
+	 */
+	public String toOrderClause(String alias, String idName) {
+		return prefix(alias) + name + ", " + prefix(alias) + idName;
+	}
+
+	/**
+	 * @param alias
+	 *            alias of the table, <code>null</code> if none.
+	 * @return the prefix of the columns.
+	 */
+	private static String prefix(String alias) {
+		return (alias != null ? alias + "." : "");
+	}
+
+	/**
+	 * Name getter.
+	 *
+	 * @return the column the range applies to.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * From getter.
+	 *
+	 * @return the lower bound, included, <code>null</code> if unbounded.
+	 */
+	public Object getFrom() {
+		return from;
+	}
+
+	/**
+	 * To getter.
+	 *
+	 * @return the upper bound, excluded, <code>null</code> if unbounded.
+	 */
+	public Object getTo() {
+		return to;
+	}
+
+	/**
+	 * After value getter.
+	 *
+	 * @return the value of the column of the last entity read, <code>null</code> for the first page.
+	 */
+	public Object getAfterValue() {
+		return afterValue;
+	}
+
+	/**
+	 * After identifier getter.
+	 *
+	 * @return the identifier of the last entity read, <code>null</code> for the first page.
+	 */
+	public Serializable getAfterId() {
+		return afterId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "Range [ name=" + name + ", from=" + from + ", to=" + to
+				+ (afterId != null ? ", after=" + afterValue + "/" + afterId : "") + " ]";
+	}
+
+}
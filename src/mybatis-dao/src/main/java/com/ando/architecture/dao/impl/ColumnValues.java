@@ -0,0 +1,149 @@
+package com.ando.architecture.dao.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The class {@link ColumnValues} is the parameter of the write statements of a {@link MyBatisDAO}: a {@link Map} view
+ * of the column values of an entity, keyed by column name.
+ * <p>
+ * The positions of the columns are resolved once per DAO and shared by all the views, so that a write only wraps the
+ * array returned by {@link MyBatisDAO#getColumnValues(Object)} instead of filling a new {@link java.util.HashMap}. The
+ * values can be replaced, but no column can be added or removed. The id column always has a slot, even when it is not
+ * one of the columns of the entity, so that MyBatis can write back the key generated by the database.
+ *
+ * @author Zied ANDOLSI
+ */
+final class ColumnValues extends AbstractMap<String, Object> {
+
+	/**
+	 * Positions of the columns in the values, shared by the views of a DAO.
+	 */
+	private final Map<String, Integer> indexes;
+
+	/**
+	 * Values of the columns.
+	 */
+	private final Object[] values;
+
+	/**
+	 * Name of the id column when it is not one of the columns, <code>null</code> otherwise.
+	 */
+	private final String idName;
+
+	/**
+	 * Value of the id column when it is not one of the columns.
+	 */
+	private Object id;
+
+	/**
+	 * The constructor {@link #ColumnValues(Map, Object[], String)} wraps the column values of an entity.
+	 *
+	 * @param indexes
+	 *            positions of the columns in the values
+	 * @param values
+	 *            values of the columns, in the order of the column names
+	 * @param columnIdName
+	 *            name of the id column
+	 */
+	ColumnValues(Map<String, Integer> indexes, Object[] values, String columnIdName) {
+		this.indexes = indexes;
+		this.values = values;
+		this.idName = (indexes.containsKey(columnIdName) ? null : columnIdName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object get(Object key) {
+		Integer index = indexes.get(key);
+		if (index != null) {
+			return values[index.intValue()];
+		}
+		return (idName != null && idName.equals(key) ? id : null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexes.containsKey(key) || (idName != null && idName.equals(key));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object put(String key, Object value) {
+		Integer index = indexes.get(key);
+		Object previous;
+		if (index != null) {
+			previous = values[index.intValue()];
+			values[index.intValue()] = value;
+		} else if (idName != null && idName.equals(key)) {
+			previous = id;
+			id = value;
+		} else {
+			throw new IllegalArgumentException("The column [ " + key + " ] is not mapped.");
+		}
+		return previous;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return (idName != null ? values.length + 1 : values.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				final Iterator<Entry<String, Integer>> columns = indexes.entrySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+
+					private boolean idReturned = (idName == null);
+
+					@Override
+					public boolean hasNext() {
+						return columns.hasNext() || !idReturned;
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						if (!columns.hasNext() && !idReturned) {
+							idReturned = true;
+							return new SimpleImmutableEntry<String, Object>(idName, id);
+						}
+						Entry<String, Integer> column = columns.next();
+						return new SimpleImmutableEntry<String, Object>(column.getKey(),
+								values[column.getValue().intValue()]);
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException("The columns can not be removed.");
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ColumnValues.this.size();
+			}
+		};
+	}
+
+}
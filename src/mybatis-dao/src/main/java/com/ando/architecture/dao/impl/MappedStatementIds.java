@@ -0,0 +1,231 @@
+package com.ando.architecture.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The class {@link MappedStatementIds} holds the identifiers of the generic mapped statements of a {@link MyBatisDAO},
+ * built once from the namespace of the mapper files and the name of the entity, instead of being concatenated by each
+ * call.
+ * <p>
+ * Instances are immutable and can be shared by all the threads.
+ *
+ * @author Zied ANDOLSI
+ */
+final class MappedStatementIds {
+
+	/**
+	 * Select of an entity by identifier.
+	 */
+	private final String find;
+
+	/**
+	 * Select of all entities.
+	 */
+	private final String findAll;
+
+	/**
+	 * Select of the entities of a range.
+	 */
+	private final String findRange;
+
+	/**
+	 * Select of the entities satisfying a specification.
+	 */
+	private final String findSpecification;
+
+	/**
+	 * Insert of an entity.
+	 */
+	private final String create;
+
+	/**
+	 * Multi-row insert of entities.
+	 */
+	private final String createAll;
+
+	/**
+	 * Update of an entity.
+	 */
+	private final String update;
+
+	/**
+	 * Insert or update of an entity.
+	 */
+	private final String upsert;
+
+	/**
+	 * Delete of an entity.
+	 */
+	private final String delete;
+
+	/**
+	 * Select of an entity by criteria.
+	 */
+	private final String selectOne;
+
+	/**
+	 * Select of entities by criteria.
+	 */
+	private final String selectList;
+
+	/**
+	 * Select of aggregates of the entities.
+	 */
+	private final String aggregate;
+
+	/**
+	 * The constructor {@link #MappedStatementIds(String, String)} builds the statement identifiers of an entity.
+	 *
+	 * @param namespace
+	 *            namespace of the mapper files
+	 * @param entityName
+	 *            simple name of the entity class
+	 */
+	MappedStatementIds(String namespace, String entityName) {
+		String prefix = namespace + ".";
+		this.find = prefix + MyBatisDAO.PREFIX_FIND_QUERY + entityName;
+		this.findAll = prefix + MyBatisDAO.PREFIX_FIND_QUERY + "All" + entityName;
+		this.findRange = prefix + MyBatisDAO.PREFIX_FIND_QUERY + "Range" + entityName;
+		this.findSpecification = prefix + MyBatisDAO.PREFIX_FIND_QUERY + "Specification" + entityName;
+		this.create = prefix + MyBatisDAO.PREFIX_INSERT_QUERY + entityName;
+		this.createAll = prefix + MyBatisDAO.PREFIX_INSERT_QUERY + MyBatisDAO.SUFFIX_ALL_QUERY + entityName;
+		this.update = prefix + MyBatisDAO.PREFIX_UPDATE_QUERY + entityName;
+		this.upsert = prefix + MyBatisDAO.PREFIX_UPSERT_QUERY + entityName;
+		this.delete = prefix + MyBatisDAO.PREFIX_DELETE_QUERY + entityName;
+		this.selectOne = prefix + MyBatisDAO.PREFIX_SELECT_QUERY + "One" + entityName;
+		this.selectList = prefix + MyBatisDAO.PREFIX_SELECT_QUERY + "List" + entityName;
+		this.aggregate = prefix + MyBatisDAO.PREFIX_AGGREGATE_QUERY + entityName;
+	}
+
+	/**
+	 * Lists the required statements, used by the basic operations of the DAO, which are not declared in the
+	 * configuration received as parameter.
+	 *
+	 * @param configuration
+	 *            the MyBatis configuration
+	 * @return the identifiers of the missing statements, empty if all the required statements are declared.
+	 */
+	List<String> getMissingRequiredStatements(Configuration configuration) {
+		return getMissingStatements(configuration, find, findAll, create, update, delete);
+	}
+
+	/**
+	 * Lists the optional statements, used only by some methods of the DAO, which are not declared in the
+	 * configuration received as parameter.
+	 *
+	 * @param configuration
+	 *            the MyBatis configuration
+	 * @return the identifiers of the missing statements, empty if all the optional statements are declared.
+	 */
+	List<String> getMissingOptionalStatements(Configuration configuration) {
+		return getMissingStatements(configuration, findRange, findSpecification, createAll, upsert, selectOne,
+				selectList, aggregate);
+	}
+
+	/**
+	 * Lists the statements received as parameter which are not declared in the configuration.
+	 *
+	 * @param configuration
+	 *            the MyBatis configuration
+	 * @param ids
+	 *            the identifiers of the statements
+	 * @return the identifiers of the missing statements.
+	 */
+	private static List<String> getMissingStatements(Configuration configuration, String... ids) {
+		List<String> missing = new ArrayList<String>();
+		for (String id : ids) {
+			if (!configuration.hasStatement(id)) {
+				missing.add(id);
+			}
+		}
+		return missing;
+	}
+
+	/**
+	 * @return the select of an entity by identifier.
+	 */
+	String getFind() {
+		return find;
+	}
+
+	/**
+	 * @return the select of all entities.
+	 */
+	String getFindAll() {
+		return findAll;
+	}
+
+	/**
+	 * @return the select of the entities of a range.
+	 */
+	String getFindRange() {
+		return findRange;
+	}
+
+	/**
+	 * @return the select of the entities satisfying a specification.
+	 */
+	String getFindSpecification() {
+		return findSpecification;
+	}
+
+	/**
+	 * @return the insert of an entity.
+	 */
+	String getCreate() {
+		return create;
+	}
+
+	/**
+	 * @return the multi-row insert of entities.
+	 */
+	String getCreateAll() {
+		return createAll;
+	}
+
+	/**
+	 * @return the update of an entity.
+	 */
+	String getUpdate() {
+		return update;
+	}
+
+	/**
+	 * @return the insert or update of an entity.
+	 */
+	String getUpsert() {
+		return upsert;
+	}
+
+	/**
+	 * @return the delete of an entity.
+	 */
+	String getDelete() {
+		return delete;
+	}
+
+	/**
+	 * @return the select of an entity by criteria.
+	 */
+	String getSelectOne() {
+		return selectOne;
+	}
+
+	/**
+	 * @return the select of entities by criteria.
+	 */
+	String getSelectList() {
+		return selectList;
+	}
+
+	/**
+	 * @return the select of aggregates of the entities.
+	 */
+	String getAggregate() {
+		return aggregate;
+	}
+
+}
@@ -2,19 +2,38 @@ package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.apache.commons.lang.NotImplementedException;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.CacheSettings;
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
 import com.ando.architecture.dao.MyBatisAction;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
 import com.ando.architecture.exception.DataBaseException;
+import com.ando.architecture.util.CacheStatistics;
 import com.ando.architecture.util.MybatisUtil;
+import com.ando.architecture.util.QueryOptionsInterceptor;
 
 /**
  * This class provides the basic implementations needed to make Object-Relational operations on databases, using the
@@ -44,6 +63,59 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 	 */
 	private String columnIdName;
 
+	/**
+	 * Identifiers of the mapped statements of the entity, built once.
+	 */
+	private final MappedStatementIds statementIds;
+
+	/**
+	 * Positions of the columns in the column values, resolved on first use.
+	 */
+	private volatile Map<String, Integer> columnIndexes;
+
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
+	/**
+	 * Options of the writes of this DAO: the timeout of the default options only, the fetch size and the maximum
+	 * number of rows not applying to the writes.
+	 */
+	private QueryOptions writeOptions = QueryOptions.NONE;
+
+	/**
+	 * Maximum number of bind parameters of a multi-row insert.
+	 */
+	private int maxBindParameters = DEFAULT_MAX_BIND_PARAMETERS;
+
+	/**
+	 * Settings of the entity cache, <code>null</code> if the entities are not cached.
+	 */
+	private volatile CacheSettings cacheSettings;
+
+	/**
+	 * Cache of the entities by identifier, <code>null</code> if the entities are not cached.
+	 */
+	private volatile Cache cache;
+
+	/**
+	 * Metrics of the entity cache.
+	 */
+	private final CacheStatistics cacheStatistics = new CacheStatistics();
+
+	/**
+	 * Invalidation counters of the cached entities, by hash of identifier, bumped by each eviction. A read does not
+	 * cache its entity if the counter of its identifier has changed since the read began: a write has been committed
+	 * meanwhile, and the entity read may be stale. Identifiers sharing a counter only skip a put.
+	 */
+	private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_COUNTERS);
+
+	/**
+	 * Condition and order clauses rendered from the specifications, by shape of specification.
+	 */
+	private final ConcurrentMap<String, String[]> specificationClauses = new ConcurrentHashMap<String, String[]>();
+
 	/** Default namespace in mapper files. */
 	protected static final String NAMESPACE = "mappers";
 
@@ -53,33 +125,120 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 	/** prefix of create queries in mapper files. */
 	protected static final String PREFIX_INSERT_QUERY = "create";
 
+	/** suffix of multi-row create queries in mapper files. */
+	protected static final String SUFFIX_ALL_QUERY = "All";
+
+	/** Parameter holding the rows of a multi-row create query. */
+	protected static final String PARAM_ROWS = "list";
+
+	/** Number of rows per multi-row insert, the largest first. */
+	private static final int[] INSERT_GROUP_SIZES = { 256, 64, 16, 4, 1 };
+
+	/** Number of invalidation counters of the cached entities, a power of two. */
+	private static final int INVALIDATION_COUNTERS = 64;
+
+	/** Default maximum number of bind parameters per statement, below the limit of the most restrictive databases. */
+	private static final int DEFAULT_MAX_BIND_PARAMETERS = 2000;
+
 	/** prefix of update queries in mapper files. */
 	protected static final String PREFIX_UPDATE_QUERY = "update";
 
+	/** prefix of upsert queries in mapper files. */
+	protected static final String PREFIX_UPSERT_QUERY = "upsert";
+
 	/** prefix of delete queries in mapper files. */
 	protected static final String PREFIX_DELETE_QUERY = "delete";
 
 	/** prefix of select queries in mapper files. */
 	protected static final String PREFIX_SELECT_QUERY = "select";
 
+	/** Parameter holding the number of rows to skip of a paged list query. */
+	protected static final String PARAM_OFFSET = "offset";
+
+	/** Parameter holding the maximum number of rows of a paged list query. */
+	protected static final String PARAM_LIMIT = "limit";
+
+	/** Parameter holding the identifier after which a keyset paged list query starts. */
+	protected static final String PARAM_AFTER = "after";
+
+	/** Parameter holding the column of a range query, substituted with <code>${column}</code>. */
+	protected static final String PARAM_COLUMN = "column";
+
+	/** Parameter holding the lower bound, included, of a range query, <code>null</code> if unbounded. */
+	protected static final String PARAM_FROM = "from";
+
+	/** Parameter holding the upper bound, excluded, of a range query, <code>null</code> if unbounded. */
+	protected static final String PARAM_TO = "to";
+
+	/** Parameter holding the column value of the entity after which a range query continues. */
+	protected static final String PARAM_AFTER_VALUE = "afterValue";
+
+	/** Prefix of the positional parameters of a list query, as named by MyBatis: param1, param2... */
+	private static final String PARAM_POSITION = "param";
+
+	/** prefix of aggregate queries in mapper files. */
+	protected static final String PREFIX_AGGREGATE_QUERY = "aggregate";
+
+	/** Parameter holding the select clause of an aggregate query, substituted with <code>${select}</code>. */
+	protected static final String PARAM_SELECT = "select";
+
+	/** Parameter holding the grouping columns of an aggregate query, <code>null</code> if none. */
+	protected static final String PARAM_GROUP_BY = "groupBy";
+
+	/** Prefix of the labels of the values selected by an aggregate query: c0, c1... */
+	private static final String LABEL_PREFIX = "c";
+
+	/** Parameter holding the condition of a specification query, substituted with <code>${where}</code>. */
+	protected static final String PARAM_WHERE = "where";
+
+	/** Parameter holding the order of a specification query, substituted with <code>${orderBy}</code>. */
+	protected static final String PARAM_ORDER_BY = "orderBy";
+
+	/** Prefix of the parameters holding the values of a specification query: v0, v1... */
+	private static final String PARAM_VALUE_PREFIX = "v";
+
 	/**
 	 * The constructor {@link #SimpleMyBatisDAO(Class)} instantiates a new {@link MyBatisDAO} object keeping in mind the
 	 * type of the class to manage.
 	 * <p>
-	 * This constructor must be called by all the inheriting classes.
+	 * This constructor must be called by all the inheriting classes. When MyBatis is configured, the statements of the
+	 * entity are checked against the mapper files: a missing statement of the basic operations (find, findAll, create,
+	 * update and delete) fails the construction, while a missing optional statement is only logged.
 	 * 
 	 * @param typeClass
 	 *            Entity's type this DAO instance has to manage.
 	 * @param columnIdName
 	 *            column id name
+	 * @throws IllegalStateException
+	 *             thrown if a required statement of the entity is not declared in the mapper files.
 	 */
 	protected MyBatisDAO(Class<Type> typeClass, String columnIdName) {
 		this.typeClass = typeClass;
 		this.columnIdName = columnIdName;
+		this.statementIds = new MappedStatementIds(NAMESPACE, typeClass.getSimpleName());
+
+		Configuration configuration = MybatisUtil.getConfiguration();
+		if (configuration != null) {
+			List<String> required = statementIds.getMissingRequiredStatements(configuration);
+			if (!required.isEmpty()) {
+				LOGGER.error("The statements " + required + " of the entity [ " + typeClass.getSimpleName()
+						+ " ] are not declared in the mapper files.");
+				throw new IllegalStateException("The statements " + required + " of the entity [ "
+						+ typeClass.getSimpleName() + " ] are not declared in the mapper files.");
+			}
+			for (String id : statementIds.getMissingOptionalStatements(configuration)) {
+				LOGGER.warn("The statement [ " + id + " ] of the entity [ " + typeClass.getSimpleName()
+						+ " ] is not declared in the mapper files: the methods using it will fail.");
+			}
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * When a cache is configured (see {@link #setCacheSettings(CacheSettings)}), the entity is looked up in the cache
+	 * first, and put in the cache when it is read from the database outside of a managed session, unless the entity
+	 * has been evicted by a write during the read.
 	 */
 	@SuppressWarnings("unchecked")
 	public Type findOne(final IdType id) throws DataBaseException {
@@ -92,16 +251,32 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 
 		try {
 
+			Cache entityCache = cache;
+			long invalidation = 0;
+			if (entityCache != null) {
+				invalidation = invalidations.get(invalidationCounter(id));
+				Type cached = (Type) entityCache.getObject(id);
+				if (cached != null) {
+					LOGGER.debug("Returning the cached entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+							+ id.toString() + " ]...");
+					return cached;
+				}
+			}
+
 			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
 					+ id.toString() + " ]...");
-			return executeAction(new MyBatisAction<Type>() {
+			Type entity = executeQuery(new MyBatisAction<Type>() {
 
 				@Override
 				public Type apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_FIND_QUERY + typeClass.getSimpleName();
-					return (Type) session.selectOne(query, id);
+					return (Type) session.selectOne(statementIds.getFind(), id);
 				}
-			}, false);
+			}, QueryOptions.NONE);
+
+			if (entityCache != null && entity != null && !MybatisUtil.isManagedSessionStarted()) {
+				cacheUnlessInvalidated(entityCache, id, entity, invalidation);
+			}
+			return entity;
 
 		} catch (Exception e) {
 			LOGGER.error(
@@ -127,11 +302,11 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 		try {
 			LOGGER.debug("Saving an entity [ " + typeClass.getSimpleName() + " ]...");
 
-			return executeAction(new MyBatisAction<Type>() {
+			return executeWrite(new MyBatisAction<Type>() {
 
 				@Override
 				public Type apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_INSERT_QUERY + typeClass.getSimpleName();
+					String query = statementIds.getCreate();
 					Map<String, Object> params = getEntityMap(entity);
 					session.insert(query, params);
 					IdType identifier = (IdType) params.get(columnIdName);
@@ -140,7 +315,7 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 					setIdentifier(entity, identifier);
 					return entity;
 				}
-			}, true);
+			}, null);
 
 		} catch (Exception e) {
 			LOGGER.error("An error has occured while saving the entity [ " + typeClass.getSimpleName() + " ].", e);
@@ -150,6 +325,142 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 
 	}
 
+	/**
+	 * Inserts all the entities received as parameter with multi-row statements <code>INSERT ... VALUES (...),
+	 * (...)</code>, which send several rows per execution even with drivers executing a JDBC batch one row at a time.
+	 * <p>
+	 * The statement <code>createAll&lt;Type&gt;</code> of the mapper files receives the rows in the parameter
+	 * <code>list</code>, each row being the map of the entity values received by <code>create&lt;Type&gt;</code>, and
+	 * builds its <code>VALUES</code> with a <code>foreach</code>. The rows are grouped by 256, 64, 16, 4 and 1 rows,
+	 * within the limit of bind parameters per statement (see {@link #setMaxBindParameters(int)}), so that only a few
+	 * distinct statements are generated. All the groups are inserted in one session and committed together.
+	 * 
+	 * @param entities
+	 *            Entities to insert in the database.
+	 * @return the number of rows inserted.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to insert the entities in the database.
+	 */
+	public int insertAll(final Collection<Type> entities) throws DataBaseException {
+		LOGGER.debug("Starting insertAll method...");
+
+		if (entities == null) {
+			LOGGER.error("The entities [ " + typeClass.getSimpleName() + " ] to insert cannot be null.");
+			throw new IllegalArgumentException("The entities " + typeClass.getSimpleName()
+					+ " to insert cannot be null.");
+		}
+
+		final List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(entities.size());
+		for (Type entity : entities) {
+			if (entity == null) {
+				LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to insert cannot be null.");
+				throw new IllegalArgumentException("The entity " + typeClass.getSimpleName()
+						+ " to insert cannot be null.");
+			}
+			rows.add(getEntityMap(entity));
+		}
+
+		try {
+			LOGGER.debug("Inserting " + rows.size() + " entities [ " + typeClass.getSimpleName() + " ]...");
+
+			Integer count = executeWrite(new MyBatisAction<Integer>() {
+
+				@Override
+				public Integer apply(SqlSession session) throws DataBaseException {
+					String query = statementIds.getCreateAll();
+					int columnCount = getColumnIndexes().size();
+					int count = 0;
+					int offset = 0;
+					while (offset < rows.size()) {
+						int size = insertGroupSize(rows.size() - offset, columnCount);
+						Map<String, Object> params = new HashMap<String, Object>();
+						params.put(PARAM_ROWS, rows.subList(offset, offset + size));
+						count += session.insert(query, params);
+						offset += size;
+					}
+					return count;
+				}
+			}, null);
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been successfully inserted.");
+			return count;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while inserting the entities [ " + typeClass.getSimpleName() + " ].",
+					e);
+			throw new DataBaseException("An error has occured while inserting the entities [ "
+					+ typeClass.getSimpleName() + " ].", e);
+		}
+	}
+
+	/**
+	 * Saves all the entities received as parameter with the statement <code>create&lt;Type&gt;</code>, in a session
+	 * using the batch executor: the statements are sent to the database in JDBC batches of <code>batchSize</code>
+	 * entities, and all the batches are committed together.
+	 * <p>
+	 * The identifiers generated by the database are set on the entities after each batch, when the statement declares
+	 * <code>useGeneratedKeys</code> and the driver returns the keys of a batch.
+	 * 
+	 * @param entities
+	 *            Entities to save in the database.
+	 * @param batchSize
+	 *            number of statements sent per JDBC batch.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to save the entities in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	public void saveAll(final Collection<Type> entities, final int batchSize) throws DataBaseException {
+		LOGGER.debug("Starting saveAll method...");
+
+		checkBatch(entities, batchSize, "save", false);
+
+		try {
+			LOGGER.debug("Saving entities [ " + typeClass.getSimpleName() + " ] by batch of " + batchSize + "...");
+
+			executeWrite(new MyBatisAction<Type>() {
+
+				@Override
+				public Type apply(SqlSession session) throws DataBaseException {
+					String query = statementIds.getCreate();
+					List<Type> batch = new ArrayList<Type>(batchSize);
+					List<Map<String, Object>> batchParams = new ArrayList<Map<String, Object>>(batchSize);
+					for (Type entity : entities) {
+						Map<String, Object> params = getEntityMap(entity);
+						session.insert(query, params);
+						batch.add(entity);
+						batchParams.add(params);
+						if (batch.size() == batchSize) {
+							session.flushStatements();
+							setIdentifiers(batch, batchParams);
+						}
+					}
+					session.flushStatements();
+					setIdentifiers(batch, batchParams);
+					return null;
+				}
+
+				private void setIdentifiers(List<Type> batch, List<Map<String, Object>> batchParams) {
+					for (int i = 0; i < batch.size(); i++) {
+						IdType identifier = (IdType) batchParams.get(i).get(columnIdName);
+						if (identifier != null) {
+							setIdentifier(batch.get(i), identifier);
+						}
+					}
+					batch.clear();
+					batchParams.clear();
+				}
+			}, ExecutorType.BATCH);
+
+			LOGGER.debug(entities.size() + " entities [ " + typeClass.getSimpleName()
+					+ " ] have been successfully saved.");
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while saving the entities [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("An error has occured while saving the entities " + typeClass.getSimpleName()
+					+ ".", e);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -167,25 +478,23 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 					+ " ] to update cannot be null.");
 		}
 
-		Type oldEntity = findOne(getIdentifier(entity));
-		if (oldEntity == null) {
-			throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
-					+ getIdentifier(entity) + " ] found.");
-		}
-
 		try {
 			LOGGER.debug("Updating the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
 					+ getIdentifier(entity) + " ]...");
 
-			executeAction(new MyBatisAction<Type>() {
+			executeWrite(new MyBatisAction<Type>() {
 
 				@Override
 				public Type apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_UPDATE_QUERY + typeClass.getSimpleName();
-					session.update(query, getEntityMap(entity));
+					String query = statementIds.getUpdate();
+					if (session.update(query, getEntityMap(entity)) == 0) {
+						throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+								+ getIdentifier(entity) + " ] found.");
+					}
 					return null;
 				}
-			}, true);
+			}, null);
+			evict(getIdentifier(entity));
 
 			LOGGER.info("The entity " + typeClass.getSimpleName() + " has been successfully updated.");
 			return entity;
@@ -198,6 +507,113 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 
 	}
 
+	/**
+	 * Updates all the entities received as parameter with the statement <code>update&lt;Type&gt;</code>, in a session
+	 * using the batch executor: the statements are sent to the database in JDBC batches of <code>batchSize</code>
+	 * entities, and all the batches are committed together, or rolled back if one of the entities does not exist. In a
+	 * managed session, the statements run with the executor of the session, and a missing entity is detected as well.
+	 * 
+	 * @param entities
+	 *            Entities to update in the database. Their identifiers can not be null.
+	 * @param batchSize
+	 *            number of statements sent per JDBC batch.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to update the entities in the database.
+	 */
+	public void updateAll(final Collection<Type> entities, final int batchSize) throws DataBaseException {
+		LOGGER.debug("Starting updateAll method...");
+
+		checkBatch(entities, batchSize, "update", true);
+
+		try {
+			LOGGER.debug("Updating entities [ " + typeClass.getSimpleName() + " ] by batch of " + batchSize + "...");
+
+			executeWrite(new MyBatisAction<Type>() {
+
+				@Override
+				public Type apply(SqlSession session) throws DataBaseException {
+					String query = statementIds.getUpdate();
+					int pending = 0;
+					for (Type entity : entities) {
+						Map<String, Object> params = getEntityMap(entity);
+						// a managed session keeps its own executor, which may run each statement immediately
+						checkUpdateCount(session.update(query, params), params);
+						if (++pending == batchSize) {
+							checkUpdateCounts(session.flushStatements());
+							pending = 0;
+						}
+					}
+					checkUpdateCounts(session.flushStatements());
+					return null;
+				}
+			}, ExecutorType.BATCH);
+			for (Type entity : entities) {
+				evict(getIdentifier(entity));
+			}
+
+			LOGGER.debug(entities.size() + " entities [ " + typeClass.getSimpleName()
+					+ " ] have been successfully updated.");
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while updating the entities [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("An error has occured while updating the entities [ "
+					+ typeClass.getSimpleName() + " ].", e);
+		}
+	}
+
+	/**
+	 * Insert the entity, or update it when an entity with the same identifier already exists, with a single statement.
+	 * <p>
+	 * The statement <code>upsert&lt;Type&gt;</code> of the mapper files receives the same parameters as the insert. As
+	 * its SQL depends on the database (<code>MERGE</code>, <code>ON CONFLICT</code>, <code>ON DUPLICATE KEY</code>),
+	 * it is usually declared once per database with the <code>databaseId</code> attribute, the database being
+	 * identified by the <code>databaseIdProvider</code> of the MyBatis configuration.
+	 * 
+	 * @param entity
+	 *            the entity to insert or update. Its identifier can not be null.
+	 * @return the entity.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to write the entity in the database.
+	 */
+	public Type upsert(final Type entity) throws DataBaseException {
+		LOGGER.debug("Starting upsert method...");
+
+		if (entity == null) {
+			LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to upsert cannot be null.");
+			throw new IllegalArgumentException("The entity " + typeClass + " to upsert cannot be null.");
+		}
+
+		if (getIdentifier(entity) == null) {
+			LOGGER.error("The identifier of the entity [ " + typeClass.getSimpleName() + " ] to upsert cannot be null.");
+			throw new IllegalArgumentException("The identifier of the entity [ " + typeClass.getSimpleName()
+					+ " ] to upsert cannot be null.");
+		}
+
+		try {
+			LOGGER.debug("Upserting the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+					+ getIdentifier(entity) + " ]...");
+
+			executeWrite(new MyBatisAction<Type>() {
+
+				@Override
+				public Type apply(SqlSession session) throws DataBaseException {
+					session.update(statementIds.getUpsert(), getEntityMap(entity));
+					return null;
+				}
+			}, null);
+			evict(getIdentifier(entity));
+
+			LOGGER.debug("The entity " + typeClass.getSimpleName() + " has been successfully upserted.");
+			return entity;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while upserting the entity [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("An error has occured while upserting the entity [ "
+					+ typeClass.getSimpleName() + " ].", e);
+		}
+
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -221,15 +637,16 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 			LOGGER.debug("Deleting the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
 					+ getIdentifier(entity) + " ]...");
 
-			executeAction(new MyBatisAction<Type>() {
+			executeWrite(new MyBatisAction<Type>() {
 
 				@Override
 				public Type apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_DELETE_QUERY + typeClass.getSimpleName();
+					String query = statementIds.getDelete();
 					session.delete(query, entity);
 					return null;
 				}
-			}, true);
+			}, null);
+			evict(getIdentifier(entity));
 
 			LOGGER.debug("The entity [ " + typeClass.getSimpleName() + " ] with identifier [ " + getIdentifier(entity)
 					+ " ] has been successfully deleted.");
@@ -243,6 +660,57 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 
 	}
 
+	/**
+	 * Deletes all the entities received as parameter with the statement <code>delete&lt;Type&gt;</code>, in a session
+	 * using the batch executor: the statements are sent to the database in JDBC batches of <code>batchSize</code>
+	 * entities, and all the batches are committed together.
+	 * 
+	 * @param entities
+	 *            Entities to delete from the database. Their identifiers can not be null.
+	 * @param batchSize
+	 *            number of statements sent per JDBC batch.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to delete the entities from the database.
+	 */
+	public void deleteAll(final Collection<Type> entities, final int batchSize) throws DataBaseException {
+		LOGGER.debug("Starting deleteAll method...");
+
+		checkBatch(entities, batchSize, "delete", true);
+
+		try {
+			LOGGER.debug("Deleting entities [ " + typeClass.getSimpleName() + " ] by batch of " + batchSize + "...");
+
+			executeWrite(new MyBatisAction<Type>() {
+
+				@Override
+				public Type apply(SqlSession session) throws DataBaseException {
+					String query = statementIds.getDelete();
+					int pending = 0;
+					for (Type entity : entities) {
+						session.delete(query, entity);
+						if (++pending == batchSize) {
+							session.flushStatements();
+							pending = 0;
+						}
+					}
+					session.flushStatements();
+					return null;
+				}
+			}, ExecutorType.BATCH);
+			for (Type entity : entities) {
+				evict(getIdentifier(entity));
+			}
+
+			LOGGER.debug(entities.size() + " entities [ " + typeClass.getSimpleName()
+					+ " ] have been successfully deleted.");
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while deleting the entities [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("An error has occured while deleting the entities [ "
+					+ typeClass.getSimpleName() + " ].", e);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -253,14 +721,13 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 		try {
 
 			LOGGER.debug("Getting and returning all entities [ " + typeClass.getSimpleName() + " ]...");
-			List<Type> results = executeAction(new MyBatisAction<List<Type>>() {
+			List<Type> results = executeQuery(new MyBatisAction<List<Type>>() {
 
 				@Override
 				public List<Type> apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_FIND_QUERY + "All" + typeClass.getSimpleName();
-					return (List<Type>) session.selectList(query);
+					return (List<Type>) session.selectList(statementIds.getFindAll());
 				}
-			}, false);
+			}, QueryOptions.NONE);
 
 			return (results != null ? results : new ArrayList<Type>());
 
@@ -271,97 +738,777 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 	}
 
 	/**
-	 * Execute a SQL select request with an unique result of type <code>Type</code>.
-	 * 
-	 * @param params
-	 *            Map containing entity values to corresponding column.
-	 * 
-	 * @return the entity found, <code>null</code> if no entity has been found.
-	 * @throws DataBaseException
-	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is computed by the statement <code>aggregate&lt;Type&gt;</code> of the mapper files, which
+	 * receives the select clause in the parameter {@value #PARAM_SELECT} and the grouping columns in the parameter
+	 * {@value #PARAM_GROUP_BY}, e.g. <code>SELECT ${select} FROM bet &lt;if test="groupBy != null"&gt;GROUP BY
+	 * ${groupBy} ORDER BY ${groupBy}&lt;/if&gt;</code>, with the result type <code>map</code>. The columns are checked
+	 * against the columns mapped by this DAO before being substituted in the statement.
 	 */
 	@SuppressWarnings("unchecked")
-	protected Type executeSingleResult(final Map<String, Object> params) throws DataBaseException {
+	public List<AggregateRow> aggregate(final Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
 
+		final Map<String, Object> params = getAggregateParams(aggregation);
 		try {
 
-			return executeAction(new MyBatisAction<Type>() {
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			List<Map<String, Object>> results = executeQuery(new MyBatisAction<List<Map<String, Object>>>() {
 
 				@Override
-				public Type apply(SqlSession session) throws DataBaseException {
-
-					String query = NAMESPACE + "." + PREFIX_SELECT_QUERY + "One" + typeClass.getSimpleName();
-					return (Type) session.selectOne(query, params);
+				public List<Map<String, Object>> apply(SqlSession session) throws DataBaseException {
+					return (List<Map<String, Object>>) (List<?>) session.selectList(statementIds.getAggregate(),
+							params);
+				}
+			}, QueryOptions.NONE);
+
+			List<AggregateRow> rows = new ArrayList<AggregateRow>();
+			if (results != null) {
+				for (Map<String, Object> result : results) {
+					// MyBatis leaves the null values out of the map: the values are placed by label, not by position
+					Object[] values = new Object[aggregation.getColumnCount()];
+					for (Map.Entry<String, Object> value : result.entrySet()) {
+						values[Integer.parseInt(value.getKey().substring(LABEL_PREFIX.length()))] = value.getValue();
+					}
+					rows.add(new AggregateRow(values));
 				}
-			}, false);
+			}
+			return rows;
 
 		} catch (Exception e) {
-			LOGGER.error("An error has occurred when trying to execute select query.", e);
-			throw new DataBaseException("An error has occurred when trying to execute select query.", e);
+			LOGGER.error("An error has occured while aggregating the entities [ " + typeClass.getSimpleName()
+					+ " ] with " + aggregation + ".", e);
+			throw new DataBaseException("An error has occured while aggregating the entities [ "
+					+ typeClass.getSimpleName() + " ] with " + aggregation + ".", e);
 		}
 	}
 
 	/**
-	 * Execute a SQL request that the result is a {@link List} of entities.
+	 * Builds the parameters of the aggregate statement: the select clause, each value labelled by its position, and
+	 * the grouping columns.
 	 * 
-	 * @param params
-	 *            Map containing entity values to corresponding column.
+	 * @param aggregation
+	 *            the aggregation to compute.
+	 * @return the parameters of the statement.
+	 */
+	private Map<String, Object> getAggregateParams(Aggregation aggregation) {
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			LOGGER.error("The aggregation [ " + aggregation + " ] has neither grouping nor function.");
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+
+		List<String> groupBy = aggregation.getGroupBy();
+		StringBuilder select = new StringBuilder();
+		for (int i = 0; i < aggregation.getColumnCount(); i++) {
+			if (i > 0) {
+				select.append(", ");
+			}
+			if (i < groupBy.size()) {
+				select.append(checkMapped(groupBy.get(i)));
+			} else {
+				int function = i - groupBy.size();
+				String argument = aggregation.getArgument(function);
+				select.append(aggregation.getFunction(function).name()).append('(');
+				select.append(argument != null ? checkMapped(argument) : "*").append(')');
+			}
+			select.append(" AS ").append(LABEL_PREFIX).append(i);
+		}
+
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(PARAM_SELECT, select.toString());
+		params.put(PARAM_GROUP_BY, (groupBy.isEmpty() ? null : aggregation.toGroupByClause(null)));
+		return params;
+	}
+
+	/**
+	 * Checks that a column is mapped by this DAO, before substituting it in a statement.
 	 * 
-	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @param column
+	 *            the column.
+	 * @return the column.
+	 */
+	private String checkMapped(String column) {
+		if (!column.equals(columnIdName) && !getColumnIndexes().containsKey(column)) {
+			LOGGER.error("The column [ " + column + " ] is not mapped for the entity [ " + typeClass.getSimpleName()
+					+ " ].");
+			throw new IllegalArgumentException("The column [ " + column + " ] is not mapped for the entity [ "
+					+ typeClass.getSimpleName() + " ].");
+		}
+		return column;
+	}
+
+	/**
+	 * Stream all entities to a handler, one at a time, instead of loading them in a {@link List}, with the statement
+	 * <code>findAll&lt;Type&gt;</code> and the fetch size declared by its <code>fetchSize</code> attribute in the
+	 * mapper files.
+	 * 
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
 	 * @throws DataBaseException
-	 *             thrown if an exception occurs when trying to execute query in the database.
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 * @see #scrollAll(int, EntityHandler)
+	 */
+	public long scrollAll(EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.debug("Starting scrollAll method...");
+		return scroll(statementIds.getFindAll(), null, null, handler);
+	}
+
+	/**
+	 * Stream all entities to a handler, one at a time, instead of loading them in a {@link List}. The rows are read by
+	 * a {@link ResultHandler}, so that MyBatis does not keep them, with the fetch size received as parameter, so that
+	 * the memory used does not depend on the number of entities. The session is closed at the end of the stream,
+	 * unless it is the managed session of the current thread.
+	 * <p>
+	 * Some drivers need a specific fetch size to stream rows, e.g. {@link Integer#MIN_VALUE} with MySQL; PostgreSQL
+	 * streams only within a transaction, which is the case of the MyBatis sessions.
+	 * 
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time, overriding the fetch size of the mapper files. It is
+	 *            set as is on the statement, so that a value specific to the driver is accepted.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 */
+	public long scrollAll(int fetchSize, EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.debug("Starting scrollAll method...");
+		return scroll(statementIds.getFindAll(), null, Integer.valueOf(fetchSize), handler);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded by the statement <code>findRange&lt;Type&gt;</code> of the mapper files, which receives
+	 * the column in the parameter {@value #PARAM_COLUMN}, the bounds in the parameters {@value #PARAM_FROM} and
+	 * {@value #PARAM_TO}, the last entity read in the parameters {@value #PARAM_AFTER_VALUE} and {@value #PARAM_AFTER},
+	 * and the limit in the parameter {@value #PARAM_LIMIT}, e.g. <code>${column} &gt;= #{from} AND ${column} &lt;
+	 * #{to} AND ${column} &gt;= #{afterValue} AND (${column} &gt; #{afterValue} OR (${column} = #{afterValue} AND id
+	 * &gt; #{after})) ORDER BY ${column}, id LIMIT #{limit}</code>, each condition being omitted when its parameter is
+	 * <code>null</code>. The redundant <code>${column} &gt;= #{afterValue}</code> lets the database seek directly to
+	 * the last entity read in the index on the column.
 	 */
 	@SuppressWarnings("unchecked")
-	protected List<Type> executeResultList(final Object... params) throws DataBaseException {
+	public List<Type> findByRange(Range range, int limit) throws DataBaseException {
+		LOGGER.debug("Starting findByRange method...");
+
+		if (limit <= 0) {
+			LOGGER.error("The limit [ " + limit + " ] is not valid.");
+			throw new IllegalArgumentException("The limit [ " + limit + " ] is not valid.");
+		}
 
+		final Map<String, Object> params = getRangeParams(range);
+		params.put(PARAM_LIMIT, Integer.valueOf(limit));
 		try {
-			List<Type> results = executeAction(new MyBatisAction<List<Type>>() {
+
+			LOGGER.debug("Getting and returning " + limit + " entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + "...");
+			List<Type> results = executeQuery(new MyBatisAction<List<Type>>() {
 
 				@Override
 				public List<Type> apply(SqlSession session) throws DataBaseException {
-					String query = NAMESPACE + "." + PREFIX_SELECT_QUERY + "List" + typeClass.getSimpleName();
-					return (List<Type>) session.selectList(query);
+					return (List<Type>) session.selectList(statementIds.getFindRange(), params);
 				}
-			}, false);
+			}, QueryOptions.NONE);
 
 			return (results != null ? results : new ArrayList<Type>());
 
 		} catch (Exception e) {
-			LOGGER.error("An error has occurred when trying to execute select query.", e);
-
-			throw new DataBaseException("An error has occurred when trying to execute select query.", e);
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + ".", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + range + ".", e);
 		}
 	}
 
 	/**
-	 * Maps entity values to corresponding column.
+	 * Stream the entities of a range to a handler, one at a time, ordered by the column the range applies to, then by
+	 * identifier, instead of loading them in a {@link List}, with the statement <code>findRange&lt;Type&gt;</code>
+	 * without limit.
 	 * 
-	 * @param entity
-	 *            entity to map
-	 * @return map of entity values.
+	 * @param range
+	 *            the range of the entities to stream.
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time, set as is on the statement, see
+	 *            {@link #scrollAll(int, EntityHandler)}.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 * @see #findByRange(Range, int)
 	 */
-	private Map<String, Object> getEntityMap(Type entity) {
-
-		String[] columnsNames = getColumnNames();
-		if (null == columnsNames || columnsNames.length == 0) {
-			throw new NotImplementedException("No column' name specified");
-		}
-
-		Object[] columnsValues = getColumnValues(entity);
-		if (null == columnsValues || columnsValues.length == 0) {
-			throw new IllegalArgumentException("No column' value specified");
-		}
-
-		if (columnsValues.length != columnsNames.length) {
-			throw new IllegalArgumentException("Values number different than column number");
-		}
+	public long scrollByRange(Range range, int fetchSize, EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.debug("Starting scrollByRange method...");
+		return scroll(statementIds.getFindRange(), getRangeParams(range), Integer.valueOf(fetchSize), handler);
+	}
 
-		Map<String, Object> mapEntity = new HashMap<String, Object>();
-		for (int i = 0; i < columnsValues.length; i++) {
-			mapEntity.put(columnsNames[i], columnsValues[i]);
+	/**
+	 * Builds the parameters of the range statement, without limit.
+	 * 
+	 * @param range
+	 *            the range of the entities.
+	 * @return the parameters of the statement.
+	 */
+	private Map<String, Object> getRangeParams(Range range) {
+		if (range == null) {
+			LOGGER.error("The range can not be null.");
+			throw new IllegalArgumentException("The range can not be null.");
 		}
-		return mapEntity;
 
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(PARAM_COLUMN, checkMapped(range.getName()));
+		params.put(PARAM_FROM, range.getFrom());
+		params.put(PARAM_TO, range.getTo());
+		params.put(PARAM_AFTER_VALUE, range.getAfterValue());
+		params.put(PARAM_AFTER, range.getAfterId());
+		return params;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded by the statement <code>findSpecification&lt;Type&gt;</code> of the mapper files, which
+	 * receives the condition in the parameter {@value #PARAM_WHERE}, the order in the parameter
+	 * {@value #PARAM_ORDER_BY} and the limit in the parameter {@value #PARAM_LIMIT}, e.g. <code>SELECT * FROM bet
+	 * &lt;if test="where != null"&gt;WHERE ${where}&lt;/if&gt; &lt;if test="orderBy != null"&gt;ORDER BY
+	 * ${orderBy}&lt;/if&gt; &lt;if test="limit != null"&gt;LIMIT #{limit}&lt;/if&gt;</code>. The condition refers to
+	 * the values of the specification as <code>#{v0}</code>, <code>#{v1}</code>..., which MyBatis binds once the
+	 * condition is substituted. The clauses are rendered once per shape of specification, after checking the columns
+	 * against the columns mapped by this DAO.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		final Map<String, Object> params = getSpecificationParams(specification);
+		try {
+
+			LOGGER.debug("Getting and returning the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ specification + "...");
+			List<Type> results = executeQuery(new MyBatisAction<List<Type>>() {
+
+				@Override
+				public List<Type> apply(SqlSession session) throws DataBaseException {
+					return (List<Type>) session.selectList(statementIds.getFindSpecification(), params);
+				}
+			}, QueryOptions.NONE);
+
+			return (results != null ? results : new ArrayList<Type>());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ specification + ".", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + specification + ".", e);
+		}
+	}
+
+	/**
+	 * Builds the parameters of the specification statement: the condition and the order, rendered once per shape of
+	 * specification, the values and the limit.
+	 * 
+	 * @param specification
+	 *            the specification of the entities.
+	 * @return the parameters of the statement.
+	 */
+	private Map<String, Object> getSpecificationParams(Specification specification) {
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+
+		String[] clauses = specificationClauses.get(specification.getShape());
+		if (clauses == null) {
+			for (String column : specification.getNames()) {
+				checkMapped(column);
+			}
+			// the positional parameters become named parameters of the statement: #{v0}, #{v1}...
+			String condition = specification.toCondition(null);
+			StringBuilder where = new StringBuilder();
+			int position = 0;
+			for (int i = 0; i < condition.length(); i++) {
+				if (condition.charAt(i) == '?') {
+					where.append("#{").append(PARAM_VALUE_PREFIX).append(position++).append('}');
+				} else {
+					where.append(condition.charAt(i));
+				}
+			}
+			String order = specification.toOrderClause(null);
+			clauses = new String[] { (where.length() > 0 ? where.toString() : null),
+					(order.length() > 0 ? order : null) };
+			specificationClauses.putIfAbsent(specification.getShape(), clauses);
+		}
+
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(PARAM_WHERE, clauses[0]);
+		params.put(PARAM_ORDER_BY, clauses[1]);
+		params.put(PARAM_LIMIT, specification.getLimit());
+		List<Object> values = specification.getParameters();
+		for (int i = 0; i < values.size(); i++) {
+			params.put(PARAM_VALUE_PREFIX + i, values.get(i));
+		}
+		return params;
+	}
+
+	/**
+	 * Execute a select statement and stream its results to a handler, one entity at a time.
+	 * 
+	 * @param query
+	 *            the statement of the mapper files
+	 * @param parameter
+	 *            the parameter of the statement, <code>null</code> if none.
+	 * @param fetchSize
+	 *            the fetch size of this query, set as is on the statement, <code>null</code> to keep the default
+	 *            options of the DAO.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the statement or when handling an entity.
+	 */
+	private long scroll(final String query, final Object parameter, Integer fetchSize,
+			final EntityHandler<Type> handler)
+			throws DataBaseException {
+
+		if (handler == null) {
+			LOGGER.error("The handler can not be null.");
+			throw new IllegalArgumentException("The handler can not be null.");
+		}
+
+		Integer previousFetchSize = QueryOptionsInterceptor.bindFetchSize(fetchSize);
+		try {
+			LOGGER.debug("Streaming entities [ " + typeClass.getSimpleName() + " ] of query [ " + query + " ]...");
+			Long count = executeQuery(new MyBatisAction<Long>() {
+
+				@Override
+				public Long apply(SqlSession session) throws DataBaseException {
+					final long[] count = new long[1];
+					session.select(query, parameter, new ResultHandler() {
+
+						@Override
+						@SuppressWarnings("unchecked")
+						public void handleResult(ResultContext context) {
+							try {
+								handler.handle((Type) context.getResultObject());
+							} catch (DataBaseException e) {
+								throw new HandlerException(count[0], e);
+							}
+							count[0]++;
+						}
+					});
+					return count[0];
+				}
+			}, QueryOptions.NONE);
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been streamed.");
+			return count;
+
+		} catch (Exception e) {
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof HandlerException) {
+					LOGGER.error("An error has occurred when handling the entities [ " + typeClass.getSimpleName()
+							+ " ] after " + ((HandlerException) cause).count + " entities.", cause.getCause());
+					throw (DataBaseException) cause.getCause();
+				}
+			}
+			LOGGER.error("An error has occurred when trying to stream query [ " + query + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to stream query [ " + query + " ].", e);
+		} finally {
+			QueryOptionsInterceptor.restoreFetchSize(previousFetchSize);
+		}
+	}
+
+	/**
+	 * Execute a SQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param params
+	 *            Map containing entity values to corresponding column.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	protected Type executeSingleResult(final Map<String, Object> params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, params);
+	}
+
+	/**
+	 * Execute a SQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param params
+	 *            Map containing entity values to corresponding column.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Type executeSingleResult(final QueryOptions options, final Map<String, Object> params)
+			throws DataBaseException {
+
+		try {
+
+			return executeQuery(new MyBatisAction<Type>() {
+
+				@Override
+				public Type apply(SqlSession session) throws DataBaseException {
+
+					return (Type) session.selectOne(statementIds.getSelectOne(), params);
+				}
+			}, options);
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute select query.", e);
+			throw new DataBaseException("An error has occurred when trying to execute select query.", e);
+		}
+	}
+
+	/**
+	 * Execute a SQL request that the result is a {@link List} of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files.
+	 * 
+	 * @param params
+	 *            the parameters of the statement: a single parameter is passed as is, e.g. a {@link Map} or an entity;
+	 *            several parameters are passed in a {@link Map} as <code>param1</code>, <code>param2</code>...
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, params);
+	}
+
+	/**
+	 * Execute a SQL request that the result is a {@link List} of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param params
+	 *            the parameters of the statement: a single parameter is passed as is, e.g. a {@link Map} or an entity;
+	 *            several parameters are passed in a {@link Map} as <code>param1</code>, <code>param2</code>...
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final QueryOptions options, final Object... params)
+			throws DataBaseException {
+		return selectList(options, toParameter(params));
+	}
+
+	/**
+	 * Execute a SQL request that the result is a {@link List} of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files.
+	 * 
+	 * @param params
+	 *            Map containing entity values to corresponding column.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final Map<String, Object> params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, params);
+	}
+
+	/**
+	 * Execute a SQL request that the result is a {@link List} of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param params
+	 *            Map containing entity values to corresponding column.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final QueryOptions options, final Map<String, Object> params)
+			throws DataBaseException {
+		return selectList(options, params);
+	}
+
+	/**
+	 * Execute a SQL request that the result is a page of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files. The page is selected by the database: the statement
+	 * receives the parameters <code>offset</code> and <code>limit</code> besides the parameters of the query, and
+	 * pushes them down, e.g. with <code>LIMIT #{limit} OFFSET #{offset}</code> and an <code>ORDER BY</code> giving a
+	 * stable order.
+	 * <p>
+	 * The database still reads the skipped rows: for deep pages, prefer
+	 * {@link #executeResultListAfter(Map, Serializable, int)}.
+	 * 
+	 * @param params
+	 *            Map containing entity values to corresponding column, <code>null</code> if the query has none.
+	 * @param offset
+	 *            number of entities to skip.
+	 * @param limit
+	 *            maximum number of entities of the page.
+	 * 
+	 * @return the {@link List} of entities of the page. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final Map<String, Object> params, int offset, int limit)
+			throws DataBaseException {
+
+		if (offset < 0 || limit <= 0) {
+			LOGGER.error("The offset can not be negative and the limit must be positive.");
+			throw new IllegalArgumentException("The offset can not be negative and the limit must be positive.");
+		}
+
+		Map<String, Object> pageParams = (params != null ? new HashMap<String, Object>(params)
+				: new HashMap<String, Object>());
+		pageParams.put(PARAM_OFFSET, Integer.valueOf(offset));
+		pageParams.put(PARAM_LIMIT, Integer.valueOf(limit));
+		return selectList(QueryOptions.NONE, pageParams);
+	}
+
+	/**
+	 * Execute a SQL request that the result is a page of entities, with the statement
+	 * <code>selectList&lt;Type&gt;</code> of the mapper files, the page starting after the identifier received as
+	 * parameter (keyset paging). The statement receives the parameters <code>after</code>, <code>null</code> for the
+	 * first page, and <code>limit</code> besides the parameters of the query, e.g. for
+	 * <code>AND id &gt; #{after} ORDER BY id LIMIT #{limit}</code>. The next page starts after the identifier of the
+	 * last entity of the page.
+	 * <p>
+	 * Unlike an offset, the identifier lets the database seek the start of the page in the primary key index, so that
+	 * all the pages cost the same.
+	 * 
+	 * @param params
+	 *            Map containing entity values to corresponding column, <code>null</code> if the query has none.
+	 * @param after
+	 *            identifier of the last entity of the previous page, <code>null</code> for the first page.
+	 * @param limit
+	 *            maximum number of entities of the page.
+	 * 
+	 * @return the {@link List} of entities of the page. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultListAfter(final Map<String, Object> params, IdType after, int limit)
+			throws DataBaseException {
+
+		if (limit <= 0) {
+			LOGGER.error("The limit must be positive.");
+			throw new IllegalArgumentException("The limit must be positive.");
+		}
+
+		Map<String, Object> pageParams = (params != null ? new HashMap<String, Object>(params)
+				: new HashMap<String, Object>());
+		pageParams.put(PARAM_AFTER, after);
+		pageParams.put(PARAM_LIMIT, Integer.valueOf(limit));
+		return selectList(QueryOptions.NONE, pageParams);
+	}
+
+	/**
+	 * Execute the statement <code>selectList&lt;Type&gt;</code> of the mapper files.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param parameter
+	 *            the parameter of the statement.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Type> selectList(final QueryOptions options, final Object parameter) throws DataBaseException {
+
+		try {
+			List<Type> results = executeQuery(new MyBatisAction<List<Type>>() {
+
+				@Override
+				public List<Type> apply(SqlSession session) throws DataBaseException {
+					return (List<Type>) session.selectList(statementIds.getSelectList(), parameter);
+				}
+			}, options);
+
+			return (results != null ? results : new ArrayList<Type>());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute select query.", e);
+
+			throw new DataBaseException("An error has occurred when trying to execute select query.", e);
+		}
+	}
+
+	/**
+	 * Converts the parameters of a list query into the parameter of the statement.
+	 * 
+	 * @param params
+	 *            the parameters of the query
+	 * @return <code>null</code> without parameter, the parameter itself if there is only one, a {@link Map} of the
+	 *         parameters named <code>param1</code>, <code>param2</code>... otherwise.
+	 */
+	private static Object toParameter(Object... params) {
+		if (params == null || params.length == 0) {
+			return null;
+		}
+		if (params.length == 1) {
+			return params[0];
+		}
+		Map<String, Object> parameter = new HashMap<String, Object>();
+		for (int i = 0; i < params.length; i++) {
+			parameter.put(PARAM_POSITION + (i + 1), params[i]);
+		}
+		return parameter;
+	}
+
+	/**
+	 * Checks the entities of a batch operation.
+	 * 
+	 * @param entities
+	 *            the entities
+	 * @param batchSize
+	 *            number of statements sent per JDBC batch
+	 * @param operation
+	 *            name of the operation, for the error messages
+	 * @param withIdentifier
+	 *            true if the identifiers of the entities can not be null
+	 */
+	private void checkBatch(Collection<Type> entities, int batchSize, String operation, boolean withIdentifier) {
+		if (entities == null) {
+			LOGGER.error("The entities [ " + typeClass.getSimpleName() + " ] to " + operation + " cannot be null.");
+			throw new IllegalArgumentException("The entities " + typeClass.getSimpleName() + " to " + operation
+					+ " cannot be null.");
+		}
+
+		if (batchSize <= 0) {
+			LOGGER.error("The batch size must be positive.");
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+
+		for (Type entity : entities) {
+			if (entity == null) {
+				LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to " + operation + " cannot be null.");
+				throw new IllegalArgumentException("The entity " + typeClass.getSimpleName() + " to " + operation
+						+ " cannot be null.");
+			}
+			if (withIdentifier && getIdentifier(entity) == null) {
+				LOGGER.error("The identifier of the entity [ " + typeClass.getSimpleName() + " ] to " + operation
+						+ " cannot be null.");
+				throw new IllegalArgumentException("The identifier of the entity [ " + typeClass.getSimpleName()
+						+ " ] to " + operation + " cannot be null.");
+			}
+		}
+	}
+
+	/**
+	 * Checks that each statement of a flushed batch has updated a row.
+	 * 
+	 * @param results
+	 *            the results of the batch
+	 * @throws DataBaseException
+	 *             thrown if a statement has not updated any row.
+	 */
+	private void checkUpdateCounts(List<BatchResult> results) throws DataBaseException {
+		for (BatchResult result : results) {
+			int[] counts = result.getUpdateCounts();
+			for (int i = 0; i < counts.length; i++) {
+				checkUpdateCount(counts[i], result.getParameterObjects().get(i));
+			}
+		}
+	}
+
+	/**
+	 * Checks that a statement has updated a row. The batch executor returns a placeholder count, never 0, until the
+	 * statements are flushed.
+	 * 
+	 * @param count
+	 *            the number of rows updated by the statement
+	 * @param params
+	 *            the parameters of the statement
+	 * @throws DataBaseException
+	 *             thrown if the statement has not updated any row.
+	 */
+	private void checkUpdateCount(int count, Object params) throws DataBaseException {
+		if (count == 0) {
+			throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+					+ ((Map<?, ?>) params).get(columnIdName) + " ] found.");
+		}
+	}
+
+	/**
+	 * Returns the number of rows of the next multi-row insert: the largest group which fits in the remaining rows and
+	 * in the limit of bind parameters.
+	 * 
+	 * @param remaining
+	 *            number of rows left to insert
+	 * @param columnCount
+	 *            number of parameters of a row
+	 * @return the number of rows of the insert.
+	 */
+	private int insertGroupSize(int remaining, int columnCount) {
+		for (int size : INSERT_GROUP_SIZES) {
+			if (size <= remaining && size * columnCount <= maxBindParameters) {
+				return size;
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Maps entity values to corresponding column. The map is a view on the column values of the entity, the positions
+	 * of the columns being resolved once.
+	 * 
+	 * @param entity
+	 *            entity to map
+	 * @return map of entity values.
+	 */
+	private Map<String, Object> getEntityMap(Type entity) {
+
+		Map<String, Integer> indexes = getColumnIndexes();
+
+		Object[] columnsValues = getColumnValues(entity);
+		if (null == columnsValues || columnsValues.length == 0) {
+			throw new IllegalArgumentException("No column' value specified");
+		}
+
+		if (columnsValues.length != indexes.size()) {
+			throw new IllegalArgumentException("Values number different than column number");
+		}
+
+		return new ColumnValues(indexes, columnsValues, columnIdName);
+
+	}
+
+	/**
+	 * Returns the positions of the columns in the column values, resolved from the column names on first use.
+	 * 
+	 * @return the position of each column name.
+	 */
+	private Map<String, Integer> getColumnIndexes() {
+		Map<String, Integer> indexes = columnIndexes;
+		if (indexes == null) {
+			String[] columnsNames = getColumnNames();
+			if (null == columnsNames || columnsNames.length == 0) {
+				throw new NotImplementedException("No column' name specified");
+			}
+
+			indexes = new HashMap<String, Integer>();
+			for (int i = 0; i < columnsNames.length; i++) {
+				indexes.put(columnsNames[i], Integer.valueOf(i));
+			}
+			if (indexes.size() != columnsNames.length) {
+				throw new IllegalArgumentException("Column names must be unique");
+			}
+			columnIndexes = indexes;
+		}
+		return indexes;
 	}
 
 	/**
@@ -394,38 +1541,266 @@ public abstract class MyBatisDAO<Type, IdType extends Serializable> implements D
 	public abstract void setIdentifier(Type entity, IdType id);
 
 	/**
-	 * Execute the action received as parameter.
+	 * Execute the read-only action received as parameter, with the default options of this DAO overridden by the
+	 * options received as parameter. The options are applied to the JDBC statements by the
+	 * {@link QueryOptionsInterceptor}.
 	 * 
 	 * @param action
 	 *            object that specifies the MyBatis action
-	 * @param readOnly
-	 *            if this parameter is true the transaction is read-only
+	 * @param options
+	 *            the options of the call, overriding the default options.
 	 * @param <T>
 	 *            object's returned type.
 	 * @return a result object returned by the action.
 	 * @throws DataBaseException
 	 *             thrown if error occurred when trying to execute the action.
 	 */
-	public <T> T executeAction(MyBatisAction<T> action, boolean readOnly) throws DataBaseException {
-		SqlSession session = null;
+	private <T> T executeQuery(MyBatisAction<T> action, QueryOptions options) throws DataBaseException {
+		QueryOptions previous = QueryOptionsInterceptor.bind(queryOptions.overriddenBy(options));
 		try {
-			session = MybatisUtil.getSession();
-			T results = action.apply(session);
-			if (readOnly) {
-				session.commit();
-			}
-			return results;
-		} catch (DataBaseException e) {
-			if (readOnly && session != null) {
-				session.rollback();
-			}
-			throw e;
+			return executeAction(action, true);
 		} finally {
-			if (session != null) {
-				session.close();
+			QueryOptionsInterceptor.restore(previous);
+		}
+	}
+
+	/**
+	 * Execute the write action received as parameter with the timeout of the default options of this DAO, applied to
+	 * the JDBC statements by the {@link QueryOptionsInterceptor}, so that a runaway write does not hold its connection
+	 * forever.
+	 * 
+	 * @param action
+	 *            object that specifies the MyBatis action
+	 * @param executorType
+	 *            the executor of a new session, <code>null</code> for the default executor of the configuration.
+	 * @param <T>
+	 *            object's returned type.
+	 * @return a result object returned by the action.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to execute the action.
+	 */
+	private <T> T executeWrite(MyBatisAction<T> action, ExecutorType executorType) throws DataBaseException {
+		QueryOptions previous = QueryOptionsInterceptor.bind(writeOptions);
+		try {
+			return executeAction(action, false, executorType);
+		} finally {
+			QueryOptionsInterceptor.restore(previous);
+		}
+	}
+
+	/**
+	 * Execute the action received as parameter, in the managed session of the current thread if one is started (see
+	 * {@link MybatisUtil#startManagedSession()}), in a new session otherwise.
+	 * 
+	 * @param action
+	 *            object that specifies the MyBatis action
+	 * @param readOnly
+	 *            if this parameter is true the action only reads and the session is closed without commit; otherwise
+	 *            a new session is committed once after the action, or rolled back if the action fails.
+	 * @param <T>
+	 *            object's returned type.
+	 * @return a result object returned by the action.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to execute the action.
+	 */
+	public <T> T executeAction(MyBatisAction<T> action, boolean readOnly) throws DataBaseException {
+		return executeAction(action, readOnly, null);
+	}
+
+	/**
+	 * Execute the action received as parameter in a new session using the executor received as parameter, or in the
+	 * managed session of the current thread if one is started.
+	 * 
+	 * @param action
+	 *            object that specifies the MyBatis action
+	 * @param readOnly
+	 *            if this parameter is true the action only reads and the session is closed without commit; otherwise
+	 *            the session is committed once after the action, or rolled back if the action fails.
+	 * @param executorType
+	 *            the executor of a new session, <code>null</code> for the default executor of the configuration.
+	 * @param <T>
+	 *            object's returned type.
+	 * @return a result object returned by the action.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to execute the action.
+	 */
+	private <T> T executeAction(MyBatisAction<T> action, boolean readOnly, ExecutorType executorType)
+			throws DataBaseException {
+		return MybatisUtil.execute(action, readOnly, executorType);
+	}
+
+	/**
+	 * Removes an entity from the cache after a write.
+	 * 
+	 * @param id
+	 *            identifier of the entity.
+	 */
+	private void evict(IdType id) {
+		Cache entityCache = cache;
+		if (entityCache != null && id != null) {
+			invalidations.incrementAndGet(invalidationCounter(id));
+			entityCache.removeObject(id);
+		}
+	}
+
+	/**
+	 * Puts an entity read from the database in the cache, unless it has been evicted since the read began. The
+	 * counter is checked again once the entity is put, since an eviction may happen between the check and the put.
+	 * 
+	 * @param entityCache
+	 *            the cache.
+	 * @param id
+	 *            identifier of the entity.
+	 * @param entity
+	 *            the entity read.
+	 * @param invalidation
+	 *            the invalidation counter of the identifier when the read began.
+	 */
+	private void cacheUnlessInvalidated(Cache entityCache, IdType id, Type entity, long invalidation) {
+		int counter = invalidationCounter(id);
+		if (invalidations.get(counter) != invalidation) {
+			return;
+		}
+		entityCache.putObject(id, entity);
+		if (invalidations.get(counter) != invalidation) {
+			entityCache.removeObject(id);
+		}
+	}
+
+	/**
+	 * @param id
+	 *            identifier of an entity.
+	 * @return the index of the invalidation counter of the identifier.
+	 */
+	private static int invalidationCounter(Object id) {
+		int hash = id.hashCode();
+		return (hash ^ (hash >>> 16)) & (INVALIDATION_COUNTERS - 1);
+	}
+
+	/**
+	 * Removes all the entities from the cache, e.g. after a write made by a custom statement through
+	 * {@link #executeAction(MyBatisAction, boolean)}, which is not known by the cache.
+	 */
+	public void clearCache() {
+		Cache entityCache = cache;
+		if (entityCache != null) {
+			for (int i = 0; i < INVALIDATION_COUNTERS; i++) {
+				invalidations.incrementAndGet(i);
 			}
+			entityCache.clear();
+		}
+	}
+
+	/**
+	 * Cache settings getter.
+	 * 
+	 * @return the settings of the entity cache, <code>null</code> if the entities are not cached.
+	 */
+	public CacheSettings getCacheSettings() {
+		return cacheSettings;
+	}
+
+	/**
+	 * Cache settings setter. The entities read by {@link #findOne(Serializable)} are cached by identifier, and removed
+	 * from the cache by the updates and deletes of this DAO. The writes made by other DAOs, other applications or
+	 * custom statements are not seen by the cache: the time to live bounds how long a stale entity can be returned.
+	 * Likewise, the entities written in a managed session can be cached by other threads until it is committed.
+	 * <p>
+	 * Changing the settings replaces the cache by an empty one.
+	 * 
+	 * @param cacheSettings
+	 *            the settings of the entity cache, <code>null</code> to disable the cache.
+	 */
+	public void setCacheSettings(CacheSettings cacheSettings) {
+		if (cacheSettings != null && cacheSettings.isReadWrite() && !Serializable.class.isAssignableFrom(typeClass)) {
+			throw new IllegalArgumentException("The entity [ " + typeClass.getSimpleName()
+					+ " ] must be serializable to be cached in read-write mode.");
+		}
+		this.cacheSettings = cacheSettings;
+		this.cache = (cacheSettings != null ? MybatisUtil.buildCache(typeClass.getName(), cacheSettings,
+				cacheStatistics) : null);
+		LOGGER.debug("The cache of the entity [ " + typeClass.getSimpleName() + " ] is " + cacheSettings + ".");
+	}
+
+	/**
+	 * Cache statistics getter.
+	 * 
+	 * @return the metrics of the entity cache.
+	 */
+	public CacheStatistics getCacheStatistics() {
+		return cacheStatistics;
+	}
+
+	/**
+	 * Max bind parameters getter.
+	 * 
+	 * @return the maximum number of bind parameters of a multi-row insert.
+	 */
+	public int getMaxBindParameters() {
+		return maxBindParameters;
+	}
+
+	/**
+	 * Max bind parameters setter. The default value, 2000, fits all the usual databases; it can be raised for the
+	 * databases accepting more parameters per statement (32767 with PostgreSQL, 65535 with MySQL).
+	 * 
+	 * @param maxBindParameters
+	 *            the maximum number of bind parameters of a multi-row insert.
+	 */
+	public void setMaxBindParameters(int maxBindParameters) {
+		if (maxBindParameters <= 0) {
+			throw new IllegalArgumentException("The maximum number of bind parameters must be positive.");
 		}
+		this.maxBindParameters = maxBindParameters;
+	}
 
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults. The
+	 *            timeout also applies to the writes.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+		this.writeOptions = (this.queryOptions.getTimeout() != null ? new QueryOptions(null, null,
+				this.queryOptions.getTimeout()) : QueryOptions.NONE);
+	}
+
+	/**
+	 * Carries the exception thrown by an {@link EntityHandler} through MyBatis.
+	 */
+	private static final class HandlerException extends RuntimeException {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Number of entities handled before the exception.
+		 */
+		private final long count;
+
+		/**
+		 * @param count
+		 *            number of entities handled before the exception.
+		 * @param cause
+		 *            exception thrown by the handler.
+		 */
+		private HandlerException(long count, DataBaseException cause) {
+			super(cause);
+			this.count = count;
+		}
 	}
 
 }
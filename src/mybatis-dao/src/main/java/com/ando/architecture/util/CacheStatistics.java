@@ -0,0 +1,139 @@
+package com.ando.architecture.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link CacheStatistics} holds the metrics of an entity cache built by
+ * {@link MybatisUtil#buildCache(String, com.ando.architecture.dao.CacheSettings, CacheStatistics)}: hits, misses and
+ * invalidations, e.g. to check the hit ratio of the cache of a DAO.
+ *
+ * @author Zied ANDOLSI
+ */
+public class CacheStatistics {
+
+	/**
+	 * Entities found in the cache.
+	 */
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Entities not found in the cache.
+	 */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Entities put in the cache.
+	 */
+	private final AtomicLong puts = new AtomicLong();
+
+	/**
+	 * Entities removed from the cache by a write.
+	 */
+	private final AtomicLong removals = new AtomicLong();
+
+	/**
+	 * Clears of the whole cache.
+	 */
+	private final AtomicLong clears = new AtomicLong();
+
+	/**
+	 * Records a lookup.
+	 *
+	 * @param hit
+	 *            true if the entity has been found
+	 */
+	void lookedUp(boolean hit) {
+		if (hit) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records an entity put in the cache.
+	 */
+	void put() {
+		puts.incrementAndGet();
+	}
+
+	/**
+	 * Records an entity removed from the cache.
+	 */
+	void removed() {
+		removals.incrementAndGet();
+	}
+
+	/**
+	 * Records a clear of the cache.
+	 */
+	void cleared() {
+		clears.incrementAndGet();
+	}
+
+	/**
+	 * @return the number of entities found in the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of entities not found in the cache, expired entities included.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the ratio of the lookups finding the entity in the cache, between 0 and 1.
+	 */
+	public double getHitRatio() {
+		long found = hits.get();
+		long lookups = found + misses.get();
+		return (lookups > 0 ? (double) found / lookups : 0);
+	}
+
+	/**
+	 * @return the number of entities put in the cache.
+	 */
+	public long getPuts() {
+		return puts.get();
+	}
+
+	/**
+	 * @return the number of entities removed from the cache by a write.
+	 */
+	public long getRemovals() {
+		return removals.get();
+	}
+
+	/**
+	 * @return the number of clears of the whole cache.
+	 */
+	public long getClears() {
+		return clears.get();
+	}
+
+	/**
+	 * Resets all the metrics.
+	 */
+	public void reset() {
+		hits.set(0);
+		misses.set(0);
+		puts.set(0);
+		removals.set(0);
+		clears.set(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "CacheStatistics [ hits=" + getHits() + ", misses=" + getMisses() + ", hitRatio="
+				+ String.format("%.2f", getHitRatio()) + ", puts=" + getPuts() + ", removals=" + getRemovals()
+				+ ", clears=" + getClears() + " ]";
+	}
+
+}
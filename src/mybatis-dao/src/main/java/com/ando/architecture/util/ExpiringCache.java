@@ -0,0 +1,130 @@
+package com.ando.architecture.util;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * Cache decorator removing each entity once its time to live has elapsed. Unlike the <code>flushInterval</code> of
+ * MyBatis, which clears the whole cache periodically, the entities expire one by one, when they are looked up.
+ *
+ * @author Zied ANDOLSI
+ */
+final class ExpiringCache implements Cache {
+
+	/**
+	 * Decorated cache.
+	 */
+	private final Cache delegate;
+
+	/**
+	 * Time to live of an entity, in milliseconds.
+	 */
+	private final long timeToLive;
+
+	/**
+	 * The constructor {@link #ExpiringCache(Cache, long)} decorates a cache.
+	 *
+	 * @param delegate
+	 *            decorated cache
+	 * @param timeToLive
+	 *            time to live of an entity, in milliseconds
+	 */
+	ExpiringCache(Cache delegate, long timeToLive) {
+		this.delegate = delegate;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getId() {
+		return delegate.getId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSize() {
+		return delegate.getSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void putObject(Object key, Object value) {
+		delegate.putObject(key, new Entry(value, System.currentTimeMillis() + timeToLive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getObject(Object key) {
+		Entry entry = (Entry) delegate.getObject(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiration <= System.currentTimeMillis()) {
+			delegate.removeObject(key);
+			return null;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object removeObject(Object key) {
+		Entry entry = (Entry) delegate.removeObject(key);
+		return (entry != null ? entry.value : null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ReadWriteLock getReadWriteLock() {
+		return delegate.getReadWriteLock();
+	}
+
+	/**
+	 * Cached value with its expiration time.
+	 */
+	private static final class Entry {
+
+		/**
+		 * The value.
+		 */
+		private final Object value;
+
+		/**
+		 * Expiration time, in milliseconds.
+		 */
+		private final long expiration;
+
+		/**
+		 * @param value
+		 *            the value
+		 * @param expiration
+		 *            expiration time, in milliseconds
+		 */
+		private Entry(Object value, long expiration) {
+			this.value = value;
+			this.expiration = expiration;
+		}
+	}
+
+}
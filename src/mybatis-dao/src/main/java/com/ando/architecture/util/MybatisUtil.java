@@ -4,17 +4,45 @@ import java.io.IOException;
 import java.io.Reader;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.decorators.FifoCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.CacheSettings;
+import com.ando.architecture.dao.MyBatisAction;
 import com.ando.architecture.exception.DataBaseException;
 
 /**
  * Class utilities for managing mybatis sql session.
+ * <p>
+ * By default, each action runs in its own session, opened and closed around the action. A managed session, started by
+ * {@link #startManagedSession()}, is bound to the current thread and shared by all the actions executed until
+ * {@link #closeManagedSession()}: the connection is checked out once, the local cache of MyBatis is shared by the
+ * actions, and the transaction is committed or rolled back explicitly by {@link #commitManagedSession()} and
+ * {@link #rollbackManagedSession()}.
+ * 
+ * <pre>
+ * MybatisUtil.startManagedSession();
+ * try {
+ *     betDAO.save(bet);
+ *     betDAO.update(otherBet);
+ *     MybatisUtil.commitManagedSession();
+ * } finally {
+ *     MybatisUtil.closeManagedSession();
+ * }
+ * </pre>
  * 
  * @author Zied ANDOLSI
  * 
@@ -43,11 +71,22 @@ public abstract class MybatisUtil {
 	 */
 	private static SqlSessionFactory sqlSessionFactory;
 
+	/**
+	 * Managed session bound to the current thread.
+	 */
+	private static final ThreadLocal<ManagedSession> MANAGED_SESSION = new ThreadLocal<ManagedSession>();
+
+	/**
+	 * Metrics of the sessions.
+	 */
+	private static final SessionStatistics STATISTICS = new SessionStatistics();
+
 	static {
 		Reader reader = null;
 		try {
 			reader = Resources.getResourceAsReader(RESOURCE);
 			sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+			sqlSessionFactory.getConfiguration().addInterceptor(new QueryOptionsInterceptor());
 		} catch (IOException e) {
 			LOGGER.error("error occurred when trying to load mybatis configuration file [ " + RESOURCE + " ] : "
 					+ e.getLocalizedMessage());
@@ -69,4 +108,281 @@ public abstract class MybatisUtil {
 		}
 		return sqlSessionFactory.openSession();
 	}
+
+	/**
+	 * Get ibatis sql session using the executor received as parameter, e.g. {@link ExecutorType#BATCH} to send the
+	 * statements in JDBC batches.
+	 * 
+	 * @param executorType
+	 *            executor of the session.
+	 * @return {@link SqlSession}.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to get sql session.
+	 */
+	public static SqlSession getSession(ExecutorType executorType) throws DataBaseException {
+		if (sqlSessionFactory == null) {
+			throw new DataBaseException("error occurred when trying to create sql session factory");
+		}
+		return sqlSessionFactory.openSession(executorType);
+	}
+
+	/**
+	 * Get the MyBatis configuration, e.g. to check the mapped statements.
+	 * 
+	 * @return the {@link Configuration}, <code>null</code> if the configuration file could not be loaded.
+	 */
+	public static Configuration getConfiguration() {
+		return (sqlSessionFactory != null ? sqlSessionFactory.getConfiguration() : null);
+	}
+
+	/**
+	 * Build a cache with the MyBatis cache decorators: an eviction decorator (LRU or FIFO) limiting the size, an
+	 * expiration of the entities when a time to live is set, a serialization of the entities in read-write mode, the
+	 * metrics and a synchronization.
+	 * 
+	 * @param id
+	 *            identifier of the cache.
+	 * @param settings
+	 *            the settings of the cache.
+	 * @param statistics
+	 *            the metrics updated by the cache.
+	 * @return the {@link Cache}, safe for use by several threads.
+	 */
+	public static Cache buildCache(String id, CacheSettings settings, CacheStatistics statistics) {
+		if (settings == null || statistics == null) {
+			throw new IllegalArgumentException("The cache settings and statistics cannot be null.");
+		}
+
+		Cache cache = new PerpetualCache(id);
+		if (settings.getEviction() == CacheSettings.Eviction.LRU) {
+			LruCache lruCache = new LruCache(cache);
+			lruCache.setSize(settings.getSize());
+			cache = lruCache;
+		} else {
+			FifoCache fifoCache = new FifoCache(cache);
+			fifoCache.setSize(settings.getSize());
+			cache = fifoCache;
+		}
+		if (settings.getTimeToLive() > 0) {
+			cache = new ExpiringCache(cache, settings.getTimeToLive());
+		}
+		if (settings.isReadWrite()) {
+			cache = new SerializedCache(cache);
+		}
+		cache = new StatisticsCache(cache, statistics);
+		return new SynchronizedCache(cache);
+	}
+
+	/**
+	 * Execute the action received as parameter, in the managed session of the current thread if one is started, in a
+	 * new session otherwise.
+	 * <p>
+	 * A new session is committed after a write action, or rolled back if the action fails, then closed. A managed
+	 * session is neither committed nor closed by the action: its transaction ends with
+	 * {@link #commitManagedSession()} or {@link #rollbackManagedSession()}.
+	 * 
+	 * @param action
+	 *            object that specifies the MyBatis action
+	 * @param readOnly
+	 *            if this parameter is true the action only reads and the session is closed without commit
+	 * @param executorType
+	 *            the executor of a new session, <code>null</code> for the default executor of the configuration. A
+	 *            managed session keeps its own executor: an action requesting the batch executor must also check the
+	 *            counts returned by each statement, which are the real counts with another executor.
+	 * @param <T>
+	 *            object's returned type.
+	 * @return a result object returned by the action.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to execute the action.
+	 */
+	public static <T> T execute(MyBatisAction<T> action, boolean readOnly, ExecutorType executorType)
+			throws DataBaseException {
+		ManagedSession managed = MANAGED_SESSION.get();
+		if (managed != null) {
+			managed.actions++;
+			return action.apply(managed.session);
+		}
+
+		long openTime = System.nanoTime();
+		SqlSession session = (executorType != null ? getSession(executorType) : getSession());
+		STATISTICS.sessionOpened(false);
+		try {
+			T results = action.apply(session);
+			if (!readOnly) {
+				session.commit();
+			}
+			return results;
+		} catch (DataBaseException e) {
+			rollback(session, readOnly);
+			throw e;
+		} catch (RuntimeException e) {
+			rollback(session, readOnly);
+			throw e;
+		} finally {
+			session.close();
+			STATISTICS.sessionClosed(System.nanoTime() - openTime, 1);
+		}
+	}
+
+	/**
+	 * Rolls back the session of a failed write action.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param readOnly
+	 *            true if the action only reads
+	 */
+	private static void rollback(SqlSession session, boolean readOnly) {
+		if (!readOnly) {
+			session.rollback();
+		}
+	}
+
+	/**
+	 * Starts a managed session with the default executor of the configuration, see
+	 * {@link #startManagedSession(ExecutorType)}.
+	 * 
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to open the session.
+	 */
+	public static void startManagedSession() throws DataBaseException {
+		startManagedSession(null);
+	}
+
+	/**
+	 * Starts a managed session bound to the current thread. If a managed session is already started, it is joined:
+	 * it is only closed by the call to {@link #closeManagedSession()} matching the outermost start.
+	 * 
+	 * @param executorType
+	 *            the executor of the session, <code>null</code> for the default executor of the configuration.
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to open the session.
+	 */
+	public static void startManagedSession(ExecutorType executorType) throws DataBaseException {
+		ManagedSession managed = MANAGED_SESSION.get();
+		if (managed != null) {
+			managed.depth++;
+			return;
+		}
+
+		SqlSession session = (executorType != null ? getSession(executorType) : getSession());
+		MANAGED_SESSION.set(new ManagedSession(session));
+		STATISTICS.sessionOpened(true);
+		LOGGER.debug("A managed session has been started.");
+	}
+
+	/**
+	 * @return true if a managed session is bound to the current thread.
+	 */
+	public static boolean isManagedSessionStarted() {
+		return MANAGED_SESSION.get() != null;
+	}
+
+	/**
+	 * Commits the transaction of the managed session bound to the current thread. The session stays open for the next
+	 * actions.
+	 * 
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to commit the transaction.
+	 */
+	public static void commitManagedSession() throws DataBaseException {
+		try {
+			getManagedSession().session.commit();
+		} catch (PersistenceException e) {
+			LOGGER.error("error occurred when trying to commit the managed session.", e);
+			throw new DataBaseException("error occurred when trying to commit the managed session.", e);
+		}
+	}
+
+	/**
+	 * Rolls back the transaction of the managed session bound to the current thread. The session stays open for the
+	 * next actions.
+	 * 
+	 * @throws DataBaseException
+	 *             thrown if error occurred when trying to roll back the transaction.
+	 */
+	public static void rollbackManagedSession() throws DataBaseException {
+		try {
+			getManagedSession().session.rollback();
+		} catch (PersistenceException e) {
+			LOGGER.error("error occurred when trying to roll back the managed session.", e);
+			throw new DataBaseException("error occurred when trying to roll back the managed session.", e);
+		}
+	}
+
+	/**
+	 * Closes the managed session bound to the current thread, unless it has been joined by a nested start. The
+	 * changes which have not been committed are rolled back.
+	 */
+	public static void closeManagedSession() {
+		ManagedSession managed = getManagedSession();
+		if (managed.depth > 0) {
+			managed.depth--;
+			return;
+		}
+
+		MANAGED_SESSION.remove();
+		try {
+			managed.session.close();
+		} finally {
+			STATISTICS.sessionClosed(System.nanoTime() - managed.openTime, managed.actions);
+			LOGGER.debug("The managed session has been closed after " + managed.actions + " actions.");
+		}
+	}
+
+	/**
+	 * @return the managed session bound to the current thread.
+	 */
+	private static ManagedSession getManagedSession() {
+		ManagedSession managed = MANAGED_SESSION.get();
+		if (managed == null) {
+			throw new IllegalStateException("No managed session has been started by the current thread.");
+		}
+		return managed;
+	}
+
+	/**
+	 * Get the metrics of the sessions.
+	 * 
+	 * @return {@link SessionStatistics}.
+	 */
+	public static SessionStatistics getStatistics() {
+		return STATISTICS;
+	}
+
+	/**
+	 * Session bound to a thread.
+	 */
+	private static final class ManagedSession {
+
+		/**
+		 * The session.
+		 */
+		private final SqlSession session;
+
+		/**
+		 * Opening time of the session, in nanoseconds.
+		 */
+		private final long openTime = System.nanoTime();
+
+		/**
+		 * Number of nested starts joining the session.
+		 */
+		private int depth;
+
+		/**
+		 * Number of actions executed by the session.
+		 */
+		private int actions;
+
+		/**
+		 * Instantiates a managed session.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		private ManagedSession(SqlSession session) {
+			this.session = session;
+		}
+	}
 }
@@ -0,0 +1,137 @@
+package com.ando.architecture.util;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+
+import com.ando.architecture.dao.QueryOptions;
+
+/**
+ * MyBatis plugin applying the {@link QueryOptions} bound to the current thread to the JDBC statements once prepared.
+ * The options of the thread override the fetch size and the timeout declared in the mapper files. A fetch size bound
+ * on its own, e.g. {@link Integer#MIN_VALUE} to stream the rows with MySQL, is set as is on the statements and
+ * overrides the fetch size of the options.
+ * <p>
+ * It is registered by {@link MybatisUtil} and fed by the DAOs, which bind their options around their queries.
+ *
+ * @author Zied ANDOLSI
+ *
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class }))
+public class QueryOptionsInterceptor implements Interceptor {
+
+	/**
+	 * Options of the queries executed by the current thread.
+	 */
+	private static final ThreadLocal<QueryOptions> OPTIONS = new ThreadLocal<QueryOptions>();
+
+	/**
+	 * Fetch size of the queries executed by the current thread, passed as is to the driver.
+	 */
+	private static final ThreadLocal<Integer> FETCH_SIZE = new ThreadLocal<Integer>();
+
+	/**
+	 * Binds options to the queries executed by the current thread.
+	 *
+	 * @param options
+	 *            the options to apply, <code>null</code> if none.
+	 * @return the previous options, to give back to {@link #restore(QueryOptions)}.
+	 */
+	public static QueryOptions bind(QueryOptions options) {
+		QueryOptions previous = OPTIONS.get();
+		OPTIONS.set(options);
+		return previous;
+	}
+
+	/**
+	 * Restores the options bound before a call to {@link #bind(QueryOptions)}.
+	 *
+	 * @param previous
+	 *            the options returned by {@link #bind(QueryOptions)}.
+	 */
+	public static void restore(QueryOptions previous) {
+		if (previous == null) {
+			OPTIONS.remove();
+		} else {
+			OPTIONS.set(previous);
+		}
+	}
+
+	/**
+	 * Binds a fetch size to the queries executed by the current thread, set as is on the statements, so that the
+	 * values specific to a driver are accepted.
+	 *
+	 * @param fetchSize
+	 *            the fetch size to apply, <code>null</code> if none.
+	 * @return the previous fetch size, to give back to {@link #restoreFetchSize(Integer)}.
+	 */
+	public static Integer bindFetchSize(Integer fetchSize) {
+		Integer previous = FETCH_SIZE.get();
+		FETCH_SIZE.set(fetchSize);
+		return previous;
+	}
+
+	/**
+	 * Restores the fetch size bound before a call to {@link #bindFetchSize(Integer)}.
+	 *
+	 * @param previous
+	 *            the fetch size returned by {@link #bindFetchSize(Integer)}.
+	 */
+	public static void restoreFetchSize(Integer previous) {
+		if (previous == null) {
+			FETCH_SIZE.remove();
+		} else {
+			FETCH_SIZE.set(previous);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		Object result = invocation.proceed();
+		QueryOptions options = OPTIONS.get();
+		Integer fetchSize = FETCH_SIZE.get();
+		if (result instanceof Statement) {
+			Statement statement = (Statement) result;
+			if (fetchSize == null && options != null) {
+				fetchSize = options.getFetchSize();
+			}
+			if (fetchSize != null) {
+				statement.setFetchSize(fetchSize);
+			}
+			if (options != null && options.getMaxRows() != null) {
+				statement.setMaxRows(options.getMaxRows());
+			}
+			if (options != null && options.getTimeout() != null) {
+				statement.setQueryTimeout(options.getTimeout());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object plugin(Object target) {
+		return Plugin.wrap(target, this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperties(Properties properties) {
+
+	}
+
+}
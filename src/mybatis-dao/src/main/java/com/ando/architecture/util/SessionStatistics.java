@@ -0,0 +1,156 @@
+package com.ando.architecture.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link SessionStatistics} holds the metrics of the sessions opened by {@link MybatisUtil}: how many
+ * sessions are opened, how long they live and how many actions each of them executes, e.g. to check that the managed
+ * sessions are reused as expected.
+ *
+ * @author Zied ANDOLSI
+ */
+public class SessionStatistics {
+
+	/**
+	 * Sessions opened, managed or not.
+	 */
+	private final AtomicLong sessionsOpened = new AtomicLong();
+
+	/**
+	 * Managed sessions opened.
+	 */
+	private final AtomicLong managedSessionsOpened = new AtomicLong();
+
+	/**
+	 * Sessions closed.
+	 */
+	private final AtomicLong sessionsClosed = new AtomicLong();
+
+	/**
+	 * Actions executed by the closed sessions.
+	 */
+	private final AtomicLong actions = new AtomicLong();
+
+	/**
+	 * Cumulated lifetime of the closed sessions, in nanoseconds.
+	 */
+	private final AtomicLong totalLifetime = new AtomicLong();
+
+	/**
+	 * Longest lifetime of a closed session, in nanoseconds.
+	 */
+	private final AtomicLong maxLifetime = new AtomicLong();
+
+	/**
+	 * Records the opening of a session.
+	 *
+	 * @param managed
+	 *            true if the session is bound to the thread
+	 */
+	void sessionOpened(boolean managed) {
+		sessionsOpened.incrementAndGet();
+		if (managed) {
+			managedSessionsOpened.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records the closing of a session.
+	 *
+	 * @param lifetime
+	 *            lifetime of the session, in nanoseconds
+	 * @param sessionActions
+	 *            number of actions executed by the session
+	 */
+	void sessionClosed(long lifetime, int sessionActions) {
+		sessionsClosed.incrementAndGet();
+		actions.addAndGet(sessionActions);
+		totalLifetime.addAndGet(lifetime);
+		long max = maxLifetime.get();
+		while (lifetime > max && !maxLifetime.compareAndSet(max, lifetime)) {
+			max = maxLifetime.get();
+		}
+	}
+
+	/**
+	 * @return the number of sessions opened, managed or not.
+	 */
+	public long getSessionsOpened() {
+		return sessionsOpened.get();
+	}
+
+	/**
+	 * @return the number of managed sessions opened.
+	 */
+	public long getManagedSessionsOpened() {
+		return managedSessionsOpened.get();
+	}
+
+	/**
+	 * @return the number of sessions closed.
+	 */
+	public long getSessionsClosed() {
+		return sessionsClosed.get();
+	}
+
+	/**
+	 * @return the number of sessions currently open.
+	 */
+	public long getOpenSessions() {
+		return sessionsOpened.get() - sessionsClosed.get();
+	}
+
+	/**
+	 * @return the number of actions executed by the closed sessions.
+	 */
+	public long getActions() {
+		return actions.get();
+	}
+
+	/**
+	 * @return the average number of actions executed by a closed session.
+	 */
+	public double getActionsPerSession() {
+		long closed = sessionsClosed.get();
+		return (closed > 0 ? (double) actions.get() / closed : 0);
+	}
+
+	/**
+	 * @return the average lifetime of a closed session, in milliseconds.
+	 */
+	public double getAverageLifetime() {
+		long closed = sessionsClosed.get();
+		return (closed > 0 ? totalLifetime.get() / 1000000.0 / closed : 0);
+	}
+
+	/**
+	 * @return the longest lifetime of a closed session, in milliseconds.
+	 */
+	public double getMaxLifetime() {
+		return maxLifetime.get() / 1000000.0;
+	}
+
+	/**
+	 * Resets all the metrics, the sessions currently open being counted as closed sessions when they close.
+	 */
+	public void reset() {
+		sessionsOpened.set(getOpenSessions());
+		managedSessionsOpened.set(0);
+		sessionsClosed.set(0);
+		actions.set(0);
+		totalLifetime.set(0);
+		maxLifetime.set(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "SessionStatistics [ opened=" + getSessionsOpened() + ", managed=" + getManagedSessionsOpened()
+				+ ", open=" + getOpenSessions() + ", actions/session=" + String.format("%.2f", getActionsPerSession())
+				+ ", averageLifetime=" + String.format("%.3f", getAverageLifetime()) + "ms, maxLifetime="
+				+ String.format("%.3f", getMaxLifetime()) + "ms ]";
+	}
+
+}
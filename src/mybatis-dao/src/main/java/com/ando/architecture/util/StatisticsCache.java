@@ -0,0 +1,98 @@
+package com.ando.architecture.util;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * Cache decorator recording the lookups, puts and invalidations of the decorated cache in a {@link CacheStatistics}.
+ *
+ * @author Zied ANDOLSI
+ */
+final class StatisticsCache implements Cache {
+
+	/**
+	 * Decorated cache.
+	 */
+	private final Cache delegate;
+
+	/**
+	 * Metrics of the cache.
+	 */
+	private final CacheStatistics statistics;
+
+	/**
+	 * The constructor {@link #StatisticsCache(Cache, CacheStatistics)} decorates a cache.
+	 *
+	 * @param delegate
+	 *            decorated cache
+	 * @param statistics
+	 *            metrics of the cache
+	 */
+	StatisticsCache(Cache delegate, CacheStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getId() {
+		return delegate.getId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSize() {
+		return delegate.getSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void putObject(Object key, Object value) {
+		delegate.putObject(key, value);
+		statistics.put();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getObject(Object key) {
+		Object value = delegate.getObject(key);
+		statistics.lookedUp(value != null);
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object removeObject(Object key) {
+		statistics.removed();
+		return delegate.removeObject(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		statistics.cleared();
+		delegate.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ReadWriteLock getReadWriteLock() {
+		return delegate.getReadWriteLock();
+	}
+
+}
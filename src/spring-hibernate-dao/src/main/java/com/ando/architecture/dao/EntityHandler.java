@@ -0,0 +1,25 @@
+package com.ando.architecture.dao;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Represents a callback receiving, one at a time, the entities read by a streaming query.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type
+ */
+public interface EntityHandler<Type> {
+
+	/**
+	 * Handle an entity.
+	 *
+	 * @param entity
+	 *            the current entity
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to handle the entity. It stops the streaming.
+	 */
+	void handle(Type entity) throws DataBaseException;
+
+}
@@ -0,0 +1,133 @@
+package com.ando.architecture.dao;
+
+/**
+ * The class {@link QueryOptions} holds the JDBC settings applied to the queries of a DAO: fetch size, maximum number
+ * of rows and timeout.
+ * <p>
+ * A DAO holds default options, used by all its queries, which can be overridden for a single call. Each setting is
+ * optional: an unset setting keeps the value of the defaults, or the driver default. Instances are immutable.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class QueryOptions {
+
+	/**
+	 * Options without any setting, leaving the driver defaults.
+	 */
+	public static final QueryOptions NONE = new QueryOptions(null, null, null);
+
+	/**
+	 * Number of rows fetched at a time by the JDBC driver.
+	 */
+	private final Integer fetchSize;
+
+	/**
+	 * Maximum number of rows returned by a query.
+	 */
+	private final Integer maxRows;
+
+	/**
+	 * Timeout of a query, in seconds.
+	 */
+	private final Integer timeout;
+
+	/**
+	 * The constructor {@link #QueryOptions(Integer, Integer, Integer)} instantiates options with their settings.
+	 *
+	 * @param fetchSize
+	 *            number of rows fetched at a time by the JDBC driver, <code>null</code> if not set.
+	 * @param maxRows
+	 *            maximum number of rows returned by a query, <code>null</code> if not set.
+	 * @param timeout
+	 *            timeout of a query in seconds, <code>null</code> if not set.
+	 */
+	public QueryOptions(Integer fetchSize, Integer maxRows, Integer timeout) {
+		if ((fetchSize != null && fetchSize.intValue() < 0) || (maxRows != null && maxRows.intValue() <= 0)
+				|| (timeout != null && timeout.intValue() <= 0)) {
+			throw new IllegalArgumentException("The query options [ fetchSize=" + fetchSize + ", maxRows=" + maxRows
+					+ ", timeout=" + timeout + " ] are not valid.");
+		}
+		this.fetchSize = fetchSize;
+		this.maxRows = maxRows;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param fetchSize
+	 *            number of rows fetched at a time by the JDBC driver.
+	 * @return a copy of these options with the fetch size received as parameter.
+	 */
+	public QueryOptions withFetchSize(int fetchSize) {
+		return new QueryOptions(Integer.valueOf(fetchSize), maxRows, timeout);
+	}
+
+	/**
+	 * @param maxRows
+	 *            maximum number of rows returned by a query.
+	 * @return a copy of these options with the maximum number of rows received as parameter.
+	 */
+	public QueryOptions withMaxRows(int maxRows) {
+		return new QueryOptions(fetchSize, Integer.valueOf(maxRows), timeout);
+	}
+
+	/**
+	 * @param timeout
+	 *            timeout of a query, in seconds.
+	 * @return a copy of these options with the timeout received as parameter.
+	 */
+	public QueryOptions withTimeout(int timeout) {
+		return new QueryOptions(fetchSize, maxRows, Integer.valueOf(timeout));
+	}
+
+	/**
+	 * Combines these options, used as defaults, with the options of a call.
+	 *
+	 * @param overrides
+	 *            the options of a call, <code>null</code> if none.
+	 * @return the options in which the settings of <code>overrides</code> replace these settings.
+	 */
+	public QueryOptions overriddenBy(QueryOptions overrides) {
+		if (overrides == null || overrides == NONE) {
+			return this;
+		}
+		return new QueryOptions(overrides.fetchSize != null ? overrides.fetchSize : fetchSize,
+				overrides.maxRows != null ? overrides.maxRows : maxRows, overrides.timeout != null ? overrides.timeout
+						: timeout);
+	}
+
+	/**
+	 * Fetch size getter.
+	 *
+	 * @return the number of rows fetched at a time by the JDBC driver, <code>null</code> if not set.
+	 */
+	public Integer getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Max rows getter.
+	 *
+	 * @return the maximum number of rows returned by a query, <code>null</code> if not set.
+	 */
+	public Integer getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * Timeout getter.
+	 *
+	 * @return the timeout of a query in seconds, <code>null</code> if not set.
+	 */
+	public Integer getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "QueryOptions [ fetchSize=" + fetchSize + ", maxRows=" + maxRows + ", timeout=" + timeout + " ]";
+	}
+
+}
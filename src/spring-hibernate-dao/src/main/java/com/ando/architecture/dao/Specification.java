@@ -0,0 +1,521 @@
+package com.ando.architecture.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The class {@link Specification} describes the entities to find as a tree of conditions on their properties, with
+ * their order and a limit, e.g.
+ * <code>Specification.eq("team1", team1).and(Specification.in("team2", teams)).orderBy("betDate").limit(10)</code>.
+ * <p>
+ * The DAO renders a specification to a query whose values are positional parameters, and caches the rendered query by
+ * the {@link #getShape() shape} of the specification: its conditions, properties, order and the presence of a limit,
+ * without the values. Specifications of the same shape, differing only by their values, reuse the same query, which
+ * skips the rendering in the DAO and lets the underlying framework reuse its parsed plan of the query.
+ * <p>
+ * The lists of values of <code>in</code> conditions are padded to the next power of two by repeating their last
+ * value, so that lists of different sizes share a few shapes.
+ * <p>
+ * Instances are immutable: each method returns a new specification.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class Specification {
+
+	/**
+	 * Kind of a node of the specification.
+	 */
+	private enum Kind {
+
+		/**
+		 * All the entities, without condition.
+		 */
+		ALL,
+
+		/**
+		 * Property equal to a value, or null.
+		 */
+		EQ,
+
+		/**
+		 * Property equal to one of a list of values.
+		 */
+		IN,
+
+		/**
+		 * Property greater than or equal to a lower bound and less than an upper bound.
+		 */
+		RANGE,
+
+		/**
+		 * All the operands satisfied.
+		 */
+		AND,
+
+		/**
+		 * One of the operands satisfied.
+		 */
+		OR
+	}
+
+	/**
+	 * Valid property name, possibly a path through embedded properties. The names are rendered in the query, so that
+	 * anything else is rejected.
+	 */
+	private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+	/**
+	 * Specification of all the entities.
+	 */
+	private static final Specification ALL = new Specification(Kind.ALL, null, new Object[0],
+			new Specification[0], new String[0], new boolean[0], null);
+
+	/**
+	 * Kind of the condition.
+	 */
+	private final Kind kind;
+
+	/**
+	 * Property of the condition, <code>null</code> for the combinations of conditions.
+	 */
+	private final String name;
+
+	/**
+	 * Values of the condition: the value, the padded list of values or the bounds, a <code>null</code> bound being
+	 * unbounded.
+	 */
+	private final Object[] values;
+
+	/**
+	 * Operands of the combinations of conditions.
+	 */
+	private final Specification[] operands;
+
+	/**
+	 * Properties to order the entities by.
+	 */
+	private final String[] orders;
+
+	/**
+	 * Directions of the orders, <code>true</code> for ascending.
+	 */
+	private final boolean[] ascending;
+
+	/**
+	 * Maximum number of entities, <code>null</code> if unlimited.
+	 */
+	private final Integer limit;
+
+	/**
+	 * Shape of the specification, computed once.
+	 */
+	private final String shape;
+
+	/**
+	 * The constructor {@link #Specification(Kind, String, Object[], Specification[], String[], boolean[], Integer)}
+	 * instantiates a specification.
+	 *
+	 * @param kind
+	 *            kind of the condition.
+	 * @param name
+	 *            property of the condition.
+	 * @param values
+	 *            values of the condition.
+	 * @param operands
+	 *            operands of the combinations of conditions.
+	 * @param orders
+	 *            properties to order the entities by.
+	 * @param ascending
+	 *            directions of the orders.
+	 * @param limit
+	 *            maximum number of entities.
+	 */
+	private Specification(Kind kind, String name, Object[] values, Specification[] operands, String[] orders,
+			boolean[] ascending, Integer limit) {
+		this.kind = kind;
+		this.name = name;
+		this.values = values;
+		this.operands = operands;
+		this.orders = orders;
+		this.ascending = ascending;
+		this.limit = limit;
+
+		StringBuilder builder = new StringBuilder(conditionShape());
+		for (int i = 0; i < orders.length; i++) {
+			builder.append(i == 0 ? " order " : ",").append(orders[i]).append(ascending[i] ? '+' : '-');
+		}
+		this.shape = (limit != null ? builder.append(" limit").toString() : builder.toString());
+	}
+
+	/**
+	 * The constructor {@link #Specification(Kind, String, Object[], Specification[])} instantiates a condition, without
+	 * order nor limit.
+	 *
+	 * @param kind
+	 *            kind of the condition.
+	 * @param name
+	 *            property of the condition.
+	 * @param values
+	 *            values of the condition.
+	 * @param operands
+	 *            operands of the combinations of conditions.
+	 */
+	private Specification(Kind kind, String name, Object[] values, Specification[] operands) {
+		this(kind, name, values, operands, new String[0], new boolean[0], null);
+	}
+
+	/**
+	 * @return the specification of all the entities, to be ordered or limited.
+	 */
+	public static Specification all() {
+		return ALL;
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @param value
+	 *            the value, <code>null</code> to find the entities whose property is null.
+	 * @return the specification of the entities whose property is equal to the value received as parameter.
+	 */
+	public static Specification eq(String name, Object value) {
+		return new Specification(Kind.EQ, checkName(name), (value != null ? new Object[] { value } : new Object[0]),
+				new Specification[0]);
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @param values
+	 *            the values, at least one.
+	 * @return the specification of the entities whose property is equal to one of the values received as parameter.
+	 */
+	public static Specification in(String name, Collection<?> values) {
+		if (values == null || values.isEmpty()) {
+			throw new IllegalArgumentException("The values of the property [ " + name + " ] can not be empty.");
+		}
+		Object[] array = values.toArray();
+		for (Object value : array) {
+			if (value == null) {
+				throw new IllegalArgumentException("The values of the property [ " + name + " ] can not be null.");
+			}
+		}
+		int size = 1;
+		while (size < array.length) {
+			size <<= 1;
+		}
+		Object[] padded = Arrays.copyOf(array, size);
+		Arrays.fill(padded, array.length, size, array[array.length - 1]);
+		return new Specification(Kind.IN, checkName(name), padded, new Specification[0]);
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @param from
+	 *            lower bound, included, <code>null</code> if unbounded.
+	 * @param to
+	 *            upper bound, excluded, <code>null</code> if unbounded.
+	 * @return the specification of the entities whose property is greater than or equal to <code>from</code> and less
+	 *         than <code>to</code>.
+	 */
+	public static Specification range(String name, Object from, Object to) {
+		if (from == null && to == null) {
+			throw new IllegalArgumentException("The range of the property [ " + name + " ] has no bound.");
+		}
+		return new Specification(Kind.RANGE, checkName(name), new Object[] { from, to }, new Specification[0]);
+	}
+
+	/**
+	 * @param other
+	 *            the other condition, whose order and limit are ignored.
+	 * @return a copy of this specification, satisfied if both this condition and the other are.
+	 */
+	public Specification and(Specification other) {
+		return combine(Kind.AND, other);
+	}
+
+	/**
+	 * @param other
+	 *            the other condition, whose order and limit are ignored.
+	 * @return a copy of this specification, satisfied if this condition or the other is.
+	 */
+	public Specification or(Specification other) {
+		return combine(Kind.OR, other);
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @return a copy of this specification, ordering the entities by the ascending values of the property, after the
+	 *         orders already declared.
+	 */
+	public Specification orderBy(String name) {
+		return withOrder(checkName(name), true);
+	}
+
+	/**
+	 * @param name
+	 *            the property.
+	 * @return a copy of this specification, ordering the entities by the descending values of the property, after
+	 *         the orders already declared.
+	 */
+	public Specification orderByDesc(String name) {
+		return withOrder(checkName(name), false);
+	}
+
+	/**
+	 * @param maxResults
+	 *            maximum number of entities.
+	 * @return a copy of this specification, limited to the number of entities received as parameter.
+	 */
+	public Specification limit(int maxResults) {
+		if (maxResults <= 0) {
+			throw new IllegalArgumentException("The limit [ " + maxResults + " ] is not valid.");
+		}
+		return new Specification(kind, name, values, operands, orders, ascending, Integer.valueOf(maxResults));
+	}
+
+	/**
+	 * @param combination
+	 *            the kind of combination.
+	 * @param other
+	 *            the other condition.
+	 * @return a copy of this specification combining its condition with the other.
+	 */
+	private Specification combine(Kind combination, Specification other) {
+		if (other == null) {
+			throw new IllegalArgumentException("The combined specification can not be null.");
+		}
+		if (kind == Kind.ALL || other.kind == Kind.ALL) {
+			// all the entities are neutral for a conjunction, and absorbing for a disjunction
+			Specification condition = ((kind == Kind.ALL) ^ (combination == Kind.AND) ? this : other.condition());
+			return new Specification(condition.kind, condition.name, condition.values, condition.operands, orders,
+					ascending, limit);
+		}
+		Specification[] combined;
+		if (kind == combination) {
+			// flattens a chain of the same combination
+			combined = Arrays.copyOf(operands, operands.length + 1);
+			combined[operands.length] = other.condition();
+		} else {
+			combined = new Specification[] { condition(), other.condition() };
+		}
+		return new Specification(combination, null, new Object[0], combined, orders, ascending, limit);
+	}
+
+	/**
+	 * @param property
+	 *            the property.
+	 * @param direction
+	 *            <code>true</code> for ascending.
+	 * @return a copy of this specification with one more order.
+	 */
+	private Specification withOrder(String property, boolean direction) {
+		String[] nextOrders = Arrays.copyOf(orders, orders.length + 1);
+		boolean[] nextAscending = Arrays.copyOf(ascending, ascending.length + 1);
+		nextOrders[orders.length] = property;
+		nextAscending[ascending.length] = direction;
+		return new Specification(kind, name, values, operands, nextOrders, nextAscending, limit);
+	}
+
+	/**
+	 * @return the condition of this specification, without order nor limit.
+	 */
+	private Specification condition() {
+		return (orders.length == 0 && limit == null ? this : new Specification(kind, name, values, operands));
+	}
+
+	/**
+	 * @param property
+	 *            the name to check.
+	 * @return the name, if it is a valid property name.
+	 */
+	private static String checkName(String property) {
+		if (property == null || !NAME.matcher(property).matches()) {
+			throw new IllegalArgumentException("The property [ " + property + " ] is not a valid property name.");
+		}
+		return property;
+	}
+
+	/**
+	 * @return the shape of the condition, without the values.
+	 */
+	private String conditionShape() {
+		switch (kind) {
+		case EQ:
+			return name + (values.length > 0 ? "=?" : " null");
+		case IN:
+			return name + " in" + values.length;
+		case RANGE:
+			return name + (values[0] != null ? ">=?" : "") + (values[1] != null ? "<?" : "");
+		case AND:
+		case OR:
+			StringBuilder builder = new StringBuilder("(");
+			for (int i = 0; i < operands.length; i++) {
+				builder.append(i > 0 ? (kind == Kind.AND ? "&" : "|") : "").append(operands[i].conditionShape());
+			}
+			return builder.append(')').toString();
+		default:
+			return "*";
+		}
+	}
+
+	/**
+	 * Render the condition of the specification, as comparisons of the properties to positional parameters, in the
+	 * order of {@link #getParameters()}.
+	 *
+	 * @param alias
+	 *            alias of the entity the properties are prefixed with, <code>null</code> if none.
+	 * @return the condition, an empty string for the specification of all the entities.
+	 */
+	public String toCondition(String alias) {
+		StringBuilder condition = new StringBuilder();
+		appendCondition(condition, alias);
+		return condition.toString();
+	}
+
+	/**
+	 * @param condition
+	 *            the condition being rendered.
+	 * @param alias
+	 *            alias of the entity, <code>null</code> if none.
+	 */
+	private void appendCondition(StringBuilder condition, String alias) {
+		String property = prefix(alias) + name;
+		switch (kind) {
+		case EQ:
+			condition.append(property).append(values.length > 0 ? " = ?" : " is null");
+			break;
+		case IN:
+			condition.append(property).append(" in (?");
+			for (int i = 1; i < values.length; i++) {
+				condition.append(", ?");
+			}
+			condition.append(')');
+			break;
+		case RANGE:
+			if (values[0] != null) {
+				condition.append(property).append(" >= ?");
+			}
+			if (values[1] != null) {
+				condition.append(values[0] != null ? " and " : "").append(property).append(" < ?");
+			}
+			break;
+		case AND:
+		case OR:
+			condition.append('(');
+			for (int i = 0; i < operands.length; i++) {
+				condition.append(i > 0 ? (kind == Kind.AND ? " and " : " or ") : "");
+				operands[i].appendCondition(condition, alias);
+			}
+			condition.append(')');
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Render the order of the specification.
+	 *
+	 * @param alias
+	 *            alias of the entity the properties are prefixed with, <code>null</code> if none.
+	 * @return the order, without the <code>order by</code> keywords, an empty string if there is none.
+	 */
+	public String toOrderClause(String alias) {
+		StringBuilder clause = new StringBuilder();
+		for (int i = 0; i < orders.length; i++) {
+			clause.append(i > 0 ? ", " : "").append(prefix(alias)).append(orders[i]);
+			clause.append(ascending[i] ? " asc" : " desc");
+		}
+		return clause.toString();
+	}
+
+	/**
+	 * @param alias
+	 *            alias of the entity, <code>null</code> if none.
+	 * @return the prefix of the properties.
+	 */
+	private static String prefix(String alias) {
+		return (alias != null ? alias + "." : "");
+	}
+
+	/**
+	 * @return the values of the parameters of the condition, in order of position.
+	 */
+	public List<Object> getParameters() {
+		List<Object> params = new ArrayList<Object>();
+		collect(params);
+		return params;
+	}
+
+	/**
+	 * @return the properties of the conditions and of the orders, once per use.
+	 */
+	public List<String> getNames() {
+		List<String> names = new ArrayList<String>();
+		collectNames(names);
+		names.addAll(Arrays.asList(orders));
+		return names;
+	}
+
+	/**
+	 * @param params
+	 *            list receiving the values of the conditions, in order of position.
+	 */
+	private void collect(List<Object> params) {
+		for (Specification operand : operands) {
+			operand.collect(params);
+		}
+		for (Object value : values) {
+			if (value != null) {
+				params.add(value);
+			}
+		}
+	}
+
+	/**
+	 * @param names
+	 *            list receiving the properties of the conditions.
+	 */
+	private void collectNames(List<String> names) {
+		for (Specification operand : operands) {
+			operand.collectNames(names);
+		}
+		if (name != null) {
+			names.add(name);
+		}
+	}
+
+	/**
+	 * Shape getter: the conditions, properties, orders and presence of a limit of the specification, without the
+	 * values. Two specifications of the same shape are rendered to the same query.
+	 *
+	 * @return the shape of the specification.
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Limit getter.
+	 *
+	 * @return the maximum number of entities, <code>null</code> if unlimited.
+	 */
+	public Integer getLimit() {
+		return limit;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "Specification [ " + shape + " " + getParameters() + (limit != null ? " limit=" + limit : "") + " ]";
+	}
+
+}
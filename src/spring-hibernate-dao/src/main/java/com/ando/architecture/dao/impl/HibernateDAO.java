@@ -1,18 +1,46 @@
 package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.hibernate.Criteria;
+import org.hibernate.EntityMode;
+import org.hibernate.HibernateException;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projection;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.impl.CriteriaImpl;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.transform.ResultTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.hibernate3.HibernateCallback;
 import org.springframework.orm.hibernate3.HibernateTemplate;
 import org.springframework.orm.hibernate3.support.HibernateDaoSupport;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
+import com.ando.architecture.datasource.DataSourceRoutingContext;
 import com.ando.architecture.exception.DataBaseException;
 
 
@@ -37,6 +65,16 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(HibernateDAO.class);
 
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
+	/**
+	 * HQL requests rendered from the specifications, by shape of specification.
+	 */
+	private final ConcurrentMap<String, String> specificationRequests = new ConcurrentHashMap<String, String>();
+
 	/**
 	 * Entity's type this instance has to manage.
 	 */
@@ -66,6 +104,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			throw new IllegalArgumentException("The identifier can not be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
@@ -77,6 +116,8 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 					+ id.toString() + " ].", e);
 			throw new DataBaseException("An error has occured while getting the entity [ " + typeClass
 					+ " ] with identifier [ " + id.toString() + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -92,6 +133,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 					+ " ] to save cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Saving an entity [ " + typeClass.getSimpleName() + " ]...");
 
@@ -107,6 +149,8 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			LOGGER.error("An error has occured while saving the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("An error has occured while saving the entity " + typeClass.getSimpleName()
 					+ ".", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
@@ -121,6 +165,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			throw new IllegalArgumentException("The entity " + typeClass + " to update cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Updating the entity [ " + typeClass.getSimpleName() + " ]...");
 
@@ -134,6 +179,8 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			LOGGER.error("An error has occured while updating the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("An error has occured while updating the entity [ " + typeClass.getSimpleName()
 					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 
 	}
@@ -156,6 +203,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 					+ " ] to delete cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 
 			LOGGER.debug("Deleting the entity [ " + typeClass.getSimpleName() + " ] with identifier "
@@ -170,6 +218,8 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 					+ " ] with identifier [ " + getIdentifier(entity) + " ].", e);
 			throw new DataBaseException("An error has occured while deleting the entity [ " + typeClass.getSimpleName()
 					+ " ] with identifier [ " + getIdentifier(entity) + " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 
 	}
@@ -181,17 +231,368 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 	public List<Type> getAll() throws DataBaseException {
 		LOGGER.debug("Starting getAll method...");
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			LOGGER.debug("Getting and returning all entities [ " + typeClass.getSimpleName() + " ]...");
-			DetachedCriteria criteria = DetachedCriteria.forClass(typeClass);
-			List<Type> results = getHibernateTemplate().findByCriteria(criteria);
+			List<Type> results = getHibernateTemplate().execute(new HibernateCallback<List<Type>>() {
+
+				@Override
+				public List<Type> doInHibernate(Session session) throws HibernateException, SQLException {
+					Criteria criteria = session.createCriteria(typeClass);
+					applyQueryOptions(criteria, QueryOptions.NONE);
+					return criteria.list();
+				}
+			});
 			return (results != null ? results : new ArrayList<Type>());
 		} catch (Exception e) {
 			LOGGER.error("An error has occured while getting all entities [ " + typeClass + " ].", e);
 			throw new DataBaseException("An error has occured while getting all entities [ " + typeClass + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+
+	}
+
+	/**
+	 * The method {@link #getAll(int, int)} loads a page of entities, ordered by identifier so that pages are stable.
+	 *
+	 * @param firstResult
+	 *            position of the first entity to load, starting at 0.
+	 * @param maxResults
+	 *            maximum number of entities to load.
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load entities from the database.
+	 */
+	public List<Type> getAll(int firstResult, int maxResults) throws DataBaseException {
+		LOGGER.debug("Starting getAll method...");
+
+		String identifierName = getSessionFactory().getClassMetadata(typeClass).getIdentifierPropertyName();
+		DetachedCriteria criteria = DetachedCriteria.forClass(typeClass).addOrder(Order.asc(identifierName));
+		return findByCriteria(criteria, firstResult, maxResults);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The specification is rendered to an HQL request on the properties of the entity, once per shape of
+	 * specification, so that Hibernate also reuses its plan of the request.
+	 */
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+
+		String request = specificationRequests.get(specification.getShape());
+		if (request == null) {
+			request = toSpecificationRequest(specification);
+			specificationRequests.putIfAbsent(specification.getShape(), request);
+		}
+
+		LOGGER.debug("Getting and returning the entities [ " + typeClass.getSimpleName() + " ] of " + specification
+				+ "...");
+		Integer limit = specification.getLimit();
+		return executeResultList((limit != null ? QueryOptions.NONE.withMaxRows(limit) : QueryOptions.NONE), request,
+				specification.getParameters().toArray());
+	}
+
+	/**
+	 * Render a specification to an HQL request on the entities of this DAO.
+	 * 
+	 * @param specification
+	 *            the specification.
+	 * @return the HQL request.
+	 */
+	private String toSpecificationRequest(Specification specification) {
+		StringBuilder request = new StringBuilder("from ").append(typeClass.getName()).append(" e");
+		String condition = specification.toCondition("e");
+		if (condition.length() > 0) {
+			request.append(" where ").append(condition);
+		}
+		String order = specification.toOrderClause("e");
+		if (order.length() > 0) {
+			request.append(" order by ").append(order);
+		}
+		return request.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is compiled to an HQL <code>group by</code> request on the properties of the entity.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<AggregateRow> aggregate(Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
+
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			LOGGER.error("The aggregation [ " + aggregation + " ] has neither grouping nor function.");
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+
+		StringBuilder request = new StringBuilder("select ").append(aggregation.toSelectClause("e"));
+		request.append(" from ").append(typeClass.getName()).append(" e");
+		if (!aggregation.getGroupBy().isEmpty()) {
+			String groupBy = aggregation.toGroupByClause("e");
+			request.append(" group by ").append(groupBy).append(" order by ").append(groupBy);
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			Query query = createQuery(request.toString());
+			applyQueryOptions(query, QueryOptions.NONE);
+
+			List<AggregateRow> rows = new ArrayList<AggregateRow>();
+			for (Object result : (List<Object>) query.list()) {
+				// a request selecting a single value returns the values themselves instead of arrays
+				rows.add(result instanceof Object[] ? new AggregateRow((Object[]) result) : new AggregateRow(result));
+			}
+			return rows;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
+
+			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is compiled to criteria comparing the property to the bounds.
+	 */
+	public List<Type> findByRange(Range range, int limit) throws DataBaseException {
+		LOGGER.debug("Starting findByRange method...");
+		return findByCriteria(toRangeCriteria(range), 0, limit);
+	}
+
+	/**
+	 * Stream the entities of a range to a handler, one at a time, ordered by the value the range applies to, then by
+	 * identifier, instead of loading them in a {@link List}.
+	 * 
+	 * @param range
+	 *            the range of the entities to stream.
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 * @see #scrollByCriteria(DetachedCriteria, int, EntityHandler)
+	 */
+	public long scrollByRange(Range range, int fetchSize, EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.debug("Starting scrollByRange method...");
+		return scrollByCriteria(toRangeCriteria(range), fetchSize, handler);
+	}
+
+	/**
+	 * Compile a range to criteria comparing the property to the bounds, ordered by the property, then by identifier.
+	 * 
+	 * @param range
+	 *            the range.
+	 * @return the criteria.
+	 */
+	private DetachedCriteria toRangeCriteria(Range range) {
+		if (range == null) {
+			LOGGER.error("The range can not be null.");
+			throw new IllegalArgumentException("The range can not be null.");
 		}
 
+		String name = range.getName();
+		String identifierName = getSessionFactory().getClassMetadata(typeClass).getIdentifierPropertyName();
+		DetachedCriteria criteria = DetachedCriteria.forClass(typeClass);
+		if (range.getFrom() != null) {
+			criteria.add(Restrictions.ge(name, range.getFrom()));
+		}
+		if (range.getTo() != null) {
+			criteria.add(Restrictions.lt(name, range.getTo()));
+		}
+		if (range.getAfterId() != null) {
+			Object value = range.getAfterValue();
+			// redundant lower bound, letting the database seek to the last entity read in the index on the property
+			criteria.add(Restrictions.ge(name, value));
+			criteria.add(Restrictions.or(Restrictions.gt(name, value), Restrictions.and(Restrictions.eq(name, value),
+					Restrictions.gt(identifierName, range.getAfterId()))));
+		}
+		return criteria.addOrder(Order.asc(name)).addOrder(Order.asc(identifierName));
+	}
+
+	/**
+	 * Execute a criteria query loading only the page of entities delimited by <code>firstResult</code> and
+	 * <code>maxResults</code>. The criteria should define an order, otherwise the content of a page is not guaranteed.
+	 *
+	 * @param criteria
+	 *            the criteria to execute.
+	 * @param firstResult
+	 *            position of the first entity to load, starting at 0.
+	 * @param maxResults
+	 *            maximum number of entities to load.
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the criteria in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<Type> findByCriteria(final DetachedCriteria criteria, final int firstResult, final int maxResults)
+			throws DataBaseException {
+
+		if (criteria == null) {
+			LOGGER.error("The criteria can not be null.");
+			throw new IllegalArgumentException("The criteria can not be null.");
+		}
+
+		if (firstResult < 0 || maxResults <= 0) {
+			LOGGER.error("The page [ " + firstResult + ", " + maxResults + " ] is not valid.");
+			throw new IllegalArgumentException("The page [ " + firstResult + ", " + maxResults + " ] is not valid.");
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Getting and returning " + maxResults + " entities [ " + typeClass.getSimpleName()
+					+ " ] from position " + firstResult + "...");
+			List<Type> results = getHibernateTemplate().execute(new HibernateCallback<List<Type>>() {
+
+				@Override
+				public List<Type> doInHibernate(Session session) throws HibernateException, SQLException {
+					Criteria executable = criteria.getExecutableCriteria(session);
+					applyQueryOptions(executable, QueryOptions.NONE);
+					executable.setFirstResult(firstResult);
+					executable.setMaxResults(maxResults);
+					return executable.list();
+				}
+			});
+			return (results != null ? results : new ArrayList<Type>());
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities [ " + typeClass.getSimpleName()
+					+ " ] by criteria.", e);
+			throw new DataBaseException("An error has occured while getting the entities [ "
+					+ typeClass.getSimpleName() + " ] by criteria.", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Count the entities matching a criteria, typically to display the number of pages along with a page loaded by
+	 * {@link #findByCriteria(DetachedCriteria, int, int)}. The criteria is counted without its orders, which some
+	 * databases reject in a count, and with a row count projection; its orders, projection and result transformer are
+	 * restored afterwards, so that the same criteria can then load the page.
+	 *
+	 * @param criteria
+	 *            the criteria to count.
+	 * @return the number of matching entities.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the criteria in the database.
+	 */
+	protected long countByCriteria(DetachedCriteria criteria) throws DataBaseException {
+
+		if (criteria == null) {
+			LOGGER.error("The criteria can not be null.");
+			throw new IllegalArgumentException("The criteria can not be null.");
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Counting entities [ " + typeClass.getSimpleName() + " ] by criteria...");
+			CriteriaImpl executable = (CriteriaImpl) criteria.getExecutableCriteria(getSession());
+			Projection projection = executable.getProjection();
+			ResultTransformer resultTransformer = executable.getResultTransformer();
+			List<CriteriaImpl.OrderEntry> orders = new ArrayList<CriteriaImpl.OrderEntry>();
+			for (Iterator<?> iterator = executable.iterateOrderings(); iterator.hasNext();) {
+				orders.add((CriteriaImpl.OrderEntry) iterator.next());
+				iterator.remove();
+			}
+			try {
+				applyQueryOptions(executable, QueryOptions.NONE);
+				executable.setProjection(Projections.rowCount());
+				Number count = (Number) executable.uniqueResult();
+				return (count != null ? count.longValue() : 0L);
+			} finally {
+				executable.setProjection(projection);
+				executable.setResultTransformer(resultTransformer);
+				for (CriteriaImpl.OrderEntry order : orders) {
+					order.getCriteria().addOrder(order.getOrder());
+				}
+			}
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while counting the entities [ " + typeClass.getSimpleName()
+					+ " ] by criteria.", e);
+			throw new DataBaseException("An error has occured while counting the entities [ "
+					+ typeClass.getSimpleName() + " ] by criteria.", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Execute a criteria query and stream its results to a handler, one entity at a time, instead of loading them in a
+	 * {@link List}. Results are read through a forward only cursor, in read only mode, and each entity is evicted from
+	 * the session once handled, so that the memory used does not depend on the number of results. Changes made by the
+	 * handler on an entity are therefore not flushed: they have to be saved explicitly.
+	 *
+	 * @param criteria
+	 *            the criteria to execute.
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the criteria in the database or when handling
+	 *             an entity.
+	 */
+	@SuppressWarnings("unchecked")
+	protected long scrollByCriteria(DetachedCriteria criteria, int fetchSize, EntityHandler<Type> handler)
+			throws DataBaseException {
+
+		if (criteria == null || handler == null) {
+			LOGGER.error("The criteria and the handler can not be null.");
+			throw new IllegalArgumentException("The criteria and the handler can not be null.");
+		}
+
+		long count = 0;
+		ScrollableResults results = null;
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Streaming entities [ " + typeClass.getSimpleName() + " ] by criteria...");
+			Session session = getSession();
+			Criteria executable = criteria.getExecutableCriteria(session);
+			applyQueryOptions(executable, QueryOptions.NONE);
+			executable.setFetchSize(fetchSize);
+			executable.setReadOnly(true);
+			results = executable.scroll(ScrollMode.FORWARD_ONLY);
+			while (results.next()) {
+				Type entity = (Type) results.get(0);
+				handler.handle(entity);
+				session.evict(entity);
+				count++;
+			}
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been streamed.");
+			return count;
+		} catch (DataBaseException e) {
+			LOGGER.error("An error has occured while handling the entities [ " + typeClass.getSimpleName()
+					+ " ] after " + count + " entities.", e);
+			throw e;
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while streaming the entities [ " + typeClass.getSimpleName()
+					+ " ] after " + count + " entities.", e);
+			throw new DataBaseException("An error has occured while streaming the entities [ "
+					+ typeClass.getSimpleName() + " ] after " + count + " entities.", e);
+		} finally {
+			if (results != null) {
+				results.close();
+			}
+			DataSourceRoutingContext.restore(routing);
+		}
 	}
 
 	/**
@@ -206,12 +607,33 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to retrieve entity in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected Type executeSingleResult(final String request, final Object... params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, request, params);
+	}
 
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Type executeSingleResult(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			Query query = createQuery(request, params);
+			applyQueryOptions(query, options);
 
 			return (Type) query.uniqueResult();
 
@@ -221,6 +643,8 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 		} catch (Exception e) {
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -236,11 +660,32 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to execute query in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected List<Type> executeResultList(final String request, final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, request, params);
+	}
 
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<Type> executeResultList(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 			Query query = createQuery(request, params);
+			applyQueryOptions(query, options);
 
 			List<Type> results = query.list();
 
@@ -250,6 +695,59 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Execute an HQL update or delete request as one set-based statement, without loading the entities.
+	 * <p>
+	 * Hibernate invalidates the second-level cache regions and the cached queries of the entities touched by the
+	 * request. The instances of <code>Type</code> already loaded in the current session are evicted, so that they are
+	 * read again from the database.
+	 * 
+	 * @param request
+	 *            the HQL update or delete request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the number of entities updated or deleted.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the request in the database.
+	 */
+	protected int executeUpdate(final String request, final Object... params) throws DataBaseException {
+
+		Boolean routing = DataSourceRoutingContext.beginWrite();
+		try {
+			int count = getHibernateTemplate().execute(new HibernateCallback<Integer>() {
+
+				@Override
+				public Integer doInHibernate(Session session) throws HibernateException, SQLException {
+					Query query = session.createQuery(request);
+					for (int i = 0; i < params.length; i++) {
+						query.setParameter(i, params[i]);
+					}
+					if (queryOptions.getTimeout() != null) {
+						query.setTimeout(queryOptions.getTimeout());
+					}
+
+					int count = query.executeUpdate();
+					evictManagedEntities(session);
+					return count;
+				}
+			});
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been updated by the request [ "
+					+ request + " ].");
+			return count;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute update [ " + request + " ].", e);
+
+			throw new DataBaseException("An error has occurred when trying to execute update [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
@@ -274,6 +772,7 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 			for (int i = 0; i < params.length; i++) {
 				query.setParameter(i, params[i]);
 			}
+			applyQueryOptions(query, QueryOptions.NONE);
 
 			return query;
 		} catch (Exception e) {
@@ -283,6 +782,78 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 		}
 	}
 
+	/**
+	 * Apply the default options of this DAO, overridden by the options received as parameter, to a query.
+	 * 
+	 * @param query
+	 *            the query.
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 */
+	private void applyQueryOptions(Query query, QueryOptions options) {
+		QueryOptions effective = queryOptions.overriddenBy(options);
+		if (effective.getFetchSize() != null) {
+			query.setFetchSize(effective.getFetchSize());
+		}
+		if (effective.getMaxRows() != null) {
+			query.setMaxResults(effective.getMaxRows());
+		}
+		if (effective.getTimeout() != null) {
+			query.setTimeout(effective.getTimeout());
+		}
+	}
+
+	/**
+	 * Apply the default options of this DAO, overridden by the options received as parameter, to a criteria.
+	 * 
+	 * @param criteria
+	 *            the criteria.
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 */
+	private void applyQueryOptions(Criteria criteria, QueryOptions options) {
+		QueryOptions effective = queryOptions.overriddenBy(options);
+		if (effective.getFetchSize() != null) {
+			criteria.setFetchSize(effective.getFetchSize());
+		}
+		if (effective.getMaxRows() != null) {
+			criteria.setMaxResults(effective.getMaxRows());
+		}
+		if (effective.getTimeout() != null) {
+			criteria.setTimeout(effective.getTimeout());
+		}
+	}
+
+	/**
+	 * Evict from the session the managed entities of the type handled by this DAO. A bulk statement bypasses the
+	 * session, so these instances may no longer reflect the database. The entity keys are first filtered on the
+	 * entity names of this type and of its mapped subclasses, so that only the matching entities are looked up.
+	 * 
+	 * @param session
+	 *            the session to clean.
+	 */
+	private void evictManagedEntities(Session session) {
+		Set<String> entityNames = new HashSet<String>();
+		for (ClassMetadata metadata : session.getSessionFactory().getAllClassMetadata().values()) {
+			Class<?> mappedClass = metadata.getMappedClass(EntityMode.POJO);
+			if (mappedClass != null && typeClass.isAssignableFrom(mappedClass)) {
+				entityNames.add(metadata.getEntityName());
+			}
+		}
+		List<EntityKey> keys = new ArrayList<EntityKey>();
+		for (Object key : session.getStatistics().getEntityKeys()) {
+			if (entityNames.contains(((EntityKey) key).getEntityName())) {
+				keys.add((EntityKey) key);
+			}
+		}
+		for (EntityKey key : keys) {
+			Object entity = session.get(key.getEntityName(), key.getIdentifier());
+			if (entity != null) {
+				session.evict(entity);
+			}
+		}
+	}
+
 	/**
 	 * The method {@link #initDao()} initializes the HibernateTemplate in a <code>FLUSH_EAGER</code> mode.
 	 * 
@@ -294,4 +865,23 @@ public abstract class HibernateDAO<Type, IdType extends Serializable> extends Hi
 		super.initDao();
 	}
 
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+	}
+
 }
@@ -0,0 +1,117 @@
+package com.ando.architecture.datasource;
+
+/**
+ * Class utilities holding, for the current thread, the kind of operation (read or write) being executed and the time of
+ * the last write. It is fed by the DAOs and read by the {@link ReadWriteRoutingDataSource}.
+ * <p>
+ * Scopes are nested: a write scope is never turned into a read scope by a read executed inside it.
+ * 
+ * @author Zied ANDOLSI
+ * 
+ */
+public abstract class DataSourceRoutingContext {
+
+	/**
+	 * Kind of the current operation: {@link Boolean#TRUE} for a read, {@link Boolean#FALSE} for a write,
+	 * <code>null</code> if unspecified.
+	 */
+	private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<Boolean>();
+
+	/**
+	 * Time, in milliseconds, of the last write executed by the current thread.
+	 */
+	private static final ThreadLocal<Long> LAST_WRITE_TIME = new ThreadLocal<Long>();
+
+	/**
+	 * Default constructor to avoid class instantiation.
+	 */
+	private DataSourceRoutingContext() {
+
+	}
+
+	/**
+	 * Starts a read scope for the current thread.
+	 * 
+	 * @return the previous state, to give back to {@link #restore(Boolean)}.
+	 */
+	public static Boolean beginRead() {
+		Boolean previous = READ_ONLY.get();
+		if (!Boolean.FALSE.equals(previous)) {
+			READ_ONLY.set(Boolean.TRUE);
+		}
+		return previous;
+	}
+
+	/**
+	 * Starts a write scope for the current thread.
+	 * 
+	 * @return the previous state, to give back to {@link #endWrite(Boolean)}.
+	 */
+	public static Boolean beginWrite() {
+		Boolean previous = READ_ONLY.get();
+		READ_ONLY.set(Boolean.FALSE);
+		return previous;
+	}
+
+	/**
+	 * Ends a read scope and restores the previous state.
+	 * 
+	 * @param previous
+	 *            the state returned by {@link #beginRead()}.
+	 */
+	public static void restore(Boolean previous) {
+		if (previous == null) {
+			READ_ONLY.remove();
+		} else {
+			READ_ONLY.set(previous);
+		}
+	}
+
+	/**
+	 * Ends a write scope, records the time of the write and restores the previous state.
+	 * 
+	 * @param previous
+	 *            the state returned by {@link #beginWrite()}.
+	 */
+	public static void endWrite(Boolean previous) {
+		LAST_WRITE_TIME.set(Long.valueOf(System.currentTimeMillis()));
+		restore(previous);
+	}
+
+	/**
+	 * Returns the kind of the current operation.
+	 * 
+	 * @return {@link Boolean#TRUE} for a read, {@link Boolean#FALSE} for a write, <code>null</code> if unspecified.
+	 */
+	public static Boolean getReadOnly() {
+		return READ_ONLY.get();
+	}
+
+	/**
+	 * Returns true if the current thread has executed a write during the last <code>window</code> milliseconds.
+	 * 
+	 * @param window
+	 *            duration of the window in milliseconds.
+	 * @return true if a write has been executed during the window.
+	 */
+	public static boolean hasWrittenWithin(long window) {
+		Long lastWriteTime = LAST_WRITE_TIME.get();
+		if (lastWriteTime == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() - lastWriteTime.longValue() < window) {
+			return true;
+		}
+		LAST_WRITE_TIME.remove();
+		return false;
+	}
+
+	/**
+	 * Clears the state of the current thread.
+	 */
+	public static void clear() {
+		READ_ONLY.remove();
+		LAST_WRITE_TIME.remove();
+	}
+
+}
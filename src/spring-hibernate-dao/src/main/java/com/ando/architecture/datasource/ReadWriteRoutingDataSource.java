@@ -0,0 +1,197 @@
+package com.ando.architecture.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This data source sends the reads to a pool of replicas and the writes to the primary data source.
+ * <p>
+ * A connection is taken from a replica (round robin) when:
+ * <ul>
+ * <li>a read-only transaction is active, or</li>
+ * <li>no read-write transaction is active and the DAO has started a read scope (see {@link DataSourceRoutingContext}).</li>
+ * </ul>
+ * The reads of a thread which has written during the last {@link #setReadYourWritesWindow(long)} milliseconds are sent
+ * to the primary, so that a replica lag does not hide its own writes.
+ * <p>
+ * The transaction managers take their connection before the read-only flag of the transaction is published: this data
+ * source should be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so that the
+ * routing is decided when the first statement is executed.
+ * 
+ * @author Zied ANDOLSI
+ * 
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	/**
+	 * {@link ReadWriteRoutingDataSource}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	/**
+	 * Lookup key of the primary data source.
+	 */
+	public static final String PRIMARY_KEY = "primary";
+
+	/**
+	 * Prefix of the lookup keys of the replicas, followed by their index.
+	 */
+	public static final String REPLICA_KEY_PREFIX = "replica-";
+
+	/**
+	 * Primary data source.
+	 */
+	private DataSource primary;
+
+	/**
+	 * Replica data sources.
+	 */
+	private List<DataSource> replicas = new ArrayList<DataSource>();
+
+	/**
+	 * Duration, in milliseconds, during which the reads of a thread are sent to the primary after a write.
+	 */
+	private long readYourWritesWindow;
+
+	/**
+	 * Round robin counter.
+	 */
+	private final AtomicInteger counter = new AtomicInteger();
+
+	/**
+	 * Number of connections taken from each target.
+	 */
+	private final Map<String, AtomicLong> lookupCounts = new LinkedHashMap<String, AtomicLong>();
+
+	/**
+	 * Number of reads sent to the primary because of the read your writes window.
+	 */
+	private final AtomicLong readYourWritesCount = new AtomicLong();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		if (primary == null) {
+			throw new IllegalArgumentException("The primary data source is required.");
+		}
+		Map<Object, Object> targets = new HashMap<Object, Object>();
+		targets.put(PRIMARY_KEY, primary);
+		lookupCounts.put(PRIMARY_KEY, new AtomicLong());
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(REPLICA_KEY_PREFIX + i, replicas.get(i));
+			lookupCounts.put(REPLICA_KEY_PREFIX + i, new AtomicLong());
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		super.afterPropertiesSet();
+		LOGGER.info("Routing data source initialized with " + replicas.size() + " replica(s).");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String key = (isRead() ? REPLICA_KEY_PREFIX + ((counter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size())
+				: PRIMARY_KEY);
+		lookupCounts.get(key).incrementAndGet();
+		LOGGER.debug("Routing the connection to [ " + key + " ].");
+		return key;
+	}
+
+	/**
+	 * Returns true if the current connection can be taken from a replica.
+	 * 
+	 * @return true for a read.
+	 */
+	private boolean isRead() {
+		if (replicas.isEmpty()) {
+			return false;
+		}
+		boolean readOnlyTransaction = false;
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+				return false;
+			}
+			readOnlyTransaction = true;
+		}
+		Boolean readOnly = DataSourceRoutingContext.getReadOnly();
+		if (Boolean.FALSE.equals(readOnly) || (!readOnlyTransaction && readOnly == null)) {
+			return false;
+		}
+		if (readYourWritesWindow > 0 && DataSourceRoutingContext.hasWrittenWithin(readYourWritesWindow)) {
+			readYourWritesCount.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of connections taken from each target, by lookup key.
+	 * 
+	 * @return the number of connections taken from each target.
+	 */
+	public Map<String, Long> getLookupCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : lookupCounts.entrySet()) {
+			counts.put(entry.getKey(), Long.valueOf(entry.getValue().get()));
+		}
+		return Collections.unmodifiableMap(counts);
+	}
+
+	/**
+	 * Returns the number of reads sent to the primary because of the read your writes window.
+	 * 
+	 * @return the number of reads sent to the primary after a write.
+	 */
+	public long getReadYourWritesCount() {
+		return readYourWritesCount.get();
+	}
+
+	/**
+	 * Primary data source setter.
+	 * 
+	 * @param primary
+	 *            the primary to set
+	 */
+	public void setPrimary(DataSource primary) {
+		this.primary = primary;
+	}
+
+	/**
+	 * Replica data sources setter.
+	 * 
+	 * @param replicas
+	 *            the replicas to set
+	 */
+	public void setReplicas(List<DataSource> replicas) {
+		this.replicas = (replicas != null ? new ArrayList<DataSource>(replicas) : new ArrayList<DataSource>());
+	}
+
+	/**
+	 * Sets the duration, in milliseconds, during which the reads of a thread are sent to the primary after a write. A
+	 * value lower or equal to zero disables the window.
+	 * 
+	 * @param readYourWritesWindow
+	 *            the readYourWritesWindow to set
+	 */
+	public void setReadYourWritesWindow(long readYourWritesWindow) {
+		this.readYourWritesWindow = readYourWritesWindow;
+	}
+
+}
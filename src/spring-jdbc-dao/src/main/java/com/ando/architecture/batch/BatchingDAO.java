@@ -0,0 +1,379 @@
+package com.ando.architecture.batch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * The class {@link BatchingDAO} wraps a {@link DAO} to group the concurrent calls of {@link #findOne(Serializable)}:
+ * the calls made within a short window, or until a batch reaches its maximum size, are served by a single
+ * <code>in (...)</code> query of the wrapped DAO (see {@link DAO#findBySpecification(Specification)}), and each
+ * caller receives the entity loaded for its identifier. The other methods are delegated as is.
+ * <p>
+ * The entities are not copied: concurrent callers asking for the same identifier within a batch share one instance,
+ * which they should treat as read-only, or copy before modifying it.
+ * <p>
+ * There is no background thread: the first call of a batch waits for the window to elapse, or for the batch to be
+ * full, then loads the batch on behalf of the calls which joined it. A batch of a single identifier is loaded by
+ * {@link DAO#findOne(Serializable)} of the wrapped DAO.
+ * <p>
+ * The entities are loaded in the thread of the first call of their batch, outside of the session or transaction of
+ * the other callers: this DAO is meant for concurrent reads outside of a transaction.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type this instance has to manage.
+ * @param <IdType>
+ *            Entity identifier's type this instance has to manage.
+ */
+public class BatchingDAO<Type, IdType extends Serializable> implements DAO<Type, IdType> {
+
+	/**
+	 * {@link BatchingDAO}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchingDAO.class);
+
+	/**
+	 * Default time a batch waits for other calls, in milliseconds.
+	 */
+	public static final long DEFAULT_WINDOW_MILLIS = 2;
+
+	/**
+	 * Default maximum number of distinct identifiers of a batch.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+	/**
+	 * The wrapped DAO.
+	 */
+	private final DAO<Type, IdType> dao;
+
+	/**
+	 * Name of the identifier column, compared to the identifiers of a batch.
+	 */
+	private final String identifierName;
+
+	/**
+	 * Time a batch waits for other calls, in milliseconds.
+	 */
+	private final long windowMillis;
+
+	/**
+	 * Maximum number of distinct identifiers of a batch.
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * Metrics of the batches.
+	 */
+	private final BatchStatistics statistics = new BatchStatistics();
+
+	/**
+	 * Lock guarding the batch being collected.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * Batch being collected, <code>null</code> if none.
+	 */
+	private Batch<Type, IdType> pending;
+
+	/**
+	 * The constructor {@link #BatchingDAO(DAO, String)} wraps a DAO, with the default window and maximum batch size.
+	 *
+	 * @param dao
+	 *            the wrapped DAO.
+	 * @param identifierName
+	 *            name of the identifier column of the table.
+	 */
+	public BatchingDAO(DAO<Type, IdType> dao, String identifierName) {
+		this(dao, identifierName, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * The constructor {@link #BatchingDAO(DAO, String, long, int)} wraps a DAO.
+	 *
+	 * @param dao
+	 *            the wrapped DAO.
+	 * @param identifierName
+	 *            name of the identifier column of the table.
+	 * @param windowMillis
+	 *            time a batch waits for other calls, in milliseconds, 0 not to wait.
+	 * @param maxBatchSize
+	 *            maximum number of distinct identifiers of a batch, a full batch being loaded without waiting for the
+	 *            end of the window.
+	 */
+	public BatchingDAO(DAO<Type, IdType> dao, String identifierName, long windowMillis, int maxBatchSize) {
+		if (dao == null || identifierName == null) {
+			LOGGER.error("The wrapped DAO and the identifier name can not be null.");
+			throw new IllegalArgumentException("The wrapped DAO and the identifier name can not be null.");
+		}
+		if (windowMillis < 0 || maxBatchSize <= 0) {
+			LOGGER.error("The window [ " + windowMillis + " ] and the maximum batch size [ " + maxBatchSize
+					+ " ] are not valid.");
+			throw new IllegalArgumentException("The window [ " + windowMillis + " ] and the maximum batch size [ "
+					+ maxBatchSize + " ] are not valid.");
+		}
+		this.dao = dao;
+		this.identifierName = identifierName;
+		this.windowMillis = windowMillis;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The call joins the batch being collected, or starts a new one, and waits for the batch to be loaded. The entity
+	 * returned is shared with the other calls of the batch asking for the same identifier.
+	 */
+	public Type findOne(IdType id) throws DataBaseException {
+		LOGGER.debug("Starting findOne method...");
+
+		if (id == null) {
+			LOGGER.error("The identifier can not be null.");
+			throw new IllegalArgumentException("The identifier can not be null.");
+		}
+
+		long requestedAt = System.nanoTime();
+		Batch<Type, IdType> batch;
+		boolean leader;
+		synchronized (lock) {
+			batch = pending;
+			leader = (batch == null);
+			if (leader) {
+				batch = new Batch<Type, IdType>();
+				pending = batch;
+			}
+			batch.ids.add(id);
+			if (batch.ids.size() >= maxBatchSize) {
+				// a full batch is closed, and its first call no longer waits
+				pending = null;
+				lock.notifyAll();
+			} else if (leader) {
+				awaitWindow(batch);
+				if (pending == batch) {
+					pending = null;
+				}
+			}
+		}
+
+		if (leader) {
+			load(batch);
+		} else {
+			batch.await();
+		}
+		statistics.served(Math.max(0, batch.loadedAt - requestedAt));
+		return batch.get(id);
+	}
+
+	/**
+	 * Wait for the window of a batch to elapse, or for the batch to be closed. The lock must be held.
+	 *
+	 * @param batch
+	 *            the batch.
+	 */
+	private void awaitWindow(Batch<Type, IdType> batch) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		long remaining = deadline - System.nanoTime();
+		try {
+			while (pending == batch && remaining > 0) {
+				TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+				remaining = deadline - System.nanoTime();
+			}
+		} catch (InterruptedException e) {
+			// the batch is loaded at once, so that the calls which joined it are served
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Load the entities of a batch with the wrapped DAO, and release the calls waiting for it.
+	 *
+	 * @param batch
+	 *            the closed batch.
+	 */
+	private void load(Batch<Type, IdType> batch) {
+		List<IdType> ids = new ArrayList<IdType>(batch.ids);
+		batch.loadedAt = System.nanoTime();
+		statistics.loaded(ids.size());
+		try {
+
+			LOGGER.debug("Getting a batch of " + ids.size() + " entities with identifiers " + ids + "...");
+			Map<IdType, Type> entities = new HashMap<IdType, Type>();
+			if (ids.size() == 1) {
+				Type entity = dao.findOne(ids.get(0));
+				if (entity != null) {
+					entities.put(ids.get(0), entity);
+				}
+			} else {
+				for (Type entity : dao.findBySpecification(Specification.in(identifierName, ids))) {
+					entities.put(dao.getIdentifier(entity), entity);
+				}
+			}
+			batch.entities = entities;
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entities with identifiers " + ids + ".", e);
+			batch.failure = e;
+		} finally {
+			batch.loaded.countDown();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type save(Type entity) throws DataBaseException {
+		return dao.save(entity);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type update(Type entity) throws DataBaseException {
+		return dao.update(entity);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void delete(Type entity) throws DataBaseException {
+		dao.delete(entity);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Type> getAll() throws DataBaseException {
+		return dao.getAll();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<AggregateRow> aggregate(Aggregation aggregation) throws DataBaseException {
+		return dao.aggregate(aggregation);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Type> findByRange(Range range, int limit) throws DataBaseException {
+		return dao.findByRange(range, limit);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		return dao.findBySpecification(specification);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public IdType getIdentifier(Type entity) {
+		return dao.getIdentifier(entity);
+	}
+
+	/**
+	 * @return the wrapped DAO.
+	 */
+	public DAO<Type, IdType> getDao() {
+		return dao;
+	}
+
+	/**
+	 * @return the metrics of the batches.
+	 */
+	public BatchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * The class {@link Batch} holds the identifiers requested by the calls of a batch, then the entities loaded.
+	 *
+	 * @param <Type>
+	 *            Entity's type.
+	 * @param <IdType>
+	 *            Entity identifier's type.
+	 */
+	private static final class Batch<Type, IdType> {
+
+		/**
+		 * Distinct identifiers requested, modified under the lock of the DAO until the batch is closed.
+		 */
+		private final Set<IdType> ids = new LinkedHashSet<IdType>();
+
+		/**
+		 * Released once the batch is loaded.
+		 */
+		private final CountDownLatch loaded = new CountDownLatch(1);
+
+		/**
+		 * Time the batch has started to be loaded, in nanoseconds.
+		 */
+		private long loadedAt;
+
+		/**
+		 * Entities loaded, by identifier.
+		 */
+		private Map<IdType, Type> entities;
+
+		/**
+		 * Exception thrown while loading the batch, <code>null</code> if none.
+		 */
+		private Exception failure;
+
+		/**
+		 * Wait for the batch to be loaded.
+		 *
+		 * @throws DataBaseException
+		 *             thrown if the thread is interrupted while waiting.
+		 */
+		private void await() throws DataBaseException {
+			try {
+				loaded.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DataBaseException("Interrupted while waiting for a batch of entities to be loaded.", e);
+			}
+		}
+
+		/**
+		 * @param id
+		 *            the identifier.
+		 * @return the entity loaded with the identifier received as parameter, shared by the calls of the batch
+		 *         asking for it, <code>null</code> if none.
+		 * @throws DataBaseException
+		 *             thrown if the batch could not be loaded.
+		 */
+		private Type get(IdType id) throws DataBaseException {
+			if (failure != null) {
+				throw new DataBaseException("An error has occured while getting the entity with identifier [ " + id
+						+ " ].", failure);
+			}
+			return entities.get(id);
+		}
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.ando.architecture.bulk;
+
+import java.util.List;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Represents the batch path of a DAO, writing the entities read by an import.
+ * <p>
+ * Implementations must be thread-safe: batches are written concurrently by the threads of an import.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type
+ */
+public interface BatchWriter<Type> {
+
+	/**
+	 * Write a batch of entities.
+	 *
+	 * @param entities
+	 *            the entities, only valid during the call.
+	 * @return the number of entities written.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to write the entities. It stops the import.
+	 */
+	int write(List<Type> entities) throws DataBaseException;
+
+}
@@ -0,0 +1,502 @@
+package com.ando.architecture.bulk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * The class {@link BulkImporter} loads the records of a flat file into the database, by batches, instead of saving the
+ * entities one by one.
+ * <p>
+ * The file is split into segments at line boundaries, read in parallel by several threads. Each segment is mapped in
+ * memory, so that its lines are read in place, without copying them into a {@link String}: the {@link RecordFormat}
+ * locates the fields of a line, then the {@link RecordParser} builds the entity, reading only the fields it needs. The
+ * entities are sent to the {@link BatchWriter} by batches, and the progress of the import is reported in an
+ * {@link ImportProgress}.
+ * <p>
+ * The import is not atomic: the batches written before a failure stay written, unless the writer takes part in a
+ * surrounding transaction. The order of the records is kept within a segment, but not between segments.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type
+ */
+public class BulkImporter<Type> {
+
+	/**
+	 * {@link BulkImporter}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BulkImporter.class);
+
+	/**
+	 * Default number of entities per batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * Default maximum size of a segment, in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Minimum size of a segment, in bytes: smaller files are read by fewer threads.
+	 */
+	private static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+	/**
+	 * Size of the buffer used to look for the line boundaries.
+	 */
+	private static final int BOUNDARY_BUFFER_SIZE = 8192;
+
+	/**
+	 * Format of the lines.
+	 */
+	private final RecordFormat format;
+
+	/**
+	 * Conversion of the records into entities.
+	 */
+	private final RecordParser<Type> parser;
+
+	/**
+	 * Batch path writing the entities.
+	 */
+	private final BatchWriter<Type> writer;
+
+	/**
+	 * Number of threads reading the file.
+	 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Number of entities per batch.
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Maximum size of a segment, in bytes.
+	 */
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+	/**
+	 * The constructor {@link #BulkImporter(RecordFormat, RecordParser, BatchWriter)} instantiates an importer.
+	 *
+	 * @param format
+	 *            format of the lines
+	 * @param parser
+	 *            conversion of the records into entities
+	 * @param writer
+	 *            batch path writing the entities
+	 */
+	public BulkImporter(RecordFormat format, RecordParser<Type> parser, BatchWriter<Type> writer) {
+		if (format == null || parser == null || writer == null) {
+			throw new IllegalArgumentException("An importer needs a format, a parser and a writer.");
+		}
+		this.format = format;
+		this.parser = parser;
+		this.writer = writer;
+	}
+
+	/**
+	 * Import all the records of a file.
+	 *
+	 * @param file
+	 *            the file, encoded in UTF-8.
+	 * @return the metrics of the import.
+	 * @throws DataBaseException
+	 *             thrown if the file can not be read, a record is not valid or a batch can not be written.
+	 */
+	public ImportProgress importFile(File file) throws DataBaseException {
+		return importFile(file, new ImportProgress());
+	}
+
+	/**
+	 * Import all the records of a file, reporting the progress in the metrics received as parameter, which can be read
+	 * by another thread during the import.
+	 *
+	 * @param file
+	 *            the file, encoded in UTF-8.
+	 * @param progress
+	 *            the metrics of the import, not shared with another import.
+	 * @return the metrics of the import.
+	 * @throws DataBaseException
+	 *             thrown if the file can not be read, a record is not valid or a batch can not be written.
+	 */
+	public ImportProgress importFile(File file, ImportProgress progress) throws DataBaseException {
+		LOGGER.debug("Starting importFile method...");
+
+		if (file == null || progress == null) {
+			LOGGER.error("The file to import and its progress cannot be null.");
+			throw new IllegalArgumentException("The file to import and its progress cannot be null.");
+		}
+
+		RandomAccessFile input = null;
+		ExecutorService executor = null;
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		AtomicBoolean failed = new AtomicBoolean();
+		try {
+			input = new RandomAccessFile(file, "r");
+			FileChannel channel = input.getChannel();
+			long size = channel.size();
+			progress.start(size);
+
+			List<long[]> segments = split(channel, size);
+			LOGGER.debug("Importing the file [ " + file + " ] of " + size + " bytes in " + segments.size()
+					+ " segments...");
+
+			executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, segments.size())));
+			for (long[] segment : segments) {
+				futures.add(executor.submit(new SegmentImport(channel, segment[0], segment[1], progress, failed)));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+
+			progress.end();
+			LOGGER.info("The file [ " + file + " ] has been imported: " + progress);
+			return progress;
+
+		} catch (ExecutionException e) {
+			failed.set(true);
+			Throwable cause = e.getCause();
+			LOGGER.error("An error has occurred when trying to import the file [ " + file + " ] after "
+					+ progress.getRecordsWritten() + " records.", cause);
+			if (cause instanceof DataBaseException) {
+				throw (DataBaseException) cause;
+			}
+			throw new DataBaseException("An error has occurred when trying to import the file [ " + file + " ].",
+					cause);
+		} catch (InterruptedException e) {
+			failed.set(true);
+			Thread.currentThread().interrupt();
+			throw new DataBaseException("The import of the file [ " + file + " ] has been interrupted.", e);
+		} catch (IOException e) {
+			failed.set(true);
+			LOGGER.error("An error has occurred when trying to read the file [ " + file + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to read the file [ " + file + " ].", e);
+		} finally {
+			if (!progress.isDone()) {
+				progress.end();
+			}
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+			if (executor != null) {
+				executor.shutdown();
+			}
+			close(input);
+		}
+	}
+
+	/**
+	 * Closes the file, logging the failure.
+	 *
+	 * @param input
+	 *            the file, may be null
+	 */
+	private static void close(RandomAccessFile input) {
+		if (input != null) {
+			try {
+				input.close();
+			} catch (IOException e) {
+				LOGGER.warn("The imported file could not be closed.", e);
+			}
+		}
+	}
+
+	/**
+	 * Splits a file into segments ending at line boundaries.
+	 *
+	 * @param channel
+	 *            channel of the file
+	 * @param size
+	 *            size of the file
+	 * @return the start and end of each segment.
+	 * @throws IOException
+	 *             thrown if the file can not be read.
+	 */
+	private List<long[]> split(FileChannel channel, long size) throws IOException {
+		long chunk = Math.min(segmentSize, Math.max((size + parallelism - 1) / parallelism, MIN_SEGMENT_SIZE));
+		List<long[]> segments = new ArrayList<long[]>();
+		long start = 0;
+		while (start < size) {
+			long end = Math.min(start + chunk, size);
+			if (end < size) {
+				end = nextLine(channel, end, size);
+			}
+			segments.add(new long[]{ start, end });
+			start = end;
+		}
+		return segments;
+	}
+
+	/**
+	 * Finds the start of the line following a position.
+	 *
+	 * @param channel
+	 *            channel of the file
+	 * @param position
+	 *            the position
+	 * @param size
+	 *            size of the file
+	 * @return the position following the first line separator at or after <code>position - 1</code>, the size of the
+	 *         file if none.
+	 * @throws IOException
+	 *             thrown if the file can not be read.
+	 */
+	private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+		long current = position - 1;
+		while (current < size) {
+			buffer.clear();
+			int read = channel.read(buffer, current);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return current + i + 1;
+				}
+			}
+			current += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Import of a segment of the file, by one thread.
+	 */
+	private final class SegmentImport implements Callable<Void> {
+
+		/**
+		 * Channel of the file.
+		 */
+		private final FileChannel channel;
+
+		/**
+		 * Start of the segment in the file.
+		 */
+		private final long start;
+
+		/**
+		 * End of the segment in the file, exclusive.
+		 */
+		private final long end;
+
+		/**
+		 * Metrics of the import.
+		 */
+		private final ImportProgress progress;
+
+		/**
+		 * Set when a segment fails, to stop the others.
+		 */
+		private final AtomicBoolean failed;
+
+		/**
+		 * Instantiates the import of a segment.
+		 *
+		 * @param channel
+		 *            channel of the file
+		 * @param start
+		 *            start of the segment in the file
+		 * @param end
+		 *            end of the segment in the file, exclusive
+		 * @param progress
+		 *            metrics of the import
+		 * @param failed
+		 *            failure flag shared by the segments
+		 */
+		private SegmentImport(FileChannel channel, long start, long end, ImportProgress progress,
+				AtomicBoolean failed) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.progress = progress;
+			this.failed = failed;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Void call() throws IOException, DataBaseException {
+			try {
+				importSegment();
+				return null;
+			} catch (IOException e) {
+				failed.set(true);
+				throw e;
+			} catch (DataBaseException e) {
+				failed.set(true);
+				throw e;
+			} catch (RuntimeException e) {
+				failed.set(true);
+				throw e;
+			}
+		}
+
+		/**
+		 * Reads the records of the segment and writes them by batches, until the end of the segment or the failure of
+		 * another segment.
+		 *
+		 * @throws IOException
+		 *             thrown if the segment can not be mapped.
+		 * @throws DataBaseException
+		 *             thrown if a batch can not be written.
+		 */
+		private void importSegment() throws IOException, DataBaseException {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			int length = (int) (end - start);
+			ImportRecord record = new ImportRecord();
+			List<Type> batch = new ArrayList<Type>(batchSize);
+			boolean skipHeader = (start == 0 && format.hasHeader());
+			int records = 0;
+			int batchStart = 0;
+			int lineStart = 0;
+
+			while (lineStart < length && !failed.get()) {
+				int lineEnd = lineStart;
+				while (lineEnd < length && buffer.get(lineEnd) != '\n') {
+					lineEnd++;
+				}
+				int nextLine = lineEnd + 1;
+				if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+					lineEnd--;
+				}
+
+				if (skipHeader) {
+					skipHeader = false;
+				} else if (lineEnd > lineStart) {
+					record.reset(buffer, start + lineStart);
+					format.split(buffer, lineStart, lineEnd, record);
+					Type entity = parser.parse(record);
+					records++;
+					if (entity != null) {
+						batch.add(entity);
+						if (batch.size() == batchSize) {
+							write(batch, records, Math.min(nextLine, length) - batchStart);
+							records = 0;
+							batchStart = Math.min(nextLine, length);
+						}
+					}
+				}
+				lineStart = nextLine;
+			}
+
+			if (!failed.get()) {
+				if (batch.isEmpty()) {
+					progress.skipped(records, length - batchStart);
+				} else {
+					write(batch, records, length - batchStart);
+				}
+			}
+		}
+
+		/**
+		 * Writes a batch and clears it.
+		 *
+		 * @param batch
+		 *            the entities
+		 * @param records
+		 *            number of records read for the batch
+		 * @param bytes
+		 *            bytes of the file holding the records
+		 * @throws DataBaseException
+		 *             thrown if the batch can not be written.
+		 */
+		private void write(List<Type> batch, int records, long bytes) throws DataBaseException {
+			long begin = System.nanoTime();
+			int written = writer.write(batch);
+			progress.batchWritten(records, written, bytes, System.nanoTime() - begin);
+			batch.clear();
+			LOGGER.debug("Import in progress: " + progress);
+		}
+	}
+
+	/**
+	 * Parallelism getter.
+	 *
+	 * @return the number of threads reading the file.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Parallelism setter. Each thread writes its own batches, so that the parallelism is also the number of
+	 * connections used by the import.
+	 *
+	 * @param parallelism
+	 *            the number of threads reading the file, the number of processors by default.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("The parallelism must be positive.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Batch size getter.
+	 *
+	 * @return the number of entities per batch.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Batch size setter.
+	 *
+	 * @param batchSize
+	 *            the number of entities per batch, 1000 by default.
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Segment size getter.
+	 *
+	 * @return the maximum size of a segment, in bytes.
+	 */
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	/**
+	 * Segment size setter. A segment is mapped in memory at once; larger files are split into more segments than
+	 * threads.
+	 *
+	 * @param segmentSize
+	 *            the maximum size of a segment in bytes, 64 MB by default.
+	 */
+	public void setSegmentSize(int segmentSize) {
+		if (segmentSize <= 0) {
+			throw new IllegalArgumentException("The segment size must be positive.");
+		}
+		this.segmentSize = segmentSize;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.ando.architecture.bulk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * CSV format, as described by RFC 4180: fields are separated by a separator character and may be enclosed in double
+ * quotes, a double quote inside a quoted field being written twice. Records can not span several lines.
+ * <p>
+ * An empty field is null, unless it is quoted: <code>a,,b</code> has a null field, <code>a,"",b</code> an empty one.
+ *
+ * @author Zied ANDOLSI
+ */
+public class CsvFormat implements RecordFormat {
+
+	/**
+	 * Quote character.
+	 */
+	private static final byte QUOTE = '"';
+
+	/**
+	 * Field separator.
+	 */
+	private final byte separator;
+
+	/**
+	 * True if the first line is a header.
+	 */
+	private final boolean header;
+
+	/**
+	 * The constructor {@link #CsvFormat(char, boolean)} instantiates a CSV format.
+	 *
+	 * @param separator
+	 *            field separator, an ASCII character such as <code>,</code> or <code>;</code>
+	 * @param header
+	 *            true if the first line of the files is a header
+	 */
+	public CsvFormat(char separator, boolean header) {
+		if (separator >= 0x80 || separator == QUOTE || separator == '\n' || separator == '\r') {
+			throw new IllegalArgumentException("The separator [ " + separator + " ] is not supported.");
+		}
+		this.separator = (byte) separator;
+		this.header = header;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasHeader() {
+		return header;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void split(ByteBuffer buffer, int start, int end, ImportRecord record) {
+		int position = start;
+		while (true) {
+			if (position < end && buffer.get(position) == QUOTE) {
+				int fieldStart = position + 1;
+				byte escape = 0;
+				position = fieldStart;
+				while (true) {
+					if (position >= end) {
+						throw new IllegalArgumentException("The line at offset " + record.getOffset()
+								+ " has an unterminated quoted field.");
+					}
+					if (buffer.get(position) == QUOTE) {
+						if (position + 1 < end && buffer.get(position + 1) == QUOTE) {
+							escape = QUOTE;
+							position += 2;
+							continue;
+						}
+						break;
+					}
+					position++;
+				}
+				record.addField(fieldStart, position, escape);
+				position++;
+				if (position < end && buffer.get(position) != separator) {
+					throw new IllegalArgumentException("The line at offset " + record.getOffset()
+							+ " has characters after a quoted field.");
+				}
+			} else {
+				int fieldStart = position;
+				while (position < end && buffer.get(position) != separator) {
+					position++;
+				}
+				record.addField(position > fieldStart ? fieldStart : -1, position, (byte) 0);
+			}
+
+			if (position >= end) {
+				return;
+			}
+			position++;
+		}
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.ando.architecture.bulk;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link ImportProgress} holds the metrics of an import, updated by its threads and readable at any time by
+ * another thread, e.g. to report the progress of a long import.
+ *
+ * @author Zied ANDOLSI
+ */
+public class ImportProgress {
+
+	/**
+	 * Size of the file, in bytes.
+	 */
+	private final AtomicLong totalBytes = new AtomicLong();
+
+	/**
+	 * Bytes of the file whose records have been written.
+	 */
+	private final AtomicLong bytesRead = new AtomicLong();
+
+	/**
+	 * Records read and parsed.
+	 */
+	private final AtomicLong recordsRead = new AtomicLong();
+
+	/**
+	 * Entities written.
+	 */
+	private final AtomicLong recordsWritten = new AtomicLong();
+
+	/**
+	 * Batches written.
+	 */
+	private final AtomicLong batchesWritten = new AtomicLong();
+
+	/**
+	 * Time spent writing the batches, cumulated over the threads, in nanoseconds.
+	 */
+	private final AtomicLong writeNanos = new AtomicLong();
+
+	/**
+	 * Start of the import, in milliseconds.
+	 */
+	private volatile long startTime;
+
+	/**
+	 * End of the import, in milliseconds, 0 while running.
+	 */
+	private volatile long endTime;
+
+	/**
+	 * Starts the import of a file.
+	 *
+	 * @param size
+	 *            size of the file, in bytes
+	 */
+	void start(long size) {
+		totalBytes.set(size);
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Records the writing of a batch.
+	 *
+	 * @param records
+	 *            number of records of the batch
+	 * @param written
+	 *            number of entities written
+	 * @param bytes
+	 *            bytes of the file holding the batch
+	 * @param nanos
+	 *            time spent writing the batch, in nanoseconds
+	 */
+	void batchWritten(int records, int written, long bytes, long nanos) {
+		recordsRead.addAndGet(records);
+		recordsWritten.addAndGet(written);
+		bytesRead.addAndGet(bytes);
+		writeNanos.addAndGet(nanos);
+		batchesWritten.incrementAndGet();
+	}
+
+	/**
+	 * Records bytes of the file without records to write: header, empty lines or skipped records.
+	 *
+	 * @param records
+	 *            number of records skipped
+	 * @param bytes
+	 *            bytes of the file
+	 */
+	void skipped(int records, long bytes) {
+		recordsRead.addAndGet(records);
+		bytesRead.addAndGet(bytes);
+	}
+
+	/**
+	 * Ends the import.
+	 */
+	void end() {
+		endTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the size of the file, in bytes.
+	 */
+	public long getTotalBytes() {
+		return totalBytes.get();
+	}
+
+	/**
+	 * @return the bytes of the file already processed.
+	 */
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	/**
+	 * @return the number of records read.
+	 */
+	public long getRecordsRead() {
+		return recordsRead.get();
+	}
+
+	/**
+	 * @return the number of entities written.
+	 */
+	public long getRecordsWritten() {
+		return recordsWritten.get();
+	}
+
+	/**
+	 * @return the number of batches written.
+	 */
+	public long getBatchesWritten() {
+		return batchesWritten.get();
+	}
+
+	/**
+	 * @return the time spent writing the batches, cumulated over the threads, in milliseconds.
+	 */
+	public long getWriteTime() {
+		return writeNanos.get() / 1000000L;
+	}
+
+	/**
+	 * @return the duration of the import in milliseconds, up to now while it is running.
+	 */
+	public long getElapsedTime() {
+		if (startTime == 0) {
+			return 0;
+		}
+		return (endTime != 0 ? endTime : System.currentTimeMillis()) - startTime;
+	}
+
+	/**
+	 * @return the percentage of the file already processed.
+	 */
+	public double getPercentDone() {
+		long total = totalBytes.get();
+		return (total > 0 ? 100.0 * bytesRead.get() / total : 0);
+	}
+
+	/**
+	 * @return the number of entities written per second since the start of the import.
+	 */
+	public double getRecordsPerSecond() {
+		long elapsed = getElapsedTime();
+		return (elapsed > 0 ? 1000.0 * recordsWritten.get() / elapsed : 0);
+	}
+
+	/**
+	 * @return true once the import has ended.
+	 */
+	public boolean isDone() {
+		return endTime != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ImportProgress [ " + String.format("%.1f", getPercentDone()) + "%, recordsRead=" + getRecordsRead()
+				+ ", recordsWritten=" + getRecordsWritten() + ", batches=" + getBatchesWritten() + ", elapsed="
+				+ getElapsedTime() + "ms, writeTime=" + getWriteTime() + "ms, "
+				+ String.format("%.0f", getRecordsPerSecond()) + " records/s ]";
+	}
+
+}
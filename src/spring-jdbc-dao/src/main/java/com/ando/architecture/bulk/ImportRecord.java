@@ -0,0 +1,511 @@
+package com.ando.architecture.bulk;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * The class {@link ImportRecord} is a view on the fields of a line of a file, read in place from the mapped buffer of
+ * the file. A field is only decoded when it is read, and numbers and dates are parsed from the bytes, without an
+ * intermediate {@link String}.
+ * <p>
+ * A record is reused for all the lines read by a thread: it is only valid during the call to
+ * {@link RecordParser#parse(ImportRecord)} and must not be retained nor shared between threads.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class ImportRecord {
+
+	/**
+	 * Encoding of the files.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Buffer of the file segment holding the line.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Position of the line in the file.
+	 */
+	private long offset;
+
+	/**
+	 * Number of fields of the line.
+	 */
+	private int fieldCount;
+
+	/**
+	 * Start of each field in the buffer, -1 for a null field.
+	 */
+	private int[] starts = new int[16];
+
+	/**
+	 * End of each field in the buffer, exclusive.
+	 */
+	private int[] ends = new int[16];
+
+	/**
+	 * Escape character of each field, 0 if the field has no escaped characters.
+	 */
+	private byte[] escapes = new byte[16];
+
+	/**
+	 * Buffer receiving the bytes of a decoded field.
+	 */
+	private byte[] scratch = new byte[256];
+
+	/**
+	 * Calendar used to build the dates.
+	 */
+	private final Calendar calendar = Calendar.getInstance();
+
+	/**
+	 * Instantiates an empty record, filled by a {@link RecordFormat}.
+	 */
+	ImportRecord() {
+		calendar.setLenient(false);
+	}
+
+	/**
+	 * Starts a new line, without fields.
+	 *
+	 * @param lineBuffer
+	 *            buffer of the file segment holding the line
+	 * @param lineOffset
+	 *            position of the line in the file
+	 */
+	void reset(ByteBuffer lineBuffer, long lineOffset) {
+		this.buffer = lineBuffer;
+		this.offset = lineOffset;
+		this.fieldCount = 0;
+	}
+
+	/**
+	 * Declares the number of fields of the line, all null until set.
+	 *
+	 * @param count
+	 *            number of fields
+	 */
+	void setFieldCount(int count) {
+		ensureCapacity(count);
+		Arrays.fill(starts, 0, count, -1);
+		this.fieldCount = count;
+	}
+
+	/**
+	 * Adds a field at the end of the line.
+	 *
+	 * @param start
+	 *            start of the field in the buffer, -1 for a null field
+	 * @param end
+	 *            end of the field in the buffer, exclusive
+	 * @param escape
+	 *            escape character of the field, 0 if none
+	 */
+	void addField(int start, int end, byte escape) {
+		ensureCapacity(fieldCount + 1);
+		setField(fieldCount++, start, end, escape);
+	}
+
+	/**
+	 * Sets a field of the line.
+	 *
+	 * @param index
+	 *            index of the field
+	 * @param start
+	 *            start of the field in the buffer, -1 for a null field
+	 * @param end
+	 *            end of the field in the buffer, exclusive
+	 * @param escape
+	 *            escape character of the field, 0 if none
+	 */
+	void setField(int index, int start, int end, byte escape) {
+		starts[index] = start;
+		ends[index] = end;
+		escapes[index] = escape;
+	}
+
+	/**
+	 * @return the number of fields of the line.
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * @return the position of the line in the file, in bytes.
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return true if the field is null: missing, empty and not quoted in a CSV file, or <code>null</code> in a JSON
+	 *         object.
+	 */
+	public boolean isNull(int index) {
+		return index >= fieldCount || starts[index] < 0;
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as a string, <code>null</code> if the field is null.
+	 */
+	public String getString(int index) {
+		if (isNull(index)) {
+			return null;
+		}
+		int length = decode(index);
+		return new String(scratch, 0, length, UTF_8);
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as a long.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is null or is not an integer.
+	 */
+	public long getLong(int index) {
+		checkNotNull(index);
+		int position = starts[index];
+		int end = ends[index];
+		boolean negative = false;
+		if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+			negative = buffer.get(position) == '-';
+			position++;
+		}
+		if (position == end) {
+			throw invalid(index, "an integer");
+		}
+
+		long value = 0;
+		for (; position < end; position++) {
+			int digit = buffer.get(position) - '0';
+			if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+				throw invalid(index, "an integer");
+			}
+			value = value * 10 - digit;
+		}
+		if (!negative) {
+			if (value == Long.MIN_VALUE) {
+				throw invalid(index, "an integer");
+			}
+			value = -value;
+		}
+		return value;
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as an int.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is null or is not an integer.
+	 */
+	public int getInt(int index) {
+		long value = getLong(index);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw invalid(index, "an int");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as a double.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is null or is not a number.
+	 */
+	public double getDouble(int index) {
+		checkNotNull(index);
+		try {
+			return Double.parseDouble(getString(index));
+		} catch (NumberFormatException e) {
+			throw invalid(index, "a number");
+		}
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as a decimal, <code>null</code> if the field is null.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is not a number.
+	 */
+	public BigDecimal getBigDecimal(int index) {
+		if (isNull(index)) {
+			return null;
+		}
+		try {
+			return new BigDecimal(getString(index));
+		} catch (NumberFormatException e) {
+			throw invalid(index, "a number");
+		}
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @return the field as a boolean: true for <code>true</code> or <code>1</code>, ignoring case.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is null.
+	 */
+	public boolean getBoolean(int index) {
+		checkNotNull(index);
+		int start = starts[index];
+		int length = ends[index] - start;
+		if (length == 1) {
+			return buffer.get(start) == '1';
+		}
+		return length == 4 && (buffer.get(start) | 0x20) == 't' && (buffer.get(start + 1) | 0x20) == 'r'
+				&& (buffer.get(start + 2) | 0x20) == 'u' && (buffer.get(start + 3) | 0x20) == 'e';
+	}
+
+	/**
+	 * Reads a date written <code>yyyy-MM-dd</code>, optionally followed by <code>HH:mm:ss</code> and milliseconds
+	 * <code>.SSS</code>, the time being separated by a space or a <code>T</code>. The date is read in the default time
+	 * zone, and out of range fields are rejected rather than rolled over.
+	 *
+	 * @param index
+	 *            index of the field
+	 * @return the field as a date, <code>null</code> if the field is null.
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is not a date.
+	 */
+	public Date getDate(int index) {
+		if (isNull(index)) {
+			return null;
+		}
+		int start = starts[index];
+		int length = ends[index] - start;
+		if (length != 10 && length != 19 && length != 23) {
+			throw invalid(index, "a date");
+		}
+
+		byte separator = (length > 10 ? buffer.get(start + 10) : (byte) ' ');
+		if (buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-' || (separator != ' ' && separator != 'T')
+				|| (length > 10 && (buffer.get(start + 13) != ':' || buffer.get(start + 16) != ':'))
+				|| (length > 19 && buffer.get(start + 19) != '.')) {
+			throw invalid(index, "a date");
+		}
+
+		calendar.clear();
+		calendar.set(digits(index, start, 4), digits(index, start + 5, 2) - 1, digits(index, start + 8, 2));
+		if (length > 10) {
+			calendar.set(Calendar.HOUR_OF_DAY, digits(index, start + 11, 2));
+			calendar.set(Calendar.MINUTE, digits(index, start + 14, 2));
+			calendar.set(Calendar.SECOND, digits(index, start + 17, 2));
+		}
+		if (length > 19) {
+			calendar.set(Calendar.MILLISECOND, digits(index, start + 20, 3));
+		}
+		try {
+			return calendar.getTime();
+		} catch (IllegalArgumentException e) {
+			// the calendar is not lenient: an out of range field, such as the 31st of April, is rejected
+			throw invalid(index, "a date");
+		}
+	}
+
+	/**
+	 * Reads a fixed number of digits.
+	 *
+	 * @param index
+	 *            index of the field, for the error message
+	 * @param position
+	 *            position of the first digit in the buffer
+	 * @param count
+	 *            number of digits
+	 * @return the value of the digits.
+	 */
+	private int digits(int index, int position, int count) {
+		int value = 0;
+		for (int i = position; i < position + count; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw invalid(index, "a date");
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Copies the bytes of a field in the scratch buffer, removing the escape characters.
+	 *
+	 * @param index
+	 *            index of the field
+	 * @return the number of bytes of the field.
+	 */
+	private int decode(int index) {
+		int start = starts[index];
+		int end = ends[index];
+		if (scratch.length < end - start) {
+			scratch = new byte[Math.max(end - start, scratch.length * 2)];
+		}
+
+		byte escape = escapes[index];
+		int length = 0;
+		for (int position = start; position < end; position++) {
+			byte current = buffer.get(position);
+			if (current == escape && position + 1 < end) {
+				position++;
+				current = buffer.get(position);
+				if (escape == '\\') {
+					if (current == 'u' && position + 4 < end) {
+						int character = hex(index, position + 1);
+						position += 4;
+						if (Character.isHighSurrogate((char) character)) {
+							// the low surrogate must follow as another escape, the pair encoding one code point
+							if (position + 6 >= end || buffer.get(position + 1) != escape
+									|| buffer.get(position + 2) != 'u') {
+								throw invalid(index, "a JSON string");
+							}
+							int low = hex(index, position + 3);
+							if (!Character.isLowSurrogate((char) low)) {
+								throw invalid(index, "a JSON string");
+							}
+							character = Character.toCodePoint((char) character, (char) low);
+							position += 6;
+						} else if (Character.isLowSurrogate((char) character)) {
+							throw invalid(index, "a JSON string");
+						}
+						length = appendCodePoint(character, length);
+						continue;
+					}
+					current = unescape(current);
+				}
+			}
+			scratch[length++] = current;
+		}
+		return length;
+	}
+
+	/**
+	 * @param current
+	 *            the character following a backslash in a JSON string
+	 * @return the character it stands for.
+	 */
+	private static byte unescape(byte current) {
+		switch (current) {
+			case 'n':
+				return '\n';
+			case 't':
+				return '\t';
+			case 'r':
+				return '\r';
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			default:
+				return current;
+		}
+	}
+
+	/**
+	 * Reads the 4 hexadecimal digits of a JSON <code>\\u</code> escape.
+	 *
+	 * @param index
+	 *            index of the field, for the error message
+	 * @param position
+	 *            position of the first digit in the buffer
+	 * @return the character.
+	 */
+	private int hex(int index, int position) {
+		int value = 0;
+		for (int i = position; i < position + 4; i++) {
+			int digit = Character.digit(buffer.get(i), 16);
+			if (digit < 0) {
+				throw invalid(index, "a JSON string");
+			}
+			value = value * 16 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Writes a code point in UTF-8 in the scratch buffer.
+	 *
+	 * @param character
+	 *            the code point, not a surrogate
+	 * @param length
+	 *            the number of bytes already in the scratch buffer
+	 * @return the number of bytes in the scratch buffer.
+	 */
+	private int appendCodePoint(int character, int length) {
+		int position = length;
+		if (character < 0x80) {
+			scratch[position++] = (byte) character;
+		} else if (character < 0x800) {
+			scratch[position++] = (byte) (0xC0 | (character >> 6));
+			scratch[position++] = (byte) (0x80 | (character & 0x3F));
+		} else if (character < 0x10000) {
+			scratch[position++] = (byte) (0xE0 | (character >> 12));
+			scratch[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+			scratch[position++] = (byte) (0x80 | (character & 0x3F));
+		} else {
+			scratch[position++] = (byte) (0xF0 | (character >> 18));
+			scratch[position++] = (byte) (0x80 | ((character >> 12) & 0x3F));
+			scratch[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+			scratch[position++] = (byte) (0x80 | (character & 0x3F));
+		}
+		return position;
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @throws IllegalArgumentException
+	 *             thrown if the field is null.
+	 */
+	private void checkNotNull(int index) {
+		if (isNull(index)) {
+			throw new IllegalArgumentException("The field " + index + " of the line at offset " + offset
+					+ " is null.");
+		}
+	}
+
+	/**
+	 * @param index
+	 *            index of the field
+	 * @param expected
+	 *            expected kind of value
+	 * @return the exception reporting an invalid field, quoting its bytes as read, since an invalid field can not be
+	 *         decoded.
+	 */
+	private IllegalArgumentException invalid(int index, String expected) {
+		byte[] field = new byte[ends[index] - starts[index]];
+		for (int i = 0; i < field.length; i++) {
+			field[i] = buffer.get(starts[index] + i);
+		}
+		return new IllegalArgumentException("The field " + index + " of the line at offset " + offset + " [ "
+				+ new String(field, UTF_8) + " ] is not " + expected + ".");
+	}
+
+	/**
+	 * Grows the field arrays.
+	 *
+	 * @param capacity
+	 *            number of fields to hold
+	 */
+	private void ensureCapacity(int capacity) {
+		if (starts.length < capacity) {
+			int length = Math.max(capacity, starts.length * 2);
+			starts = Arrays.copyOf(starts, length);
+			ends = Arrays.copyOf(ends, length);
+			escapes = Arrays.copyOf(escapes, length);
+		}
+	}
+
+}
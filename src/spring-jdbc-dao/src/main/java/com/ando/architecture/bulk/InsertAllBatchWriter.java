@@ -0,0 +1,45 @@
+package com.ando.architecture.bulk;
+
+import java.util.List;
+
+import com.ando.architecture.dao.impl.SpringJdbcDAO;
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Batch writer inserting the entities with the multi-row inserts of a {@link SpringJdbcDAO}.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type
+ * @see SpringJdbcDAO#insertAll(java.util.Collection)
+ */
+public class InsertAllBatchWriter<Type> implements BatchWriter<Type> {
+
+	/**
+	 * DAO inserting the entities.
+	 */
+	private final SpringJdbcDAO<Type, ?> dao;
+
+	/**
+	 * The constructor {@link #InsertAllBatchWriter(SpringJdbcDAO)} instantiates a writer for a DAO.
+	 *
+	 * @param dao
+	 *            DAO inserting the entities
+	 */
+	public InsertAllBatchWriter(SpringJdbcDAO<Type, ?> dao) {
+		if (dao == null) {
+			throw new IllegalArgumentException("The DAO can not be null.");
+		}
+		this.dao = dao;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int write(List<Type> entities) throws DataBaseException {
+		return dao.insertAll(entities);
+	}
+
+}
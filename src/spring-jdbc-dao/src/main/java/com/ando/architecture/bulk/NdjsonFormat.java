@@ -0,0 +1,259 @@
+package com.ando.architecture.bulk;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Newline delimited JSON format: each line is a JSON object. The members to read are declared once, in the order of
+ * the fields of the {@link ImportRecord}; the members are found by comparing their encoded names with the bytes of the
+ * line, so that the keys are never decoded.
+ * <p>
+ * A missing member or a <code>null</code> value gives a null field. Strings are read without their quotes, other values
+ * (numbers, booleans, nested objects and arrays) as written in the line. The other members are skipped.
+ *
+ * @author Zied ANDOLSI
+ */
+public class NdjsonFormat implements RecordFormat {
+
+	/**
+	 * Escape character of the JSON strings.
+	 */
+	private static final byte BACKSLASH = '\\';
+
+	/**
+	 * Encoded names of the members, in the order of the fields.
+	 */
+	private final byte[][] names;
+
+	/**
+	 * The constructor {@link #NdjsonFormat(String...)} instantiates a JSON format.
+	 *
+	 * @param memberNames
+	 *            names of the members to read, in the order of the fields. They must not contain escaped characters.
+	 */
+	public NdjsonFormat(String... memberNames) {
+		if (memberNames == null || memberNames.length == 0) {
+			throw new IllegalArgumentException("At least one member has to be read.");
+		}
+		Charset utf8 = Charset.forName("UTF-8");
+		this.names = new byte[memberNames.length][];
+		for (int i = 0; i < memberNames.length; i++) {
+			names[i] = memberNames[i].getBytes(utf8);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasHeader() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void split(ByteBuffer buffer, int start, int end, ImportRecord record) {
+		record.setFieldCount(names.length);
+		int position = skipWhitespace(buffer, start, end);
+		if (position >= end || buffer.get(position) != '{') {
+			throw malformed(record, "is not a JSON object");
+		}
+		position = skipWhitespace(buffer, position + 1, end);
+		if (position < end && buffer.get(position) == '}') {
+			return;
+		}
+
+		while (true) {
+			if (position >= end || buffer.get(position) != '"') {
+				throw malformed(record, "has a member without name");
+			}
+			int keyStart = position + 1;
+			position = endOfString(buffer, keyStart, end, record);
+			int field = indexOf(buffer, keyStart, position);
+
+			position = skipWhitespace(buffer, position + 1, end);
+			if (position >= end || buffer.get(position) != ':') {
+				throw malformed(record, "has a member without value");
+			}
+			position = skipWhitespace(buffer, position + 1, end);
+			if (position >= end) {
+				throw malformed(record, "has a member without value");
+			}
+
+			byte first = buffer.get(position);
+			if (first == '"') {
+				int valueStart = position + 1;
+				position = endOfString(buffer, valueStart, end, record);
+				if (field >= 0) {
+					record.setField(field, valueStart, position,
+							hasEscape(buffer, valueStart, position) ? BACKSLASH : (byte) 0);
+				}
+				position++;
+			} else {
+				int valueStart = position;
+				position = endOfValue(buffer, position, end, record);
+				if (field >= 0 && !isNull(buffer, valueStart, position)) {
+					record.setField(field, valueStart, position, (byte) 0);
+				}
+			}
+
+			position = skipWhitespace(buffer, position, end);
+			if (position < end && buffer.get(position) == ',') {
+				position = skipWhitespace(buffer, position + 1, end);
+			} else if (position < end && buffer.get(position) == '}') {
+				return;
+			} else {
+				throw malformed(record, "is not a JSON object");
+			}
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the key, after its opening quote
+	 * @param end
+	 *            end of the key, at its closing quote
+	 * @return the index of the field of the member, -1 if it is not read.
+	 */
+	private int indexOf(ByteBuffer buffer, int start, int end) {
+		for (int i = 0; i < names.length; i++) {
+			byte[] name = names[i];
+			if (name.length == end - start) {
+				int j = 0;
+				while (j < name.length && name[j] == buffer.get(start + j)) {
+					j++;
+				}
+				if (j == name.length) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the string, after its opening quote
+	 * @param end
+	 *            end of the line
+	 * @param record
+	 *            the record, for the error message
+	 * @return the position of the closing quote.
+	 */
+	private static int endOfString(ByteBuffer buffer, int start, int end, ImportRecord record) {
+		for (int position = start; position < end; position++) {
+			byte current = buffer.get(position);
+			if (current == BACKSLASH) {
+				position++;
+			} else if (current == '"') {
+				return position;
+			}
+		}
+		throw malformed(record, "has an unterminated string");
+	}
+
+	/**
+	 * Finds the end of a value other than a string: a number, a literal, or a nested object or array.
+	 *
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the value
+	 * @param end
+	 *            end of the line
+	 * @param record
+	 *            the record, for the error message
+	 * @return the position following the value.
+	 */
+	private static int endOfValue(ByteBuffer buffer, int start, int end, ImportRecord record) {
+		int depth = 0;
+		int position = start;
+		while (position < end) {
+			byte current = buffer.get(position);
+			if (current == '"') {
+				position = endOfString(buffer, position + 1, end, record);
+			} else if (current == '{' || current == '[') {
+				depth++;
+			} else if (current == '}' || current == ']') {
+				if (depth == 0) {
+					return position;
+				}
+				depth--;
+			} else if (depth == 0 && (current == ',' || (current <= ' ' && current >= 0))) {
+				return position;
+			}
+			position++;
+		}
+		if (depth > 0) {
+			throw malformed(record, "has an unterminated value");
+		}
+		return position;
+	}
+
+	/**
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the value
+	 * @param end
+	 *            end of the value
+	 * @return true if the value is the literal <code>null</code>.
+	 */
+	private static boolean isNull(ByteBuffer buffer, int start, int end) {
+		return end - start == 4 && buffer.get(start) == 'n' && buffer.get(start + 1) == 'u'
+				&& buffer.get(start + 2) == 'l' && buffer.get(start + 3) == 'l';
+	}
+
+	/**
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the string
+	 * @param end
+	 *            end of the string
+	 * @return true if the string has escaped characters.
+	 */
+	private static boolean hasEscape(ByteBuffer buffer, int start, int end) {
+		for (int position = start; position < end; position++) {
+			if (buffer.get(position) == BACKSLASH) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            current position
+	 * @param end
+	 *            end of the line
+	 * @return the position of the first character which is not a whitespace.
+	 */
+	private static int skipWhitespace(ByteBuffer buffer, int start, int end) {
+		int position = start;
+		while (position < end && buffer.get(position) <= ' ' && buffer.get(position) >= 0) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * @param record
+	 *            the record being read
+	 * @param reason
+	 *            the error
+	 * @return the exception reporting a malformed line.
+	 */
+	private static IllegalArgumentException malformed(ImportRecord record, String reason) {
+		return new IllegalArgumentException("The line at offset " + record.getOffset() + " " + reason + ".");
+	}
+
+}
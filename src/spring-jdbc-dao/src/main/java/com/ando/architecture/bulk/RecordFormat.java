@@ -0,0 +1,38 @@
+package com.ando.architecture.bulk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents the format of the lines of a file, one record per line. A format splits a line into the fields of a
+ * {@link ImportRecord}, without copying them.
+ * <p>
+ * Implementations must be thread-safe: a format is shared by all the threads of an import.
+ *
+ * @author Zied ANDOLSI
+ */
+public interface RecordFormat {
+
+	/**
+	 * Returns true if the first line of the files is a header, skipped by the import.
+	 *
+	 * @return true if the files have a header.
+	 */
+	boolean hasHeader();
+
+	/**
+	 * Splits a line into fields.
+	 *
+	 * @param buffer
+	 *            buffer holding the line
+	 * @param start
+	 *            start of the line in the buffer
+	 * @param end
+	 *            end of the line in the buffer, exclusive, line separator excluded
+	 * @param record
+	 *            the record receiving the fields, already reset for the line
+	 * @throws IllegalArgumentException
+	 *             thrown if the line is malformed.
+	 */
+	void split(ByteBuffer buffer, int start, int end, ImportRecord record);
+
+}
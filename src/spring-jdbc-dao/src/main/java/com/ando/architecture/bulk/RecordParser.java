@@ -0,0 +1,26 @@
+package com.ando.architecture.bulk;
+
+/**
+ * Represents the conversion of the records of a file into entities.
+ * <p>
+ * Implementations must be thread-safe: a parser is shared by all the threads of an import.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Entity's type
+ */
+public interface RecordParser<Type> {
+
+	/**
+	 * Convert a record into an entity.
+	 *
+	 * @param record
+	 *            the record, only valid during the call.
+	 * @return the entity, <code>null</code> to skip the record.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the record is not valid. It stops the import.
+	 */
+	Type parse(ImportRecord record);
+
+}
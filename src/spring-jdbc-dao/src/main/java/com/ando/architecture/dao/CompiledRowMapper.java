@@ -0,0 +1,206 @@
+package com.ando.architecture.dao;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.cglib.beans.BulkBean;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * The class {@link CompiledRowMapper} maps the rows of a table to a bean, with accessors generated once from the
+ * column list instead of hand-written code or reflection on each row.
+ * <p>
+ * The bean instantiation and the property setters are compiled in bytecode when the mapper is built. The index of each
+ * column is resolved on the first row of a {@link ResultSet}, then the values are read by index. Columns which are not
+ * part of the {@link ResultSet}, when only some of them have been selected, are left to their default value.
+ * <p>
+ * Instances hold the column indexes of the {@link ResultSet} they map, so that they are not thread-safe: a mapper is
+ * built once per DAO, and each query maps its rows with a {@link #copy()}, which shares the generated code.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <Type>
+ *            Bean's type.
+ */
+public class CompiledRowMapper<Type> implements RowMapper<Type> {
+
+	/**
+	 * Generated bean instantiation.
+	 */
+	private final FastClass fastClass;
+
+	/**
+	 * Generated property setters.
+	 */
+	private final BulkBean bulkBean;
+
+	/**
+	 * Mapped columns, in the order of the properties.
+	 */
+	private final String[] columns;
+
+	/**
+	 * Property types, in the order of the properties.
+	 */
+	private final Class<?>[] types;
+
+	/**
+	 * The result set whose column indexes are resolved, <code>null</code> before the first row.
+	 */
+	private ResultSet resultSet;
+
+	/**
+	 * The index of each column in the result set, 0 when missing.
+	 */
+	private int[] indexes;
+
+	/**
+	 * The constructor {@link #CompiledRowMapper(Class, String[], String[])} generates the mapper of a bean.
+	 *
+	 * @param typeClass
+	 *            Bean's type. It needs a public default constructor and public accessors for the mapped properties.
+	 * @param columns
+	 *            the columns to map
+	 * @param properties
+	 *            the properties receiving the columns, in the same order
+	 */
+	public CompiledRowMapper(Class<Type> typeClass, String[] columns, String[] properties) {
+		if (typeClass == null || columns == null || properties == null || columns.length != properties.length) {
+			throw new IllegalArgumentException("A row mapper needs a type and as many columns as properties.");
+		}
+
+		String[] getters = new String[properties.length];
+		String[] setters = new String[properties.length];
+		this.types = new Class<?>[properties.length];
+		for (int i = 0; i < properties.length; i++) {
+			PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(typeClass, properties[i]);
+			if (descriptor == null || descriptor.getReadMethod() == null || descriptor.getWriteMethod() == null) {
+				throw new IllegalArgumentException("The property [ " + properties[i] + " ] of [ "
+						+ typeClass.getSimpleName() + " ] needs a getter and a setter.");
+			}
+			getters[i] = descriptor.getReadMethod().getName();
+			setters[i] = descriptor.getWriteMethod().getName();
+			types[i] = descriptor.getPropertyType();
+		}
+
+		this.fastClass = FastClass.create(typeClass);
+		this.bulkBean = BulkBean.create(typeClass, getters, setters, types);
+		this.columns = columns.clone();
+	}
+
+	/**
+	 * The constructor {@link #CompiledRowMapper(CompiledRowMapper)} instantiates a mapper sharing the generated code of
+	 * another one.
+	 *
+	 * @param mapper
+	 *            the mapper to copy
+	 */
+	private CompiledRowMapper(CompiledRowMapper<Type> mapper) {
+		this.fastClass = mapper.fastClass;
+		this.bulkBean = mapper.bulkBean;
+		this.columns = mapper.columns;
+		this.types = mapper.types;
+	}
+
+	/**
+	 * Builds the mapper of a bean whose properties are named after the columns. A column is mapped to the property
+	 * with the same name, ignoring case and underscores (<code>bet_date</code> or <code>betdate</code> to
+	 * <code>betDate</code>).
+	 *
+	 * @param typeClass
+	 *            Bean's type.
+	 * @param columns
+	 *            the columns to map
+	 * @param <Type>
+	 *            Bean's type.
+	 * @return the row mapper.
+	 */
+	public static <Type> CompiledRowMapper<Type> forColumns(Class<Type> typeClass, String... columns) {
+		PropertyDescriptor[] descriptors = BeanUtils.getPropertyDescriptors(typeClass);
+		String[] properties = new String[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			String column = columns[i].replace("_", "");
+			for (PropertyDescriptor descriptor : descriptors) {
+				if (descriptor.getName().equalsIgnoreCase(column)) {
+					properties[i] = descriptor.getName();
+					break;
+				}
+			}
+			if (properties[i] == null) {
+				throw new IllegalArgumentException("No property of [ " + typeClass.getSimpleName()
+						+ " ] matches the column [ " + columns[i] + " ].");
+			}
+		}
+		return new CompiledRowMapper<Type>(typeClass, columns, properties);
+	}
+
+	/**
+	 * @return a mapper sharing the generated code of this one, with its own column indexes, to map the rows of a query.
+	 */
+	public CompiledRowMapper<Type> copy() {
+		return new CompiledRowMapper<Type>(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Type mapRow(ResultSet rs, int rowNum) throws SQLException {
+		if (rs != resultSet) {
+			indexes = resolveIndexes(rs, columns);
+			resultSet = rs;
+		}
+
+		try {
+			Type bean = (Type) fastClass.newInstance();
+			// the properties whose column is missing, or null for a primitive, keep the value set by the constructor
+			Object[] values = bulkBean.getPropertyValues(bean);
+			for (int i = 0; i < indexes.length; i++) {
+				if (indexes[i] > 0) {
+					Object value = JdbcUtils.getResultSetValue(rs, indexes[i], types[i]);
+					if (value != null || !types[i].isPrimitive()) {
+						values[i] = value;
+					}
+				}
+			}
+			bulkBean.setPropertyValues(bean, values);
+			return bean;
+		} catch (InvocationTargetException e) {
+			throw new SQLException("The row " + rowNum + " can not be mapped to [ "
+					+ fastClass.getJavaClass().getSimpleName() + " ].", e.getTargetException());
+		}
+	}
+
+	/**
+	 * Resolves the index of the columns in a result set.
+	 *
+	 * @param rs
+	 *            the result set being mapped
+	 * @param columns
+	 *            the columns to find
+	 * @return the index of each column, 0 for the columns which are not part of the result set.
+	 * @throws SQLException
+	 *             thrown if the metadata of the result set can not be read.
+	 */
+	private static int[] resolveIndexes(ResultSet rs, String[] columns) throws SQLException {
+		int[] indexes = new int[columns.length];
+		ResultSetMetaData metaData = rs.getMetaData();
+		for (int index = 1; index <= metaData.getColumnCount(); index++) {
+			String label = JdbcUtils.lookupColumnName(metaData, index);
+			for (int i = 0; i < columns.length; i++) {
+				if (indexes[i] == 0 && columns[i].equalsIgnoreCase(label)) {
+					indexes[i] = index;
+				}
+			}
+		}
+		return indexes;
+	}
+
+}
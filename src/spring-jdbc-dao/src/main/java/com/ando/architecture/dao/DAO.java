@@ -81,6 +81,54 @@ public interface DAO<Type, IdType extends Serializable> {
 	 */
 	List<Type> getAll() throws DataBaseException;
 
+	/**
+	 * The method {@link #aggregate(Aggregation)} computes an aggregation in the database, e.g. the number of entities
+	 * per value of a property, and returns the computed rows instead of the entities.
+	 * <p>
+	 * This method returns one row per group, ordered by the grouping values, or a single row if the aggregation has no
+	 * grouping.
+	 * 
+	 * @param aggregation
+	 *            The aggregation to compute.
+	 * @return The rows computed by the database. Empty list if no entity is found in the database and the aggregation
+	 *         has a grouping.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to compute the aggregation in the database.
+	 */
+	List<AggregateRow> aggregate(Aggregation aggregation) throws DataBaseException;
+
+	/**
+	 * The method {@link #findByRange(Range, int)} loads the entities of a range, e.g. the entities dated between two
+	 * dates, ordered by the value the range applies to, then by identifier.
+	 * <p>
+	 * At most <code>limit</code> entities are loaded. The next page is loaded with the range continued after the last
+	 * entity loaded (see {@link Range#after(Object, Serializable)}).
+	 * 
+	 * @param range
+	 *            The range of the entities to load.
+	 * @param limit
+	 *            The maximum number of entities to load.
+	 * @return The entities of the range. Empty list if no entity is found in the database.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entities from the database.
+	 */
+	List<Type> findByRange(Range range, int limit) throws DataBaseException;
+
+	/**
+	 * The method {@link #findBySpecification(Specification)} loads the entities satisfying a specification, in the
+	 * order and within the limit of the specification.
+	 * <p>
+	 * The query rendered from the specification is cached by its shape, so that the specifications differing only by
+	 * their values are not rendered again.
+	 * 
+	 * @param specification
+	 *            The specification of the entities to load.
+	 * @return The entities satisfying the specification. Empty list if no entity is found in the database.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entities from the database.
+	 */
+	List<Type> findBySpecification(Specification specification) throws DataBaseException;
+
 	/**
 	 * The method {@link #getIdentifier()} returns the identifier of the entity received as parameter. It is only
 	 * supposed to call the getter returning the entity identifier.
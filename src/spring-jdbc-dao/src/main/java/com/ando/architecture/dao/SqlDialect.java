@@ -0,0 +1,178 @@
+package com.ando.architecture.dao;
+
+/**
+ * The enum {@link SqlDialect} lists the databases whose vendor specific SQL is supported, and generates the statements
+ * which differ from one database to another.
+ *
+ * @author Zied ANDOLSI
+ */
+public enum SqlDialect {
+
+	/**
+	 * H2, with <code>MERGE INTO ... KEY</code>.
+	 */
+	H2("H2") {
+
+		@Override
+		public String upsert(String tableName, String columnIdName, String[] columnNames) {
+			return "merge into " + tableName + " (" + columnList(columnIdName, columnNames) + ") key (" + columnIdName
+					+ ") values (" + placeholders(columnNames.length + 1) + ")";
+		}
+
+		@Override
+		public String nextSequenceValue(String sequenceName) {
+			return "select next value for " + sequenceName;
+		}
+	},
+
+	/**
+	 * PostgreSQL 9.5 and later, with <code>INSERT ... ON CONFLICT DO UPDATE</code>.
+	 */
+	POSTGRESQL("PostgreSQL") {
+
+		@Override
+		public String upsert(String tableName, String columnIdName, String[] columnNames) {
+			StringBuilder query = new StringBuilder("insert into ").append(tableName).append(" (")
+					.append(columnList(columnIdName, columnNames)).append(") values (")
+					.append(placeholders(columnNames.length + 1)).append(") on conflict (").append(columnIdName)
+					.append(") do update set ");
+			for (int i = 0; i < columnNames.length; i++) {
+				if (i > 0) {
+					query.append(", ");
+				}
+				query.append(columnNames[i]).append(" = excluded.").append(columnNames[i]);
+			}
+			return query.toString();
+		}
+
+		@Override
+		public String nextSequenceValue(String sequenceName) {
+			return "select nextval('" + sequenceName + "')";
+		}
+	},
+
+	/**
+	 * MySQL, with <code>INSERT ... ON DUPLICATE KEY UPDATE</code>.
+	 */
+	MYSQL("MySQL") {
+
+		@Override
+		public String upsert(String tableName, String columnIdName, String[] columnNames) {
+			StringBuilder query = new StringBuilder("insert into ").append(tableName).append(" (")
+					.append(columnList(columnIdName, columnNames)).append(") values (")
+					.append(placeholders(columnNames.length + 1)).append(") on duplicate key update ");
+			for (int i = 0; i < columnNames.length; i++) {
+				if (i > 0) {
+					query.append(", ");
+				}
+				query.append(columnNames[i]).append(" = values(").append(columnNames[i]).append(')');
+			}
+			return query.toString();
+		}
+
+		@Override
+		public String nextSequenceValue(String sequenceName) {
+			throw new UnsupportedOperationException("MySQL has no sequences [ " + sequenceName + " ].");
+		}
+	};
+
+	/**
+	 * Database product name, as returned by {@link java.sql.DatabaseMetaData#getDatabaseProductName()}.
+	 */
+	private final String productName;
+
+	/**
+	 * The constructor {@link #SqlDialect(String)} instantiates a dialect with the product name of its database.
+	 *
+	 * @param productName
+	 *            database product name
+	 */
+	private SqlDialect(String productName) {
+		this.productName = productName;
+	}
+
+	/**
+	 * Generates the statement inserting a row, or updating it when a row with the same identifier already exists. Its
+	 * parameters are the identifier followed by the columns, in the order of <code>columnNames</code>.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnIdName
+	 *            column id name
+	 * @param columnNames
+	 *            names of the columns other than the identifier
+	 * @return the upsert statement.
+	 */
+	public abstract String upsert(String tableName, String columnIdName, String[] columnNames);
+
+	/**
+	 * Generates the query returning the next value of a sequence.
+	 *
+	 * @param sequenceName
+	 *            sequence name
+	 * @return the query, returning a single number.
+	 * @throws UnsupportedOperationException
+	 *             thrown if the database has no sequences.
+	 */
+	public abstract String nextSequenceValue(String sequenceName);
+
+	/**
+	 * Limits the number of rows returned by a select, so that the database can stop reading once they are found. The
+	 * limit is appended as a last parameter.
+	 *
+	 * @param query
+	 *            the select statement
+	 * @return the select statement with a limit parameter.
+	 */
+	public String limit(String query) {
+		return query + " limit ?";
+	}
+
+	/**
+	 * Finds the dialect of a database from its product name.
+	 *
+	 * @param productName
+	 *            database product name, as returned by {@link java.sql.DatabaseMetaData#getDatabaseProductName()}.
+	 * @return the dialect of the database.
+	 */
+	public static SqlDialect fromProductName(String productName) {
+		for (SqlDialect dialect : values()) {
+			if (dialect.productName.equalsIgnoreCase(productName)) {
+				return dialect;
+			}
+		}
+		throw new IllegalArgumentException("The database [ " + productName + " ] is not supported.");
+	}
+
+	/**
+	 * @param columnIdName
+	 *            column id name
+	 * @param columnNames
+	 *            names of the other columns
+	 * @return the columns, identifier first, separated by commas.
+	 */
+	private static String columnList(String columnIdName, String[] columnNames) {
+		StringBuilder columns = new StringBuilder(columnIdName);
+		for (String columnName : columnNames) {
+			columns.append(", ").append(columnName);
+		}
+		return columns.toString();
+	}
+
+	/**
+	 * @param count
+	 *            number of parameters
+	 * @return <code>count</code> parameter placeholders separated by commas.
+	 */
+	private static String placeholders(int count) {
+		StringBuilder placeholders = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				placeholders.append(", ");
+			}
+			placeholders.append('?');
+		}
+		return placeholders.toString();
+	}
+
+}
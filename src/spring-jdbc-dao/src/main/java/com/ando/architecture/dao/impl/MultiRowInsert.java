@@ -0,0 +1,182 @@
+package com.ando.architecture.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * The class {@link MultiRowInsert} inserts rows with multi-row statements <code>INSERT ... VALUES (...), (...)</code>,
+ * sending several rows per execution even with drivers which execute a JDBC batch one statement per row.
+ * <p>
+ * The number of rows of a statement is taken from a fixed set of group sizes, so that only a few distinct statements
+ * are ever generated and the statement caches of the pool and of the database stay warm. The rows are split into the
+ * largest groups first, within a limit of bind parameters per statement. Each statement is generated once, on first
+ * use, and each statement is prepared once per call and reused for all the groups of its size.
+ * <p>
+ * Instances are thread-safe and can be shared by all the threads.
+ *
+ * @author Zied ANDOLSI
+ */
+final class MultiRowInsert {
+
+	/**
+	 * Number of rows per statement, the largest first.
+	 */
+	static final int[] GROUP_SIZES = { 256, 64, 16, 4, 1 };
+
+	/**
+	 * Default maximum number of bind parameters per statement, below the limit of the most restrictive databases.
+	 */
+	static final int DEFAULT_MAX_BIND_PARAMETERS = 2000;
+
+	/**
+	 * Beginning of the statements, up to <code>VALUES</code>.
+	 */
+	private final String prefix;
+
+	/**
+	 * Placeholders of a row.
+	 */
+	private final String rowPlaceholders;
+
+	/**
+	 * SQL types of the parameters of a row, <code>null</code> if unknown.
+	 */
+	private final int[] rowTypes;
+
+	/**
+	 * Number of parameters of a row.
+	 */
+	private final int columnCount;
+
+	/**
+	 * Statements generated on first use, in the order of {@link #GROUP_SIZES}.
+	 */
+	private final AtomicReferenceArray<String> statements = new AtomicReferenceArray<String>(GROUP_SIZES.length);
+
+	/**
+	 * The constructor {@link #MultiRowInsert(String, String[], int[])} prepares the inserts of a table.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnNames
+	 *            names of the inserted columns
+	 * @param columnTypes
+	 *            SQL types of these columns, <code>null</code> if unknown
+	 */
+	MultiRowInsert(String tableName, String[] columnNames, int[] columnTypes) {
+		if (columnTypes != null && columnTypes.length != columnNames.length) {
+			throw new IllegalArgumentException("The table [ " + tableName + " ] has " + columnNames.length
+					+ " inserted columns but " + columnTypes.length + " column types.");
+		}
+
+		StringBuilder query = new StringBuilder("insert into ").append(tableName).append(" (");
+		StringBuilder placeholders = new StringBuilder("(");
+		for (int i = 0; i < columnNames.length; i++) {
+			if (i > 0) {
+				query.append(", ");
+				placeholders.append(", ");
+			}
+			query.append(columnNames[i]);
+			placeholders.append('?');
+		}
+		this.prefix = query.append(") values ").toString();
+		this.rowPlaceholders = placeholders.append(')').toString();
+		this.rowTypes = columnTypes;
+		this.columnCount = columnNames.length;
+	}
+
+	/**
+	 * Inserts rows on a connection.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param rows
+	 *            the parameters of each row, in the order of the columns
+	 * @param maxBindParameters
+	 *            maximum number of bind parameters per statement
+	 * @return the number of rows inserted.
+	 * @throws SQLException
+	 *             thrown if an insert fails.
+	 */
+	int insert(Connection connection, List<Object[]> rows, int maxBindParameters) throws SQLException {
+		PreparedStatement[] prepared = new PreparedStatement[GROUP_SIZES.length];
+		try {
+			int count = 0;
+			int offset = 0;
+			while (offset < rows.size()) {
+				int group = groupIndex(rows.size() - offset, maxBindParameters);
+				int size = GROUP_SIZES[group];
+				if (prepared[group] == null) {
+					prepared[group] = connection.prepareStatement(getStatement(group));
+				}
+
+				PreparedStatement statement = prepared[group];
+				int index = 1;
+				for (int row = offset; row < offset + size; row++) {
+					Object[] values = rows.get(row);
+					for (int i = 0; i < columnCount; i++) {
+						int type = (rowTypes != null ? rowTypes[i] : SqlTypeValue.TYPE_UNKNOWN);
+						StatementCreatorUtils.setParameterValue(statement, index++, type, values[i]);
+					}
+				}
+				count += statement.executeUpdate();
+				offset += size;
+			}
+			return count;
+		} finally {
+			for (PreparedStatement statement : prepared) {
+				JdbcUtils.closeStatement(statement);
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest group which fits in the remaining rows and in the limit of bind parameters.
+	 *
+	 * @param remaining
+	 *            number of rows left to insert
+	 * @param maxBindParameters
+	 *            maximum number of bind parameters per statement
+	 * @return the index of the group in {@link #GROUP_SIZES}.
+	 */
+	private int groupIndex(int remaining, int maxBindParameters) {
+		for (int i = 0; i < GROUP_SIZES.length - 1; i++) {
+			if (GROUP_SIZES[i] <= remaining && GROUP_SIZES[i] * columnCount <= maxBindParameters) {
+				return i;
+			}
+		}
+		return GROUP_SIZES.length - 1;
+	}
+
+	/**
+	 * Returns the statement of a group, generated on first use.
+	 *
+	 * @param group
+	 *            the index of the group in {@link #GROUP_SIZES}
+	 * @return the insert statement.
+	 */
+	private String getStatement(int group) {
+		String statement = statements.get(group);
+		if (statement == null) {
+			StringBuilder query = new StringBuilder(prefix.length() + GROUP_SIZES[group]
+					* (rowPlaceholders.length() + 2)).append(prefix);
+			for (int i = 0; i < GROUP_SIZES[group]; i++) {
+				if (i > 0) {
+					query.append(", ");
+				}
+				query.append(rowPlaceholders);
+			}
+			statement = query.toString();
+			statements.compareAndSet(group, null, statement);
+		}
+		return statement;
+	}
+
+}
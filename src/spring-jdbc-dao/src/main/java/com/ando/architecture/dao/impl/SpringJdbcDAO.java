@@ -1,20 +1,46 @@
 package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.CompiledRowMapper;
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.EntityHandler;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
+import com.ando.architecture.dao.SqlDialect;
+import com.ando.architecture.datasource.DataSourceRoutingContext;
 import com.ando.architecture.exception.DataBaseException;
+import com.ando.architecture.id.IdAllocator;
 
 /**
  * This class provides the basic implementations needed to make Object-Relational operations on databases, using spring
@@ -35,6 +61,21 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(SpringJdbcDAO.class);
 
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
+	/**
+	 * JDBC template configured with the default options, built once when the options or the template are set.
+	 */
+	private volatile JdbcTemplate queryTemplate;
+
+	/**
+	 * JDBC template configured with the default timeout only, executing the writes and the streamed reads.
+	 */
+	private volatile JdbcTemplate timeoutTemplate;
+
 	/**
 	 * Entity's type this instance has to manage.
 	 */
@@ -50,6 +91,68 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	 */
 	private String columnIdName;
 
+	/**
+	 * Insert of an entity with its identifier, compiled once and shared by all the threads.
+	 */
+	private SimpleJdbcInsert explicitIdInsert;
+
+	/**
+	 * Insert of an entity whose identifier is generated by the database, compiled once and shared by all the threads.
+	 */
+	private SimpleJdbcInsert generatedKeyInsert;
+
+	/**
+	 * Multi-row insert of entities with their identifier.
+	 */
+	private MultiRowInsert explicitIdInsertAll;
+
+	/**
+	 * Multi-row insert of entities whose identifier is generated by the database.
+	 */
+	private MultiRowInsert generatedKeyInsertAll;
+
+	/**
+	 * Maximum number of bind parameters of a multi-row insert.
+	 */
+	private int maxBindParameters = MultiRowInsert.DEFAULT_MAX_BIND_PARAMETERS;
+
+	/**
+	 * Allocator of the identifiers of the saved entities, <code>null</code> if they are generated by the database.
+	 */
+	private IdAllocator<IdType> idAllocator;
+
+	/**
+	 * Generic statements of the entity, generated once.
+	 */
+	private SqlStatements statements;
+
+	/**
+	 * Selects of column subsets, of aggregations and of specifications, generated once per subset, aggregation or
+	 * shape of specification.
+	 */
+	private final ConcurrentMap<String, String> projectionStatements = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Selects of ranges and specifications limited with the dialect of the database, by unlimited select.
+	 */
+	private final ConcurrentMap<String, String> limitedStatements = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Row mapper generated from the columns, when {@link #getRowMapper()} is not overridden. Each query maps its rows
+	 * with a copy of it.
+	 */
+	private volatile CompiledRowMapper<Type> compiledRowMapper;
+
+	/**
+	 * SQL dialect of the database, detected from the data source when not set.
+	 */
+	private volatile SqlDialect dialect;
+
+	/**
+	 * Upsert of the entity, generated once for the dialect of the database.
+	 */
+	private volatile String upsertStatement;
+
 	/**
 	 * The constructor {@link #SpringJdbcDAO(Class, String, String)} instantiates a new {@link SpringJdbcDAO} object
 	 * keeping in mind the type of the class to manage, the table name and the column id name.
@@ -81,10 +184,10 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 			throw new IllegalArgumentException("The entity " + typeClass.getSimpleName() + " to save cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Saving an entity [ " + typeClass.getSimpleName() + " ]...");
 
-			SimpleJdbcInsert insertActor = new SimpleJdbcInsert(getDataSource()).withTableName(tableName);
 			Map<String, Object> parameters = new HashMap<String, Object>();
 			String[] columnNames = getColumnNames();
 			Object[] columnValues = getColumnValues(entity);
@@ -92,12 +195,15 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 				parameters.put(columnNames[i], columnValues[i]);
 			}
 
+			if (getIdentifier(entity) == null && idAllocator != null) {
+				setIdentifier(entity, idAllocator.nextId());
+			}
+
 			if (getIdentifier(entity) != null) {
 				parameters.put(columnIdName, getIdentifier(entity));
-				insertActor.execute(parameters);
+				explicitIdInsert.execute(parameters);
 			} else {
-				insertActor = insertActor.usingGeneratedKeyColumns(columnIdName);
-				Number newId = insertActor.executeAndReturnKey(parameters);
+				Number newId = generatedKeyInsert.executeAndReturnKey(parameters);
 				setIdentifier(entity, (IdType) newId);
 			}
 
@@ -106,6 +212,79 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 			LOGGER.error("Error occurred when trying to save the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("Error occurred when trying to save the entity [ " + typeClass.getSimpleName()
 					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
+		}
+	}
+
+	/**
+	 * Inserts all the entities received as parameter with multi-row statements <code>INSERT ... VALUES (...),
+	 * (...)</code>, which send several rows per execution even with drivers executing a JDBC batch one row at a time.
+	 * <p>
+	 * The rows are grouped by 256, 64, 16, 4 and 1 rows, within the limit of bind parameters per statement (see
+	 * {@link #setMaxBindParameters(int)}), so that only a few distinct statements are sent to the database. The
+	 * entities without identifier receive one from the {@link IdAllocator} of the DAO, if any; otherwise the
+	 * identifiers generated by the database are not read back. The inserts share one connection and are atomic only
+	 * within a surrounding transaction.
+	 * 
+	 * @param entities
+	 *            Entities to insert in the database.
+	 * @return the number of rows inserted.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to insert the entities in the database.
+	 */
+	public int insertAll(Collection<Type> entities) throws DataBaseException {
+		LOGGER.debug("Starting insertAll method...");
+
+		if (entities == null) {
+			LOGGER.error("The entities [ " + typeClass.getSimpleName() + " ] to insert cannot be null.");
+			throw new IllegalArgumentException("The entities " + typeClass.getSimpleName()
+					+ " to insert cannot be null.");
+		}
+
+		final List<Object[]> explicitIdRows = new ArrayList<Object[]>();
+		final List<Object[]> generatedKeyRows = new ArrayList<Object[]>();
+		for (Type entity : entities) {
+			if (entity == null) {
+				LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to insert cannot be null.");
+				throw new IllegalArgumentException("The entity " + typeClass.getSimpleName()
+						+ " to insert cannot be null.");
+			}
+			IdType id = getIdentifier(entity);
+			if (id == null && idAllocator != null) {
+				id = idAllocator.nextId();
+				setIdentifier(entity, id);
+			}
+			if (id != null) {
+				explicitIdRows.add(ArrayUtils.add(getColumnValues(entity), id));
+			} else {
+				generatedKeyRows.add(getColumnValues(entity));
+			}
+		}
+
+		final int maxParameters = maxBindParameters;
+		Boolean routing = DataSourceRoutingContext.beginWrite();
+		try {
+			LOGGER.debug("Inserting " + entities.size() + " entities [ " + typeClass.getSimpleName() + " ]...");
+			Integer count = timeoutTemplate.execute(new ConnectionCallback<Integer>() {
+
+				@Override
+				public Integer doInConnection(Connection connection) throws SQLException {
+					return explicitIdInsertAll.insert(connection, explicitIdRows, maxParameters)
+							+ generatedKeyInsertAll.insert(connection, generatedKeyRows, maxParameters);
+				}
+			});
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been successfully inserted.");
+			return count;
+
+		} catch (Exception e) {
+			LOGGER.error("Error occurred when trying to insert the entities [ " + typeClass.getSimpleName() + " ].",
+					e);
+			throw new DataBaseException("Error occurred when trying to insert the entities [ "
+					+ typeClass.getSimpleName() + " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
@@ -120,11 +299,12 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 			throw new IllegalArgumentException("The identifier can not be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
 					+ id.toString() + " ]...");
-			String query = "select * from " + tableName + " where " + columnIdName + " = ?";
-			List<Type> results = getJdbcTemplate().query(query, new Object[]{ id }, getRowMapper());
+			List<Type> results = getQueryTemplate(QueryOptions.NONE).query(statements.getSelectById(),
+					new Object[]{ id }, statements.getIdTypes(), getRowMapper());
 			if (results != null && results.size() > 0) {
 				return results.get(0);
 			}
@@ -133,6 +313,8 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 			LOGGER.error("Error occured when trying to load the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("Error occured when trying to load the entity [ " + typeClass.getSimpleName()
 					+ " ].");
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -142,14 +324,131 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	public List<Type> findAll() throws DataBaseException {
 		LOGGER.info("Starting findAll method...");
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 			LOGGER.debug("Getting all entities [ " + typeClass.getSimpleName() + " ]...");
-			String query = "select * from " + tableName;
-			return getJdbcTemplate().query(query, getRowMapper());
+			return getQueryTemplate(QueryOptions.NONE).query(statements.getSelectAll(), getRowMapper());
 		} catch (Exception e) {
 			LOGGER.error("Error occured when trying to load all entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("Error occured when trying to load all entity [ " + typeClass.getSimpleName()
 					+ " ].");
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Load only some columns of an entity, for reads which do not need the whole entity.
+	 * 
+	 * @param id
+	 *            the identifier of the entity.
+	 * @param rowMapper
+	 *            the row mapper reading the selected columns.
+	 * @param columns
+	 *            the columns to select, among the column id and the column names of this DAO.
+	 * @param <T>
+	 *            type of the result.
+	 * @return the result mapped by <code>rowMapper</code>, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load the entity from the database.
+	 */
+	public <T> T findOne(IdType id, RowMapper<T> rowMapper, String... columns) throws DataBaseException {
+		LOGGER.debug("Starting findOne method...");
+
+		if (id == null || rowMapper == null) {
+			LOGGER.error("The identifier and the row mapper can not be null.");
+			throw new IllegalArgumentException("The identifier and the row mapper can not be null.");
+		}
+
+		String query = getProjectionStatement(columns, true);
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Getting and returning the columns " + Arrays.toString(columns) + " of the entity [ "
+					+ typeClass.getSimpleName() + " ] with identifier [ " + id.toString() + " ]...");
+			List<T> results = getQueryTemplate(QueryOptions.NONE).query(query, new Object[]{ id },
+					statements.getIdTypes(), rowMapper);
+			if (results != null && results.size() > 0) {
+				return results.get(0);
+			}
+			return null;
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to load the entity [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("Error occured when trying to load the entity [ " + typeClass.getSimpleName()
+					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Load only some columns of all entities, for reads which do not need the whole entities.
+	 * 
+	 * @param rowMapper
+	 *            the row mapper reading the selected columns.
+	 * @param columns
+	 *            the columns to select, among the column id and the column names of this DAO.
+	 * @param <T>
+	 *            type of the results.
+	 * @return the {@link List} of results mapped by <code>rowMapper</code>.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to load the entities from the database.
+	 */
+	public <T> List<T> findAll(RowMapper<T> rowMapper, String... columns) throws DataBaseException {
+		LOGGER.info("Starting findAll method...");
+
+		if (rowMapper == null) {
+			LOGGER.error("The row mapper can not be null.");
+			throw new IllegalArgumentException("The row mapper can not be null.");
+		}
+
+		String query = getProjectionStatement(columns, false);
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Getting the columns " + Arrays.toString(columns) + " of all entities [ "
+					+ typeClass.getSimpleName() + " ]...");
+			List<T> results = getQueryTemplate(QueryOptions.NONE).query(query, rowMapper);
+			return (results != null ? results : new ArrayList<T>());
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to load all entity [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("Error occured when trying to load all entity [ " + typeClass.getSimpleName()
+					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is compiled to a SQL <code>group by</code> select on the columns of the table, generated once
+	 * per aggregation. The columns are checked against the columns mapped by this DAO.
+	 */
+	public List<AggregateRow> aggregate(Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
+
+		String query = getAggregateStatement(aggregation);
+		final int columnCount = aggregation.getColumnCount();
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			return getQueryTemplate(QueryOptions.NONE).query(query, new RowMapper<AggregateRow>() {
+
+				@Override
+				public AggregateRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+					Object[] values = new Object[columnCount];
+					for (int i = 0; i < columnCount; i++) {
+						values[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+					}
+					return new AggregateRow(values);
+				}
+			});
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to aggregate the entities [ " + typeClass.getSimpleName()
+					+ " ] with " + aggregation + ".", e);
+			throw new DataBaseException("Error occured when trying to aggregate the entities [ "
+					+ typeClass.getSimpleName() + " ] with " + aggregation + ".", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -170,36 +469,87 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 					+ " ] to update cannot be null.");
 		}
 
-		Type oldEntity = findOne(getIdentifier(entity));
-		if (oldEntity == null) {
-			throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
-					+ getIdentifier(entity) + " ] found.");
-		}
-
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Updating the entity [ " + typeClass.getSimpleName() + " ]...");
 
-			String[] columnsNames = getColumnNames();
-			Object[] columnValues = getColumnValues(entity);
-			StringBuilder query = new StringBuilder("update " + tableName + " set ");
-			for (int i = 0; i < columnsNames.length; i++) {
-				query.append(columnsNames[i] + " =?");
-				if (i < columnsNames.length - 1) {
-					query.append(", ");
-				}
+			Object[] columnValues = ArrayUtils.add(getColumnValues(entity), getIdentifier(entity));
+			int[] columnTypes = statements.getUpdateTypes();
+			int count;
+			if (columnTypes != null) {
+				count = timeoutTemplate.update(statements.getUpdate(), columnValues, columnTypes);
+			} else {
+				count = timeoutTemplate.update(statements.getUpdate(), columnValues);
+			}
+
+			if (count == 0) {
+				throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+						+ getIdentifier(entity) + " ] found.");
 			}
-			query.append(" where " + columnIdName + " = ?");
-			columnValues = ArrayUtils.add(columnValues, getIdentifier(entity));
-			getJdbcTemplate().update(query.toString(), columnValues);
 
 			LOGGER.debug("The entity [ " + typeClass.getSimpleName() + " ] has been successfully updated.");
 
 			return entity;
 
+		} catch (DataBaseException e) {
+			throw e;
 		} catch (Exception e) {
 			LOGGER.error("Error occured when trying to update the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("Error occured when trying to update the entity [ " + typeClass.getSimpleName()
 					+ " ].");
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
+		}
+	}
+
+	/**
+	 * Insert the entity, or update it when an entity with the same identifier already exists, with a single statement
+	 * in the SQL dialect of the database.
+	 * 
+	 * @param entity
+	 *            the entity to insert or update. Its identifier can not be null.
+	 * @return the entity.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to write the entity in the database.
+	 */
+	public Type upsert(Type entity) throws DataBaseException {
+		LOGGER.debug("Starting upsert method...");
+
+		if (entity == null) {
+			LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to upsert cannot be null.");
+			throw new IllegalArgumentException("The entity " + typeClass + " to upsert cannot be null.");
+		}
+
+		if (getIdentifier(entity) == null) {
+			LOGGER.error("The identifier of the entity [ " + typeClass.getSimpleName() + " ] to upsert cannot be null.");
+			throw new IllegalArgumentException("The identifier of the entity [ " + typeClass.getSimpleName()
+					+ " ] to upsert cannot be null.");
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginWrite();
+		try {
+			LOGGER.debug("Upserting the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+					+ getIdentifier(entity) + " ]...");
+
+			Object[] columnValues = ArrayUtils.add(getColumnValues(entity), 0, getIdentifier(entity));
+			int[] columnTypes = getColumnTypes();
+			if (columnTypes != null) {
+				timeoutTemplate.update(getUpsertStatement(), columnValues,
+						ArrayUtils.add(columnTypes, 0, getColumnIdType()));
+			} else {
+				timeoutTemplate.update(getUpsertStatement(), columnValues);
+			}
+
+			LOGGER.debug("The entity [ " + typeClass.getSimpleName() + " ] has been successfully upserted.");
+
+			return entity;
+
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to upsert the entity [ " + typeClass.getSimpleName() + " ].", e);
+			throw new DataBaseException("Error occured when trying to upsert the entity [ " + typeClass.getSimpleName()
+					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
@@ -221,16 +571,19 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 					+ " ] to delete cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Deleting the entity " + typeClass.getSimpleName() + " with identifier "
 					+ getIdentifier(entity) + "...");
 
-			String query = "delete from " + tableName + " where " + columnIdName + " = ?";
-			getJdbcTemplate().update(query, new Object[]{ getIdentifier(entity) });
+			timeoutTemplate.update(statements.getDelete(), new Object[]{ getIdentifier(entity) },
+					statements.getIdTypes());
 		} catch (Exception e) {
 			LOGGER.error("Error occured when trying to delete the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("Error occured when trying to delete the entity [ " + typeClass.getSimpleName()
 					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
@@ -240,11 +593,11 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	public List<Type> getAll() throws DataBaseException {
 		LOGGER.info("Starting getAll method...");
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 			LOGGER.debug("Getting all entities [ " + typeClass.getSimpleName() + " ]...");
 
-			String query = "select * from " + tableName;
-			List<Type> results = getJdbcTemplate().query(query, getRowMapper());
+			List<Type> results = getQueryTemplate(QueryOptions.NONE).query(statements.getSelectAll(), getRowMapper());
 
 			return (results != null ? results : new ArrayList<Type>());
 
@@ -253,6 +606,189 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 					+ " ].", e);
 			throw new DataBaseException("Error occured when trying to load all entity [ " + typeClass.getSimpleName()
 					+ " ].");
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is compiled to a SQL select comparing the column to the bounds, limited with the dialect of the
+	 * database.
+	 */
+	public List<Type> findByRange(Range range, int limit) throws DataBaseException {
+		LOGGER.info("Starting findByRange method...");
+
+		if (limit <= 0) {
+			LOGGER.error("The limit [ " + limit + " ] is not valid.");
+			throw new IllegalArgumentException("The limit [ " + limit + " ] is not valid.");
+		}
+
+		List<Object> params = new ArrayList<Object>();
+		String query = statements.range(range, params);
+		params.add(Integer.valueOf(limit));
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Getting " + limit + " entities [ " + typeClass.getSimpleName() + " ] of " + range + "...");
+			List<Type> results = getQueryTemplate(QueryOptions.NONE).query(getLimitedStatement(query),
+					params.toArray(), getRowMapper());
+			return (results != null ? results : new ArrayList<Type>());
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to load the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ range + ".", e);
+			throw new DataBaseException("Error occured when trying to load the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + range + ".", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The specification is compiled to a SQL select on the columns of the table, generated once per shape of
+	 * specification, and limited with the dialect of the database. The columns are checked against the columns mapped
+	 * by this DAO.
+	 */
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		LOGGER.info("Starting findBySpecification method...");
+
+		String query = getSpecificationStatement(specification);
+		List<Object> params = specification.getParameters();
+		if (specification.getLimit() != null) {
+			params.add(specification.getLimit());
+		}
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Getting the entities [ " + typeClass.getSimpleName() + " ] of " + specification + "...");
+			List<Type> results = getQueryTemplate(QueryOptions.NONE).query(
+					(specification.getLimit() != null ? getLimitedStatement(query) : query), params.toArray(),
+					getRowMapper());
+			return (results != null ? results : new ArrayList<Type>());
+		} catch (Exception e) {
+			LOGGER.error("Error occured when trying to load the entities [ " + typeClass.getSimpleName() + " ] of "
+					+ specification + ".", e);
+			throw new DataBaseException("Error occured when trying to load the entities [ "
+					+ typeClass.getSimpleName() + " ] of " + specification + ".", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Stream the entities of a range to a handler, one at a time, ordered by the column the range applies to, then by
+	 * identifier, instead of loading them in a {@link List}.
+	 * 
+	 * @param range
+	 *            the range of the entities to stream.
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 * @see #scrollResultList(String, int, EntityHandler, Object...)
+	 */
+	public long scrollByRange(Range range, int fetchSize, EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.info("Starting scrollByRange method...");
+
+		List<Object> params = new ArrayList<Object>();
+		String query = statements.range(range, params);
+		return scrollResultList(query, fetchSize, handler, params.toArray());
+	}
+
+	/**
+	 * Stream all entities to a handler, one at a time, instead of loading them in a {@link List}.
+	 * 
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to read the entities in the database or when handling an
+	 *             entity.
+	 * @see #scrollResultList(String, int, EntityHandler, Object...)
+	 */
+	public long scrollAll(int fetchSize, EntityHandler<Type> handler) throws DataBaseException {
+		LOGGER.info("Starting scrollAll method...");
+		return scrollResultList(statements.getSelectAll(), fetchSize, handler);
+	}
+
+	/**
+	 * Execute a SQL request and stream its results to a handler, one entity at a time, instead of loading them in a
+	 * {@link List}. Results are read through a forward only and read only {@link ResultSet} with the fetch size
+	 * received as parameter, so that the memory used does not depend on the number of results.
+	 * <p>
+	 * Some drivers need a specific fetch size to stream rows, e.g. {@link Integer#MIN_VALUE} with MySQL, or an active
+	 * transaction with PostgreSQL.
+	 * 
+	 * @param request
+	 *            the request to execute.
+	 * @param fetchSize
+	 *            number of rows the JDBC driver fetches at a time.
+	 * @param handler
+	 *            the handler receiving the entities.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * @return the number of entities handled.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute the request in the database or when handling
+	 *             an entity.
+	 */
+	protected long scrollResultList(final String request, final int fetchSize, final EntityHandler<Type> handler,
+			final Object... params) throws DataBaseException {
+
+		if (handler == null) {
+			LOGGER.error("The handler can not be null.");
+			throw new IllegalArgumentException("The handler can not be null.");
+		}
+
+		final RowMapper<Type> rowMapper = getRowMapper();
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+			LOGGER.debug("Streaming entities [ " + typeClass.getSimpleName() + " ] of query [ " + request + " ]...");
+			Long count = timeoutTemplate.query(new PreparedStatementCreator() {
+
+				@Override
+				public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+					PreparedStatement statement = connection.prepareStatement(request, ResultSet.TYPE_FORWARD_ONLY,
+							ResultSet.CONCUR_READ_ONLY);
+					statement.setFetchSize(fetchSize);
+					return statement;
+				}
+			}, new ArgumentPreparedStatementSetter(params), new ResultSetExtractor<Long>() {
+
+				@Override
+				public Long extractData(ResultSet rs) throws SQLException {
+					long count = 0;
+					while (rs.next()) {
+						try {
+							handler.handle(rowMapper.mapRow(rs, (int) count));
+						} catch (DataBaseException e) {
+							throw new HandlerException(count, e);
+						}
+						count++;
+					}
+					return count;
+				}
+			});
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been streamed.");
+			return count;
+
+		} catch (HandlerException e) {
+			LOGGER.error("An error has occurred when handling the entities [ " + typeClass.getSimpleName()
+					+ " ] after " + e.count + " entities.", e.getCause());
+			throw (DataBaseException) e.getCause();
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to stream query [ " + request + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to stream query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -269,10 +805,30 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	 *             thrown if an exception occurs when trying to retrieve entity in the database.
 	 */
 	protected Type executeSingleResult(final String request, final Object... params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute a SQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	protected Type executeSingleResult(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
 		List<Type> results = null;
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
-			results = getJdbcTemplate().query(request, params, getRowMapper());
+			results = getQueryTemplate(options).query(request, params, getRowMapper());
 			if (results == null || results.isEmpty()) {
 				return null;
 			}
@@ -280,6 +836,8 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 		} catch (Exception e) {
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 
 		if (results.size() > 1) {
@@ -302,9 +860,29 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	 *             thrown if an exception occurs when trying to execute query in the database.
 	 */
 	protected List<Type> executeResultList(final String request, final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, request, params);
+	}
 
+	/**
+	 * Execute a SQL request that the result is a {@link List} of entities.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
-			List<Type> results = getJdbcTemplate().query(request, params, getRowMapper());
+			List<Type> results = getQueryTemplate(options).query(request, params, getRowMapper());
 
 			return (results != null ? results : new ArrayList<Type>());
 
@@ -312,8 +890,181 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+
+	}
+
+	/**
+	 * The method {@link #initTemplateConfig()} prepares the statements of the entity once the JDBC template is set. The
+	 * inserts have fixed columns, so that the table metadata are read only once, when an insert is compiled on its
+	 * first execution, and not on every save. The other generic statements are generated once, with the types of their
+	 * parameters. It is called again when the default query options change, so that the inserts use their timeout.
+	 */
+	@Override
+	protected void initTemplateConfig() {
+		super.initTemplateConfig();
+
+		initQueryTemplates();
+		String[] columnNames = getColumnNames();
+		explicitIdInsert = new SimpleJdbcInsert(timeoutTemplate).withTableName(tableName)
+				.usingColumns((String[]) ArrayUtils.add(columnNames, columnIdName));
+		generatedKeyInsert = new SimpleJdbcInsert(timeoutTemplate).withTableName(tableName)
+				.usingColumns(columnNames).usingGeneratedKeyColumns(columnIdName);
+		int[] columnTypes = getColumnTypes();
+		statements = new SqlStatements(tableName, columnIdName, columnNames, columnTypes, getColumnIdType());
+		explicitIdInsertAll = new MultiRowInsert(tableName, (String[]) ArrayUtils.add(columnNames, columnIdName),
+				(columnTypes != null ? ArrayUtils.add(columnTypes, getColumnIdType()) : null));
+		generatedKeyInsertAll = new MultiRowInsert(tableName, columnNames, columnTypes);
+	}
+
+	/**
+	 * Builds the JDBC templates configured with the default options of this DAO, once the JDBC template is set and
+	 * each time the default options change, so that the queries without options of their own share them.
+	 */
+	private void initQueryTemplates() {
+		QueryOptions timeoutOptions = new QueryOptions(null, null, queryOptions.getTimeout());
+		timeoutTemplate = createTemplate(timeoutOptions);
+		queryTemplate = createTemplate(queryOptions);
+	}
+
+	/**
+	 * Returns the JDBC template executing a query with the default options of this DAO, overridden by the options
+	 * received as parameter. The template of the default options, built once, is returned when the call has no option
+	 * of its own, otherwise a template configured with the combined options is built for the call.
+	 * 
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 * @return the JDBC template.
+	 */
+	private JdbcTemplate getQueryTemplate(QueryOptions options) {
+		if (options == null || options == QueryOptions.NONE) {
+			return queryTemplate;
+		}
+		return createTemplate(queryOptions.overriddenBy(options));
+	}
+
+	/**
+	 * Returns a JDBC template configured with the options received as parameter. The shared template is returned when
+	 * no option is set, otherwise a template is built on the same data source and exception translator, which leaves
+	 * the shared template, possibly used by other DAOs, untouched.
+	 * 
+	 * @param options
+	 *            the options of the template.
+	 * @return the JDBC template.
+	 */
+	private JdbcTemplate createTemplate(QueryOptions options) {
+		if (options.getFetchSize() == null && options.getMaxRows() == null && options.getTimeout() == null) {
+			return getJdbcTemplate();
+		}
+
+		JdbcTemplate template = new JdbcTemplate(getDataSource(), true);
+		template.setExceptionTranslator(getJdbcTemplate().getExceptionTranslator());
+		if (options.getFetchSize() != null) {
+			template.setFetchSize(options.getFetchSize());
+		}
+		if (options.getMaxRows() != null) {
+			template.setMaxRows(options.getMaxRows());
+		}
+		if (options.getTimeout() != null) {
+			template.setQueryTimeout(options.getTimeout());
+		}
+		return template;
+	}
+
+	/**
+	 * Returns the select of a column subset, generated on first use. The columns are checked against the columns
+	 * mapped by this DAO before being written in the statement.
+	 * 
+	 * @param columns
+	 *            the columns to select.
+	 * @param byId
+	 *            <code>true</code> to select an entity by identifier.
+	 * @return the select statement.
+	 */
+	private String getProjectionStatement(String[] columns, boolean byId) {
+		String key = (byId ? "id:" : "all:") + Arrays.toString(columns);
+		String statement = projectionStatements.get(key);
+		if (statement == null) {
+			statement = statements.select(columns, byId);
+			projectionStatements.putIfAbsent(key, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns the select of an aggregation, generated on first use. The columns are checked against the columns mapped
+	 * by this DAO before being written in the statement.
+	 * 
+	 * @param aggregation
+	 *            the aggregation to compute.
+	 * @return the select statement.
+	 */
+	private String getAggregateStatement(Aggregation aggregation) {
+		String key = "aggregate:" + aggregation;
+		String statement = projectionStatements.get(key);
+		if (statement == null) {
+			statement = statements.aggregate(aggregation);
+			projectionStatements.putIfAbsent(key, statement);
 		}
+		return statement;
+	}
 
+	/**
+	 * Returns the select of a specification, generated on first use of its shape. The columns are checked against the
+	 * columns mapped by this DAO before being written in the statement.
+	 * 
+	 * @param specification
+	 *            the specification of the entities.
+	 * @return the select statement, without the limit of the specification.
+	 */
+	private String getSpecificationStatement(Specification specification) {
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+		String key = "specification:" + specification.getShape();
+		String statement = projectionStatements.get(key);
+		if (statement == null) {
+			statement = statements.specification(specification);
+			projectionStatements.putIfAbsent(key, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns a select limited with the dialect of the database, generated on first use of the select.
+	 * 
+	 * @param query
+	 *            the select to limit, generated once per shape of range or specification.
+	 * @return the select, with a last parameter for the limit.
+	 * @throws MetaDataAccessException
+	 *             thrown if the dialect of the database can not be detected.
+	 */
+	private String getLimitedStatement(String query) throws MetaDataAccessException {
+		String statement = limitedStatements.get(query);
+		if (statement == null) {
+			statement = getDialect().limit(query);
+			limitedStatements.putIfAbsent(query, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns the upsert of the entity, generated on first use for the dialect of the database.
+	 * 
+	 * @return the upsert statement.
+	 * @throws MetaDataAccessException
+	 *             thrown if the dialect of the database can not be detected.
+	 */
+	private String getUpsertStatement() throws MetaDataAccessException {
+		String statement = upsertStatement;
+		if (statement == null) {
+			statement = getDialect().upsert(tableName, columnIdName, getColumnNames());
+			upsertStatement = statement;
+		}
+		return statement;
 	}
 
 	/**
@@ -332,12 +1083,52 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 	 */
 	public abstract String[] getColumnNames();
 
+	/**
+	 * The method {@link #getColumnTypes()} returns the SQL types of the columns, in the order of
+	 * {@link #getColumnNames()}, as defined in {@link java.sql.Types}.
+	 * <p>
+	 * By default the types are unknown and resolved by the JDBC driver. Implementations may override this method to
+	 * save that resolution on each statement.
+	 * 
+	 * @return column's types, <code>null</code> if unknown.
+	 */
+	protected int[] getColumnTypes() {
+		return null;
+	}
+
+	/**
+	 * The method {@link #getColumnIdType()} returns the SQL type of the column id, as defined in {@link java.sql.Types}.
+	 * 
+	 * @return column id's type, {@link SqlTypeValue#TYPE_UNKNOWN} by default.
+	 */
+	protected int getColumnIdType() {
+		return SqlTypeValue.TYPE_UNKNOWN;
+	}
+
 	/**
 	 * The method {@link #getRowMapper()} returns entity's row mapper.
+	 * <p>
+	 * By default the row mapper is generated once from the column id and the column names, each column being mapped
+	 * to the property of the same name, ignoring case and underscores (see {@link CompiledRowMapper}), and each call
+	 * returns a copy resolving the column indexes of its own query. Implementations may override this method when the
+	 * columns do not follow the property names.
 	 * 
 	 * @return {@link RowMapper}
 	 */
-	public abstract RowMapper<Type> getRowMapper();
+	public RowMapper<Type> getRowMapper() {
+		CompiledRowMapper<Type> rowMapper = compiledRowMapper;
+		if (rowMapper == null) {
+			synchronized (this) {
+				rowMapper = compiledRowMapper;
+				if (rowMapper == null) {
+					String[] columns = (String[]) ArrayUtils.add(getColumnNames(), 0, columnIdName);
+					rowMapper = CompiledRowMapper.forColumns(typeClass, columns);
+					compiledRowMapper = rowMapper;
+				}
+			}
+		}
+		return rowMapper.copy();
+	}
 
 	/**
 	 * The method {@link #setIdentifier()} sets the identifier received as parameter. It is only supposed to call the
@@ -359,4 +1150,130 @@ public abstract class SpringJdbcDAO<Type, IdType extends Serializable> extends J
 		return this.typeClass;
 	}
 
+	/**
+	 * Dialect getter. When no dialect has been set, it is detected from the product name of the database.
+	 * 
+	 * @return the SQL dialect of the database.
+	 * @throws MetaDataAccessException
+	 *             thrown if the product name of the database can not be read.
+	 */
+	public SqlDialect getDialect() throws MetaDataAccessException {
+		SqlDialect current = dialect;
+		if (current == null) {
+			String productName = (String) JdbcUtils.extractDatabaseMetaData(getDataSource(), "getDatabaseProductName");
+			current = SqlDialect.fromProductName(productName);
+			LOGGER.debug("SQL dialect [ " + current + " ] detected for the entity [ " + typeClass.getSimpleName()
+					+ " ].");
+			dialect = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Dialect setter.
+	 * 
+	 * @param dialect
+	 *            the SQL dialect of the database.
+	 */
+	public void setDialect(SqlDialect dialect) {
+		this.dialect = dialect;
+		this.upsertStatement = null;
+		this.limitedStatements.clear();
+	}
+
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults. The
+	 *            timeout also applies to the writes and to the streamed reads.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+		if (getJdbcTemplate() != null) {
+			initTemplateConfig();
+		}
+	}
+
+	/**
+	 * Max bind parameters getter.
+	 * 
+	 * @return the maximum number of bind parameters of a multi-row insert.
+	 */
+	public int getMaxBindParameters() {
+		return maxBindParameters;
+	}
+
+	/**
+	 * Max bind parameters setter. The default value, 2000, fits all the usual databases; it can be raised for the
+	 * databases accepting more parameters per statement (32767 with PostgreSQL, 65535 with MySQL).
+	 * 
+	 * @param maxBindParameters
+	 *            the maximum number of bind parameters of a multi-row insert.
+	 */
+	public void setMaxBindParameters(int maxBindParameters) {
+		if (maxBindParameters <= 0) {
+			throw new IllegalArgumentException("The maximum number of bind parameters must be positive.");
+		}
+		this.maxBindParameters = maxBindParameters;
+	}
+
+	/**
+	 * Id allocator getter.
+	 * 
+	 * @return the allocator of the identifiers of the saved entities, <code>null</code> if they are generated by the
+	 *         database.
+	 */
+	public IdAllocator<IdType> getIdAllocator() {
+		return idAllocator;
+	}
+
+	/**
+	 * Id allocator setter. With an allocator, the identifiers are known before the insert: a save needs no generated
+	 * key and the inserts of {@link #insertAll(Collection)} all carry their identifier.
+	 * 
+	 * @param idAllocator
+	 *            the allocator of the identifiers of the saved entities, <code>null</code> to let the database generate
+	 *            them.
+	 */
+	public void setIdAllocator(IdAllocator<IdType> idAllocator) {
+		this.idAllocator = idAllocator;
+	}
+
+	/**
+	 * Carries the exception thrown by an {@link EntityHandler} through the JDBC template.
+	 */
+	private static final class HandlerException extends RuntimeException {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Number of entities handled before the exception.
+		 */
+		private final long count;
+
+		/**
+		 * @param count
+		 *            number of entities handled before the exception.
+		 * @param cause
+		 *            exception thrown by the handler.
+		 */
+		private HandlerException(long count, DataBaseException cause) {
+			super(cause);
+			this.count = count;
+		}
+	}
+
 }
@@ -0,0 +1,294 @@
+package com.ando.architecture.dao.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+
+import com.ando.architecture.dao.Aggregation;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
+
+/**
+ * The class {@link SqlStatements} holds the generic SQL statements of a {@link SpringJdbcDAO}, generated once from its
+ * table name, column id name and column names, together with the SQL types of their parameters.
+ * <p>
+ * Instances are immutable and can be shared by all the threads. The type arrays are returned as is, to keep the
+ * statement execution free of copies: they must not be modified.
+ *
+ * @author Zied ANDOLSI
+ */
+final class SqlStatements {
+
+	/**
+	 * Table name.
+	 */
+	private final String tableName;
+
+	/**
+	 * Column id name.
+	 */
+	private final String columnIdName;
+
+	/**
+	 * Lower case names of the mapped columns, identifier included.
+	 */
+	private final Set<String> mappedColumns;
+
+	/**
+	 * Select of an entity by identifier.
+	 */
+	private final String selectById;
+
+	/**
+	 * Select of all entities.
+	 */
+	private final String selectAll;
+
+	/**
+	 * Update of all columns of an entity by identifier.
+	 */
+	private final String update;
+
+	/**
+	 * Delete of an entity by identifier.
+	 */
+	private final String delete;
+
+	/**
+	 * SQL type of the identifier parameter.
+	 */
+	private final int[] idTypes;
+
+	/**
+	 * SQL types of the update parameters, <code>null</code> if the column types are unknown.
+	 */
+	private final int[] updateTypes;
+
+	/**
+	 * The constructor {@link #SqlStatements(String, String, String[], int[], int)} generates the statements of a table.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnIdName
+	 *            column id name
+	 * @param columnNames
+	 *            names of the columns other than the identifier
+	 * @param columnTypes
+	 *            SQL types of these columns, <code>null</code> if unknown
+	 * @param columnIdType
+	 *            SQL type of the identifier, {@link SqlTypeValue#TYPE_UNKNOWN} if unknown
+	 */
+	SqlStatements(String tableName, String columnIdName, String[] columnNames, int[] columnTypes, int columnIdType) {
+		if (columnTypes != null && columnTypes.length != columnNames.length) {
+			throw new IllegalArgumentException("The table [ " + tableName + " ] has " + columnNames.length
+					+ " columns but " + columnTypes.length + " column types.");
+		}
+
+		this.tableName = tableName;
+		this.columnIdName = columnIdName;
+		Set<String> columns = new HashSet<String>();
+		columns.add(columnIdName.toLowerCase());
+		for (String columnName : columnNames) {
+			columns.add(columnName.toLowerCase());
+		}
+		this.mappedColumns = Collections.unmodifiableSet(columns);
+
+		String[] allColumns = new String[columnNames.length + 1];
+		allColumns[0] = columnIdName;
+		System.arraycopy(columnNames, 0, allColumns, 1, columnNames.length);
+		this.selectAll = select(allColumns, false);
+		this.selectById = select(allColumns, true);
+		this.delete = "delete from " + tableName + " where " + columnIdName + " = ?";
+
+		StringBuilder query = new StringBuilder("update ").append(tableName).append(" set ");
+		for (int i = 0; i < columnNames.length; i++) {
+			if (i > 0) {
+				query.append(", ");
+			}
+			query.append(columnNames[i]).append(" = ?");
+		}
+		query.append(" where ").append(columnIdName).append(" = ?");
+		this.update = query.toString();
+
+		this.idTypes = new int[]{ columnIdType };
+		if (columnTypes != null) {
+			this.updateTypes = new int[columnTypes.length + 1];
+			System.arraycopy(columnTypes, 0, updateTypes, 0, columnTypes.length);
+			updateTypes[columnTypes.length] = columnIdType;
+		} else {
+			this.updateTypes = null;
+		}
+	}
+
+	/**
+	 * Generates a select of the columns received as parameter. The columns must be mapped by the DAO.
+	 *
+	 * @param columns
+	 *            the columns to select
+	 * @param byId
+	 *            <code>true</code> to select an entity by identifier, <code>false</code> to select all entities
+	 * @return the select statement.
+	 */
+	String select(String[] columns, boolean byId) {
+		if (columns == null || columns.length == 0) {
+			throw new IllegalArgumentException("At least one column has to be selected from the table [ " + tableName
+					+ " ].");
+		}
+
+		StringBuilder query = new StringBuilder("select ");
+		for (int i = 0; i < columns.length; i++) {
+			checkMapped(columns[i]);
+			if (i > 0) {
+				query.append(", ");
+			}
+			query.append(columns[i]);
+		}
+		query.append(" from ").append(tableName);
+		if (byId) {
+			query.append(" where ").append(columnIdName).append(" = ?");
+		}
+		return query.toString();
+	}
+
+	/**
+	 * Generates the <code>group by</code> select of an aggregation. The columns must be mapped by the DAO.
+	 *
+	 * @param aggregation
+	 *            the aggregation to compute
+	 * @return the select statement, ordered by the grouping columns.
+	 */
+	String aggregate(Aggregation aggregation) {
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+		for (String column : aggregation.getGroupBy()) {
+			checkMapped(column);
+		}
+		for (int i = 0; i < aggregation.getFunctionCount(); i++) {
+			if (aggregation.getArgument(i) != null) {
+				checkMapped(aggregation.getArgument(i));
+			}
+		}
+
+		StringBuilder query = new StringBuilder("select ").append(aggregation.toSelectClause(null));
+		query.append(" from ").append(tableName);
+		if (!aggregation.getGroupBy().isEmpty()) {
+			String groupBy = aggregation.toGroupByClause(null);
+			query.append(" group by ").append(groupBy).append(" order by ").append(groupBy);
+		}
+		return query.toString();
+	}
+
+	/**
+	 * Generates the select of the entities of a range, ordered by the column of the range, then by identifier. The
+	 * column must be mapped by the DAO.
+	 *
+	 * @param range
+	 *            the range of the entities
+	 * @param params
+	 *            list receiving the values of the parameters, in order of position
+	 * @return the select statement.
+	 */
+	String range(Range range, List<Object> params) {
+		if (range == null) {
+			throw new IllegalArgumentException("The range of the table [ " + tableName + " ] can not be null.");
+		}
+		checkMapped(range.getName());
+
+		StringBuilder query = new StringBuilder(selectAll);
+		String condition = range.toCondition(null, columnIdName, params);
+		if (condition.length() > 0) {
+			query.append(" where ").append(condition);
+		}
+		query.append(" order by ").append(range.toOrderClause(null, columnIdName));
+		return query.toString();
+	}
+
+	/**
+	 * Generates the select of the entities satisfying a specification, in the order of the specification, without its
+	 * limit. The columns must be mapped by the DAO.
+	 *
+	 * @param specification
+	 *            the specification of the entities
+	 * @return the select statement, whose parameters are the values of the specification.
+	 */
+	String specification(Specification specification) {
+		if (specification == null) {
+			throw new IllegalArgumentException("The specification of the table [ " + tableName + " ] can not be null.");
+		}
+		for (String column : specification.getNames()) {
+			checkMapped(column);
+		}
+
+		StringBuilder query = new StringBuilder(selectAll);
+		String condition = specification.toCondition(null);
+		if (condition.length() > 0) {
+			query.append(" where ").append(condition);
+		}
+		String order = specification.toOrderClause(null);
+		if (order.length() > 0) {
+			query.append(" order by ").append(order);
+		}
+		return query.toString();
+	}
+
+	/**
+	 * Checks that a column is mapped by the DAO.
+	 *
+	 * @param column
+	 *            the column
+	 */
+	private void checkMapped(String column) {
+		if (column == null || !mappedColumns.contains(column.toLowerCase())) {
+			throw new IllegalArgumentException("The column [ " + column + " ] is not mapped for the table [ "
+					+ tableName + " ].");
+		}
+	}
+
+	/**
+	 * @return the select of an entity by identifier.
+	 */
+	String getSelectById() {
+		return selectById;
+	}
+
+	/**
+	 * @return the select of all entities.
+	 */
+	String getSelectAll() {
+		return selectAll;
+	}
+
+	/**
+	 * @return the update of all columns of an entity by identifier.
+	 */
+	String getUpdate() {
+		return update;
+	}
+
+	/**
+	 * @return the delete of an entity by identifier.
+	 */
+	String getDelete() {
+		return delete;
+	}
+
+	/**
+	 * @return the SQL type of the identifier parameter, as an array.
+	 */
+	int[] getIdTypes() {
+		return idTypes;
+	}
+
+	/**
+	 * @return the SQL types of the update parameters, <code>null</code> if the column types are unknown.
+	 */
+	int[] getUpdateTypes() {
+		return updateTypes;
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.ando.architecture.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Base class of the allocators reserving identifiers by blocks. A block is reserved in the database with one round
+ * trip, then its identifiers are handed out to the threads from memory, without lock. Only the reservation of the next
+ * block is serialized, when the current block is exhausted.
+ * <p>
+ * The identifiers of a block which are not handed out before the application stops are lost: identifiers are unique
+ * and increasing within a block, but not contiguous.
+ *
+ * @author Zied ANDOLSI
+ */
+public abstract class BlockIdAllocator implements IdAllocator<Long> {
+
+	/**
+	 * {@link BlockIdAllocator}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BlockIdAllocator.class);
+
+	/**
+	 * Number of identifiers reserved at a time.
+	 */
+	private final int blockSize;
+
+	/**
+	 * Block being handed out.
+	 */
+	private volatile Block block = new Block(0L, 0L);
+
+	/**
+	 * Lock serializing the reservation of the blocks.
+	 */
+	private final Object reserveLock = new Object();
+
+	/**
+	 * The constructor {@link #BlockIdAllocator(int)} instantiates an allocator with its block size.
+	 *
+	 * @param blockSize
+	 *            number of identifiers reserved at a time.
+	 */
+	protected BlockIdAllocator(int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("The block size must be positive.");
+		}
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Long nextId() throws DataBaseException {
+		while (true) {
+			Block current = block;
+			long id = current.next.getAndIncrement();
+			if (id < current.end) {
+				return Long.valueOf(id);
+			}
+
+			synchronized (reserveLock) {
+				if (block == current) {
+					long start = reserveBlock(blockSize);
+					LOGGER.debug("Identifiers [ " + start + ", " + (start + blockSize) + " [ have been reserved.");
+					block = new Block(start, start + blockSize);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reserve a block of identifiers in the database. The block must not overlap the blocks reserved before, by this
+	 * allocator or by any other allocator sharing the same source.
+	 *
+	 * @param size
+	 *            number of identifiers to reserve.
+	 * @return the first identifier of the block, the block being <code>[first, first + size[</code>.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to reserve the block.
+	 */
+	protected abstract long reserveBlock(int size) throws DataBaseException;
+
+	/**
+	 * Block size getter.
+	 *
+	 * @return the number of identifiers reserved at a time.
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Block of identifiers being handed out.
+	 */
+	private static final class Block {
+
+		/**
+		 * Next identifier to hand out, going past the end once the block is exhausted.
+		 */
+		private final AtomicLong next;
+
+		/**
+		 * First identifier after the block.
+		 */
+		private final long end;
+
+		/**
+		 * Instantiates the block <code>[start, end[</code>.
+		 *
+		 * @param start
+		 *            first identifier of the block
+		 * @param end
+		 *            first identifier after the block
+		 */
+		private Block(long start, long end) {
+			this.next = new AtomicLong(start);
+			this.end = end;
+		}
+	}
+
+}
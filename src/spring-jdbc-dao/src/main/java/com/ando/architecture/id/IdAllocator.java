@@ -0,0 +1,27 @@
+package com.ando.architecture.id;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Represents a source of entity identifiers allocated on the client side, before the insert, instead of being
+ * generated by the database.
+ * <p>
+ * Implementations must be thread-safe: a DAO shares its allocator between all the threads.
+ *
+ * @author Zied ANDOLSI
+ *
+ * @param <IdType>
+ *            Entity identifier's type
+ */
+public interface IdAllocator<IdType> {
+
+	/**
+	 * Allocate a new identifier, never returned before.
+	 *
+	 * @return the identifier.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to reserve identifiers in the database.
+	 */
+	IdType nextId() throws DataBaseException;
+
+}
@@ -0,0 +1,75 @@
+package com.ando.architecture.id;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ando.architecture.dao.SqlDialect;
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Allocator reserving identifiers from a database sequence with the hi/lo algorithm: each value <code>hi</code> of the
+ * sequence reserves the block <code>[hi * blockSize, (hi + 1) * blockSize[</code>, so that a block costs a single
+ * round trip. The sequence must be incremented by 1 and shared only by hi/lo allocators with the same block size.
+ * <p>
+ * Sequence values are not transactional: a block is reserved even if the transaction of the caller is rolled back.
+ *
+ * @author Zied ANDOLSI
+ */
+public class SequenceIdAllocator extends BlockIdAllocator {
+
+	/**
+	 * {@link SequenceIdAllocator}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(SequenceIdAllocator.class);
+
+	/**
+	 * Template reading the sequence.
+	 */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Query returning the next value of the sequence.
+	 */
+	private final String nextValueQuery;
+
+	/**
+	 * The constructor {@link #SequenceIdAllocator(DataSource, SqlDialect, String, int)} instantiates an allocator
+	 * reading a sequence.
+	 *
+	 * @param dataSource
+	 *            data source of the sequence
+	 * @param dialect
+	 *            SQL dialect of the database
+	 * @param sequenceName
+	 *            sequence name
+	 * @param blockSize
+	 *            number of identifiers reserved by a value of the sequence
+	 */
+	public SequenceIdAllocator(DataSource dataSource, SqlDialect dialect, String sequenceName, int blockSize) {
+		super(blockSize);
+		if (dataSource == null || dialect == null || sequenceName == null) {
+			throw new IllegalArgumentException("A sequence allocator needs a data source, a dialect and a sequence.");
+		}
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.nextValueQuery = dialect.nextSequenceValue(sequenceName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected long reserveBlock(int size) throws DataBaseException {
+		try {
+			Long hi = jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+			return hi.longValue() * size;
+		} catch (Exception e) {
+			LOGGER.error("An error has occurred when trying to execute query [ " + nextValueQuery + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to execute query [ " + nextValueQuery
+					+ " ].", e);
+		}
+	}
+
+}
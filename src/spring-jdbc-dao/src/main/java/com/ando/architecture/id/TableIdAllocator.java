@@ -0,0 +1,163 @@
+package com.ando.architecture.id;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import com.ando.architecture.exception.DataBaseException;
+
+/**
+ * Allocator reserving identifiers from a table, for the databases without sequences. The table holds one row per
+ * identifier source, with the next free identifier of the source; reserving a block moves it forward by the block
+ * size.
+ * <p>
+ * Each reservation runs in its own transaction, on a connection taken from the data source and not bound to the
+ * transaction of the caller, so that the row of the source is locked only during the reservation and a block stays
+ * reserved if the caller rolls back.
+ *
+ * @author Zied ANDOLSI
+ */
+public class TableIdAllocator extends BlockIdAllocator {
+
+	/**
+	 * {@link TableIdAllocator}'s Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TableIdAllocator.class);
+
+	/**
+	 * Data source of the table.
+	 */
+	private final DataSource dataSource;
+
+	/**
+	 * Update moving the next free identifier forward.
+	 */
+	private final String updateQuery;
+
+	/**
+	 * Select of the next free identifier.
+	 */
+	private final String selectQuery;
+
+	/**
+	 * Identifier source, value of the key column.
+	 */
+	private final String key;
+
+	/**
+	 * The constructor {@link #TableIdAllocator(DataSource, String, String, String, String, int)} instantiates an
+	 * allocator reading a table.
+	 *
+	 * @param dataSource
+	 *            data source of the table
+	 * @param tableName
+	 *            table name
+	 * @param keyColumnName
+	 *            name of the column identifying the source
+	 * @param valueColumnName
+	 *            name of the column holding the next free identifier
+	 * @param key
+	 *            identifier source, usually the name of the entity table
+	 * @param blockSize
+	 *            number of identifiers reserved at a time
+	 */
+	public TableIdAllocator(DataSource dataSource, String tableName, String keyColumnName, String valueColumnName,
+			String key, int blockSize) {
+		super(blockSize);
+		if (dataSource == null || tableName == null || keyColumnName == null || valueColumnName == null
+				|| key == null) {
+			throw new IllegalArgumentException("A table allocator needs a data source, a table, columns and a key.");
+		}
+		this.dataSource = dataSource;
+		this.updateQuery = "update " + tableName + " set " + valueColumnName + " = " + valueColumnName + " + ? where "
+				+ keyColumnName + " = ?";
+		this.selectQuery = "select " + valueColumnName + " from " + tableName + " where " + keyColumnName + " = ?";
+		this.key = key;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected long reserveBlock(int size) throws DataBaseException {
+		Connection connection = null;
+		PreparedStatement update = null;
+		PreparedStatement select = null;
+		ResultSet rs = null;
+		boolean autoCommit = true;
+		try {
+			connection = dataSource.getConnection();
+			autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+
+			update = connection.prepareStatement(updateQuery);
+			update.setLong(1, size);
+			update.setString(2, key);
+			if (update.executeUpdate() != 1) {
+				throw new SQLException("No identifier source [ " + key + " ] found.");
+			}
+
+			select = connection.prepareStatement(selectQuery);
+			select.setString(1, key);
+			rs = select.executeQuery();
+			rs.next();
+			long end = rs.getLong(1);
+
+			connection.commit();
+			return end - size;
+		} catch (Exception e) {
+			rollback(connection);
+			LOGGER.error("An error has occurred when trying to reserve identifiers of the source [ " + key + " ].", e);
+			throw new DataBaseException("An error has occurred when trying to reserve identifiers of the source [ "
+					+ key + " ].", e);
+		} finally {
+			JdbcUtils.closeResultSet(rs);
+			JdbcUtils.closeStatement(select);
+			JdbcUtils.closeStatement(update);
+			restoreAutoCommit(connection, autoCommit);
+			JdbcUtils.closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Roll back a reservation, ignoring the errors.
+	 *
+	 * @param connection
+	 *            the connection of the reservation, <code>null</code> if none.
+	 */
+	private void rollback(Connection connection) {
+		if (connection != null) {
+			try {
+				connection.rollback();
+			} catch (SQLException e) {
+				LOGGER.debug("The reservation of identifiers could not be rolled back.", e);
+			}
+		}
+	}
+
+	/**
+	 * Restore the auto-commit mode of a connection before giving it back to the data source, ignoring the errors.
+	 *
+	 * @param connection
+	 *            the connection of the reservation, <code>null</code> if none.
+	 * @param autoCommit
+	 *            the auto-commit mode of the connection before the reservation.
+	 */
+	private void restoreAutoCommit(Connection connection, boolean autoCommit) {
+		if (connection != null) {
+			try {
+				connection.setAutoCommit(autoCommit);
+			} catch (SQLException e) {
+				LOGGER.debug("The auto-commit mode of the connection could not be restored.", e);
+			}
+		}
+	}
+
+}
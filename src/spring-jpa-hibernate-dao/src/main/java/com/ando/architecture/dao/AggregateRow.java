@@ -0,0 +1,119 @@
+package com.ando.architecture.dao;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The class {@link AggregateRow} holds one row computed by an {@link Aggregation}: the values of the grouping
+ * properties followed by the values of the aggregate functions, in the order they have been declared.
+ * <p>
+ * A row only holds the values returned by the database, so that it is much smaller than the entities it summarizes.
+ *
+ * @author Zied ANDOLSI
+ */
+public final class AggregateRow implements Serializable {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Values of the row.
+	 */
+	private final Object[] values;
+
+	/**
+	 * The constructor {@link #AggregateRow(Object[])} instantiates a row.
+	 *
+	 * @param values
+	 *            values of the row: the grouping properties followed by the aggregate functions.
+	 */
+	public AggregateRow(Object... values) {
+		if (values == null) {
+			throw new IllegalArgumentException("The values of a row can not be null.");
+		}
+		this.values = values;
+	}
+
+	/**
+	 * @return the number of values of this row.
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @param index
+	 *            position of the value, starting at 0.
+	 * @return the value at the position received as parameter, <code>null</code> if the database returned null.
+	 */
+	public Object get(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @param index
+	 *            position of the value, starting at 0.
+	 * @param type
+	 *            expected type of the value.
+	 * @param <T>
+	 *            expected type of the value.
+	 * @return the value at the position received as parameter, <code>null</code> if the database returned null.
+	 * @throws ClassCastException
+	 *             thrown if the value is not of the expected type.
+	 */
+	public <T> T get(int index, Class<T> type) {
+		return type.cast(values[index]);
+	}
+
+	/**
+	 * Get a numeric value, whatever the numeric type the database returned (e.g. <code>Integer</code>,
+	 * <code>Long</code> or <code>BigDecimal</code> for a count, depending on the database).
+	 *
+	 * @param index
+	 *            position of the value, starting at 0.
+	 * @return the value at the position received as parameter as a long, 0 if the database returned null.
+	 */
+	public long getLong(int index) {
+		Number value = get(index, Number.class);
+		return (value != null ? value.longValue() : 0L);
+	}
+
+	/**
+	 * Get a numeric value, whatever the numeric type the database returned.
+	 *
+	 * @param index
+	 *            position of the value, starting at 0.
+	 * @return the value at the position received as parameter as a double, 0 if the database returned null.
+	 */
+	public double getDouble(int index) {
+		Number value = get(index, Number.class);
+		return (value != null ? value.doubleValue() : 0D);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof AggregateRow && Arrays.equals(values, ((AggregateRow) obj).values));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "AggregateRow " + Arrays.toString(values);
+	}
+
+}
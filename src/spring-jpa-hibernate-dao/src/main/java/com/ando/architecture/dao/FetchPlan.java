@@ -0,0 +1,146 @@
+package com.ando.architecture.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The class {@link FetchPlan} describes the associations which have to be loaded together with an entity, in the same
+ * query, through join fetches.
+ * <p>
+ * A path is the name of an association of the root entity. Nested associations are separated by a dot (
+ * <code>"customer.address"</code>). A plan may be named, so that it can be registered once in a DAO and referenced by
+ * its name, or dynamic, built at the call site with {@link #of(String...)}.
+ *
+ * @author Zied ANDOLSI
+ */
+public class FetchPlan {
+
+	/**
+	 * Pattern locating the root entity declaration and its alias in a query request.
+	 */
+	private static final Pattern ROOT_ALIAS_PATTERN = Pattern.compile("(?i)\\bfrom\\s+[\\w.$]+(?:\\s+as)?\\s+"
+			+ "(?!(?:where|order|group|having|join|left|right|inner|outer|fetch)\\b)([\\w$]+)");
+
+	/**
+	 * Name of the plan, <code>null</code> for a dynamic plan.
+	 */
+	private final String name;
+
+	/**
+	 * Association paths to fetch.
+	 */
+	private final List<String> paths;
+
+	/**
+	 * The constructor {@link #FetchPlan(String, String...)} instantiates a new {@link FetchPlan} with its name and the
+	 * association paths to fetch.
+	 *
+	 * @param name
+	 *            name of the plan, <code>null</code> for a dynamic plan.
+	 * @param paths
+	 *            association paths to fetch.
+	 */
+	public FetchPlan(String name, String... paths) {
+		if (paths == null || paths.length == 0) {
+			throw new IllegalArgumentException("A fetch plan needs at least one association path.");
+		}
+		for (String path : paths) {
+			if (path == null || !path.matches("[\\w$]+(\\.[\\w$]+)*")) {
+				throw new IllegalArgumentException("The association path [ " + path + " ] is not valid.");
+			}
+		}
+		this.name = name;
+		this.paths = Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(paths)));
+	}
+
+	/**
+	 * Creates a dynamic (unnamed) plan fetching the association paths received as parameter.
+	 *
+	 * @param paths
+	 *            association paths to fetch.
+	 * @return the fetch plan.
+	 */
+	public static FetchPlan of(String... paths) {
+		return new FetchPlan(null, paths);
+	}
+
+	/**
+	 * Name getter.
+	 *
+	 * @return the name of the plan, <code>null</code> for a dynamic plan.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Paths getter.
+	 *
+	 * @return the association paths to fetch.
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Renders the join fetch clauses of this plan for the root alias received as parameter. Nested paths reuse the join
+	 * of their parent association.
+	 *
+	 * @param rootAlias
+	 *            alias of the root entity in the query.
+	 * @return the join fetch clauses, starting with a blank.
+	 */
+	public String toJoinFetchClause(String rootAlias) {
+		Map<String, String> aliases = new LinkedHashMap<String, String>();
+		StringBuilder clause = new StringBuilder();
+		for (String path : paths) {
+			String parentAlias = rootAlias;
+			String current = null;
+			for (String association : path.split("\\.")) {
+				current = (current == null ? association : current + "." + association);
+				String alias = aliases.get(current);
+				if (alias == null) {
+					alias = rootAlias + "_fp" + aliases.size();
+					aliases.put(current, alias);
+					clause.append(" left join fetch ").append(parentAlias).append('.').append(association).append(' ')
+							.append(alias);
+				}
+				parentAlias = alias;
+			}
+		}
+		return clause.toString();
+	}
+
+	/**
+	 * Adds the join fetch clauses of this plan to the request received as parameter, right after the declaration of its
+	 * root entity. The root entity must be declared with an alias (<code>from Bet b ...</code>).
+	 *
+	 * @param request
+	 *            the request to complete.
+	 * @return the request loading the associations of this plan.
+	 */
+	public String applyTo(String request) {
+		Matcher matcher = ROOT_ALIAS_PATTERN.matcher(request);
+		if (!matcher.find()) {
+			throw new IllegalArgumentException("The root entity of the request [ " + request
+					+ " ] must be declared with an alias to apply a fetch plan.");
+		}
+		return request.substring(0, matcher.end()) + toJoinFetchClause(matcher.group(1))
+				+ request.substring(matcher.end());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "FetchPlan [ " + (name != null ? name : "dynamic") + " : " + paths + " ]";
+	}
+
+}
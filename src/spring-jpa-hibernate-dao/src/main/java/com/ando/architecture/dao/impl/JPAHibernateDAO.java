@@ -2,7 +2,11 @@ package com.ando.architecture.dao.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -12,12 +16,23 @@ import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ando.architecture.dao.AggregateRow;
+import com.ando.architecture.dao.Aggregation;
 import com.ando.architecture.dao.DAO;
+import com.ando.architecture.dao.FetchPlan;
+import com.ando.architecture.dao.QueryOptions;
+import com.ando.architecture.dao.Range;
+import com.ando.architecture.dao.Specification;
+import com.ando.architecture.datasource.DataSourceRoutingContext;
 import com.ando.architecture.exception.DataBaseException;
 
 /**
@@ -44,11 +59,42 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	@PersistenceContext
 	private EntityManager em;
 
+	/**
+	 * Hint setting the JDBC fetch size of a query.
+	 */
+	private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+
+	/**
+	 * Hint setting the timeout of a query, in milliseconds.
+	 */
+	private static final String HINT_TIMEOUT = "javax.persistence.query.timeout";
+
+	/**
+	 * Default options of the queries of this DAO.
+	 */
+	private QueryOptions queryOptions = QueryOptions.NONE;
+
 	/**
 	 * Entity's type this instance has to manage.
 	 */
 	protected Class<Type> typeClass;
 
+	/**
+	 * Named fetch plans registered for the managed entity.
+	 */
+	private final Map<String, FetchPlan> fetchPlans = new ConcurrentHashMap<String, FetchPlan>();
+
+	/**
+	 * JPQL requests rendered from the specifications, by shape of specification.
+	 */
+	private final ConcurrentMap<String, String> specificationRequests = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * If this attribute is true (default), the persistence context is flushed after each save. Otherwise the inserts
+	 * are deferred to the commit of the transaction, which lets Hibernate batch them.
+	 */
+	private boolean flushOnSave = true;
+
 	/**
 	 * The constructor {@link #SimpleDAOJPAHibernate(Class)} instantiates a new {@link JPAHibernateDAO} object keeping
 	 * in mind the type of the class to manage.
@@ -72,6 +118,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			throw new IllegalArgumentException("The identifier can not be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
@@ -83,9 +130,77 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 					+ id.toString() + " ].", e);
 			throw new DataBaseException("An error has occured while getting the entity [ " + typeClass
 					+ " ] with identifier [ " + id.toString() + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
+	/**
+	 * Loads and returns the entity whose identifier is received as parameter, together with the associations of the
+	 * fetch plan, in a single query.
+	 * 
+	 * @param id
+	 *            Identifier of the entity to load.
+	 * @param fetchPlan
+	 *            the associations to load with the entity.
+	 * @return The entity corresponding to the identifier received as parameter. <code>null</code> if no entity is found
+	 *         corresponding to the identifier.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entity from the database.
+	 */
+	public Type findOne(IdType id, FetchPlan fetchPlan) throws DataBaseException {
+		LOGGER.debug("starting findOne method with fetch plan...");
+
+		if (id == null) {
+			LOGGER.error("The identifier can not be null.");
+			throw new IllegalArgumentException("The identifier can not be null.");
+		}
+
+		if (fetchPlan == null) {
+			LOGGER.error("The fetch plan can not be null.");
+			throw new IllegalArgumentException("The fetch plan can not be null.");
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+
+			LOGGER.debug("Getting and returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+					+ id.toString() + " ] and " + fetchPlan + "...");
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<Type> cq = cb.createQuery(typeClass);
+			Root<Type> root = cq.from(typeClass);
+			applyFetchPlan(root, fetchPlan);
+			cq.select(root).distinct(true).where(cb.equal(root.get(getIdAttribute()), id));
+			List<Type> results = em.createQuery(cq).getResultList();
+			return (results.isEmpty() ? null : results.get(0));
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while getting the entity [ " + typeClass + " ] with the identifier [ "
+					+ id.toString() + " ] and " + fetchPlan + ".", e);
+			throw new DataBaseException("An error has occured while getting the entity [ " + typeClass
+					+ " ] with identifier [ " + id.toString() + " ] and " + fetchPlan + ".", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Loads and returns the entity whose identifier is received as parameter, together with the associations of the
+	 * registered fetch plan whose name is received as parameter.
+	 * 
+	 * @param id
+	 *            Identifier of the entity to load.
+	 * @param fetchPlanName
+	 *            name of a fetch plan registered with {@link #registerFetchPlan(FetchPlan)}.
+	 * @return The entity corresponding to the identifier received as parameter. <code>null</code> if no entity is found
+	 *         corresponding to the identifier.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to load the entity from the database.
+	 */
+	public Type findOne(IdType id, String fetchPlanName) throws DataBaseException {
+		return findOne(id, getFetchPlan(fetchPlanName));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -97,11 +212,14 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			throw new IllegalArgumentException("The entity " + typeClass.getSimpleName() + " to save cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 			LOGGER.debug("Saving an entity [ " + typeClass.getSimpleName() + " ]...");
 
 			em.persist(entity);
-			em.flush();
+			if (flushOnSave) {
+				em.flush();
+			}
 			LOGGER.debug("The entity [ " + typeClass.getSimpleName() + " ] with identifer [ " + getIdentifier(entity)
 					+ " ] has been successfully saved.");
 			LOGGER.debug("Returning the entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
@@ -112,9 +230,90 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			LOGGER.error("An error has occured while saving the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("An error has occured while saving the entity " + typeClass.getSimpleName()
 					+ ".", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
+		}
+	}
+
+	/**
+	 * Saves all the entities received as parameter. The persistence context is flushed every <code>batchSize</code>
+	 * entities, and the entities of the chunk are then detached, so that the inserts are sent to the database in JDBC
+	 * batches (when <code>hibernate.jdbc.batch_size</code> is set) and the persistence context does not grow without
+	 * limit.
+	 * <p>
+	 * The saved entities are detached once the method returns; the other entities managed by the persistence context
+	 * are left as they are.
+	 * 
+	 * @param entities
+	 *            Entities to save in the database.
+	 * @param batchSize
+	 *            number of entities persisted between two flushes.
+	 * @throws DataBaseException
+	 *             Thrown if an exception occurs when trying to save the entities in the database.
+	 */
+	public void saveAll(Iterable<Type> entities, int batchSize) throws DataBaseException {
+		LOGGER.debug("Starting saveAll method...");
+
+		if (entities == null) {
+			LOGGER.error("The entities [ " + typeClass.getSimpleName() + " ] to save cannot be null.");
+			throw new IllegalArgumentException("The entities " + typeClass.getSimpleName() + " to save cannot be null.");
+		}
+
+		if (batchSize <= 0) {
+			LOGGER.error("The batch size must be positive.");
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+
+		for (Type entity : entities) {
+			if (entity == null) {
+				LOGGER.error("The entity [ " + typeClass.getSimpleName() + " ] to save cannot be null.");
+				throw new IllegalArgumentException("The entity " + typeClass.getSimpleName()
+						+ " to save cannot be null.");
+			}
+		}
+
+		List<Type> chunk = new ArrayList<Type>(batchSize);
+		int count = 0;
+		Boolean routing = DataSourceRoutingContext.beginWrite();
+		try {
+			LOGGER.debug("Saving entities [ " + typeClass.getSimpleName() + " ] by batch of " + batchSize + "...");
+
+			for (Type entity : entities) {
+				em.persist(entity);
+				chunk.add(entity);
+				count++;
+				if (count % batchSize == 0) {
+					flushAndDetach(chunk);
+				}
+			}
+			flushAndDetach(chunk);
+
+			LOGGER.debug(count + " entities [ " + typeClass.getSimpleName() + " ] have been successfully saved.");
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while saving the entities [ " + typeClass.getSimpleName()
+					+ " ] after " + count + " entities.", e);
+			throw new DataBaseException("An error has occured while saving the entities " + typeClass.getSimpleName()
+					+ " after " + count + " entities.", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 	}
 
+	/**
+	 * Flushes the persistence context, then detaches the entities of a chunk, which is emptied.
+	 * 
+	 * @param chunk
+	 *            the entities persisted since the last flush.
+	 */
+	private void flushAndDetach(List<Type> chunk) {
+		em.flush();
+		for (Type entity : chunk) {
+			em.detach(entity);
+		}
+		chunk.clear();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -126,13 +325,14 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			throw new IllegalArgumentException("The entity " + typeClass + " to update cannot be null.");
 		}
 
-		Type oldEntity = em.find(typeClass, getIdentifier(entity));
-		if (oldEntity == null) {
-			throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
-					+ getIdentifier(entity) + " ] found.");
-		}
-
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
+			Type oldEntity = em.find(typeClass, getIdentifier(entity));
+			if (oldEntity == null) {
+				throw new DataBaseException("No entity [ " + typeClass.getSimpleName() + " ] with identifier [ "
+						+ getIdentifier(entity) + " ] found.");
+			}
+
 			LOGGER.debug("Updating the entity [ " + typeClass.getSimpleName() + " ]...");
 
 			entity = em.merge(entity);
@@ -141,10 +341,14 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 
 			return entity;
 
+		} catch (DataBaseException e) {
+			throw e;
 		} catch (Exception e) {
 			LOGGER.error("An error has occured while updating the entity [ " + typeClass.getSimpleName() + " ].", e);
 			throw new DataBaseException("An error has occured while updating the entity [ " + typeClass.getSimpleName()
 					+ " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 
 	}
@@ -167,6 +371,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 					+ " ] to delete cannot be null.");
 		}
 
+		Boolean routing = DataSourceRoutingContext.beginWrite();
 		try {
 
 			LOGGER.debug("Deleting the entity [ " + typeClass.getSimpleName() + " ] with identifier "
@@ -182,6 +387,8 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 					+ " ] with identifier [ " + getIdentifier(entity) + " ].", e);
 			throw new DataBaseException("An error has occured while deleting the entity [ " + typeClass.getSimpleName()
 					+ " ] with identifier [ " + getIdentifier(entity) + " ].", e);
+		} finally {
+			DataSourceRoutingContext.endWrite(routing);
 		}
 
 	}
@@ -192,6 +399,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	public List<Type> getAll() throws DataBaseException {
 		LOGGER.debug("Starting getAll method...");
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			LOGGER.debug("Getting and returning all entities [ " + typeClass.getSimpleName() + " ]...");
@@ -200,6 +408,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			Root<Type> rootEntry = cq.from(typeClass);
 			CriteriaQuery<Type> all = cq.select(rootEntry);
 			TypedQuery<Type> allQuery = em.createQuery(all);
+			applyQueryOptions(allQuery, QueryOptions.NONE);
 			List<Type> results = allQuery.getResultList();
 
 			return (results != null ? results : new ArrayList<Type>());
@@ -207,9 +416,190 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		} catch (Exception e) {
 			LOGGER.error("An error has occured while getting all entities [ " + typeClass + " ].", e);
 			throw new DataBaseException("An error has occured while getting all entities [ " + typeClass + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is compiled to a JPQL request comparing the attribute to the bounds.
+	 */
+	public List<Type> findByRange(Range range, int limit) throws DataBaseException {
+		LOGGER.debug("Starting findByRange method...");
+
+		if (range == null || limit <= 0) {
+			LOGGER.error("The range [ " + range + " ] and the limit [ " + limit + " ] are not valid.");
+			throw new IllegalArgumentException("The range [ " + range + " ] and the limit [ " + limit
+					+ " ] are not valid.");
+		}
+
+		List<Object> params = new ArrayList<Object>();
+		String request = toRangeRequest(em.getMetamodel().entity(typeClass).getName(), getIdAttribute().getName(),
+				range, params);
+		return executeResultList(QueryOptions.NONE.withMaxRows(limit), request, params.toArray());
+	}
+
+	/**
+	 * Compile a range to a JPQL request on the entities of this DAO, comparing the attribute to the bounds, ordered by
+	 * the attribute, then by identifier.
+	 * 
+	 * @param entityName
+	 *            the name of the entity.
+	 * @param identifierName
+	 *            the name of the identifier attribute.
+	 * @param range
+	 *            the range.
+	 * @param params
+	 *            list receiving the values of the parameters of the request, in order of position.
+	 * @return the JPQL request.
+	 */
+	private static String toRangeRequest(String entityName, String identifierName, Range range, List<Object> params) {
+		StringBuilder request = new StringBuilder("select e from ").append(entityName).append(" e");
+		String condition = range.toCondition("e", identifierName, params);
+		if (condition.length() > 0) {
+			request.append(" where ").append(condition);
+		}
+		request.append(" order by ").append(range.toOrderClause("e", identifierName));
+		return numberParameters(request);
+	}
+
+	/**
+	 * Number the positional parameters of a request, since JPQL positional parameters are numbered: ?1, ?2...
+	 * 
+	 * @param request
+	 *            the request, with <code>?</code> parameters.
+	 * @return the request, with numbered parameters.
+	 */
+	private static String numberParameters(CharSequence request) {
+		StringBuilder numbered = new StringBuilder();
+		int position = 0;
+		for (int i = 0; i < request.length(); i++) {
+			numbered.append(request.charAt(i));
+			if (request.charAt(i) == '?') {
+				numbered.append(++position);
+			}
+		}
+		return numbered.toString();
+	}
+
+	/**
+	 * Render a specification to a JPQL request on the entities of this DAO, once per shape of specification.
+	 * 
+	 * @param entityName
+	 *            the name of the entity.
+	 * @param specification
+	 *            the specification.
+	 * @return the JPQL request.
+	 */
+	private String getSpecificationRequest(String entityName, Specification specification) {
+		String request = specificationRequests.get(specification.getShape());
+		if (request == null) {
+			StringBuilder builder = new StringBuilder("select e from ").append(entityName).append(" e");
+			String condition = specification.toCondition("e");
+			if (condition.length() > 0) {
+				builder.append(" where ").append(condition);
+			}
+			String order = specification.toOrderClause("e");
+			if (order.length() > 0) {
+				builder.append(" order by ").append(order);
+			}
+			request = numberParameters(builder);
+			specificationRequests.putIfAbsent(specification.getShape(), request);
+		}
+		return request;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The specification is rendered to a JPQL request on the attributes of the entity, once per shape of
+	 * specification, so that Hibernate also reuses its plan of the request.
+	 */
+	public List<Type> findBySpecification(Specification specification) throws DataBaseException {
+		LOGGER.debug("Starting findBySpecification method...");
+
+		if (specification == null) {
+			LOGGER.error("The specification can not be null.");
+			throw new IllegalArgumentException("The specification can not be null.");
+		}
+
+		String request = getSpecificationRequest(em.getMetamodel().entity(typeClass).getName(), specification);
+		LOGGER.debug("Getting and returning the entities [ " + typeClass.getSimpleName() + " ] of " + specification
+				+ "...");
+		Integer limit = specification.getLimit();
+		return executeResultList((limit != null ? QueryOptions.NONE.withMaxRows(limit) : QueryOptions.NONE), request,
+				specification.getParameters().toArray());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The aggregation is compiled to a JPQL <code>group by</code> request on the attributes of the entity.
+	 */
+	public List<AggregateRow> aggregate(Aggregation aggregation) throws DataBaseException {
+		LOGGER.debug("Starting aggregate method...");
+
+		if (aggregation == null || aggregation.getColumnCount() == 0) {
+			LOGGER.error("The aggregation [ " + aggregation + " ] has neither grouping nor function.");
+			throw new IllegalArgumentException("The aggregation [ " + aggregation
+					+ " ] has neither grouping nor function.");
+		}
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
+		try {
+
+			LOGGER.debug("Aggregating entities [ " + typeClass.getSimpleName() + " ] with " + aggregation + "...");
+			Query query = createQuery(toAggregateRequest(aggregation));
+			applyQueryOptions(query, QueryOptions.NONE);
+			return toAggregateRows(query.getResultList());
+
+		} catch (Exception e) {
+			LOGGER.error("An error has occured while aggregating the entities [ " + typeClass.getSimpleName()
+					+ " ] with " + aggregation + ".", e);
+			throw new DataBaseException("An error has occured while aggregating the entities [ "
+					+ typeClass.getSimpleName() + " ] with " + aggregation + ".", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Compile an aggregation to a JPQL request on the entities of this DAO.
+	 * 
+	 * @param aggregation
+	 *            the aggregation.
+	 * @return the JPQL request.
+	 */
+	private String toAggregateRequest(Aggregation aggregation) {
+		StringBuilder request = new StringBuilder("select ").append(aggregation.toSelectClause("e"));
+		request.append(" from ").append(em.getMetamodel().entity(typeClass).getName()).append(" e");
+		if (!aggregation.getGroupBy().isEmpty()) {
+			String groupBy = aggregation.toGroupByClause("e");
+			request.append(" group by ").append(groupBy).append(" order by ").append(groupBy);
+		}
+		return request.toString();
+	}
+
+	/**
+	 * Convert the results of an aggregate request to rows. A request selecting a single value returns the values
+	 * themselves instead of arrays.
+	 * 
+	 * @param results
+	 *            the results of the request.
+	 * @return the rows.
+	 */
+	private static List<AggregateRow> toAggregateRows(List<?> results) {
+		List<AggregateRow> rows = new ArrayList<AggregateRow>();
+		if (results != null) {
+			for (Object result : results) {
+				rows.add(result instanceof Object[] ? new AggregateRow((Object[]) result) : new AggregateRow(result));
+			}
+		}
+		return rows;
+	}
+
 	/**
 	 * Execute an HQL select request with an unique result of type <code>Type</code>.
 	 * 
@@ -222,12 +612,33 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to retrieve entity in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected Type executeSingleResult(final String request, final Object... params) throws DataBaseException {
+		return executeSingleResult(QueryOptions.NONE, request, params);
+	}
 
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Type executeSingleResult(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
+
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 
 			Query query = createQuery(request, params);
+			applyQueryOptions(query, options);
 
 			return (Type) query.getSingleResult();
 		} catch (NoResultException e) {
@@ -238,6 +649,8 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		} catch (Exception e) {
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
 		}
 	}
 
@@ -253,11 +666,32 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 	 * @throws DataBaseException
 	 *             thrown if an exception occurs when trying to execute query in the database.
 	 */
-	@SuppressWarnings("unchecked")
 	protected List<Type> executeResultList(final String request, final Object... params) throws DataBaseException {
+		return executeResultList(QueryOptions.NONE, request, params);
+	}
+
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities.
+	 * 
+	 * @param options
+	 *            the options of this query, overriding the default options of the DAO.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<Type> executeResultList(final QueryOptions options, final String request, final Object... params)
+			throws DataBaseException {
 
+		Boolean routing = DataSourceRoutingContext.beginRead();
 		try {
 			Query query = createQuery(request, params);
+			applyQueryOptions(query, options);
 
 			List<Type> results = query.getResultList();
 
@@ -267,6 +701,137 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			LOGGER.error("An error has occurred when trying to execute query [ " + request + " ].", e);
 
 			throw new DataBaseException("An error has occurred when trying to execute query [ " + request + " ].", e);
+		} finally {
+			DataSourceRoutingContext.restore(routing);
+		}
+	}
+
+	/**
+	 * Execute an HQL select request with an unique result of type <code>Type</code>, loading the associations of the
+	 * fetch plan in the same query. The root entity of the request must be declared with an alias.
+	 * 
+	 * @param fetchPlan
+	 *            the associations to load with the entity.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the entity found, <code>null</code> if no entity has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to retrieve entity in the database.
+	 */
+	protected Type executeSingleResult(FetchPlan fetchPlan, String request, Object... params)
+			throws DataBaseException {
+		return executeSingleResult(fetchPlan.applyTo(request), params);
+	}
+
+	/**
+	 * Execute a HQL request that the result is a {@link List} of entities, loading the associations of the fetch plan
+	 * in the same query. The root entity of the request must be declared with an alias, and the request should select
+	 * <code>distinct</code> entities when the plan fetches collections.
+	 * 
+	 * @param fetchPlan
+	 *            the associations to load with the entities.
+	 * @param request
+	 *            the HQL request to execute.
+	 * @param params
+	 *            the parameters of the request. Parameters are included in order of position.
+	 * 
+	 * @return the {@link List} of entities found. An empty {@link List} is returned if no result has been found.
+	 * @throws DataBaseException
+	 *             thrown if an exception occurs when trying to execute query in the database.
+	 */
+	protected List<Type> executeResultList(FetchPlan fetchPlan, String request, Object... params)
+			throws DataBaseException {
+		return executeResultList(fetchPlan.applyTo(request), params);
+	}
+
+	/**
+	 * Registers a named fetch plan, so that it can be referenced by its name.
+	 * 
+	 * @param fetchPlan
+	 *            the named fetch plan to register.
+	 */
+	protected void registerFetchPlan(FetchPlan fetchPlan) {
+		if (fetchPlan == null || fetchPlan.getName() == null) {
+			throw new IllegalArgumentException("Only a named fetch plan can be registered.");
+		}
+		fetchPlans.put(fetchPlan.getName(), fetchPlan);
+	}
+
+	/**
+	 * Returns the registered fetch plan whose name is received as parameter.
+	 * 
+	 * @param fetchPlanName
+	 *            name of the fetch plan.
+	 * @return the registered fetch plan.
+	 */
+	protected FetchPlan getFetchPlan(String fetchPlanName) {
+		FetchPlan fetchPlan = (fetchPlanName != null ? fetchPlans.get(fetchPlanName) : null);
+		if (fetchPlan == null) {
+			LOGGER.error("No fetch plan [ " + fetchPlanName + " ] registered for the entity [ "
+					+ typeClass.getSimpleName() + " ].");
+			throw new IllegalArgumentException("No fetch plan [ " + fetchPlanName + " ] registered for the entity [ "
+					+ typeClass.getSimpleName() + " ].");
+		}
+		return fetchPlan;
+	}
+
+	/**
+	 * Adds to the root received as parameter a left join fetch for each association of the fetch plan.
+	 * 
+	 * @param root
+	 *            the query root.
+	 * @param fetchPlan
+	 *            the associations to fetch.
+	 */
+	private void applyFetchPlan(Root<Type> root, FetchPlan fetchPlan) {
+		Map<String, FetchParent<?, ?>> fetches = new HashMap<String, FetchParent<?, ?>>();
+		for (String path : fetchPlan.getPaths()) {
+			FetchParent<?, ?> parent = root;
+			String current = null;
+			for (String association : path.split("\\.")) {
+				current = (current == null ? association : current + "." + association);
+				FetchParent<?, ?> fetch = fetches.get(current);
+				if (fetch == null) {
+					fetch = parent.fetch(association, JoinType.LEFT);
+					fetches.put(current, fetch);
+				}
+				parent = fetch;
+			}
+		}
+	}
+
+	/**
+	 * Returns the identifier attribute of the managed entity.
+	 * 
+	 * @return the identifier attribute.
+	 */
+	private SingularAttribute<? super Type, ?> getIdAttribute() {
+		EntityType<Type> entityType = em.getMetamodel().entity(typeClass);
+		return entityType.getId(entityType.getIdType().getJavaType());
+	}
+
+	/**
+	 * Apply the default options of this DAO, overridden by the options received as parameter, to a query. The fetch
+	 * size is passed as an Hibernate hint and the timeout as the standard JPA hint, in milliseconds.
+	 * 
+	 * @param query
+	 *            the query.
+	 * @param options
+	 *            the options of the call, overriding the default options.
+	 */
+	private void applyQueryOptions(Query query, QueryOptions options) {
+		QueryOptions effective = queryOptions.overriddenBy(options);
+		if (effective.getFetchSize() != null) {
+			query.setHint(HINT_FETCH_SIZE, effective.getFetchSize());
+		}
+		if (effective.getMaxRows() != null) {
+			query.setMaxResults(effective.getMaxRows());
+		}
+		if (effective.getTimeout() != null) {
+			query.setHint(HINT_TIMEOUT, effective.getTimeout() * 1000);
 		}
 	}
 
@@ -291,6 +856,7 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 			for (int i = 0; i < params.length; i++) {
 				query.setParameter(i + 1, params[i]);
 			}
+			applyQueryOptions(query, QueryOptions.NONE);
 
 			return query;
 		} catch (Exception e) {
@@ -300,4 +866,42 @@ public abstract class JPAHibernateDAO<Type, IdType extends Serializable> impleme
 		}
 	}
 
+	/**
+	 * Returns true if the persistence context is flushed after each save.
+	 * 
+	 * @return the flushOnSave
+	 */
+	public boolean isFlushOnSave() {
+		return flushOnSave;
+	}
+
+	/**
+	 * Sets whether the persistence context is flushed after each save, or only at commit time.
+	 * 
+	 * @param flushOnSave
+	 *            the flushOnSave to set
+	 */
+	public void setFlushOnSave(boolean flushOnSave) {
+		this.flushOnSave = flushOnSave;
+	}
+
+	/**
+	 * Query options getter.
+	 * 
+	 * @return the default options of the queries of this DAO.
+	 */
+	public QueryOptions getQueryOptions() {
+		return queryOptions;
+	}
+
+	/**
+	 * Query options setter.
+	 * 
+	 * @param queryOptions
+	 *            the default options of the queries of this DAO, <code>null</code> to leave the driver defaults.
+	 */
+	public void setQueryOptions(QueryOptions queryOptions) {
+		this.queryOptions = (queryOptions != null ? queryOptions : QueryOptions.NONE);
+	}
+
 }
\ No newline at end of file